@@ -29,6 +29,8 @@ import javax.validation.constraints.NotNull;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This {@link InvocationHandler} looks up a hibernate named query which name matches <code>EntityType.methodName</code>
@@ -44,6 +46,8 @@ abstract class AbstractNamedQueryHandler<ENTITY> implements DynamicComponentInvo
 	 */
 	private final String queryNamespace;
 
+	private final ConcurrentMap<Method, String> queryNames = new ConcurrentHashMap<>();
+
 	/**
 	 * @param entityManager
 	 * @param entityType
@@ -106,10 +110,11 @@ abstract class AbstractNamedQueryHandler<ENTITY> implements DynamicComponentInvo
 	}
 
 	private Query lookupNamedQuery(Method method) {
-		Query query = entityManager.createNamedQuery(queryName(method));
+		String queryName = queryName(method);
+		Query query = entityManager.createNamedQuery(queryName);
 
 		if (query == null) {
-			throw new NamedQueryLookupException(queryName(method));
+			throw new NamedQueryLookupException(queryName);
 		}
 
 		return query;
@@ -120,7 +125,7 @@ abstract class AbstractNamedQueryHandler<ENTITY> implements DynamicComponentInvo
 	 * @return
 	 */
 	private String queryName(Method method) {
-		return queryNamespace + '.' + method.getName();
+		return queryNames.computeIfAbsent(method, m -> queryNamespace + '.' + m.getName());
 	}
 
 	/**
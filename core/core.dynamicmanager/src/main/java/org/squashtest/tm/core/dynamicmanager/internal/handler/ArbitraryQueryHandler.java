@@ -32,6 +32,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Executes arbitrary queries, using named parameters if any. <h3>
@@ -100,6 +102,7 @@ public class ArbitraryQueryHandler<ENTITY> implements DynamicComponentInvocation
 
 	private final Class<ENTITY> entityType;
 	private final EntityManager em;
+	private final ConcurrentMap<Method, String> queryNames = new ConcurrentHashMap<>();
 
 	public ArbitraryQueryHandler(Class<ENTITY> entityType, EntityManager em) {
 		super();
@@ -128,7 +131,7 @@ public class ArbitraryQueryHandler<ENTITY> implements DynamicComponentInvocation
 	// ************************ private methods ***************************
 
 	private Query findQuery(Method method) {
-		String queryName = entityType.getSimpleName() + "." + method.getName();
+		String queryName = queryNames.computeIfAbsent(method, m -> entityType.getSimpleName() + "." + m.getName());
 		return em.createNamedQuery(queryName);
 	}
 
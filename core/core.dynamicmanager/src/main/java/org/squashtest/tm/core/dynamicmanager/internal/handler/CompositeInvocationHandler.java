@@ -30,11 +30,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This {@link InvocationHandler} holds a list of {@link DynamicComponentInvocationHandler}. When this object is asked
  * to handle a method invocation, it iterates over its {@link #invocationHandlers} list, and delegates the invocation to
- * the first handler able to handle it.
+ * the first handler able to handle it. The handler found is remembered, so that next invocations of the same method are
+ * dispatched right away.
  *
  * @author Gregory Fouquet
  *
@@ -44,6 +47,11 @@ public class CompositeInvocationHandler implements InvocationHandler {
 
 	private final List<DynamicComponentInvocationHandler> invocationHandlers;
 
+	/*
+	 * Asking the handlers may be costly (some of them look up a named query) and their answer never changes. It cannot
+	 * be computed when the proxy is created though : the custom implementation is looked up on first use.
+	 */
+	private final ConcurrentMap<Method, DynamicComponentInvocationHandler> dispatchTable = new ConcurrentHashMap<>();
 
 	/**
 	 * @param invocationHandlers
@@ -77,9 +85,21 @@ public class CompositeInvocationHandler implements InvocationHandler {
 			return proxyEquals(proxy, args[0]);
 		}
 
+		DynamicComponentInvocationHandler handler = dispatchTable.get(method);
+
+		if (handler == null) {
+			// not computeIfAbsent : resolving the handler may invoke this very proxy
+			handler = resolveHandler(method);
+			dispatchTable.putIfAbsent(method, handler);
+		}
+
+		return handler.invoke(proxy, method, args);
+	}
+
+	private DynamicComponentInvocationHandler resolveHandler(Method method) {
 		for (DynamicComponentInvocationHandler handler : invocationHandlers) {
 			if (handler.handles(method)) {
-				return handler.invoke(proxy, method, args);
+				return handler;
 			}
 		}
 
@@ -91,8 +111,7 @@ public class CompositeInvocationHandler implements InvocationHandler {
 	}
 
 	private boolean isEqualsInvoked(Method method) {
-		Class<?>[] paramsDefinition = method.getParameterTypes();
-
-		return "equals".equals(method.getName()) && paramsDefinition.length == 1 && paramsDefinition[0] == Object.class;
+		return method.getParameterCount() == 1 && "equals".equals(method.getName())
+			&& method.getParameterTypes()[0] == Object.class;
 	}
 }
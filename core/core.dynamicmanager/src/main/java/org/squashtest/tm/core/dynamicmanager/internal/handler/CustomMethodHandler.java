@@ -22,16 +22,26 @@ package org.squashtest.tm.core.dynamicmanager.internal.handler;
 
 import javax.inject.Provider;
 import javax.validation.constraints.NotNull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * This handler delegates to a custom manager when possible.
+ * This handler delegates to a custom manager when possible. Delegation goes through a {@link MethodHandle} built on
+ * the first invocation of each method, so exceptions thrown by the custom manager are propagated as they are.
  * 
  * @author Gregory Fouquet
  * 
  */
 public class CustomMethodHandler implements DynamicComponentInvocationHandler {
+	private static final Object[] NO_ARGS = {};
+
 	private final Provider<Object> customImplementationProvider;
+
+	private final ConcurrentMap<Method, MethodHandle> delegates = new ConcurrentHashMap<>();
 	
 	public CustomMethodHandler(@NotNull Provider<Object> customImplementationProvider) {
 		super();
@@ -40,14 +50,35 @@ public class CustomMethodHandler implements DynamicComponentInvocationHandler {
 
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable { // NOSONAR : I don't choose what JDK interfaces throw
-		return method.invoke(customImplementation(), args);
+		Object[] actualArgs = args == null ? NO_ARGS : args;
+		return (Object) delegate(method).invokeExact(customImplementation(), actualArgs);
+	}
+
+	/**
+	 * @return a handle of type (Object, Object[])Object invoking the given method
+	 */
+	private MethodHandle delegate(Method method) {
+		MethodHandle delegate = delegates.get(method);
+
+		if (delegate == null) {
+			try {
+				int arity = method.getParameterCount();
+				delegate = MethodHandles.lookup().unreflect(method)
+					.asType(MethodType.genericMethodType(arity + 1))
+					.asSpreader(Object[].class, arity);
+			} catch (IllegalAccessException ex) {
+				throw new IllegalStateException("Cannot delegate " + method + " to the custom implementation", ex);
+			}
+			delegates.putIfAbsent(method, delegate);
+		}
+
+		return delegate;
 	}
 
 	private Object customImplementation() {
 		return customImplementationProvider.get();
 	}
 
-
 	@Override
 	public boolean handles(Method method) {
 		return isMethodOfCustomManager(method);
@@ -27,6 +27,8 @@ import javax.persistence.EntityManager;
 import javax.validation.constraints.NotNull;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +50,11 @@ public class EntityModifierHandler<ENTITY> implements DynamicComponentInvocation
 
 	private final Class<ENTITY> entityType;
 
+	/**
+	 * The setter of each handled method, looked up on its first invocation.
+	 */
+	private final ConcurrentMap<Method, Method> setters = new ConcurrentHashMap<>();
+
 	public EntityModifierHandler(@NotNull EntityManager em, @NotNull Class<ENTITY> entityType) {
 		super();
 		this.em = em;
@@ -88,9 +95,19 @@ public class EntityModifierHandler<ENTITY> implements DynamicComponentInvocation
 																						// JDK interfaces throw
 		ENTITY entity = em.getReference(entityType, args[0]);
 
-		String prop = extractModifiedPropertyName(method);
-		Method setter = findSetter(prop, method.getParameterTypes()[1]);
-		return setter.invoke(entity, args[1]);
+		return findSetter(method).invoke(entity, args[1]);
+	}
+
+	private Method findSetter(Method method) throws NoSuchMethodException {
+		Method setter = setters.get(method);
+
+		if (setter == null) {
+			String prop = extractModifiedPropertyName(method);
+			setter = findSetter(prop, method.getParameterTypes()[1]);
+			setters.putIfAbsent(method, setter);
+		}
+
+		return setter;
 	}
 
 	private String extractModifiedPropertyName(Method method) {
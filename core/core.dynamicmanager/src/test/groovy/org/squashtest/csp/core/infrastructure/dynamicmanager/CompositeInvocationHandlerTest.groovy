@@ -0,0 +1,67 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.csp.core.infrastructure.dynamicmanager
+
+import org.squashtest.tm.core.dynamicmanager.exception.UnsupportedMethodException
+import org.squashtest.tm.core.dynamicmanager.internal.handler.CompositeInvocationHandler
+import org.squashtest.tm.core.dynamicmanager.internal.handler.DynamicComponentInvocationHandler
+import spock.lang.Specification
+
+import java.lang.reflect.Method
+
+class CompositeInvocationHandlerTest extends Specification {
+
+	DynamicComponentInvocationHandler first = Mock()
+	DynamicComponentInvocationHandler second = Mock()
+
+	CompositeInvocationHandler handler = new CompositeInvocationHandler([first, second])
+
+	Method changeStyle = DummyManager.getMethod("changeStyle", long, String)
+
+	def "should ask the handlers which one handles a method only once"() {
+		when:
+		handler.invoke(null, changeStyle, [10L, "mod"] as Object[])
+		handler.invoke(null, changeStyle, [10L, "new romantic"] as Object[])
+
+		then:
+		1 * first.handles(changeStyle) >> false
+		1 * second.handles(changeStyle) >> true
+		0 * first.invoke(*_)
+		1 * second.invoke(null, changeStyle, [10L, "mod"] as Object[])
+		1 * second.invoke(null, changeStyle, [10L, "new romantic"] as Object[])
+	}
+
+	def "should ask again for a method no handler handles"() {
+		when:
+		handler.invoke(null, changeStyle, [10L, "mod"] as Object[])
+
+		then:
+		thrown UnsupportedMethodException
+
+		when:
+		handler.invoke(null, changeStyle, [10L, "mod"] as Object[])
+
+		then:
+		thrown UnsupportedMethodException
+		1 * first.handles(changeStyle) >> false
+	}
+
+}
@@ -87,6 +87,24 @@ class DynamicManagerFactoryBeanTest extends Specification{
 		1 * delegateManager.changeSomething(10L, "cool stuff")
 	}
 
+	def "should propagate the exceptions of the delegate manager as they are"() {
+		given:
+		CustomDummyManager delegateManager = Mock()
+		beanFactory.getBean("delegateManager") >> delegateManager
+		factory.customImplementationBeanName = "delegateManager"
+
+		and:
+		delegateManager.changeSomething(10L, "cool stuff") >> { throw new IllegalArgumentException("not cool") }
+
+		when:
+		factory.initializeFactory()
+		factory.object.changeSomething(10L, "cool stuff")
+
+		then:
+		IllegalArgumentException ex = thrown()
+		ex.message == "not cool"
+	}
+
 	def "should not handle method of non-standard signature"() {
 		when:
 		factory.initializeFactory()
@@ -569,13 +569,17 @@ public abstract class AbstractJasperReportsView extends AbstractUrlBasedView {
 		JRSwapFile jrSwapFile = new JRSwapFile(System.getProperty("java.io.tmpdir"), 1024,100);
 		JRSwapFileVirtualizer jrSwapFileVirtualizer = new JRSwapFileVirtualizer(20, jrSwapFile, true);
 		model.put(JRParameter.REPORT_VIRTUALIZER, jrSwapFileVirtualizer);
-		// Fill the report.
-		JasperPrint filledReport = fillReport(model);
-		postProcessReport(filledReport, model);
-		// Prepare response and render report.
-		populateHeaders(response);
-		renderReport(filledReport, model, response);
-		jrSwapFileVirtualizer.cleanup();
+		try {
+			// Fill the report.
+			JasperPrint filledReport = fillReport(model);
+			postProcessReport(filledReport, model);
+			// Prepare response and render report.
+			populateHeaders(response);
+			renderReport(filledReport, model, response);
+		} finally {
+			// the swap file would otherwise be left in the temp dir whenever filling or exporting fails
+			jrSwapFileVirtualizer.cleanup();
+		}
 	}
 
 	/**
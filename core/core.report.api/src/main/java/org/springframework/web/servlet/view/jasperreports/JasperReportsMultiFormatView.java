@@ -208,15 +208,23 @@ public class JasperReportsMultiFormatView extends AbstractJasperReportsView {
 	 * @see #setContentDispositionMappings
 	 */
 	private void populateContentDispositionIfNecessary(HttpServletResponse response, String format) {
-		if (this.contentDispositionMappings != null) {
-			String header = this.contentDispositionMappings.getProperty(format);
-			if (header != null) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Setting Content-Disposition header to: [" + header + "]");
-				}
-				response.setHeader(HEADER_CONTENT_DISPOSITION, header);
+		String header = getContentDisposition(format);
+		if (header != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Setting Content-Disposition header to: [" + header + "]");
 			}
+			response.setHeader(HEADER_CONTENT_DISPOSITION, header);
 		}
 	}
 
+	/**
+	 * Returns the {@code Content-Disposition} header value mapped to the given format, or {@code null} when
+	 * there is none. Subclasses may override it to compute the value per rendering without touching the
+	 * shared mappings.
+	 * @param format the format key of the mapping
+	 */
+	protected String getContentDisposition(String format) {
+		return this.contentDispositionMappings != null ? this.contentDispositionMappings.getProperty(format) : null;
+	}
+
 }
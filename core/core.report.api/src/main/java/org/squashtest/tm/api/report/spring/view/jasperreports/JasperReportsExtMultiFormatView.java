@@ -109,43 +109,30 @@ public class JasperReportsExtMultiFormatView extends JasperReportsMultiFormatVie
 	protected void renderReport(JasperPrint populatedReport, Map<String, Object> model, HttpServletResponse response)
 		throws Exception {
 		if (reportFileName != null) {
-			// TODO if users complain about weird file names, consider thread competition on contentDispositionMapping
-			Properties contentDispositionMappings = addTimestampToFilename();
-			Properties previousCDM = copyContentDispositionMappings();
-			setContentDispositionMappings(contentDispositionMappings);
 			super.renderReport(populatedReport, model, response);
-			setContentDispositionMappings(previousCDM);
 		}
 	}
 
-	private Properties addTimestampToFilename() {
-		Properties contentDispositionMappings;
+	/**
+	 * Resolves the timestamp placeholders of the mapped header for this rendering only : reports may be rendered
+	 * concurrently, so the shared mappings are left untouched.
+	 */
+	@Override
+	protected String getContentDisposition(String format) {
+		String header = super.getContentDisposition(format);
+		if (header == null || reportFileName == null) {
+			return header;
+		}
 		if (EL_TIMESTAMP_PATTERN.matcher(reportFileName).find()) {
-			contentDispositionMappings = addTimestampToFilename(EL_TIMESTAMP_PATTERN);
+			return processPlaceHolders(EL_TIMESTAMP_PATTERN, header);
 		} else if (MUSTACHE_TIMESTAMP_PATTERN.matcher(reportFileName).find()) {
-			contentDispositionMappings = addTimestampToFilename(MUSTACHE_TIMESTAMP_PATTERN);
-		} else {
-			contentDispositionMappings = copyContentDispositionMappings();
-		}
-		return contentDispositionMappings;
-	}
-
-	private Properties copyContentDispositionMappings() {
-		return (Properties) getContentDispositionMappings().clone();
-	}
-
-	private Properties addTimestampToFilename(Pattern timestampPattern) {
-		Properties contentDispositionMappings = copyContentDispositionMappings();
-
-		for (Entry<Object, Object> mappingsEntry : contentDispositionMappings.entrySet()) {
-			String val = processPlaceHolders(timestampPattern, mappingsEntry);
-			mappingsEntry.setValue(val);
+			return processPlaceHolders(MUSTACHE_TIMESTAMP_PATTERN, header);
 		}
-		return contentDispositionMappings;
+		return header;
 	}
 
-	private String processPlaceHolders(Pattern pattern, Entry<Object, Object> mappingsEntry) {
-		String val = (String) mappingsEntry.getValue();
+	private String processPlaceHolders(Pattern pattern, String header) {
+		String val = header;
 		Matcher matcher = pattern.matcher(val);
 		while (matcher.find()) {
 			StringBuilder builder = new StringBuilder(val);
@@ -21,6 +21,7 @@
 package org.squashtest.tm.internal.domain.report.common.dto;
 
 import org.squashtest.tm.domain.campaign.IterationTestPlanItem;
+import org.squashtest.tm.domain.execution.ExecutionStatus;
 
 import java.util.List;
 
@@ -194,34 +195,38 @@ public abstract class ExProgressAbstractDto {
 			+ getfPercentageStatusSettled();
 	}
 
-	private void fillStatusInfos(List<IterationTestPlanItem> testPlan) { // NOSONAR the switch is perfectly readable
+	private void fillStatusInfos(List<IterationTestPlanItem> testPlan) {
 		for (IterationTestPlanItem testPlanItem : testPlan) {
-			switch (testPlanItem.getExecutionStatus()) {
-				case READY:
-					iCountStatusReady++;
-					break;
-				case RUNNING:
-					iCountStatusRunning++;
-					break;
-				case BLOCKED:
-					iCountStatusBloqued++;
-					break;
-				case FAILURE:
-					iCountStatusFailure++;
-					break;
-				case SUCCESS:
-					iCountStatusSuccess++;
-					break;
-				case UNTESTABLE:
-					iCountStatusUntestable++;
-					break;
-				case SETTLED:
-					iCountStatusSettled++;
-					break;
-				default:
-					// NOOP
-					break;
-			}
+			countStatus(testPlanItem.getExecutionStatus());
+		}
+	}
+
+	protected void countStatus(ExecutionStatus status) { // NOSONAR the switch is perfectly readable
+		switch (status) {
+			case READY:
+				iCountStatusReady++;
+				break;
+			case RUNNING:
+				iCountStatusRunning++;
+				break;
+			case BLOCKED:
+				iCountStatusBloqued++;
+				break;
+			case FAILURE:
+				iCountStatusFailure++;
+				break;
+			case SUCCESS:
+				iCountStatusSuccess++;
+				break;
+			case UNTESTABLE:
+				iCountStatusUntestable++;
+				break;
+			case SETTLED:
+				iCountStatusSettled++;
+				break;
+			default:
+				// NOOP
+				break;
 		}
 	}
 
@@ -41,6 +41,27 @@ public class ExProgressIterationDto extends ExProgressScheduledAbstractDto {
 		fillTestSuiteInfos(iteration);
 	}
 
+	/**
+	 * Builds the dto from the given dtos of the test plan and test suites, without walking the test plans of the
+	 * iteration.
+	 */
+	public ExProgressIterationDto(Iteration iteration, List<ExProgressTestPlanDto> testPlans, List<ExProgressTestSuiteDto> testSuites) {
+		super();
+		fillBasicInfos(iteration);
+
+		for (ExProgressTestPlanDto testPlanDto : testPlans) {
+			countStatus(testPlanDto.getExecutionStatus());
+			testPlanDto.setIteration(this);
+			this.testPlans.add(testPlanDto);
+		}
+
+		for (ExProgressTestSuiteDto testSuiteDto : testSuites) {
+			testSuiteDto.setIteration(this);
+			this.testSuites.add(testSuiteDto);
+		}
+		Collections.sort(this.testSuites, new testSuiteComparator());
+	}
+
 	private ExProgressIterationDto fillBasicInfos(Iteration iteration) {
 		super.name = iteration.getName();
 		scheduledStartDate = iteration.getScheduledStartDate();
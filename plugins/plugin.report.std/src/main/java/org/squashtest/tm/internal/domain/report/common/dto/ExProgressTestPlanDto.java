@@ -79,18 +79,37 @@ public class ExProgressTestPlanDto {
 		if(testPlan.isTestCaseDeleted()){
 			this.testCaseName = null;
 		} else {
-			String reference = testPlan.getReferencedTestCase().getReference();
-			if(reference != null && reference.isEmpty()){
-				this.testCaseName = testPlan.isTestCaseDeleted() ? null : testPlan.getReferencedTestCase().getName();
-			} else {
-				this.testCaseName = testPlan.isTestCaseDeleted() ? null : reference + " - " + testPlan.getReferencedTestCase().getName();
-			}
+			this.testCaseName = buildTestCaseName(testPlan.getReferencedTestCase().getReference(), testPlan.getReferencedTestCase().getName());
 		}
 		this.testSuitesNames = buildTestSuitesNames(testPlan);
 		this.executionStatus = testPlan.getExecutionStatus();
 		return this;
 	}
 
+	/**
+	 * Same as {@link #fillBasicInfo(IterationTestPlanItem)}, from the projected columns of the test plan item.
+	 *
+	 * @param reference the reference of the test case, null if it was deleted
+	 * @param name the name of the test case, null if it was deleted
+	 * @param executionStatus the status of the test plan item
+	 * @param testSuitesNames the names of the test suites of the item, comma separated
+	 * @return this
+	 */
+	public ExProgressTestPlanDto fillBasicInfo(String reference, String name, ExecutionStatus executionStatus, String testSuitesNames) {
+		this.testCaseName = name == null ? null : buildTestCaseName(reference, name);
+		this.testSuitesNames = testSuitesNames;
+		this.executionStatus = executionStatus;
+		return this;
+	}
+
+	private static String buildTestCaseName(String reference, String name) {
+		if(reference != null && reference.isEmpty()){
+			return name;
+		} else {
+			return reference + " - " + name;
+		}
+	}
+
 	/* Feat #6745 */
 	private String buildTestSuitesNames(IterationTestPlanItem testPlanItem) {
 		String prefix = "";
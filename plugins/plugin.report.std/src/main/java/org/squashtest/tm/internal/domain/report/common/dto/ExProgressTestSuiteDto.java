@@ -21,7 +21,9 @@
 package org.squashtest.tm.internal.domain.report.common.dto;
 
 import org.squashtest.tm.domain.campaign.TestSuite;
+import org.squashtest.tm.domain.execution.ExecutionStatus;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -38,6 +40,14 @@ public class ExProgressTestSuiteDto extends ExProgressAbstractDto{
 		super.name=testSuite.getName();
 	}
 
+	public ExProgressTestSuiteDto(String name, Collection<ExecutionStatus> testPlanStatuses){
+		super();
+		super.name=name;
+		for (ExecutionStatus status : testPlanStatuses) {
+			countStatus(status);
+		}
+	}
+
 	public ExProgressIterationDto getIteration() {
 		return iteration;
 	}
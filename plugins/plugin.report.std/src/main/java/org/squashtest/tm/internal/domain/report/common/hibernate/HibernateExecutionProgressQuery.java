@@ -23,9 +23,10 @@ package org.squashtest.tm.internal.domain.report.common.hibernate;
 import org.hibernate.Session;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Order;
+import org.hibernate.type.LongType;
 import org.squashtest.tm.domain.campaign.Campaign;
 import org.squashtest.tm.domain.campaign.Iteration;
-import org.squashtest.tm.domain.campaign.IterationTestPlanItem;
+import org.squashtest.tm.domain.campaign.TestSuite;
 import org.squashtest.tm.domain.execution.ExecutionStatus;
 import org.squashtest.tm.domain.milestone.Milestone;
 import org.squashtest.tm.domain.project.Project;
@@ -33,9 +34,11 @@ import org.squashtest.tm.internal.domain.report.common.dto.ExProgressCampaignDto
 import org.squashtest.tm.internal.domain.report.common.dto.ExProgressIterationDto;
 import org.squashtest.tm.internal.domain.report.common.dto.ExProgressProjectDto;
 import org.squashtest.tm.internal.domain.report.common.dto.ExProgressTestPlanDto;
+import org.squashtest.tm.internal.domain.report.common.dto.ExProgressTestSuiteDto;
 import org.squashtest.tm.internal.domain.report.query.hibernate.HibernateReportQuery;
 import org.squashtest.tm.internal.domain.report.query.hibernate.ReportCriterion;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,6 +57,38 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 
 	private static final String CRIT_NAME_MILESTONE = "milestones";
 
+	private static final int BATCH_SIZE = 1000;
+
+	private static final String CAMPAIGN_IDS = "campaignIds";
+
+	private static final String ITERATION_IDS = "iterationIds";
+
+	private static final String HQL_FETCH_ITERATIONS =
+		"select distinct c from Campaign c left join fetch c.iterations where c.id in (:campaignIds)";
+
+	private static final String HQL_FETCH_TEST_SUITES =
+		"select distinct it from Iteration it left join fetch it.testSuites where it.id in (:iterationIds)";
+
+	private static final String HQL_FIND_TEST_PLANS =
+		"select it.id, itp.id, tc.reference, tc.name, itp.executionStatus "
+			+ "from Iteration it join it.testPlans itp left join itp.referencedTestCase tc "
+			+ "where it.id in (:iterationIds) order by it.id, index(itp)";
+
+	private static final String HQL_FIND_TEST_SUITE_ITEMS =
+		"select ts.id, itp.id, ts.name "
+			+ "from TestSuite ts join ts.iteration it join ts.testPlan itp "
+			+ "where it.id in (:iterationIds) order by ts.id";
+
+	/*
+	 * The test plans of the iterations, projected by #loadTestPlans : the whole graph of test plan items is never
+	 * loaded.
+	 */
+	private final Map<Long, List<Object[]>> testPlansByIteration = new HashMap<>();
+
+	private final Map<Long, List<String>> testSuiteNamesByItem = new HashMap<>();
+
+	private final Map<Long, List<Long>> itemsByTestSuite = new HashMap<>();
+
 	public HibernateExecutionProgressQuery() {
 		Map<String, ReportCriterion> criterions = getCriterions();
 
@@ -102,11 +137,7 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 	}
 
 	/*
-	 * Here is a typical implementation of createHibernateQuery :
-	 *
-	 * - a basic request,
-	 * - application of the criteria,
-	 * - return that to the Dao.
+	 * No criteria query is handed to the Dao : the campaigns are queried in #doInSession, along with their test plans.
 	 *
 	 * (non-Javadoc)
 	 *
@@ -114,6 +145,17 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 	 */
 	@Override
 	public DetachedCriteria createHibernateQuery() {
+		return null;
+	}
+
+	/*
+	 * Here is a typical implementation of a campaign query :
+	 *
+	 * - a basic request,
+	 * - application of the criteria,
+	 * - return that to #doInSession.
+	 */
+	private DetachedCriteria createCampaignCriteria() {
 
 		// basic request, unfiltered.
 		DetachedCriteria criteria = DetachedCriteria.forClass(Campaign.class, "campaigns");
@@ -133,9 +175,66 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 
 	}
 
+	/*
+	 * Finds the campaigns the user may read, then loads their iterations and test suites, and projects their test
+	 * plans, with one query per batch of campaigns or iterations.
+	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public List<?> doInSession(Session session) {
-		return Collections.emptyList();
+		List<Campaign> campaigns = filterUnwantedDataOut(createCampaignCriteria().getExecutableCriteria(session).list());
+
+		if (!campaigns.isEmpty()) {
+			loadTestPlans(session, campaigns);
+		}
+
+		return campaigns;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void loadTestPlans(Session session, List<Campaign> campaigns) {
+		List<Long> campaignIds = new ArrayList<>(campaigns.size());
+		for (Campaign campaign : campaigns) {
+			campaignIds.add(campaign.getId());
+		}
+
+		for (List<Long> batch : partition(campaignIds)) {
+			session.createQuery(HQL_FETCH_ITERATIONS).setParameterList(CAMPAIGN_IDS, batch, LongType.INSTANCE).list();
+		}
+
+		List<Long> iterationIds = new ArrayList<>();
+		for (Campaign campaign : campaigns) {
+			for (Iteration iteration : campaign.getIterations()) {
+				iterationIds.add(iteration.getId());
+			}
+		}
+
+		for (List<Long> batch : partition(iterationIds)) {
+			session.createQuery(HQL_FETCH_TEST_SUITES).setParameterList(ITERATION_IDS, batch, LongType.INSTANCE).list();
+
+			List<Object[]> testPlans = session.createQuery(HQL_FIND_TEST_PLANS)
+				.setParameterList(ITERATION_IDS, batch, LongType.INSTANCE)
+				.list();
+			for (Object[] row : testPlans) {
+				testPlansByIteration.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+			}
+
+			List<Object[]> testSuiteItems = session.createQuery(HQL_FIND_TEST_SUITE_ITEMS)
+				.setParameterList(ITERATION_IDS, batch, LongType.INSTANCE)
+				.list();
+			for (Object[] row : testSuiteItems) {
+				itemsByTestSuite.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+				testSuiteNamesByItem.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add((String) row[2]);
+			}
+		}
+	}
+
+	private static List<List<Long>> partition(List<Long> ids) {
+		List<List<Long>> batches = new ArrayList<>();
+		for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+			batches.add(ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())));
+		}
+		return batches;
 	}
 
 	/*
@@ -153,10 +252,8 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<?> convertToDto(List<?> rawData) {
-		List<Campaign> unfilteredList = (List<Campaign>) rawData;
-
-		// phase 0 : let's filter the unwanted data out.
-		List<Campaign> campaignList = filterUnwantedDataOut(unfilteredList);
+		// phase 0 : the unwanted data was filtered out by #doInSession.
+		List<Campaign> campaignList = (List<Campaign>) rawData;
 
 		// bonus phase : if the perimeter is milestone based, find the milestone label.
 		String milestone = findMilestoneLabel(campaignList);
@@ -239,19 +336,32 @@ public class HibernateExecutionProgressQuery extends HibernateReportQuery {
 	}
 
 	private ExProgressIterationDto makeIterationDto(Iteration iteration) {
-		ExProgressIterationDto iterDto = new ExProgressIterationDto(iteration);
+		List<ExProgressTestPlanDto> testPlanDtos = new ArrayList<>();
+		Map<Long, ExecutionStatus> statusByItem = new HashMap<>();
+
+		for (Object[] testPlan : testPlansByIteration.getOrDefault(iteration.getId(), Collections.emptyList())) {
+			Long itemId = (Long) testPlan[1];
+			ExecutionStatus status = (ExecutionStatus) testPlan[4];
+			statusByItem.put(itemId, status);
+			testPlanDtos.add(makeTestPlanDto(itemId, testPlan));
+		}
 
-		for (IterationTestPlanItem testPlan : iteration.getTestPlans()) {
-			ExProgressTestPlanDto testPlanDto = makeTestPlanDto(testPlan);
-			iterDto.addTestPlanDto(testPlanDto);
-			testPlanDto.setIteration(iterDto);
+		List<ExProgressTestSuiteDto> testSuiteDtos = new ArrayList<>();
+		for (TestSuite testSuite : iteration.getTestSuites()) {
+			List<ExecutionStatus> statuses = new ArrayList<>();
+			for (Long itemId : itemsByTestSuite.getOrDefault(testSuite.getId(), Collections.emptyList())) {
+				statuses.add(statusByItem.get(itemId));
+			}
+			testSuiteDtos.add(new ExProgressTestSuiteDto(testSuite.getName(), statuses));
 		}
 
-		return iterDto;
+		return new ExProgressIterationDto(iteration, testPlanDtos, testSuiteDtos);
 	}
 
-	private ExProgressTestPlanDto makeTestPlanDto(IterationTestPlanItem testPlan) {
-		return new ExProgressTestPlanDto().fillBasicInfo(testPlan);
+	private ExProgressTestPlanDto makeTestPlanDto(Long itemId, Object[] testPlan) {
+		String testSuitesNames = String.join(", ", testSuiteNamesByItem.getOrDefault(itemId, Collections.emptyList()));
+		return new ExProgressTestPlanDto().fillBasicInfo((String) testPlan[2], (String) testPlan[3],
+			(ExecutionStatus) testPlan[4], testSuitesNames);
 	}
 
 	private String findMilestoneLabel(List<Campaign> campaignList) {
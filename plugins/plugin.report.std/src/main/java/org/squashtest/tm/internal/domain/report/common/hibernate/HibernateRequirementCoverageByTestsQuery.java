@@ -39,11 +39,9 @@ import org.squashtest.tm.internal.domain.report.query.hibernate.ReportCriterion;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 /**
@@ -110,6 +108,21 @@ public class HibernateRequirementCoverageByTestsQuery extends HibernateReportQue
 			"and req.rln_id in (:reqIds) ";
 
 
+	private static final int BATCH_SIZE = 1000;
+
+	private static final String HQL_FETCH_REQUIREMENTS =
+			"select distinct req from Requirement req left join fetch req.versions where req.id in (:ids)";
+
+	private static final String HQL_COUNT_VERIFYING_TEST_CASES =
+			"select version.id, count(distinct tc.id) from RequirementVersionCoverage cov "+
+			"join cov.verifiedRequirementVersion version join cov.verifyingTestCase tc "+
+			"where version.requirement.id in (:ids) group by version.id";
+
+	/**
+	 * the number of test cases verifying each requirement version, by version id
+	 */
+	private final Map<Long, Long> verifyingTestCaseCounts = new HashMap<>();
+
 	public HibernateRequirementCoverageByTestsQuery() {
 		Map<String, ReportCriterion> criterions = getCriterions();
 
@@ -160,9 +173,12 @@ public class HibernateRequirementCoverageByTestsQuery extends HibernateReportQue
 		// find the ids of all the requirements encompassed in the scope of this report instance.
 		List<Long> ids = findRequirementIds(session);
 
-		// find the corresponding requirements
+		// find the corresponding requirements, along with their versions
 		List<Requirement> requirements = findRequirements(session, ids);
 
+		// count the test cases verifying these versions
+		countVerifyingTestCases(session, ids);
+
 		// find the name of their parents. The result is a pair of (requirementid, parentname)
 		List<Object[]> parentsNameOfRequirements = findParentsNames(session, ids);
 
@@ -234,23 +250,44 @@ public class HibernateRequirementCoverageByTestsQuery extends HibernateReportQue
 
 
 	private List<Requirement> findRequirements(Session session, List<Long> ids) {
-		if(ids.isEmpty()){
-			return Collections.emptyList();
+		List<Requirement> requirements = new ArrayList<>(ids.size());
+		for (List<Long> batch : partition(ids)) {
+			requirements.addAll(session.createQuery(HQL_FETCH_REQUIREMENTS)
+					.setParameterList("ids", batch, LongType.INSTANCE)
+					.list());
+		}
+		return requirements;
+
+	}
+
+	private void countVerifyingTestCases(Session session, List<Long> ids) {
+		for (List<Long> batch : partition(ids)) {
+			List<Object[]> counts = session.createQuery(HQL_COUNT_VERIFYING_TEST_CASES)
+					.setParameterList("ids", batch, LongType.INSTANCE)
+					.list();
+			for (Object[] count : counts) {
+				verifyingTestCaseCounts.put((Long) count[0], (Long) count[1]);
+			}
 		}
-		return session.createQuery("from Requirement where id in (:ids)")
-				.setParameterList("ids", ids, LongType.INSTANCE)
-				.list();
+	}
 
+	private static List<List<Long>> partition(List<Long> ids) {
+		List<List<Long>> batches = new ArrayList<>();
+		for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+			batches.add(ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())));
+		}
+		return batches;
 	}
 
 
 	private List<Object[]> findParentsNames(Session session, List<Long> ids){
-		if(ids.isEmpty()){
-			return Collections.emptyList();
+		List<Object[]> parentNames = new ArrayList<>(ids.size());
+		for (List<Long> batch : partition(ids)) {
+			parentNames.addAll(session.createSQLQuery(FIND_REQUIREMENT_PARENT_NAMES)
+					.setParameterList("reqIds", batch, LongType.INSTANCE)
+					.list());
 		}
-		return session.createSQLQuery(FIND_REQUIREMENT_PARENT_NAMES)
-				.setParameterList("reqIds", ids, LongType.INSTANCE)
-				.list();
+		return parentNames;
 	}
 
 
@@ -258,20 +295,15 @@ public class HibernateRequirementCoverageByTestsQuery extends HibernateReportQue
 
 		List<Object[]> requirementsAndParents = new LinkedList<>();
 
-		for (Requirement req : requirements){
-
-			ListIterator<Object[]> iterNames = parentsNameOfRequirements.listIterator();
+		Map<Long, Object> parentNames = new HashMap<>();
+		for (Object[] tuple : parentsNameOfRequirements){
+			parentNames.putIfAbsent(((BigInteger)tuple[0]).longValue(), tuple[1]);
+		}
 
-			while (iterNames.hasNext()){
-				Object[] tuple = iterNames.next();
-				Long id = ((BigInteger)tuple[0]).longValue();
-				if (id.equals(req.getId())){
-					requirementsAndParents.add(new Object[]{req, tuple[1]});
-					iterNames.remove();
-					break;
-				}
+		for (Requirement req : requirements){
+			if (parentNames.containsKey(req.getId())){
+				requirementsAndParents.add(new Object[]{req, parentNames.get(req.getId())});
 			}
-
 		}
 
 		return requirementsAndParents;
@@ -515,7 +547,7 @@ public class HibernateRequirementCoverageByTestsQuery extends HibernateReportQue
 		requirementSingleDto.setCriticality(version.getCriticality());
 		requirementSingleDto.setStatus(version.getStatus());
 		requirementSingleDto.setVersionNumber(version.getVersionNumber());
-		int verifyingTestCases = version.getVerifyingTestCases().size();
+		int verifyingTestCases = verifyingTestCaseCounts.getOrDefault(version.getId(), 0L).intValue();
 		requirementSingleDto.setAssociatedTestCaseNumber(verifyingTestCases);
 		if (parentName != null) {
 			requirementSingleDto.setParent(parentName);
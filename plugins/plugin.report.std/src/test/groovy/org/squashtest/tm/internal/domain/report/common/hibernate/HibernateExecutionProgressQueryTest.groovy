@@ -0,0 +1,183 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.internal.domain.report.common.hibernate
+
+import org.hibernate.Criteria
+import org.hibernate.criterion.PropertySubqueryExpression
+import org.hibernate.criterion.SubqueryExpression
+import org.hibernate.engine.spi.SessionImplementor
+import org.hibernate.internal.CriteriaImpl
+import org.hibernate.query.spi.QueryImplementor
+import org.squashtest.tm.domain.campaign.Campaign
+import org.squashtest.tm.domain.campaign.CampaignLibrary
+import org.squashtest.tm.domain.campaign.Iteration
+import org.squashtest.tm.domain.campaign.TestSuite
+import org.squashtest.tm.domain.project.Project
+import org.squashtest.tm.plugin.report.std.service.DataFilteringService
+import spock.lang.Specification
+
+import static org.squashtest.tm.domain.execution.ExecutionStatus.BLOCKED
+import static org.squashtest.tm.domain.execution.ExecutionStatus.FAILURE
+import static org.squashtest.tm.domain.execution.ExecutionStatus.READY
+import static org.squashtest.tm.domain.execution.ExecutionStatus.SUCCESS
+
+class HibernateExecutionProgressQueryTest extends Specification {
+	HibernateExecutionProgressQuery query = new HibernateExecutionProgressQuery()
+	SessionImplementor session = Mock()
+	DataFilteringService dataFilteringService = Mock()
+
+	def setup() {
+		query.dataFilteringService = dataFilteringService
+		dataFilteringService.isFullyAllowed(_) >> true
+
+		// the report form always sends the periods and the campaign status
+		["scheduledStart", "actualStart", "scheduledEnd", "actualEnd"].each { query.setCriterion(it, new Date()) }
+		query.setCriterion("campaignStatus", "CAMPAIGN_ALL")
+	}
+
+	def "should project the test plans in the order of the iteration and aggregate the statuses of the test suites"() {
+		given:
+		TestSuite suiteA = Mock() { getId() >> 7L; getName() >> "suite A" }
+		TestSuite suiteB = Mock() { getId() >> 8L; getName() >> "suite B" }
+		Iteration iteration = Mock() { getId() >> 100L; getName() >> "iteration"; getTestSuites() >> [suiteB, suiteA] }
+		Campaign campaign = mockCampaign(1L, [iteration])
+		session.list(_ as Criteria) >> [campaign]
+
+		and: "rows come in the order of the test plan, which is not the order of the item ids"
+		stubQuery("join it.testPlans itp", [
+			[100L, 30L, "R1", "login", SUCCESS],
+			[100L, 10L, "", "logout", FAILURE],
+			[100L, 20L, "R2", "search", BLOCKED]
+		])
+		stubQuery("from TestSuite ts", [
+			[7L, 30L, "suite A"],
+			[7L, 10L, "suite A"],
+			[8L, 10L, "suite B"]
+		])
+		stubQuery("left join fetch", [])
+
+		when:
+		def projects = query.convertToDto(query.doInSession(session))
+
+		then:
+		0 * iteration.getTestPlans()
+
+		and:
+		def iterationDto = projects[0].campaigns[0].iterations[0]
+		iterationDto.testPlans*.testCaseName == ["R1 - login", "logout", "R2 - search"]
+		iterationDto.testPlans*.executionStatus == [SUCCESS, FAILURE, BLOCKED]
+		iterationDto.testPlans*.testSuitesNames == ["suite A", "suite A, suite B", ""]
+
+		and:
+		iterationDto.testSuites*.name == ["suite A", "suite B"]
+		def (dtoA, dtoB) = iterationDto.testSuites
+		dtoA.iCountStatusSuccess == 1
+		dtoA.iCountStatusFailure == 1
+		dtoA.numberTestCase == 2
+		dtoB.iCountStatusFailure == 1
+		dtoB.numberTestCase == 1
+
+		and:
+		iterationDto.numberTestCase == 3
+		iterationDto.iCountStatusBloqued == 1
+		projects[0].campaigns[0].numberTestCase == 3
+	}
+
+	def "should keep the items without a referenced test case"() {
+		given:
+		Iteration iteration = Mock() { getId() >> 100L; getTestSuites() >> [] }
+		session.list(_ as Criteria) >> [mockCampaign(1L, [iteration])]
+
+		and:
+		stubQuery("join it.testPlans itp", [
+			[100L, 10L, null, null, READY],
+			[100L, 20L, "R1", "login", SUCCESS]
+		])
+		stubQuery("from TestSuite ts", [])
+		stubQuery("left join fetch", [])
+
+		when:
+		def projects = query.convertToDto(query.doInSession(session))
+
+		then:
+		def iterationDto = projects[0].campaigns[0].iterations[0]
+		iterationDto.testPlans*.testCaseName == [null, "R1 - login"]
+		iterationDto.iCountStatusReady == 1
+		iterationDto.iCountStatusSuccess == 1
+	}
+
+	def "should only look for the campaigns of the milestone"() {
+		given:
+		query.setCriterion("milestones", "5")
+
+		when:
+		def campaigns = query.doInSession(session)
+
+		then:
+		1 * session.list(_ as Criteria) >> { Criteria criteria ->
+			assert ((CriteriaImpl) criteria).iterateExpressionEntries()*.criterion.any {
+				it instanceof PropertySubqueryExpression && subqueryOf(it).toString().contains("milestones.id in (5)")
+			}
+			[]
+		}
+
+		and: "nothing else is queried when no campaign is found"
+		0 * session.createQuery(_)
+		campaigns.empty
+	}
+
+	def "should not restrict the campaigns when no milestone is given"() {
+		when:
+		query.doInSession(session)
+
+		then:
+		1 * session.list(_ as Criteria) >> { Criteria criteria ->
+			assert !((CriteriaImpl) criteria).iterateExpressionEntries()*.criterion.any { it instanceof PropertySubqueryExpression }
+			[]
+		}
+	}
+
+	def mockCampaign(Long id, List<Iteration> iterations) {
+		CampaignLibrary library = Mock() { allowsStatus(_) >> true }
+		Project project = Mock() { getId() >> 1L; getName() >> "project"; getCampaignLibrary() >> library }
+
+		Mock(Campaign) {
+			getId() >> id
+			getName() >> "campaign"
+			getProject() >> project
+			getIterations() >> iterations
+		}
+	}
+
+	def subqueryOf(SubqueryExpression expression) {
+		def field = SubqueryExpression.getDeclaredField("criteriaImpl")
+		field.accessible = true
+		field.get(expression)
+	}
+
+	def stubQuery(String hqlFragment, List<List<?>> rows) {
+		QueryImplementor hqlQuery = Mock()
+		hqlQuery.setParameterList(*_) >> hqlQuery
+		hqlQuery.list() >> rows.collect { it as Object[] }
+
+		session.createQuery({ it.contains(hqlFragment) }) >> hqlQuery
+	}
+}
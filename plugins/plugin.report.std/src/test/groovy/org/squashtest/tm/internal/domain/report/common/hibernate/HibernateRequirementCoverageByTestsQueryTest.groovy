@@ -0,0 +1,172 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.internal.domain.report.common.hibernate
+
+import org.hibernate.engine.spi.SessionImplementor
+import org.hibernate.query.spi.NativeQueryImplementor
+import org.hibernate.query.spi.QueryImplementor
+import org.hibernate.type.LongType
+import org.squashtest.tm.domain.milestone.Milestone
+import org.squashtest.tm.domain.project.Project
+import org.squashtest.tm.domain.requirement.Requirement
+import org.squashtest.tm.domain.requirement.RequirementVersion
+import org.squashtest.tm.plugin.report.std.service.DataFilteringService
+import spock.lang.Specification
+
+import static org.squashtest.tm.domain.requirement.RequirementCriticality.CRITICAL
+import static org.squashtest.tm.domain.requirement.RequirementCriticality.MINOR
+import static org.squashtest.tm.domain.requirement.RequirementStatus.APPROVED
+import static org.squashtest.tm.domain.requirement.RequirementStatus.WORK_IN_PROGRESS
+
+class HibernateRequirementCoverageByTestsQueryTest extends Specification {
+	HibernateRequirementCoverageByTestsQuery query = new HibernateRequirementCoverageByTestsQuery()
+	SessionImplementor session = Mock()
+	DataFilteringService dataFilteringService = Mock()
+
+	Milestone milestone = Mock() { getId() >> 5L; getLabel() >> "1.0" }
+	Project project = Mock() { getId() >> 3L; getName() >> "project"; getMilestones() >> [milestone] }
+
+	RequirementVersion first = mockVersion(11L, 1, CRITICAL, APPROVED, [milestone])
+	RequirementVersion second = mockVersion(12L, 2, MINOR, WORK_IN_PROGRESS, [])
+	Requirement requirement = Mock() {
+		getId() >> 1L
+		getName() >> "login"
+		getReference() >> "R1"
+		getProject() >> project
+		getRequirementVersions() >> [first, second]
+		getCurrentVersion() >> second
+	}
+
+	def setup() {
+		query.dataFilteringService = dataFilteringService
+		dataFilteringService.isFullyAllowed(_) >> true
+
+		stubQuery("left join fetch req.versions", [requirement])
+		stubQuery("from RequirementVersionCoverage", [[11L, 2L] as Object[]])
+
+		NativeQueryImplementor parentQuery = Mock()
+		parentQuery.setParameterList(*_) >> parentQuery
+		parentQuery.list() >> [[BigInteger.ONE, "folder"] as Object[]]
+		session.createSQLQuery(_) >> parentQuery
+	}
+
+	def "should only report the versions bound to the milestone"() {
+		given:
+		query.setCriterion("milestones", "5")
+		query.setCriterion("mode", "0")
+
+		and:
+		QueryImplementor idQuery = stubQuery("mstones.id in (:milestones)", [1L])
+
+		when:
+		def projects = query.convertToDto(query.doInSession(session))
+
+		then:
+		1 * idQuery.setParameterList("milestones", [5L], LongType.INSTANCE) >> idQuery
+
+		and:
+		def requirements = projects[0].singleRequirementList
+		requirements*.versionNumber == [1]
+		requirements[0].associatedTestCaseNumber == 2
+		requirements[0].parent == "folder"
+		projects[0].milestone == "1.0"
+		projects[0].totalVerifiedRequirementNumber == 1
+	}
+
+	def "should report every version of the requirements of the projects"() {
+		given:
+		query.setCriterion("projectIds[]", "3")
+		query.setCriterion("mode", "1")
+
+		and:
+		QueryImplementor idQuery = stubQuery("where req.project.id in (:projectIds)", [1L])
+
+		when:
+		def projects = query.convertToDto(query.doInSession(session))
+
+		then:
+		1 * idQuery.setParameterList("projectIds", [3L], LongType.INSTANCE) >> idQuery
+		0 * session.createQuery({ it.contains("mstones") })
+
+		and:
+		def requirements = projects[0].singleRequirementList
+		requirements*.versionNumber == [1, 2]
+		requirements*.associatedTestCaseNumber == [2, 0]
+		requirements*.label == ["login", "login"]
+		projects[0].totalRequirementNumber == 2
+		projects[0].totalVerifiedRequirementNumber == 1
+
+		and: "the last line holds the totals"
+		projects*.projectName == ["project", "TOTAL"]
+		projects[1].totalRequirementNumber == 2
+	}
+
+	def "should only report the current version in last version mode"() {
+		given:
+		query.setCriterion("projectIds[]", "3")
+		query.setCriterion("mode", "2")
+		stubQuery("select req.id from Requirement req", [1L])
+
+		when:
+		def projects = query.convertToDto(query.doInSession(session))
+
+		then:
+		projects[0].singleRequirementList*.versionNumber == [2]
+		projects[0].totalVerifiedRequirementNumber == 0
+	}
+
+	def "should count the verifying test cases of all the requirements at once"() {
+		given:
+		query.setCriterion("projectIds[]", "3")
+		query.setCriterion("mode", "1")
+		stubQuery("select req.id from Requirement req", [1L, 2L, 3L])
+
+		when:
+		query.doInSession(session)
+
+		then:
+		1 * session.createQuery({ it.contains("from RequirementVersionCoverage") }) >> {
+			QueryImplementor countQuery = Mock()
+			countQuery.setParameterList("ids", [1L, 2L, 3L], LongType.INSTANCE) >> countQuery
+			countQuery.list() >> []
+			countQuery
+		}
+	}
+
+	def mockVersion(Long id, int number, criticality, status, List<Milestone> milestones) {
+		Mock(RequirementVersion) {
+			getId() >> id
+			getVersionNumber() >> number
+			getCriticality() >> criticality
+			getStatus() >> status
+			getMilestones() >> milestones
+		}
+	}
+
+	QueryImplementor stubQuery(String hqlFragment, List<?> rows) {
+		QueryImplementor hqlQuery = Mock()
+		hqlQuery.setParameterList(*_) >> hqlQuery
+		hqlQuery.list() >> rows
+
+		session.createQuery({ it.contains(hqlFragment) }) >> hqlQuery
+		hqlQuery
+	}
+}
@@ -46,6 +46,7 @@ import org.squashtest.tm.plugin.testautomation.jenkins.internal.FetchTestListBui
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.JsonParser;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.OptimisticTestList;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.StartTestExecution;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.HttpClientProvider;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.HttpRequestFactory;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.RequestExecutor;
@@ -89,6 +90,9 @@ public class TestAutomationJenkinsConnector implements TestAutomationConnector {
 	@Inject
 	private HttpClientProvider clientProvider;
 
+	@Inject
+	private CoalescingRequestExecutor pollingExecutor;
+
 	private JsonParser jsonParser = new JsonParser();
 
 	@Inject
@@ -216,6 +220,7 @@ public class TestAutomationJenkinsConnector implements TestAutomationConnector {
 			processor.setProject(project);
 			processor.setBuildAbsoluteId(new BuildAbsoluteId(project.getJobName(), generateNewId()));
 			processor.setDefaultReschedulingDelay(spamInterval);
+			processor.setPollingExecutor(pollingExecutor);
 
 			processor.run();
 
@@ -23,6 +23,7 @@ package org.squashtest.tm.plugin.testautomation.jenkins.internal;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.squashtest.tm.domain.testautomation.AutomatedTest;
 import org.squashtest.tm.domain.testautomation.TestAutomationProject;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.StepSequence;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.SynchronousBuildProcessor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasksteps.BuildAbsoluteId;
@@ -61,6 +62,10 @@ public class FetchTestListBuildProcessor extends SynchronousBuildProcessor<Colle
 		stepSequence.setAbsoluteId(absoluteId);
 	}
 
+	public void setPollingExecutor(CoalescingRequestExecutor pollingExecutor) {
+		stepSequence.setPollingExecutor(pollingExecutor);
+	}
+
 
 	@Override
 	public Collection<AutomatedTest> getResult() {
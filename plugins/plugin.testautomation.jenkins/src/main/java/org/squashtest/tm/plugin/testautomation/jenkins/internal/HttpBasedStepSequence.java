@@ -24,6 +24,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.squashtest.tm.domain.testautomation.TestAutomationProject;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.HttpRequestFactory;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildProcessor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasksteps.BuildAbsoluteId;
@@ -50,6 +51,8 @@ public abstract class HttpBasedStepSequence {
 
 	protected BuildAbsoluteId absoluteId;
 
+	protected CoalescingRequestExecutor pollingExecutor = new CoalescingRequestExecutor();
+
 
 	// ************* setters **************
 
@@ -67,6 +70,10 @@ public abstract class HttpBasedStepSequence {
 		this.absoluteId = absoluteId;
 	}
 
+	void setPollingExecutor(CoalescingRequestExecutor pollingExecutor) {
+		this.pollingExecutor = pollingExecutor;
+	}
+
 	// *********** getters *******************
 
 	protected abstract BuildProcessor getProcessor();
@@ -82,6 +89,7 @@ public abstract class HttpBasedStepSequence {
 		CheckBuildQueue checkQueue = new CheckBuildQueue(getProcessor());
 
 		wireHttpSteps(checkQueue, method);
+		checkQueue.setPollingExecutor(pollingExecutor);
 
 		return checkQueue;
 	}
@@ -94,6 +102,7 @@ public abstract class HttpBasedStepSequence {
 		GetBuildID getBuildID = new GetBuildID(getProcessor());
 
 		wireHttpSteps(getBuildID, method);
+		getBuildID.setPollingExecutor(pollingExecutor);
 
 		return getBuildID;
 
@@ -101,11 +110,12 @@ public abstract class HttpBasedStepSequence {
 
 	protected CheckBuildRunning newCheckBuildRunning() {
 
-		HttpGet method = requestFactory.newGetBuild(project, absoluteId.getBuildId());
+		HttpGet method = requestFactory.newGetBuildsForProject(project);
 
 		CheckBuildRunning running = new CheckBuildRunning(getProcessor());
 
 		wireHttpSteps(running, method);
+		running.setPollingExecutor(pollingExecutor);
 
 		return running;
 	}
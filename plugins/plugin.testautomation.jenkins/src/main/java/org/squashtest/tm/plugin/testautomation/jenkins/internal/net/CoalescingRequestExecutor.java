@@ -0,0 +1,144 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.plugin.testautomation.jenkins.internal.net;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.service.testautomation.spi.TestAutomationException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Multiplexes the status polls issued by the build steps of every build in flight. Polls that target the same resource
+ * (the queue of a server, the build list of a job) are served by a single request : a caller states how recent the
+ * response must be, and either reuses the latest response when it is recent enough, waits for the request already in
+ * progress, or issues a new one that the next callers will share.
+ *
+ * Thus the number of requests sent to a Jenkins server depends on the number of jobs being watched, not on the number
+ * of builds.
+ */
+@Component
+public class CoalescingRequestExecutor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingRequestExecutor.class);
+
+	private final ConcurrentMap<String, PolledResponse> latestResponses = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a response to the given method which request was sent no sooner than <code>notBefore</code>.
+	 *
+	 * @param client the client used if a new request must be sent
+	 * @param method the method, which URI identifies the polled resource
+	 * @param notBefore a timestamp as returned by {@link System#nanoTime()}
+	 * @return the response
+	 */
+	public PolledResponse poll(CloseableHttpClient client, HttpUriRequest method, long notBefore) {
+
+		String key = method.getURI().toString();
+
+		while (true) {
+			PolledResponse latest = latestResponses.get(key);
+
+			if (latest != null && latest.getSentAt() - notBefore >= 0) {
+				latest.await();
+				return latest;
+			}
+
+			PolledResponse fresh = new PolledResponse(System.nanoTime());
+
+			boolean owned = latest == null ? latestResponses.putIfAbsent(key, fresh) == null : latestResponses.replace(key, latest, fresh);
+
+			if (owned) {
+				fetch(key, fresh, client, method);
+				return fresh;
+			}
+		}
+	}
+
+	private void fetch(String key, PolledResponse response, CloseableHttpClient client, HttpUriRequest method) {
+		LOGGER.trace("CoalescingRequestExecutor : polling {}", key);
+		try {
+			response.complete(RequestExecutor.getInstance().execute(client, method));
+		} catch (RuntimeException ex) {
+			// let the next poll try again instead of replaying the failure
+			latestResponses.remove(key, response);
+			response.fail(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * The response to a poll, shared by every caller that was content with it.
+	 */
+	public static final class PolledResponse {
+
+		private final long sentAt;
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile String body;
+
+		private volatile RuntimeException failure;
+
+		PolledResponse(long sentAt) {
+			this.sentAt = sentAt;
+		}
+
+		/**
+		 * @return when the request was sent, as returned by {@link System#nanoTime()}
+		 */
+		public long getSentAt() {
+			return sentAt;
+		}
+
+		public String getBody() {
+			return body;
+		}
+
+		void complete(String body) {
+			this.body = body;
+			done.countDown();
+		}
+
+		void fail(RuntimeException failure) {
+			this.failure = failure;
+			done.countDown();
+		}
+
+		void await() {
+			try {
+				done.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new TestAutomationException(ex);
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+}
@@ -38,12 +38,14 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpCoreContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.squashtest.tm.domain.testautomation.TestAutomationServer;
 import org.squashtest.tm.service.testautomation.spi.TestAutomationException;
 
+import javax.inject.Inject;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -57,6 +59,10 @@ import java.net.URL;
 @SuppressWarnings("deprecation") // spring support of httpclient 3.1 is deprecated yet we heavily rely on httpclient 3.1
 public class HttpClientProvider {
 
+	private static final int DEFAULT_MAX_CONNECTIONS = 25;
+
+	private static final int DEFAULT_MAX_CONNECTIONS_PER_SERVER = 5;
+
 	private CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
 
 	static class PreemptiveAuthInterceptor implements HttpRequestInterceptor {
@@ -86,8 +92,20 @@ public class HttpClientProvider {
 	private final ClientHttpRequestFactory requestFactory;
 
 	public HttpClientProvider() {
+		this(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_SERVER);
+	}
+
+	/**
+	 * @param maxConnections the size of the connection pool shared by all the servers
+	 * @param maxConnectionsPerServer the budget of connections a single server may use, so that a busy server does not
+	 * starve the others
+	 */
+	@Inject
+	public HttpClientProvider(@Value("${tm.test.automation.max-connections:" + DEFAULT_MAX_CONNECTIONS + "}") int maxConnections,
+							  @Value("${tm.test.automation.max-connections-per-server:" + DEFAULT_MAX_CONNECTIONS_PER_SERVER + "}") int maxConnectionsPerServer) {
 		PoolingHttpClientConnectionManager  manager = new PoolingHttpClientConnectionManager();
-		manager.setMaxTotal(25);
+		manager.setMaxTotal(maxConnections);
+		manager.setDefaultMaxPerRoute(maxConnectionsPerServer);
 
 		client = HttpClients.custom()
 			.setConnectionManager(manager)
@@ -26,12 +26,19 @@ public abstract class AbstractBuildProcessor implements BuildProcessor {
 
 	private int defaultReschedulingInterval = 3000;
 
+	/**
+	 * how many times the default interval may be doubled while a step stays inconclusive
+	 */
+	private int maxBackoffExponent = 3;
+
 	// ******* state variables *********
 
 	protected BuildStep<?> currentStep = null;
 
 	protected StepFuture currentFuture = null;
 
+	private int consecutiveReschedulings = 0;
+
 	private boolean canceled;
 
 	// ******** accessors **************
@@ -56,6 +63,10 @@ public abstract class AbstractBuildProcessor implements BuildProcessor {
 		return defaultReschedulingInterval;
 	}
 
+	public void setMaxBackoffExponent(int maxBackoffExponent) {
+		this.maxBackoffExponent = maxBackoffExponent;
+	}
+
 	// *********** code *************
 
 	public boolean isCanceled() {
@@ -82,6 +93,7 @@ public abstract class AbstractBuildProcessor implements BuildProcessor {
 			reschedule();
 
 		} else {
+			consecutiveReschedulings = 0;
 			currentStep = getStepSequence().nextElement();
 			scheduler.schedule(currentStep);
 		}
@@ -95,9 +107,13 @@ public abstract class AbstractBuildProcessor implements BuildProcessor {
 		if (currentStep.suggestedReschedulingInterval() != null) {
 			delay = currentStep.suggestedReschedulingInterval();
 		} else {
-			delay = defaultReschedulingInterval;
+			// back off while the step stays inconclusive, the build is probably a long one
+			int exponent = Math.min(consecutiveReschedulings, maxBackoffExponent);
+			delay = defaultReschedulingInterval << exponent;
 		}
 
+		consecutiveReschedulings++;
+
 		currentFuture = scheduler.schedule(currentStep, delay);
 	}
 
@@ -25,7 +25,8 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.squashtest.tm.plugin.testautomation.jenkins.beans.Item;
 import org.squashtest.tm.plugin.testautomation.jenkins.beans.ItemList;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.JsonParser;
-import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.RequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor.PolledResponse;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildProcessor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildStep;
 
@@ -33,7 +34,9 @@ public class CheckBuildQueue extends BuildStep<CheckBuildQueue> implements HttpB
 
 	/* *** technically needed for the computation **** */
 
-	private RequestExecutor requestExecutor = RequestExecutor.getInstance();
+	private CoalescingRequestExecutor pollingExecutor = new CoalescingRequestExecutor();
+
+	private long notBefore = System.nanoTime();
 
 	private CloseableHttpClient client;
 
@@ -56,6 +59,10 @@ public class CheckBuildQueue extends BuildStep<CheckBuildQueue> implements HttpB
 	// ****** accessors ********** */
 
 
+	public void setPollingExecutor(CoalescingRequestExecutor pollingExecutor) {
+		this.pollingExecutor = pollingExecutor;
+	}
+
 	@Override
 	public void setClient(CloseableHttpClient client) {
 		this.client = client;
@@ -91,7 +98,10 @@ public class CheckBuildQueue extends BuildStep<CheckBuildQueue> implements HttpB
 	@Override
 	public void perform() throws Exception {
 
-		String result = requestExecutor.execute(client, method);
+		PolledResponse response = pollingExecutor.poll(client, method, notBefore);
+		// the next poll must not be answered with the same response
+		notBefore = response.getSentAt() + 1;
+		String result = response.getBody();
 
 		ItemList queuedBuilds = parser.getQueuedListFromJson(result);
 
@@ -23,10 +23,13 @@ package org.squashtest.tm.plugin.testautomation.jenkins.internal.tasksteps;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.squashtest.tm.plugin.testautomation.jenkins.beans.Build;
+import org.squashtest.tm.plugin.testautomation.jenkins.beans.BuildList;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.JsonParser;
-import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.RequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor.PolledResponse;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildProcessor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildStep;
+import org.squashtest.tm.service.testautomation.spi.NotFoundException;
 
 public class CheckBuildRunning extends BuildStep<CheckBuildRunning> implements HttpBasedStep {
 
@@ -38,6 +41,12 @@ public class CheckBuildRunning extends BuildStep<CheckBuildRunning> implements H
 
 	private JsonParser parser;
 
+	private BuildAbsoluteId absoluteId;
+
+	private CoalescingRequestExecutor pollingExecutor = new CoalescingRequestExecutor();
+
+	private long notBefore = System.nanoTime();
+
 
 	// **** output of the computation *** */
 
@@ -53,6 +62,10 @@ public class CheckBuildRunning extends BuildStep<CheckBuildRunning> implements H
 	// ****** accessors ********** */
 
 
+	public void setPollingExecutor(CoalescingRequestExecutor pollingExecutor) {
+		this.pollingExecutor = pollingExecutor;
+	}
+
 	@Override
 	public void setClient(CloseableHttpClient client) {
 		this.client = client;
@@ -70,7 +83,7 @@ public class CheckBuildRunning extends BuildStep<CheckBuildRunning> implements H
 
 	@Override
 	public void setBuildAbsoluteId(BuildAbsoluteId absoluteId) {
-		//not needed here
+		this.absoluteId = absoluteId;
 	}
 
 	// ************ code *****************
@@ -84,9 +97,18 @@ public class CheckBuildRunning extends BuildStep<CheckBuildRunning> implements H
 	@Override
 	public void perform() throws Exception {
 
-		String response = RequestExecutor.getInstance().execute(client, method);
+		PolledResponse response = pollingExecutor.poll(client, method, notBefore);
+		// the next poll must not be answered with the same response
+		notBefore = response.getSentAt() + 1;
+
+		// the build list of the job is polled rather than the build itself, so that one request serves all the builds of that job
+		BuildList buildList = parser.getBuildListFromJson(response.getBody());
+
+		Build build = buildList.findById(absoluteId.getBuildId());
 
-		Build build = parser.getBuildFromJson(response);
+		if (build == null) {
+			throw new NotFoundException("TestAutomationConnector : the requested build for project " + absoluteId.toString() + " cannot be found");
+		}
 
 		stillBuilding = build.isBuilding();
 
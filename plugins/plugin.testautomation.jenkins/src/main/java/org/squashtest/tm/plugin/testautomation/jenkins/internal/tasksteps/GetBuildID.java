@@ -25,7 +25,8 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.squashtest.tm.plugin.testautomation.jenkins.beans.Build;
 import org.squashtest.tm.plugin.testautomation.jenkins.beans.BuildList;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.JsonParser;
-import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.RequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor;
+import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.CoalescingRequestExecutor.PolledResponse;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildProcessor;
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.tasks.BuildStep;
 import org.squashtest.tm.service.testautomation.spi.NotFoundException;
@@ -42,6 +43,10 @@ public class GetBuildID extends BuildStep<GetBuildID> implements HttpBasedStep {
 
 	private BuildAbsoluteId absoluteId;
 
+	private CoalescingRequestExecutor pollingExecutor = new CoalescingRequestExecutor();
+
+	private long notBefore = System.nanoTime();
+
 
 	// ****** the output here is stored when available in the absolueId#setBuildId *****
 
@@ -55,6 +60,10 @@ public class GetBuildID extends BuildStep<GetBuildID> implements HttpBasedStep {
 	// ****** accessors ********** */
 
 
+	public void setPollingExecutor(CoalescingRequestExecutor pollingExecutor) {
+		this.pollingExecutor = pollingExecutor;
+	}
+
 	@Override
 	public void setClient(CloseableHttpClient client) {
 		this.client = client;
@@ -95,7 +104,10 @@ public class GetBuildID extends BuildStep<GetBuildID> implements HttpBasedStep {
 	@Override
 	public void perform() throws Exception {
 
-		String json = RequestExecutor.getInstance().execute(client, method);
+		PolledResponse response = pollingExecutor.poll(client, method, notBefore);
+		// the next poll must not be answered with the same response
+		notBefore = response.getSentAt() + 1;
+		String json = response.getBody();
 
 		BuildList buildList = parser.getBuildListFromJson(json);
 
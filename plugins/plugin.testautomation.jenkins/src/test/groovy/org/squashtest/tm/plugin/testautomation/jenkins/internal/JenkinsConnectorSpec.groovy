@@ -41,6 +41,7 @@ abstract class JenkinsConnectorSpec extends Specification {
 		StatusLine status = Mock()
 		status.getStatusCode() >> 200
 		resp.getStatusLine() >> status
+		method.getURI() >> new URI("http://ci.example.com/job/CorrectJob/api/json")
 
 		getID.client = client
 		getID.method = method
@@ -0,0 +1,124 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.plugin.testautomation.jenkins.internal.net
+
+import com.sun.net.httpserver.HttpServer
+import org.apache.http.client.methods.HttpGet
+import org.apache.http.impl.client.CloseableHttpClient
+import org.apache.http.impl.client.HttpClients
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs against a stub Jenkins server that answers the queue api slowly and counts the requests it receives.
+ */
+class CoalescingRequestExecutorTest extends Specification {
+
+	CoalescingRequestExecutor executor = new CoalescingRequestExecutor()
+
+	HttpServer jenkins
+	AtomicInteger hits = new AtomicInteger()
+	CloseableHttpClient client
+	String queueUrl
+
+	def setup(){
+		// other specs replace the executor with a mock
+		RequestExecutor.INSTANCE = new RequestExecutor()
+
+		jenkins = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+		jenkins.executor = Executors.newCachedThreadPool()
+		jenkins.createContext("/queue/api/json", { exchange ->
+			def body = """{"items":[],"hit":${hits.incrementAndGet()}}""".bytes
+			Thread.sleep(100)
+			exchange.sendResponseHeaders(200, body.length)
+			exchange.responseBody.withStream { it.write(body) }
+		})
+		jenkins.start()
+
+		client = HttpClients.createDefault()
+		queueUrl = "http://localhost:${jenkins.address.port}/queue/api/json"
+	}
+
+	def cleanup(){
+		client.close()
+		jenkins.stop(0)
+		jenkins.executor.shutdownNow()
+	}
+
+	def "concurrent polls of the same resource should share one request"(){
+
+		given :
+			def builds = 50
+			def ready = new CountDownLatch(builds)
+			def pool = Executors.newFixedThreadPool(builds)
+
+		when :
+			def futures = (1..builds).collect {
+				pool.submit({
+					long notBefore = System.nanoTime()
+					ready.countDown()
+					ready.await()
+					executor.poll(client, new HttpGet(queueUrl), notBefore).body
+				} as Callable<String>)
+			}
+			def bodies = futures.collect { it.get() }
+			pool.shutdown()
+
+		then :
+			bodies.every { it.startsWith('{"items":[]') }
+			hits.get() < builds / 5
+
+	}
+
+	def "should reuse a response recent enough and poll again otherwise"(){
+
+		given :
+			long before = System.nanoTime()
+
+		when :
+			def first = executor.poll(client, new HttpGet(queueUrl), before)
+			def shared = executor.poll(client, new HttpGet(queueUrl), before)
+			def renewed = executor.poll(client, new HttpGet(queueUrl), first.sentAt + 1)
+
+		then :
+			shared.is(first)
+			!renewed.is(first)
+			renewed.body.contains('"hit":2')
+			hits.get() == 2
+
+	}
+
+	def "should not replay a failed poll"(){
+
+		when : "nothing listens on that port"
+			executor.poll(client, new HttpGet("http://localhost:1/queue/api/json"), System.nanoTime())
+
+		then :
+			thrown RuntimeException
+			executor.latestResponses.isEmpty()
+
+	}
+
+}
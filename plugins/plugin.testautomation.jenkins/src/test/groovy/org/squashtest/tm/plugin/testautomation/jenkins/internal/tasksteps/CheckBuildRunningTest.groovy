@@ -24,6 +24,7 @@ package org.squashtest.tm.plugin.testautomation.jenkins.internal.tasksteps
 import org.apache.http.impl.client.CloseableHttpClient
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.JenkinsConnectorSpec
 import org.squashtest.tm.plugin.testautomation.jenkins.internal.net.RequestExecutor
+import org.squashtest.tm.service.testautomation.spi.NotFoundException
 
 class CheckBuildRunningTest extends JenkinsConnectorSpec {
 
@@ -35,6 +36,9 @@ class CheckBuildRunningTest extends JenkinsConnectorSpec {
 		checkRun.client = client
 		checkRun.method = method
 		checkRun.parser = parser;
+		def absoluteId = new BuildAbsoluteId("CorrectJob", "CorrectExternalID")
+		absoluteId.buildId = 10
+		checkRun.absoluteId = absoluteId
 		
 	}
 	
@@ -68,18 +72,32 @@ class CheckBuildRunningTest extends JenkinsConnectorSpec {
 		
 	}
 	
+	def "should complain when the build is not in the build list"(){
+
+		given :
+			def json = '{"builds":[]}'
+			RequestExecutor.INSTANCE.execute(_,_) >> json
+
+		when :
+			checkRun.perform()
+
+		then :
+			thrown NotFoundException
+
+	}
+	
 	def makeBuildingJson(){
-		return '{"actions":[{"parameters":[{"name":"operation","value":"test-list"},'+
+		return '{"builds":[{"actions":[{"parameters":[{"name":"operation","value":"test-list"},'+
 		'{"name":"externalJobId","value":"CorrectExternalID"},{"name":"callerId",'+
 		'"value":"anonymous@example.com"},{"name":"notificationURL","value":"file://dev/null"},{"name":"testList","value":"**/*"}]},{},{}],'+
-		'"building":true,"number":10}'
+		'"building":true,"number":10}]}'
 	}
 	
 	def makeFinishedJson(){
-		return '{"actions":[{"parameters":[{"name":"operation","value":"test-list"},'+
+		return '{"builds":[{"actions":[{"parameters":[{"name":"operation","value":"test-list"},'+
 		'{"name":"externalJobId","value":"CorrectExternalID"},{"name":"callerId",'+
 		'"value":"anonymous@example.com"},{"name":"notificationURL","value":"file://dev/null"},{"name":"testList","value":"**/*"}]},{},{}],'+
-		'"building":false,"number":10}'
+		'"building":false,"number":10}]}'
 	}
 	
 }
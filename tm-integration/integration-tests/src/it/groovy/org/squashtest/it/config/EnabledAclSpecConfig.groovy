@@ -22,6 +22,7 @@ package org.squashtest.it.config
 
 
 import org.springframework.cache.CacheManager
+import org.springframework.cache.support.NoOpCacheManager
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.ComponentScan
 import org.springframework.context.annotation.Configuration
@@ -91,6 +92,12 @@ class EnabledAclSpecConfig {
 		new NullAclCache();
 	}
 
+	// the permission decision cache would otherwise hide the acl modifications made by the tests
+	@Bean
+	CacheManager cacheManager() {
+		new NoOpCacheManager()
+	}
+
 	@Bean
 	PermissionFactory permissionFactory(){
 		return getSeconf().permissionFactory()
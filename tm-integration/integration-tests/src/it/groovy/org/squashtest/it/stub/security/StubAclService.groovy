@@ -171,6 +171,16 @@ class StubAclService implements ObjectAclService, ManageableAclService {
 		return null;
 	}
 
+	@Override
+	public Map<ObjectIdentity, Integer> findPermissionMasks(String login, Collection<ObjectIdentity> entityRefs) {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public Map<ObjectIdentity, Integer> findPermissionMasksForParties(Collection<Long> partyIds, Collection<ObjectIdentity> entityRefs) {
+		return Collections.emptyMap();
+	}
+
 	@Override
 	public void createObjectIdentity(ObjectIdentity objectIdentity) throws AlreadyExistsException {
 		// TODO Auto-generated method stub
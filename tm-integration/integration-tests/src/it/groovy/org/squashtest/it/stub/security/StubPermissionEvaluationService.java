@@ -102,4 +102,14 @@ public class StubPermissionEvaluationService implements PermissionEvaluationServ
 	public Collection<String> permissionsOn(@NotNull String className, long id) {
 		return null;
 	}
+
+	@Override
+	public Map<Long, Collection<String>> permissionsOn(@NotNull String className, @NotNull Collection<Long> ids) {
+		return null;
+	}
+
+	@Override
+	public void preloadPermissionsOn(@NotNull Collection<? extends Identified> entities) {
+		// NOOP
+	}
 }
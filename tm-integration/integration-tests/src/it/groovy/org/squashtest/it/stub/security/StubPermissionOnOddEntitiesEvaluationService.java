@@ -107,4 +107,14 @@ public class StubPermissionOnOddEntitiesEvaluationService implements PermissionE
 		return null;
 	}
 
+	@Override
+	public Map<Long, Collection<String>> permissionsOn(@NotNull String className, @NotNull Collection<Long> ids) {
+		return null;
+	}
+
+	@Override
+	public void preloadPermissionsOn(@NotNull Collection<? extends Identified> entities) {
+		// NOOP
+	}
+
 }
@@ -138,10 +138,12 @@ class ExportDaoIT extends DbunitServiceSpecification{
 		def testCaseIds = [-10L, -11L, -12L, -13L]
 
 		when:
-		def res = exporter.loadTestCaseModelsFromFolderWithJOOQ(testCaseIds)
+		def models = []
+		exporter.forEachTestCaseModel(testCaseIds) { models << it }
+		def res = models.findAll { it.id != -13L }
 
 		then:
-		res != null
+		models.size() == 4
 		res.size() == 3
 		res.collect{ it.getId()}.containsAll([-10L, -11L, -12L])
 		res.sort{it.getId()}
@@ -251,13 +253,13 @@ class ExportDaoIT extends DbunitServiceSpecification{
 		def testCaseIds = [-10L, -11L, -12L, -13L]
 
 		when:
-		def res = exporter.loadTestCaseModelsFromLibraryWithJOOQ(testCaseIds)
+		def res = []
+		exporter.forEachTestCaseModel(testCaseIds) { res << it }
 
 		then:
-		res != null
-		res.size() == 1
-		res.collect{ it.getId()}.contains(-13L)
-		def tcModel = res.get(0) //-13L
+		res.size() == 4
+		def tcModel = res.find { it.id == -13L }
+		tcModel != null
 
 		tcModel.getUuid() != null
 		tcModel.getLastModifiedBy() == "admin"
@@ -291,6 +293,19 @@ class ExportDaoIT extends DbunitServiceSpecification{
 		tcModel.getTestCaseKind() == TestCaseKind.KEYWORD
 	}
 
+	@DataSet("ExportDaoIT.should create models from library and folders.xml")
+	def "should hand the models over in the order of the ids"(){
+		given :
+		def testCaseIds = [-13L, -11L, -10L, -12L]
+
+		when:
+		def res = []
+		exporter.forEachTestCaseModel(testCaseIds) { res << it }
+
+		then:
+		res.collect { it.id } == testCaseIds
+	}
+
 	private boolean match(RequirementLinkModel model1, RequirementLinkModel model2){
 		return model1.reqPath.equals(model2.reqPath) &&
 				(model1.reqVersion == model2.reqVersion) &&
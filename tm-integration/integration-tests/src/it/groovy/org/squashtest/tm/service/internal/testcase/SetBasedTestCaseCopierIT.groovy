@@ -0,0 +1,218 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase
+
+import org.jooq.DSLContext
+import org.junit.runner.RunWith
+import org.spockframework.runtime.Sputnik
+import org.springframework.test.util.AopTestUtils
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.transaction.annotation.Transactional
+import org.squashtest.it.basespecs.DbunitServiceSpecification
+import org.squashtest.tm.domain.testcase.TestCaseLibraryNode
+import org.squashtest.tm.service.testcase.TestCaseLibraryNavigationService
+import org.unitils.dbunit.annotation.DataSet
+import spock.unitils.UnitilsSupport
+
+import javax.inject.Inject
+
+/**
+ * Pastes the same sources twice in two look alike destinations, once with the set based copier and once node by
+ * node through Hibernate, then compares every row written for both copies.
+ */
+@UnitilsSupport
+@Transactional
+@RunWith(Sputnik)
+class SetBasedTestCaseCopierIT extends DbunitServiceSpecification {
+
+	@Inject
+	private TestCaseLibraryNavigationService navService
+
+	@Inject
+	private SetBasedTestCaseCopier copier
+
+	@Inject
+	private DSLContext DSL
+
+	def cleanup() {
+		setBasedCopy(false)
+	}
+
+	@DataSet("SetBasedTestCaseCopierIT.xml")
+	def "should copy a test case the same way as the entity based copy"() {
+		when:
+		TestCaseLibraryNode setBased = copy(true, -2L, -10L)
+		TestCaseLibraryNode entityBased = copy(false, -3L, -10L)
+
+		then:
+		setBased.id != entityBased.id
+		nodeRow(setBased.id).NAME == "test case-Copie1"
+		content(-2L) == ["folder", "test case", "test case-Copie1"]
+
+		and:
+		def copied = signature(setBased.id)
+		copied == signature(entityBased.id)
+
+		and: "the copy is complete"
+		copied.STEPS.size() == 3
+		copied.STEPS[0].ACTION[0].ACTION == "action"
+		copied.STEPS[0].ATTACHMENTS*.NAME == ["step.txt"]
+		copied.STEPS[0].CUFS*.VALUE == ["step value"]
+		copied.STEPS[0].VERIFIED == [[VERIFIED_REQ_VERSION_ID: -1L, OWNER: 0L]]
+		copied.STEPS[1].CALL[0].CALLED_TEST_CASE_ID == -11L
+		copied.STEPS[1].CALL[0].CALLED_DATASET == -2L
+		copied.PARAMETERS*.NAME == ["own"]
+		copied.DATASETS[0].VALUES*.PARAM_VALUE == ["called value", "own value"]
+		copied.CUFS*.OPTIONS == [[], [[LABEL: "first", POSITION: 0], [LABEL: "second", POSITION: 1]]]
+		copied.ATTACHMENTS*.CONTENT_ID == [-1L]
+		copied.MILESTONES == [-1L]
+		copied.COVERAGES == [-1L]
+
+		and: "the copies have lists of their own"
+		[setBased.id, entityBased.id].every { nodeRow(it).ATTACHMENT_LIST_ID != -11L }
+	}
+
+	@DataSet("SetBasedTestCaseCopierIT.xml")
+	def "should copy a folder and its content the same way as the entity based copy"() {
+		when:
+		TestCaseLibraryNode setBased = copy(true, -2L, -1L)
+		TestCaseLibraryNode entityBased = copy(false, -3L, -1L)
+
+		then:
+		nodeRow(setBased.id).NAME == "folder-Copie1"
+		content(-2L) == ["folder", "folder-Copie1", "test case"]
+
+		and:
+		def copied = signature(setBased.id)
+		copied == signature(entityBased.id)
+
+		and:
+		copied.FOLDER
+		copied.CUFS*.VALUE == ["folder value"]
+		copied.CHILDREN*.NAME == ["test case", "called test case"]
+		copied.CHILDREN[1].CUFS*.VALUE == ["called value"]
+		copied.CHILDREN[1].DATASETS*.NAME == ["called dataset"]
+	}
+
+	private TestCaseLibraryNode copy(boolean setBased, Long destinationId, Long sourceId) {
+		setBasedCopy(setBased)
+		def copies = navService.copyNodesToFolder(destinationId, [sourceId] as Long[])
+		em.flush()
+		copies[0]
+	}
+
+	private void setBasedCopy(boolean enabled) {
+		ReflectionTestUtils.setField(AopTestUtils.getUltimateTargetObject(copier), "enabled", enabled)
+	}
+
+	// ******************** what both copies must share, ids and timestamps aside **********************
+
+	private Map signature(Long nodeId) {
+		Map node = nodeRow(nodeId)
+		Long listId = node.remove("ATTACHMENT_LIST_ID")
+
+		node.FOLDER = count("select count(*) from TEST_CASE_FOLDER where TCLN_ID = ?", nodeId) == 1
+		node.ATTACHMENTS = attachments(listId)
+		node.CUFS = cufs(nodeId, "TEST_CASE", "TESTCASE_FOLDER")
+
+		node.TEST_CASE = rows("""select VERSION, EXECUTION_MODE, IMPORTANCE, IMPORTANCE_AUTO, PREREQUISITE, REFERENCE,
+			TA_TEST, TC_STATUS, TC_NATURE, TC_TYPE, AUTOMATABLE from TEST_CASE where TCLN_ID = ?""", nodeId)
+		node.SCRIPT = rows("select SCRIPT from SCRIPTED_TEST_CASE where TCLN_ID = ?", nodeId)
+		node.STEPS = rows("select STEP_ID, STEP_ORDER from TEST_CASE_STEPS where TEST_CASE_ID = ? order by STEP_ORDER", nodeId)
+			.collect { step(it.STEP_ID, nodeId) + [STEP_ORDER: it.STEP_ORDER] }
+		node.PARAMETERS = rows("select NAME, DESCRIPTION from PARAMETER where TEST_CASE_ID = ? order by NAME", nodeId)
+		node.DATASETS = rows("select DATASET_ID, NAME from DATASET where TEST_CASE_ID = ? order by NAME", nodeId)
+			.collect { [NAME: it.NAME, VALUES: paramValues(it.DATASET_ID, nodeId)] }
+		node.MILESTONES = column("select MILESTONE_ID from MILESTONE_TEST_CASE where TEST_CASE_ID = ? order by MILESTONE_ID", nodeId)
+		node.COVERAGES = column("""select VERIFIED_REQ_VERSION_ID from REQUIREMENT_VERSION_COVERAGE
+			where VERIFYING_TEST_CASE_ID = ? order by VERIFIED_REQ_VERSION_ID""", nodeId)
+
+		node.CHILDREN = rows("select DESCENDANT_ID, CONTENT_ORDER from TCLN_RELATIONSHIP where ANCESTOR_ID = ? order by CONTENT_ORDER", nodeId)
+			.collect { signature(it.DESCENDANT_ID) + [CONTENT_ORDER: it.CONTENT_ORDER] }
+		node
+	}
+
+	private Map nodeRow(Long nodeId) {
+		rows("select NAME, DESCRIPTION, PROJECT_ID, CREATED_BY, ATTACHMENT_LIST_ID from TEST_CASE_LIBRARY_NODE where TCLN_ID = ?", nodeId)[0]
+	}
+
+	private List<String> content(Long folderId) {
+		column("""select n.NAME from TEST_CASE_LIBRARY_NODE n join TCLN_RELATIONSHIP r on r.DESCENDANT_ID = n.TCLN_ID
+			where r.ANCESTOR_ID = ? order by n.NAME""", folderId)
+	}
+
+	private Map step(Long stepId, Long testCaseId) {
+		List action = rows("select ACTION, EXPECTED_RESULT, ATTACHMENT_LIST_ID from ACTION_TEST_STEP where TEST_STEP_ID = ?", stepId)
+		List attachments = action ? attachments(action[0].remove("ATTACHMENT_LIST_ID")) : []
+
+		[
+			ACTION     : action,
+			ATTACHMENTS: attachments,
+			CALL       : rows("""select CALLED_TEST_CASE_ID, CALLED_DATASET, DELEGATE_PARAMETER_VALUES from CALL_TEST_STEP
+				where TEST_STEP_ID = ?""", stepId),
+			CUFS       : cufs(stepId, "TEST_STEP"),
+			// the coverages the step verifies must be those of its own test case
+			VERIFIED   : rows("""select c.VERIFIED_REQ_VERSION_ID,
+				case when c.VERIFYING_TEST_CASE_ID = ? then 0 else c.VERIFYING_TEST_CASE_ID end as OWNER
+				from VERIFYING_STEPS v join REQUIREMENT_VERSION_COVERAGE c on c.REQUIREMENT_VERSION_COVERAGE_ID = v.REQUIREMENT_VERSION_COVERAGE_ID
+				where v.TEST_STEP_ID = ? order by c.VERIFIED_REQ_VERSION_ID""", testCaseId, stepId)
+		]
+	}
+
+	/*
+	 * The values of the parameters of the test case itself must point to the parameters of the copy, the other ones
+	 * to the parameters of the called test cases.
+	 */
+	private List paramValues(Long datasetId, Long testCaseId) {
+		rows("""select p.NAME, case when p.TEST_CASE_ID = ? then 0 else p.TEST_CASE_ID end as PARAM_OWNER, v.PARAM_VALUE
+			from DATASET_PARAM_VALUE v join PARAMETER p on p.PARAM_ID = v.PARAM_ID
+			where v.DATASET_ID = ? order by p.NAME""", testCaseId, datasetId)
+	}
+
+	private List attachments(Long listId) {
+		rows("select NAME, TYPE, SIZE, CONTENT_ID from ATTACHMENT where ATTACHMENT_LIST_ID = ? order by NAME", listId)
+	}
+
+	private List cufs(Long entityId, String... entityTypes) {
+		rows("""select CFV_ID, CF_ID, CFB_ID, BOUND_ENTITY_TYPE, FIELD_TYPE, VALUE, LARGE_VALUE, NUMERIC_VALUE
+			from CUSTOM_FIELD_VALUE where BOUND_ENTITY_ID = ? and BOUND_ENTITY_TYPE in (${entityTypes.collect { "'$it'" }.join(", ")})
+			order by CFB_ID desc""", entityId)
+			.collect { cuf ->
+				Long cfvId = cuf.remove("CFV_ID")
+				cuf + [OPTIONS: rows("select LABEL, POSITION from CUSTOM_FIELD_VALUE_OPTION where CFV_ID = ? order by POSITION", cfvId)]
+			}
+	}
+
+	private List<Map> rows(String sql, Object... bindings) {
+		DSL.fetch(sql, bindings).intoMaps().collect { row ->
+			row.collectEntries { k, v -> [(k.toUpperCase()): v instanceof Number && !(v instanceof BigDecimal) ? v.longValue() : v] }
+		}
+	}
+
+	private List column(String sql, Object... bindings) {
+		rows(sql, bindings).collect { it.values()[0] }
+	}
+
+	private long count(String sql, Object... bindings) {
+		column(sql, bindings)[0]
+	}
+
+}
@@ -23,8 +23,11 @@ package org.squashtest.tm.service.workspace
 import org.apache.commons.collections.MultiMap
 import org.apache.commons.collections.map.MultiValueMap
 import org.spockframework.util.NotThreadSafe
+import org.springframework.test.context.ContextConfiguration
+import org.springframework.test.context.ContextHierarchy
 import org.springframework.transaction.annotation.Transactional
 import org.squashtest.it.basespecs.DbunitServiceSpecification
+import org.squashtest.it.config.EnabledAclSpecConfig
 import org.squashtest.tm.service.internal.dto.PermissionWithMask
 import org.squashtest.tm.service.internal.dto.UserDto
 import org.squashtest.tm.service.internal.dto.json.JsTreeNode
@@ -37,6 +40,10 @@ import javax.inject.Inject
 @UnitilsSupport
 @Transactional
 @NotThreadSafe
+@ContextHierarchy([
+	// the permission maps are resolved by the acl service
+	@ContextConfiguration(name="aclcontext", classes = [EnabledAclSpecConfig], inheritLocations=false)
+])
 class RequirementWorkspaceDisplayServiceIT extends DbunitServiceSpecification {
 
 	@Inject
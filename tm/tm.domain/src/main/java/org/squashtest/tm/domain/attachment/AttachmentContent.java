@@ -57,6 +57,12 @@ public class AttachmentContent {
 	@Basic(fetch = FetchType.LAZY)
 	private Blob streamContent;
 
+	/**
+	 * sha-256 of the content, when it is stored in a content addressed repository. Null otherwise.
+	 */
+	@Column(name = "CONTENT_HASH")
+	private String contentHash;
+
 	public InputStream getStream() {
 		try {
 			return streamContent.getBinaryStream();
@@ -65,6 +71,17 @@ public class AttachmentContent {
 		}
 	}
 
+	/**
+	 * @return the length in bytes of the content
+	 */
+	public long getLength() {
+		try {
+			return streamContent.length();
+		} catch (SQLException e) {
+			throw new JDBCException("Cannot read the length of the blob property", e);
+		}
+	}
+
 	public void setContent(Blob content) {
 		this.streamContent = content;
 	}
@@ -76,6 +93,7 @@ public class AttachmentContent {
 		// whereas the
 		// AttachmentContent is. Do you really want to clone an input stream anyway ?
 		clone.streamContent = this.streamContent;
+		clone.contentHash = this.contentHash;
 		return clone;
 	}
 
@@ -83,4 +101,12 @@ public class AttachmentContent {
 		return id;
 	}
 
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	public void setContentHash(String contentHash) {
+		this.contentHash = contentHash;
+	}
+
 }
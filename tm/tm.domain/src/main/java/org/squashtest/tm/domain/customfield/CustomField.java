@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.domain.customfield;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NamedQueries;
 import org.hibernate.annotations.NamedQuery;
 import org.slf4j.Logger;
@@ -57,6 +59,7 @@ import java.util.Date;
 	@NamedQuery(name = "CustomField.countCustomFields", query = "select count(*) from CustomField"),
 	@NamedQuery(name = "CustomField.findByCode", query = "from CustomField where code = ?1")})
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "FIELD_TYPE", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue("CF")
@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.domain.customfield;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.squashtest.tm.domain.Identified;
 import org.squashtest.tm.domain.project.GenericProject;
 import org.squashtest.tm.domain.project.Project;
@@ -52,6 +54,7 @@ import java.util.Set;
  * @author Gregory Fouquet
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CustomFieldBinding implements Identified{
 	@Id
 	@Column(name = "CFB_ID")
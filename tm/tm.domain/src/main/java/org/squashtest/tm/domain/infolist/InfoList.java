@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.domain.infolist;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import org.squashtest.tm.domain.Identified;
 import org.squashtest.tm.domain.audit.Auditable;
@@ -45,6 +47,7 @@ import java.util.Iterator;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Auditable
 public class InfoList implements Identified {
 
@@ -69,6 +72,7 @@ public class InfoList implements Identified {
 	@Valid @UniqueItems @HasDefaultItem("isDefault")
 	@OneToMany(cascade = { CascadeType.PERSIST, CascadeType.MERGE })
 	@OrderColumn(name = "ITEM_INDEX")
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@JoinColumn(name = "LIST_ID")
 	private List<InfoListItem> items = new ArrayList<>();
 
@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.domain.infolist;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.apache.commons.lang3.StringUtils;
 import org.squashtest.tm.domain.Identified;
 
@@ -39,6 +41,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "ITEM_TYPE", discriminatorType = DiscriminatorType.STRING)
 public abstract class InfoListItem implements Identified {
@@ -65,6 +65,13 @@ import java.util.Map;
  * </p>
  *
  * <p>
+ *     <b>fulltext_search</b>(column, 'token1 | token2') : tells whether the column contains any of the tokens, using the
+ *     full text search of the database. Postgresql matches the column against the expression indexes
+ *     <code>to_tsvector('simple', column)</code> (which it maintains by itself on each write), Mysql uses the FULLTEXT
+ *     indexes, and H2 falls back to a case insensitive regular expression that needs no index.
+ * </p>
+ *
+ * <p>
  * 	Syntax is as follow :
  *  <ul>
  *  	<li><pre>group_concat(<it>col identifier</it>)</pre>will concatenate as expected over the column identifier.</li>
@@ -141,6 +148,7 @@ public final class HibernateDialectExtensions {
             extensions.put(FN_NAME_GROUP_CONCAT, new GroupConcatFunction(FN_NAME_GROUP_CONCAT, StringType.INSTANCE));
 			extensions.put(FN_NAME_MATCHES, new Regexp());
 			extensions.put(FN_NAME_I_MATCHES, new InsensitiveRegexp());
+			extensions.put(FN_NAME_FULLTEXT, new RegexpFullTextSearch());
 			extensions.put(FN_INSENSITIVE_LIKE, new LikeInsensitiveSearch());
             return extensions;
         }
@@ -332,8 +340,24 @@ public final class HibernateDialectExtensions {
 		}
 	}
 
+	/*
+	 * The text search configuration must be the one of the GIN indexes on the searched columns (see the
+	 * changelogs), else the planner cannot use them and scans the whole table.
+	 */
 	private static final class TsQueryFullTextSearch extends SQLFunctionTemplate{
-		public TsQueryFullTextSearch() {super(BooleanType.INSTANCE, " (?1 @@ to_tsquery(?2))");}
+		public TsQueryFullTextSearch() {super(BooleanType.INSTANCE, " (to_tsvector('simple', ?1) @@ to_tsquery('simple', ?2))");}
+	}
+
+	/*
+	 * The tokens are searched literally : the escaping of the ampersands meant for postgresql is undone, then every
+	 * regular expression metacharacter is escaped (the question mark as \x3F, a bare one would be taken for a
+	 * parameter of the template). The separators ' | ', escaped as well, finally become an alternation.
+	 */
+	private static final class RegexpFullTextSearch extends SQLFunctionTemplate{
+		public RegexpFullTextSearch() {
+			super(BooleanType.INSTANCE, " ( LOWER(?1) regexp LOWER(REPLACE(REGEXP_REPLACE(REPLACE(?2, '\\&', '&'), "
+				+ "'[\\\\\\[\\]{}()*+\\x3F.^$|]', '\\\\$0'), ' \\| ', '|')) ) ");
+		}
 	}
 
 	private static  final class LikeInsensitiveSearch extends  SQLFunctionTemplate{
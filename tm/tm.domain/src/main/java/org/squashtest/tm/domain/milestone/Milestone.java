@@ -22,6 +22,8 @@ package org.squashtest.tm.domain.milestone;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.Predicate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.squashtest.tm.domain.Identified;
@@ -65,6 +67,7 @@ import java.util.Set;
 
 @Auditable
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "MILESTONE")
 public class Milestone implements Identified {
 
@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.domain.requirement;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.squashtest.tm.domain.Identified;
 
 import javax.persistence.Column;
@@ -36,6 +38,7 @@ import javax.validation.constraints.Size;
  * Created by jlor on 09/05/2017.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "REQUIREMENT_VERSION_LINK_TYPE")
 public class RequirementVersionLinkType implements Identified {
 
@@ -20,8 +20,19 @@
  */
 package org.squashtest.tm.service;
 
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * JSR 107 (JCache)-based cache configuration, the provider being ehcache 3 (org.ehache, not net.sf.ehcache).
@@ -32,6 +43,10 @@ import org.springframework.context.annotation.Configuration;
  *
  * Also used in SecurityConfig for the AclCache
  *
+ * When squashtm.cache.second-level.enabled is set, the same cache manager backs the Hibernate second-level cache of the
+ * reference entities (projects, info lists, custom fields...). It is off by default because it assumes the database
+ * is only modified through the application.
+ *
  */
 @Configuration
 // forcing highest precedence, because caches don't depend on any other things
@@ -39,4 +54,33 @@ import org.springframework.context.annotation.Configuration;
 @EnableCaching
 public class CacheConfig {
 
+	/**
+	 * Hibernate builds its own JCache manager from the uri of the configuration file. Ehcache only understands actual
+	 * urls, so the spring resource is resolved beforehand. Both managers being created from the same uri and
+	 * classloader, Hibernate and Spring end up sharing the same one.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "squashtm.cache.second-level.enabled", havingValue = "true")
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+		@Value("${spring.cache.jcache.config:classpath:ehcache.xml}") Resource cacheConfig,
+		@Value("${squashtm.cache.second-level.statistics:true}") boolean statistics) {
+
+		return properties -> {
+			properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+			properties.put(AvailableSettings.USE_QUERY_CACHE, "true");
+			properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+			properties.put(JCacheRegionFactory.PROVIDER, EhcacheCachingProvider.class.getName());
+			properties.put(JCacheRegionFactory.CONFIG_URI, resolveUri(cacheConfig));
+			properties.put(AvailableSettings.GENERATE_STATISTICS, String.valueOf(statistics));
+		};
+	}
+
+	private static String resolveUri(Resource resource) {
+		try {
+			return resource.getURI().toString();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot resolve the cache configuration " + resource.getDescription(), e);
+		}
+	}
+
 }
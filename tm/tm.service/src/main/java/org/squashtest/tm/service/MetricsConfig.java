@@ -0,0 +1,57 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.squashtest.tm.service.internal.hibernate.StatementCounter;
+
+/**
+ * Metrics configuration. The meter registry and the metrics endpoint are provided by the actuator in the web layer;
+ * this configuration makes the service layer record its own metrics in that registry :
+ *
+ * <ul>
+ *     <li>the methods annotated with @{@link io.micrometer.core.annotation.Timed} are timed,</li>
+ *     <li>the SQL statements prepared by Hibernate are counted by the {@link StatementCounter}.</li>
+ * </ul>
+ *
+ * When there is no registry (eg in tests), the metrics are recorded in a throwaway one.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public TimedAspect timedAspect(ObjectProvider<MeterRegistry> registry) {
+		return new TimedAspect(registry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+	}
+
+}
@@ -79,6 +79,7 @@ import org.squashtest.tm.service.internal.spring.CompositeDelegatingParameterNam
 import org.squashtest.tm.service.security.acls.ExtraPermissionEvaluator;
 import org.squashtest.tm.service.security.acls.domain.DatabaseBackedObjectIdentityGeneratorStrategy;
 import org.squashtest.tm.service.security.acls.domain.InheritableAclsObjectIdentityRetrievalStrategy;
+import org.squashtest.tm.service.security.acls.model.BatchObjectIdentityGenerator;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -285,7 +286,7 @@ public class SecurityConfig {
 	}
 
 	@Bean("squashtest.core.security.ObjectIdentityGeneratorStrategy")
-	public ObjectIdentityGenerator objectIdentityGenerator(){
+	public BatchObjectIdentityGenerator objectIdentityGenerator(){
 		return new DatabaseBackedObjectIdentityGeneratorStrategy(objectIdentityRetrievalStrategy());
 	}
 
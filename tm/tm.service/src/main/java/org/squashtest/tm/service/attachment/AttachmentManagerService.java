@@ -26,10 +26,12 @@ import org.squashtest.tm.domain.attachment.AttachmentList;
 import org.squashtest.tm.domain.attachment.ExternalContentCoordinates;
 import org.squashtest.tm.domain.execution.ExecutionStep;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AttachmentManagerService extends AttachmentFinderService {
 	/**
@@ -52,6 +54,31 @@ public interface AttachmentManagerService extends AttachmentFinderService {
 	 */
 	void writeContent(long attachmentId, OutputStream os) throws IOException;
 
+	/**
+	 * Writes a range of the attachment content into the given stream.
+	 * @param attachmentId
+	 * @param start the offset of the first byte to write
+	 * @param length the number of bytes to write, or -1 to write up to the end of the content
+	 * @param os
+	 * @throws IOException
+	 */
+	void writeContent(long attachmentId, long start, long length, OutputStream os) throws IOException;
+
+	/**
+	 * @param attachmentId
+	 * @return the size in bytes of the attachment content, as stored in the repository
+	 * @throws IOException
+	 */
+	long getContentSize(long attachmentId) throws IOException;
+
+	/**
+	 * Returns the file holding the attachment content, so that the web layer can hand the download over to the servlet
+	 * container. There is no such file unless attachments are stored on the file system.
+	 * @param attachmentId
+	 * @return the file, or nothing
+	 */
+	Optional<File> findContentFile(long attachmentId);
+
 	/**
 	 * Copy content. Should only be used in case of file repository.
 	 * Our nice rich domain model should do the copy when needed if database repo
@@ -0,0 +1,67 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.batchimport;
+
+import java.io.File;
+
+/**
+ * <p>Runs excel imports in the background, by committed chunks of rows, for files too large for a single transaction.</p>
+ *
+ * <p>
+ * Jobs are identified by an id and can only be seen by the user who started them. The import file is handed over
+ * to the job, which deletes it once the job is over. A job which failed can be resumed from its last committed chunk.
+ * </p>
+ */
+public interface BatchImportJobService {
+
+	/**
+	 * Starts the import of test cases from the given file.
+	 *
+	 * @param excelFile the import file
+	 * @return the id of the job
+	 */
+	String startTestCaseImport(File excelFile);
+
+	/**
+	 * Starts the import of requirements from the given file.
+	 *
+	 * @param excelFile the import file
+	 * @return the id of the job
+	 */
+	String startRequirementImport(File excelFile);
+
+	/**
+	 * @param jobId id of a job started by the current user
+	 * @return the progress of the job
+	 * @throws IllegalArgumentException when the job is unknown
+	 */
+	BatchImportProgress getProgress(String jobId);
+
+	/**
+	 * Runs again a failed job, starting from its last committed chunk of rows.
+	 *
+	 * @param jobId id of a job started by the current user
+	 * @throws IllegalArgumentException when the job is unknown
+	 * @throws IllegalStateException when the job did not fail
+	 */
+	void resume(String jobId);
+
+}
@@ -0,0 +1,90 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.batchimport;
+
+import org.squashtest.tm.service.importer.ImportLog;
+
+/**
+ * Snapshot of the progress of an import job run by {@link BatchImportJobService}.
+ */
+public class BatchImportProgress {
+
+	public enum Status {
+		RUNNING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final String jobId;
+	private final Status status;
+	private final int processedCount;
+	private final int errorCount;
+	private final ImportLog importLog;
+	private final String failureMessage;
+
+	public BatchImportProgress(String jobId, Status status, int processedCount, int errorCount, ImportLog importLog,
+							   String failureMessage) {
+		super();
+		this.jobId = jobId;
+		this.status = status;
+		this.processedCount = processedCount;
+		this.errorCount = errorCount;
+		this.importLog = importLog;
+		this.failureMessage = failureMessage;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the number of rows imported (or rejected) and committed so far
+	 */
+	public int getProcessedCount() {
+		return processedCount;
+	}
+
+	/**
+	 * @return the number of rows rejected so far
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return the log of the import once {@link Status#COMPLETED}, <code>null</code> otherwise
+	 */
+	public ImportLog getImportLog() {
+		return importLog;
+	}
+
+	/**
+	 * @return the reason of the failure when {@link Status#FAILED}, <code>null</code> otherwise
+	 */
+	public String getFailureMessage() {
+		return failureMessage;
+	}
+
+}
@@ -142,6 +142,15 @@ public interface BugTrackersLocalService {
 	PagedCollectionHolder<List<IssueOwnership<RemoteIssueDecorator>>> findSortedIssueOwnershipForIteration(Long iterId,
 			PagingAndSorting sorter);
 
+	/**
+	 * Given an Iteration, starts loading in the background the remote issues declared in it which are not known yet,
+	 * so that its issue tables can be served without waiting for the bugtrackers. Returns immediately.
+	 *
+	 * @param iterId
+	 *            of which the issues should be loaded
+	 */
+	void prefetchIssuesOfIteration(Long iterId);
+
 	/**
 	 * Given an Campaign, returns a list of linked BTIssue (not Issue)<br>
 	 * <br>
@@ -0,0 +1,74 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.cache;
+
+/**
+ * Usage statistics of a second-level cache region.
+ */
+public final class CacheRegionStatistics {
+
+	private final String region;
+	private final long hitCount;
+	private final long missCount;
+	private final long putCount;
+	private final long elementCount;
+
+	public CacheRegionStatistics(String region, long hitCount, long missCount, long putCount, long elementCount) {
+		super();
+		this.region = region;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.elementCount = elementCount;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getPutCount() {
+		return putCount;
+	}
+
+	/**
+	 * @return the number of cached elements, or a negative number when the provider does not tell.
+	 */
+	public long getElementCount() {
+		return elementCount;
+	}
+
+	/**
+	 * @return the ratio of lookups served by the cache, 0 when the region was never looked up.
+	 */
+	public double getHitRatio() {
+		long lookups = hitCount + missCount;
+		return lookups == 0 ? 0d : (double) hitCount / lookups;
+	}
+
+}
@@ -0,0 +1,45 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.cache;
+
+import java.util.List;
+
+/**
+ * Administration of the Hibernate second-level cache of the reference entities (see CacheConfig).
+ */
+public interface SecondLevelCacheService {
+
+	/**
+	 * Evicts the cached instances of the given entities, the collections they own and the cached query results.
+	 * When a transaction is running, the eviction happens once it is over so that concurrent transactions cannot put
+	 * back stale data in the meantime.
+	 *
+	 * @param entityTypes the entity types, usually the root of their hierarchy
+	 */
+	void evict(Class<?>... entityTypes);
+
+	/**
+	 * @return the usage statistics of every cache region, sorted by region name. Empty when the cache or its
+	 * statistics are disabled.
+	 */
+	List<CacheRegionStatistics> findRegionStatistics();
+
+}
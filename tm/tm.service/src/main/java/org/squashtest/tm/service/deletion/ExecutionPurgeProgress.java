@@ -0,0 +1,66 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.deletion;
+
+/**
+ * Snapshot of the progress of the purge run by {@link ExecutionPurgeService}.
+ */
+public class ExecutionPurgeProgress {
+
+	private final boolean running;
+	private final int pendingCount;
+	private final long purgedCount;
+	private final String failureMessage;
+
+	public ExecutionPurgeProgress(boolean running, int pendingCount, long purgedCount, String failureMessage) {
+		super();
+		this.running = running;
+		this.pendingCount = pendingCount;
+		this.purgedCount = purgedCount;
+		this.failureMessage = failureMessage;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return the number of executions waiting to be purged
+	 */
+	public int getPendingCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * @return the number of executions purged since the application started
+	 */
+	public long getPurgedCount() {
+		return purgedCount;
+	}
+
+	/**
+	 * @return the reason why the last purge failed, <code>null</code> when it did not fail
+	 */
+	public String getFailureMessage() {
+		return failureMessage;
+	}
+
+}
@@ -0,0 +1,46 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.deletion;
+
+/**
+ * <p>Purges in the background the executions deleted by the users.</p>
+ *
+ * <p>
+ * Deleting executions, or the iterations and campaigns which hold them, only tombstones the executions : they are
+ * detached from their test plan at once and queued. The rows themselves are deleted afterwards by batches, each one
+ * in its own transaction. The purge is started after each deletion and on a regular basis, which also resumes the
+ * purges interrupted by a shutdown.
+ * </p>
+ */
+public interface ExecutionPurgeService {
+
+	/**
+	 * Starts the purge of the queued executions, unless it is already running. When called within a transaction,
+	 * the purge starts once that transaction is committed.
+	 */
+	void startPurge();
+
+	/**
+	 * @return the progress of the purge
+	 */
+	ExecutionPurgeProgress getProgress();
+
+}
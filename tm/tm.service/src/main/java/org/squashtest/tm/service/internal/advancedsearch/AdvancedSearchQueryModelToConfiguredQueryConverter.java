@@ -702,7 +702,11 @@ public class AdvancedSearchQueryModelToConfiguredQueryConverter {
 		filterColumn.setOperation(operation);
 	}
 
-	// TODO create the filter for fulltext_search search
+	/*
+	 * Columns of type TEXT are backed by a full text index (see HibernateDialectExtensions#FN_NAME_FULLTEXT), the others
+	 * are searched with a LIKE. The full text search matches any of the tokens of the value, which are separated with
+	 * ' | ' whatever the number of blanks between them : an empty token would be a syntax error in a postgresql tsquery.
+	 */
 	private void filterByFullText(QueryFilterColumn filterColumn, AdvancedSearchFieldModel fieldModel) {
 
 		AdvancedSearchTextFieldModel textFieldModel = (AdvancedSearchTextFieldModel) fieldModel;
@@ -710,7 +714,7 @@ public class AdvancedSearchQueryModelToConfiguredQueryConverter {
 		String value = textFieldModel.getValue();
 		if (filterColumn.getDataType().equals(DataType.TEXT)) {
 			filterColumn.setOperation(Operation.FULLTEXT);
-			value = value.replace(" ", " | ");
+			value = toFullTextTokens(value);
 		} else {
 			filterColumn.setOperation(Operation.LIKE);
 			value = "%" + value + "%";
@@ -723,6 +727,16 @@ public class AdvancedSearchQueryModelToConfiguredQueryConverter {
 	}
 
 
+	/*
+	 * The words are separated by ' | ', read as an alternation by each full text search function (see
+	 * HibernateDialectExtensions).
+	 */
+	static String toFullTextTokens(String value) {
+		return Arrays.stream(value.trim().split("\\s+"))
+			.filter(token -> !token.isEmpty())
+			.collect(Collectors.joining(" | "));
+	}
+
 	private void filterByCheckbox(QueryFilterColumn filterColumn, AdvancedSearchFieldModel fieldModel) {
 
 		SearchCustomFieldCheckBoxFieldModel checkModel = (SearchCustomFieldCheckBoxFieldModel) fieldModel;
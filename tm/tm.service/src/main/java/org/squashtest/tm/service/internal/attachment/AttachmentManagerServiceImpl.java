@@ -42,14 +42,15 @@ import org.squashtest.tm.service.internal.repository.AttachmentListDao;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /*
@@ -68,11 +69,6 @@ import java.util.Set;
 @Service("squashtest.tm.service.AttachmentManagerService")
 @Transactional
 public class AttachmentManagerServiceImpl implements AttachmentManagerService {
-	/**
-	 *
-	 */
-	private static final int EOF = -1;
-
 	@PersistenceContext
 	private EntityManager em;
 
@@ -181,20 +177,22 @@ public class AttachmentManagerServiceImpl implements AttachmentManagerService {
 	 */
 	@Override
 	public void writeContent(long attachmentId, OutputStream outStream) throws IOException {
-		InputStream is = getAttachmentRepository().getContentStream(attachmentId);
-
-		int readByte;
-
-		do {
-			readByte = is.read();
+		getAttachmentRepository().writeContent(attachmentId, 0, -1, outStream);
+	}
 
-			if (readByte != EOF) {
-				outStream.write(readByte);
-			}
-		} while (readByte != EOF);
+	@Override
+	public void writeContent(long attachmentId, long start, long length, OutputStream outStream) throws IOException {
+		getAttachmentRepository().writeContent(attachmentId, start, length, outStream);
+	}
 
-		is.close();
+	@Override
+	public long getContentSize(long attachmentId) throws IOException {
+		return getAttachmentRepository().getContentSize(attachmentId);
+	}
 
+	@Override
+	public Optional<File> findContentFile(long attachmentId) {
+		return getAttachmentRepository().getContentFile(attachmentId);
 	}
 
 	@Override
@@ -218,7 +216,7 @@ public class AttachmentManagerServiceImpl implements AttachmentManagerService {
 
 	@Override
 	public void removeContent(long attachmentListId, long attachmentContentId) {
-		if (attachmentRepository.getClass().getSimpleName().equals("FileSystemAttachmentRepository")) {
+		if (attachmentRepository instanceof FileSystemAttachmentRepository) {
 			removeContentFromFileSystem(attachmentListId, attachmentContentId);
 		}
 	}
@@ -245,7 +243,7 @@ public class AttachmentManagerServiceImpl implements AttachmentManagerService {
 		removeOrphanAttachmentContents(contentIds);
 
 		// remove from FileSystem
-		if (attachmentRepository.getClass().getSimpleName().contains("FileSystemAttachmentRepository")) {
+		if (attachmentRepository instanceof FileSystemAttachmentRepository) {
 			for (ExternalContentCoordinates externalCoord:contentIdListIdList) {
 				removeContentFromFileSystem(externalCoord.getAttachmentListId(), externalCoord.getContentId());
 			}
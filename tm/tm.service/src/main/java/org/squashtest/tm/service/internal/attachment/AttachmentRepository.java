@@ -24,10 +24,13 @@ import org.squashtest.tm.domain.attachment.Attachment;
 import org.squashtest.tm.domain.attachment.AttachmentContent;
 import org.squashtest.tm.service.attachment.RawAttachment;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
 
 public interface AttachmentRepository {
 
@@ -35,6 +38,28 @@ public interface AttachmentRepository {
 
 	InputStream getContentStream(Long attachmentId) throws FileNotFoundException;
 
+	/**
+	 * @param attachmentId the id of the attachment
+	 * @return the size in bytes of the stored content
+	 */
+	long getContentSize(Long attachmentId) throws IOException;
+
+	/**
+	 * Writes a range of the content of an attachment into the given stream.
+	 *
+	 * @param attachmentId the id of the attachment
+	 * @param start the offset of the first byte to write
+	 * @param length the number of bytes to write, or -1 to write up to the end of the content
+	 * @param outStream the stream to write into, which is not closed
+	 */
+	void writeContent(Long attachmentId, long start, long length, OutputStream outStream) throws IOException;
+
+	/**
+	 * @param attachmentId the id of the attachment
+	 * @return the file holding the content of the attachment, or nothing when the content is not stored as a file
+	 */
+	Optional<File> getContentFile(Long attachmentId);
+
 	void removeContent(long attachmentId) throws IOException;
 
 	void copyContent(Attachment copy);
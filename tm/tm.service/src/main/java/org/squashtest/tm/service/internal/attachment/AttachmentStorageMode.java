@@ -21,5 +21,5 @@
 package org.squashtest.tm.service.internal.attachment;
 
 public enum AttachmentStorageMode {
-	DATABASE,FILE_REPOSITORY
+	DATABASE,FILE_REPOSITORY,CONTENT_ADDRESSED_FILE_REPOSITORY
 }
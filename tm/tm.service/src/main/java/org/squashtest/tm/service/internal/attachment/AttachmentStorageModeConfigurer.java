@@ -29,6 +29,7 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import static org.squashtest.tm.service.internal.attachment.AttachmentStorageMode.CONTENT_ADDRESSED_FILE_REPOSITORY;
 import static org.squashtest.tm.service.internal.attachment.AttachmentStorageMode.DATABASE;
 import static org.squashtest.tm.service.internal.attachment.AttachmentStorageMode.FILE_REPOSITORY;
 
@@ -50,6 +51,10 @@ public class AttachmentStorageModeConfigurer {
 		if(isFileRepo){
 			attachmentStorageMode = FILE_REPOSITORY;
 			LOGGER.info("The property 'squashtm.feature.file.repository' is set to true. Attachments will be stored in file system.");
+			if (environment.getProperty("squashtm.feature.file.repository.content-addressed", Boolean.class, Boolean.FALSE)) {
+				attachmentStorageMode = CONTENT_ADDRESSED_FILE_REPOSITORY;
+				LOGGER.info("The property 'squashtm.feature.file.repository.content-addressed' is set to true. Identical attachment contents will be stored once.");
+			}
 			repoPath = environment.getRequiredProperty("squash.path.file.repository");
 			repoPath = StringUtils.appendIfMissing(repoPath, "/");
 			LOGGER.info("File repository path is configure as : {}", repoPath);
@@ -0,0 +1,213 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.attachment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.attachment.Attachment;
+import org.squashtest.tm.domain.attachment.AttachmentContent;
+import org.squashtest.tm.service.attachment.RawAttachment;
+import org.squashtest.tm.service.internal.repository.AttachmentDao;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>File repository which stores each distinct content once, under its sha-256 hash. Each upload gets its own
+ * {@link AttachmentContent} holding the hash, so a stored file is referenced by as many attachments as share that hash.
+ * Copying an attachment shares its content and costs no file operation.</p>
+ *
+ * <p>Files are never deleted along with the attachments : the {@link ContentAddressedStoreSweeper} reclaims those which
+ * are not referenced anymore. Contents uploaded before this repository was enabled have no hash, they are still read
+ * from and deleted in the layout of {@link FileSystemAttachmentRepository}.</p>
+ */
+@Component("contentAddressedAttachmentRepository")
+@ConditionalOnExpression("${squashtm.feature.file.repository:false} and ${squashtm.feature.file.repository.content-addressed:false}")
+public class ContentAddressedAttachmentRepository extends FileSystemAttachmentRepository {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContentAddressedAttachmentRepository.class);
+
+	static final String STORE_FOLDER = "sha256";
+	static final String TMP_FOLDER = "tmp";
+
+	/*
+	 * Storing a content takes the read lock, the sweeper takes the write lock to delete a file. Thus a file cannot be
+	 * deleted between the moment an upload finds it and the moment it marks it as recently used.
+	 */
+	static final ReadWriteLock STORE_LOCK = new ReentrantReadWriteLock();
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Inject
+	private AttachmentDao attachmentDao;
+
+	@Inject
+	private AttachmentStorageModeConfigurer storageConfigurer;
+
+	@Override
+	public AttachmentContent createContent(RawAttachment rawAttachment, long attachmentListId) throws IOException {
+		Path tmpFolder = Files.createDirectories(getStorePath(storageConfigurer.getRepoPath()).resolve(TMP_FOLDER));
+		Path tmpFile = Files.createTempFile(tmpFolder, "upload", ".tmp");
+
+		String hash;
+		try {
+			hash = copyAndHash(rawAttachment.getStream(), tmpFile);
+			store(tmpFile, getContentPath(storageConfigurer.getRepoPath(), hash));
+		} finally {
+			Files.deleteIfExists(tmpFile);
+		}
+
+		AttachmentContent content = new AttachmentContent();
+		content.setContentHash(hash);
+		entityManager.persist(content);
+		return content;
+	}
+
+	private String copyAndHash(InputStream stream, Path target) throws IOException {
+		MessageDigest digest = newDigest();
+
+		try (InputStream digestStream = new DigestInputStream(stream, digest)) {
+			Files.copy(digestStream, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hash.append(String.format("%02x", b));
+		}
+		return hash.toString();
+	}
+
+	private void store(Path tmpFile, Path target) throws IOException {
+		STORE_LOCK.readLock().lock();
+		try {
+			if (Files.exists(target)) {
+				LOGGER.debug("Content {} is already stored", target.getFileName());
+				// marks the file as recently used, so that the sweeper leaves it alone until the attachment is committed
+				Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+			} else {
+				Files.createDirectories(target.getParent());
+				Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+		} catch (FileAlreadyExistsException e) {
+			// the same content was stored concurrently
+			LOGGER.debug("Content {} was stored concurrently", target.getFileName(), e);
+		} finally {
+			STORE_LOCK.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The copy shares the content of the original attachment, thus there is nothing to copy, unless the content was
+	 * stored before the repository was content addressed.
+	 */
+	@Override
+	public void copyContent(Attachment copy) {
+		if (isContentAddressed(copy.getContent())) {
+			return;
+		}
+		super.copyContent(copy);
+	}
+
+	/**
+	 * The file is removed by the sweeper once no attachment references it.
+	 */
+	@Override
+	public void removeContent(long attachmentId) throws IOException {
+		if (isContentAddressed(attachmentDao.getOne(attachmentId).getContent())) {
+			return;
+		}
+		super.removeContent(attachmentId);
+	}
+
+	/**
+	 * Only contents stored before the content addressed mode was enabled live in the folder of their list, the
+	 * others are removed by the sweeper.
+	 */
+	@Override
+	public void removeContent(long attachmentListId, long attachmentContentId) {
+		if (Files.exists(Paths.get(findFolderPath(attachmentListId) + attachmentContentId))) {
+			super.removeContent(attachmentListId, attachmentContentId);
+		}
+	}
+
+	@Override
+	protected String getAttachmentPath(Long attachmentId) {
+		AttachmentContent content = attachmentDao.getOne(attachmentId).getContent();
+
+		if (isContentAddressed(content)) {
+			return getContentPath(storageConfigurer.getRepoPath(), content.getContentHash()).toString();
+		}
+		return super.getAttachmentPath(attachmentId);
+	}
+
+	private boolean isContentAddressed(AttachmentContent content) {
+		return content != null && content.getContentHash() != null;
+	}
+
+	/**
+	 * @param repoPath the path of the file repository
+	 * @return the folder of the content addressed files
+	 */
+	static Path getStorePath(String repoPath) {
+		return Paths.get(repoPath, STORE_FOLDER);
+	}
+
+	/**
+	 * Contents are spread over two levels of folders named after the first bytes of their hash, e.g. the content of hash
+	 * 3fa0c2... is stored as sha256/3f/a0/3fa0c2...
+	 *
+	 * @param repoPath the path of the file repository
+	 * @param hash the hash of the content
+	 * @return the path of the file holding the content
+	 */
+	static Path getContentPath(String repoPath, String hash) {
+		return getStorePath(repoPath).resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every JVM supports sha-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.attachment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.service.internal.repository.AttachmentContentDao;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Periodically deletes the files of the {@link ContentAddressedAttachmentRepository} which no attachment references
+ * anymore, along with the leftovers of failed uploads. Files modified during the grace period are left alone : their
+ * attachment may not be committed yet.
+ */
+@Component
+@ConditionalOnExpression("${squashtm.feature.file.repository:false} and ${squashtm.feature.file.repository.content-addressed:false}")
+public class ContentAddressedStoreSweeper {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContentAddressedStoreSweeper.class);
+
+	private static final int BATCH_SIZE = 500;
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	@Inject
+	@Named("squashtest.tm.service.ThreadPoolTaskScheduler")
+	private TaskScheduler taskScheduler;
+
+	@Inject
+	private AttachmentContentDao attachmentContentDao;
+
+	@Inject
+	private AttachmentStorageModeConfigurer storageConfigurer;
+
+	// delay between two sweeps, in seconds
+	@Value("${squashtm.feature.file.repository.sweep.delay:3600}")
+	private long delay;
+
+	// age under which a file is never deleted, in seconds
+	@Value("${squashtm.feature.file.repository.sweep.grace-period:86400}")
+	private long gracePeriod;
+
+	@PostConstruct
+	public void scheduleSweeps() {
+		long delayMillis = delay * MILLIS_PER_SECOND;
+		LOGGER.info("Unreferenced attachment contents will be swept every {} seconds", delay);
+		taskScheduler.scheduleWithFixedDelay(this::sweep, new Date(System.currentTimeMillis() + delayMillis), delayMillis);
+	}
+
+	/**
+	 * Deletes the files which are older than the grace period and not referenced by any attachment.
+	 *
+	 * @return the number of deleted files
+	 */
+	public int sweep() {
+		Path storePath = ContentAddressedAttachmentRepository.getStorePath(storageConfigurer.getRepoPath());
+		if (!Files.isDirectory(storePath)) {
+			return 0;
+		}
+
+		long threshold = System.currentTimeMillis() - gracePeriod * MILLIS_PER_SECOND;
+		Path tmpPath = storePath.resolve(ContentAddressedAttachmentRepository.TMP_FOLDER);
+		int deleted = 0;
+
+		try (Stream<Path> files = Files.walk(storePath)) {
+			Iterator<Path> iterator = files.filter(Files::isRegularFile).filter(file -> isOlderThan(file, threshold)).iterator();
+			Map<String, Path> batch = new HashMap<>();
+
+			while (iterator.hasNext()) {
+				Path file = iterator.next();
+
+				if (file.startsWith(tmpPath)) {
+					deleted += deleteIfOlderThan(file, threshold) ? 1 : 0;
+				} else {
+					batch.put(file.getFileName().toString(), file);
+				}
+
+				if (batch.size() == BATCH_SIZE || (!iterator.hasNext() && !batch.isEmpty())) {
+					deleted += deleteUnreferenced(batch, threshold);
+					batch.clear();
+				}
+			}
+
+		} catch (IOException | UncheckedIOException e) {
+			LOGGER.error("Failed to sweep the attachment contents in {}", storePath, e);
+		}
+
+		LOGGER.info("{} unreferenced attachment contents were swept", deleted);
+		return deleted;
+	}
+
+	private int deleteUnreferenced(Map<String, Path> filesByHash, long threshold) throws IOException {
+		Set<String> referenced = attachmentContentDao.findReferencedContentHashes(filesByHash.keySet());
+		int deleted = 0;
+
+		for (Map.Entry<String, Path> entry : filesByHash.entrySet()) {
+			if (!referenced.contains(entry.getKey()) && deleteIfOlderThan(entry.getValue(), threshold)) {
+				deleted++;
+			}
+		}
+
+		return deleted;
+	}
+
+	/*
+	 * The age is checked again under the lock : an upload of the same content may have marked the file as used since
+	 * it was listed.
+	 */
+	private boolean deleteIfOlderThan(Path file, long threshold) throws IOException {
+		ContentAddressedAttachmentRepository.STORE_LOCK.writeLock().lock();
+		try {
+			return isOlderThan(file, threshold) && Files.deleteIfExists(file);
+		} finally {
+			ContentAddressedAttachmentRepository.STORE_LOCK.writeLock().unlock();
+		}
+	}
+
+	private boolean isOlderThan(Path file, long threshold) {
+		try {
+			return Files.getLastModifiedTime(file).toMillis() < threshold;
+		} catch (IOException e) {
+			LOGGER.debug("Cannot read the modification time of {}", file, e);
+			return false;
+		}
+	}
+
+}
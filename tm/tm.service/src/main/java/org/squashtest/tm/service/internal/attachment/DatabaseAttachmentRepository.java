@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.attachment;
 
+import org.apache.commons.io.IOUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -31,16 +32,22 @@ import org.squashtest.tm.service.attachment.RawAttachment;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.Blob;
 import java.util.List;
+import java.util.Optional;
 
 @Component("databaseAttachmentRepository")
 @ConditionalOnProperty(name = "squashtm.feature.file.repository", havingValue = "false", matchIfMissing = true)
 @Transactional
 public class DatabaseAttachmentRepository implements AttachmentRepository {
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
@@ -60,6 +67,27 @@ public class DatabaseAttachmentRepository implements AttachmentRepository {
 		return attachment.getContent().getStream();
 	}
 
+	@Override
+	public long getContentSize(Long attachmentId) {
+		Attachment attachment = entityManager.find(Attachment.class, attachmentId);
+		return attachment.getContent().getLength();
+	}
+
+	/**
+	 * Streams the blob through a buffer, the content is never loaded as a whole.
+	 */
+	@Override
+	public void writeContent(Long attachmentId, long start, long length, OutputStream outStream) throws IOException {
+		try (InputStream stream = getContentStream(attachmentId)) {
+			IOUtils.copyLarge(stream, outStream, start, length, new byte[BUFFER_SIZE]);
+		}
+	}
+
+	@Override
+	public Optional<File> getContentFile(Long attachmentId) {
+		return Optional.empty();
+	}
+
 	@Override
 	public void removeContent(long attachmentId) {
 		//NOOP Hibernate took care of deleting the blob
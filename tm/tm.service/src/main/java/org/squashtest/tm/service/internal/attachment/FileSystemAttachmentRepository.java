@@ -24,7 +24,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,13 +41,19 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Component("fileSystemAttachmentRepository")
-@ConditionalOnProperty(name = "squashtm.feature.file.repository", havingValue = "true")
+@ConditionalOnExpression("${squashtm.feature.file.repository:false} and !${squashtm.feature.file.repository.content-addressed:false}")
 @Transactional
 public class FileSystemAttachmentRepository implements AttachmentRepository {
 
@@ -83,6 +89,39 @@ public class FileSystemAttachmentRepository implements AttachmentRepository {
 		return new FileInputStream(path);
 	}
 
+	@Override
+	public long getContentSize(Long attachmentId) throws IOException {
+		return Files.size(Paths.get(getAttachmentPath(attachmentId)));
+	}
+
+	/**
+	 * Transfers the content through {@link FileChannel#transferTo(long, long, WritableByteChannel)}, so that the bytes
+	 * are not copied in the heap when the target allows it.
+	 */
+	@Override
+	public void writeContent(Long attachmentId, long start, long length, OutputStream outStream) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(getAttachmentPath(attachmentId)), StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(outStream);
+			long position = start;
+			long remaining = length < 0 ? channel.size() - start : length;
+
+			while (remaining > 0) {
+				long transferred = channel.transferTo(position, remaining, target);
+				if (transferred <= 0) {
+					// end of file reached
+					break;
+				}
+				position += transferred;
+				remaining -= transferred;
+			}
+		}
+	}
+
+	@Override
+	public Optional<File> getContentFile(Long attachmentId) {
+		return Optional.of(new File(getAttachmentPath(attachmentId)));
+	}
+
 	@Override
 	public void removeContent(long attachmentId) throws IOException {
 		String path = getAttachmentPath(attachmentId);
@@ -136,7 +175,7 @@ public class FileSystemAttachmentRepository implements AttachmentRepository {
 	 * @param attachmentId the ATTACHMENT ID, the method will take care to find the content id for generating path
 	 * @return the path as specified above
 	 */
-	private String getAttachmentPath(Long attachmentId) {
+	protected String getAttachmentPath(Long attachmentId) {
 		Attachment attachment = attachmentDao.getOne(attachmentId);
 		Long attachmentListId = attachment.getAttachmentList().getId();
 		String folderPath = findFolderPath(attachmentListId);
@@ -156,7 +195,7 @@ public class FileSystemAttachmentRepository implements AttachmentRepository {
 	 * @param attachmentListId the attachment list ID
 	 * @return the path as specified above
 	 */
-	private String findFolderPath(long attachmentListId) {
+	protected String findFolderPath(long attachmentListId) {
 		String id = String.valueOf(attachmentListId);
 		String paddedId = StringUtils.leftPad(id, 12, "0");
 		List<String> parts = new ArrayList<>();
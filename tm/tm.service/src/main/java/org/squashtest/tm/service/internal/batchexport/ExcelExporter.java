@@ -69,6 +69,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
 /**
  * @author bsiri
  */
@@ -103,6 +105,10 @@ class ExcelExporter {
 
 	private String errorCellTooLargeMessage;
 
+	// whether some project uses the automation workflow, and which ones. Both are resolved once per export.
+	private Boolean automationWorkflowInUse;
+	private Map<Long, Boolean> automationWorkflowByProject = new HashMap<>();
+
 
 	private static final List<CoverageSheetColumn> COVERAGE_COLUMNS = Arrays.asList(
 		CoverageSheetColumn.REQ_PATH,
@@ -179,6 +185,7 @@ class ExcelExporter {
 	public void init() {
 		createWorkbook();
 		createHeaders();
+		workbook = prepareForRows(workbook);
 	}
 
 	void setMessageSource(MessageSource messageSource) {
@@ -213,11 +220,15 @@ class ExcelExporter {
 
 	private void removeRteFormatFromTestCases(List<TestCaseModel> testCases) {
 		for (TestCaseModel tc : testCases) {
-			tc.setDescription(removeHtml(tc.getDescription()));
-			tc.setPrerequisite(removeHtml(tc.getPrerequisite()));
-			for (ExportModel.CustomField cf : tc.getCufs()) {
-				cf.setValue(removeHtml(cf.getValue()));
-			}
+			removeRteFormat(tc);
+		}
+	}
+
+	private void removeRteFormat(TestCaseModel tc) {
+		tc.setDescription(removeHtml(tc.getDescription()));
+		tc.setPrerequisite(removeHtml(tc.getPrerequisite()));
+		for (ExportModel.CustomField cf : tc.getCufs()) {
+			cf.setValue(removeHtml(cf.getValue()));
 		}
 	}
 
@@ -236,7 +247,7 @@ class ExcelExporter {
 
 	public File print() {
 		try {
-			File temp = File.createTempFile("tc_export_", "xls");
+			File temp = File.createTempFile("tc_export_", getFileExtension());
 			temp.deleteOnExit();
 
 			FileOutputStream fos = new FileOutputStream(temp);
@@ -249,64 +260,76 @@ class ExcelExporter {
 		}
 	}
 
+	/**
+	 * Appends a single test case row, so that the test cases can be written as they are read.
+	 */
+	public void appendTestCase(TestCaseModel tcm, boolean keepRteFormat) {
+		if (!keepRteFormat) {
+			removeRteFormat(tcm);
+		}
+		Sheet tcSheet = workbook.getSheet(TC_SHEET);
+		appendTestCase(tcSheet, tcSheet.getLastRowNum() + 1, tcm);
+	}
+
 	private void appendTestCases(ExportModel model) {
 		List<TestCaseModel> models = model.getTestCases();
 		Sheet tcSheet = workbook.getSheet(TC_SHEET);
-		Row r;
 		int rIdx = tcSheet.getLastRowNum() + 1;
-		int cIdx = 0;
 
 		for (TestCaseModel tcm : models) {
+			appendTestCase(tcSheet, rIdx, tcm);
+			rIdx++;
+		}
+	}
 
-			r = tcSheet.createRow(rIdx);
-
-			try {
-				r.createCell(cIdx++).setCellValue(tcm.getProjectId());
-				r.createCell(cIdx++).setCellValue(tcm.getProjectName());
-				r.createCell(cIdx++).setCellValue(tcm.getPath());
-				r.createCell(cIdx++).setCellValue(tcm.getOrder());
-				r.createCell(cIdx++).setCellValue(tcm.getId());
-				r.createCell(cIdx++).setCellValue(tcm.getUuid());
-				r.createCell(cIdx++).setCellValue(tcm.getReference());
-				r.createCell(cIdx++).setCellValue(tcm.getName());
-				if (milestonesEnabled) {
-					r.createCell(cIdx++).setCellValue(tcm.getMilestone());
-				}
-				r.createCell(cIdx++).setCellValue(tcm.getWeightAuto());
-				r.createCell(cIdx++).setCellValue(tcm.getWeight().toString());
-				r.createCell(cIdx++).setCellValue(tcm.getNature().getCode());
-				r.createCell(cIdx++).setCellValue(tcm.getType().getCode());
-				r.createCell(cIdx++).setCellValue(tcm.getStatus().toString());
-				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tcm.getDescription()));
-				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tcm.getPrerequisite()));
-				r.createCell(cIdx++).setCellValue(tcm.getNbReq());
-				r.createCell(cIdx++).setCellValue(tcm.getNbCaller());
-				r.createCell(cIdx++).setCellValue(tcm.getNbAttachments());
-				r.createCell(cIdx++).setCellValue(format(tcm.getCreatedOn()));
-				r.createCell(cIdx++).setCellValue(tcm.getCreatedBy());
-				r.createCell(cIdx++).setCellValue(format(tcm.getLastModifiedOn()));
-				r.createCell(cIdx++).setCellValue(tcm.getLastModifiedBy());
-
-				cIdx = appendScriptedTestCaseExtender(r, cIdx, tcm);
-
-				appendCustomFields(r, "TC_CUF_", tcm.getCufs());
-				doOptionnalAppendTestCases(r, cIdx, tcm);
+	private void appendTestCase(Sheet tcSheet, int rIdx, TestCaseModel tcm) {
+		Row r = tcSheet.createRow(rIdx);
+		int cIdx = 0;
 
-			} catch (IllegalArgumentException wtf) {
-				if (LOGGER.isWarnEnabled()) {
-					LOGGER.warn("cannot export content for test case '" + tcm.getId() + DATA_EXCEED_MAX_CELL_SIZE_MESSAGE);
-				}
-				if (LOGGER.isTraceEnabled()) {
-					LOGGER.trace("", wtf);
-				}
-				tcSheet.removeRow(r);
-				r = tcSheet.createRow(rIdx);
+		try {
+			r.createCell(cIdx++).setCellValue(tcm.getProjectId());
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getProjectName()));
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getPath()));
+			r.createCell(cIdx++).setCellValue(tcm.getOrder());
+			r.createCell(cIdx++).setCellValue(tcm.getId());
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getUuid()));
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getReference()));
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getName()));
+			if (milestonesEnabled) {
+				r.createCell(cIdx++).setCellValue(defaultString(tcm.getMilestone()));
+			}
+			r.createCell(cIdx++).setCellValue(tcm.getWeightAuto());
+			r.createCell(cIdx++).setCellValue(tcm.getWeight().toString());
+			r.createCell(cIdx++).setCellValue(tcm.getNature().getCode());
+			r.createCell(cIdx++).setCellValue(tcm.getType().getCode());
+			r.createCell(cIdx++).setCellValue(tcm.getStatus().toString());
+			r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tcm.getDescription()));
+			r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tcm.getPrerequisite()));
+			r.createCell(cIdx++).setCellValue(tcm.getNbReq());
+			r.createCell(cIdx++).setCellValue(tcm.getNbCaller());
+			r.createCell(cIdx++).setCellValue(tcm.getNbAttachments());
+			r.createCell(cIdx++).setCellValue(format(tcm.getCreatedOn()));
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getCreatedBy()));
+			r.createCell(cIdx++).setCellValue(format(tcm.getLastModifiedOn()));
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getLastModifiedBy()));
+
+			cIdx = appendScriptedTestCaseExtender(r, cIdx, tcm);
+
+			appendCustomFields(r, "TC_CUF_", tcm.getCufs());
+			doOptionnalAppendTestCases(r, cIdx, tcm);
+
+		} catch (IllegalArgumentException wtf) {
+			if (LOGGER.isWarnEnabled()) {
+				LOGGER.warn("cannot export content for test case '" + tcm.getId() + DATA_EXCEED_MAX_CELL_SIZE_MESSAGE);
+			}
+			if (LOGGER.isTraceEnabled()) {
+				LOGGER.trace("", wtf);
+			}
+			tcSheet.removeRow(r);
+			r = tcSheet.createRow(rIdx);
 
-				r.createCell(0).setCellValue(errorCellTooLargeMessage);
+			r.createCell(0).setCellValue(defaultString(errorCellTooLargeMessage));
 
-			}
-			rIdx++;
-			cIdx = 0;
 		}
 	}
 
@@ -315,7 +338,7 @@ class ExcelExporter {
 		r.createCell(cIdx++).setCellValue(testCaseKind.name());
 
 		if (testCaseKind.isScripted()) {
-			r.createCell(cIdx++).setCellValue(tcm.getTcScript());
+			r.createCell(cIdx++).setCellValue(defaultString(tcm.getTcScript()));
 		} else {
 			r.createCell(cIdx++).setCellValue("");
 		}
@@ -325,12 +348,16 @@ class ExcelExporter {
 
 	protected void doOptionnalAppendTestCases(Row r, int cIdx, TestCaseModel tcm) { //NOSONAR
 		//extension point for optional columns
-		TestCase tc = testCaseFinder.findById(tcm.getId());
-		appendAutomationWorkflow(tc, r, cIdx, tcm);
+		if (isAutomationWorkflowInUse()) {
+			// the test case is loaded only once per project, not once per row
+			Boolean allowed = automationWorkflowByProject.computeIfAbsent(tcm.getProjectId(),
+				projectId -> testCaseFinder.findById(tcm.getId()).getProject().isAllowAutomationWorkflow());
+			r.createCell(cIdx).setCellValue(allowed ? tcm.getAutomatable().name() : "-");
+		}
 	}
 
 	protected int appendAutomationWorkflow(TestCase tc, Row r, int cIdx, TestCaseModel tcm) {
-		if (projectFinder.countProjectsAllowAutomationWorkflow() > 0) {
+		if (isAutomationWorkflowInUse()) {
 			if (tc.getProject().isAllowAutomationWorkflow()) {
 				r.createCell(cIdx++).setCellValue(tcm.getAutomatable().name());
 			} else {
@@ -340,6 +367,13 @@ class ExcelExporter {
 		return cIdx;
 	}
 
+	protected boolean isAutomationWorkflowInUse() {
+		if (automationWorkflowInUse == null) {
+			automationWorkflowInUse = projectFinder.countProjectsAllowAutomationWorkflow() > 0;
+		}
+		return automationWorkflowInUse;
+	}
+
 	private void appendTestSteps(ExportModel model) {
 
 		List<TestStepModel> models = model.getTestSteps();
@@ -354,12 +388,12 @@ class ExcelExporter {
 			r = stSheet.createRow(rIdx);
 
 			try {
-				r.createCell(cIdx++).setCellValue(tsm.getTcOwnerPath());
+				r.createCell(cIdx++).setCellValue(defaultString(tsm.getTcOwnerPath()));
 				r.createCell(cIdx++).setCellValue(tsm.getTcOwnerId());
 				r.createCell(cIdx++).setCellValue(tsm.getId());
 				r.createCell(cIdx++).setCellValue(tsm.getOrder());
 				r.createCell(cIdx++).setCellValue(tsm.getIsCallStep());
-				r.createCell(cIdx++).setCellValue(tsm.getDsName());
+				r.createCell(cIdx++).setCellValue(defaultString(tsm.getDsName()));
 				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tsm.getAction()));
 				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(tsm.getResult()));
 				r.createCell(cIdx++).setCellValue(tsm.getNbReq());
@@ -376,7 +410,7 @@ class ExcelExporter {
 				stSheet.removeRow(r);
 				r = stSheet.createRow(rIdx);
 
-				r.createCell(0).setCellValue(errorCellTooLargeMessage);
+				r.createCell(0).setCellValue(defaultString(errorCellTooLargeMessage));
 
 			}
 
@@ -398,10 +432,10 @@ class ExcelExporter {
 			r = pSheet.createRow(rIdx);
 
 			try {
-				r.createCell(cIdx++).setCellValue(pm.getTcOwnerPath());
+				r.createCell(cIdx++).setCellValue(defaultString(pm.getTcOwnerPath()));
 				r.createCell(cIdx++).setCellValue(pm.getTcOwnerId());
 				r.createCell(cIdx++).setCellValue(pm.getId());
-				r.createCell(cIdx++).setCellValue(pm.getName());
+				r.createCell(cIdx++).setCellValue(defaultString(pm.getName()));
 				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(pm.getDescription()));
 			} catch (IllegalArgumentException wtf) {
 
@@ -414,7 +448,7 @@ class ExcelExporter {
 				pSheet.removeRow(r);
 				r = pSheet.createRow(rIdx);
 
-				r.createCell(0).setCellValue(errorCellTooLargeMessage);
+				r.createCell(0).setCellValue(defaultString(errorCellTooLargeMessage));
 
 			}
 
@@ -436,13 +470,13 @@ class ExcelExporter {
 			r = dsSheet.createRow(rIdx);
 
 			try {
-				r.createCell(cIdx++).setCellValue(dm.getTcOwnerPath());
+				r.createCell(cIdx++).setCellValue(defaultString(dm.getTcOwnerPath()));
 				r.createCell(cIdx++).setCellValue(dm.getOwnerId());
 				r.createCell(cIdx++).setCellValue(dm.getId());
-				r.createCell(cIdx++).setCellValue(dm.getName());
-				r.createCell(cIdx++).setCellValue(dm.getParamOwnerPath());
+				r.createCell(cIdx++).setCellValue(defaultString(dm.getName()));
+				r.createCell(cIdx++).setCellValue(defaultString(dm.getParamOwnerPath()));
 				r.createCell(cIdx++).setCellValue(dm.getParamOwnerId());
-				r.createCell(cIdx++).setCellValue(dm.getParamName());
+				r.createCell(cIdx++).setCellValue(defaultString(dm.getParamName()));
 				r.createCell(cIdx++).setCellValue(HtmlUtils.htmlUnescape(dm.getParamValue()));
 			} catch (IllegalArgumentException wtf) {
 				if (LOGGER.isWarnEnabled()) {
@@ -454,7 +488,7 @@ class ExcelExporter {
 				dsSheet.removeRow(r);
 				r = dsSheet.createRow(rIdx);
 
-				r.createCell(0).setCellValue(errorCellTooLargeMessage);
+				r.createCell(0).setCellValue(defaultString(errorCellTooLargeMessage));
 
 			}
 
@@ -497,9 +531,9 @@ class ExcelExporter {
 		for (CoverageModel cm : models) {
 			r = covSheet.createRow(rIdx);
 
-			r.createCell(cIdx++).setCellValue(cm.getReqPath());
+			r.createCell(cIdx++).setCellValue(defaultString(cm.getReqPath()));
 			r.createCell(cIdx++).setCellValue(cm.getReqVersion());
-			r.createCell(cIdx++).setCellValue(cm.getTcPath());
+			r.createCell(cIdx++).setCellValue(defaultString(cm.getTcPath()));
 
 			rIdx++;
 			cIdx = 0;
@@ -515,7 +549,7 @@ class ExcelExporter {
 
 	private int registerCuf(Sheet sheet, String code) {
 
-		Row headers = sheet.getRow(0);
+		Row headers = getHeaderRow(sheet.getSheetName());
 		int nextIdx = headers.getLastCellNum();
 		headers.createCell(nextIdx).setCellValue(code);
 
@@ -532,9 +566,8 @@ class ExcelExporter {
 		}
 	}
 
-	// for now we care only of Excel 2003
 	private void createWorkbook() {
-		Workbook wb = new HSSFWorkbook();
+		Workbook wb = newWorkbook();
 		wb.createSheet(TC_SHEET);
 		wb.createSheet(ST_SHEET);
 		wb.createSheet(PRM_SHEET);
@@ -543,6 +576,33 @@ class ExcelExporter {
 		this.workbook = wb;
 	}
 
+	/**
+	 * @return the empty workbook the sheets are created into, by default an Excel 2003 one.
+	 */
+	protected Workbook newWorkbook() {
+		return new HSSFWorkbook();
+	}
+
+	/**
+	 * @param withHeaders the workbook holding the sheets and their headers
+	 * @return the workbook the rows are then written into, by default the given one
+	 */
+	protected Workbook prepareForRows(Workbook withHeaders) {
+		return withHeaders;
+	}
+
+	protected String getFileExtension() {
+		return "xls";
+	}
+
+	/**
+	 * Returns the header row of the given sheet. Custom field columns are added to it as they are met, hence it must
+	 * remain available during the whole export.
+	 */
+	protected Row getHeaderRow(String sheetName) {
+		return workbook.getSheet(sheetName).getRow(0);
+	}
+
 	private void createHeaders() {
 
 		createTestCaseSheetHeaders();
@@ -590,7 +650,7 @@ class ExcelExporter {
 		Sheet dsSheet = workbook.getSheet(TC_SHEET);
 		Row h = dsSheet.getRow(0);
 		int cIdx = h.getLastCellNum();
-		if(projectFinder.countProjectsAllowAutomationWorkflow() > 0) {
+		if(isAutomationWorkflowInUse()) {
 			h.createCell(cIdx++).setCellValue("TC_AUTOMATABLE");
 		}
 	}
@@ -24,8 +24,11 @@ import org.hibernate.FlushMode;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.type.LongType;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Record;
+import org.jooq.ResultQuery;
 import org.springframework.stereotype.Repository;
 import org.squashtest.tm.domain.infolist.ListItemReference;
 import org.squashtest.tm.domain.testcase.TestCaseAutomatable;
@@ -57,9 +60,13 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.countDistinct;
 import static org.jooq.impl.DSL.groupConcatDistinct;
+import static org.jooq.impl.DSL.when;
 import static org.squashtest.tm.jooq.domain.Tables.ATTACHMENT;
 import static org.squashtest.tm.jooq.domain.Tables.ATTACHMENT_LIST;
 import static org.squashtest.tm.jooq.domain.Tables.CALL_TEST_STEP;
@@ -88,6 +95,8 @@ public class ExportDao {
 
 	private static final String VERSION_IDS = "versionIds";
 
+	private static final int FETCH_SIZE = 100;
+
 	private static final InfoListItem TEST_CASE_NATURE = INFO_LIST_ITEM.as("nature");
 	private static final InfoListItem TEST_CASE_TYPE = INFO_LIST_ITEM.as("type");
 
@@ -152,9 +161,20 @@ public class ExportDao {
 
 	public ExportModel findModel(List<Long> tclnIds) {
 
+		ExportModel model = findContentModel(tclnIds);
+		model.setTestCases(findTestCaseModels(tclnIds));
+		return model;
+
+	}
+
+	/**
+	 * Same as {@link #findModel(List)} without the test cases themselves, which can be streamed with
+	 * {@link #forEachTestCaseModel(List, Consumer)}.
+	 */
+	public ExportModel findContentModel(List<Long> tclnIds) {
+
 		ExportModel model = new ExportModel();
 
-		List<TestCaseModel> tclnModels = findTestCaseModels(tclnIds);
 		List<TestStepModel> stepModels = findStepsModel(tclnIds);
 		List<ParameterModel> paramModels = findParametersModel(tclnIds);
 		List<DatasetModel> datasetModels = findDatasetsModel(tclnIds);
@@ -163,7 +183,6 @@ public class ExportDao {
 		setPathForCoverage(coverageModels);
 
 		model.setCoverages(coverageModels);
-		model.setTestCases(tclnModels);
 		model.setTestSteps(stepModels);
 		model.setParameters(paramModels);
 		model.setDatasets(datasetModels);
@@ -186,9 +205,15 @@ public class ExportDao {
 	}
 
 	private void setPathForCoverage(List<CoverageModel> coverageModels) {
+		List<Long> requirementIds = coverageModels.stream().map(CoverageModel::getRequirementId).distinct().collect(Collectors.toList());
+		List<Long> testCaseIds = coverageModels.stream().map(CoverageModel::getTcId).distinct().collect(Collectors.toList());
+
+		Map<Long, String> requirementPathById = gatherRequirementPaths(requirementIds);
+		Map<Long, String> testCasePathById = gatherTestCasePaths(testCaseIds);
+
 		for (CoverageModel model : coverageModels) {
-			model.setReqPath(getRequirementPath(model.getRequirementId(), model.getRequirementProjectName()));
-			model.setTcPath(pathService.buildTestCasePath(model.getTcId()));
+			model.setReqPath(requirementPathById.get(model.getRequirementId()));
+			model.setTcPath(testCasePathById.get(model.getTcId()));
 		}
 
 	}
@@ -198,11 +223,17 @@ public class ExportDao {
 		return loadModels("testCase.excelExportCoverage", tcIds, TEST_CASE_IDS, CoverageModel.class);
 	}
 
-	private List<TestCaseModel> loadTestCaseModelsFromFolderWithJOOQ(List<Long> tclnIds) {
+	/*
+	 * A test case sits either in a folder or at the root of its library, so both containers are outer joined and the
+	 * one that holds it gives its order. The rows come in the order of the given ids.
+	 */
+	private void fetchTestCaseModels(List<Long> tclnIds, Consumer<TestCaseModel> consumer) {
 
-		List<TestCaseModel> result = new ArrayList<>();
+		Field<Integer> contentOrder = coalesce(
+			when(TEST_CASE_FOLDER.TCLN_ID.isNotNull(), TCLN_RELATIONSHIP.CONTENT_ORDER),
+			TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER).as("contentOrder");
 
-		dsl.select(TEST_CASE.TCLN_ID, TEST_CASE.UUID, TEST_CASE.REFERENCE,
+		fetchThroughCursor(dsl.select(TEST_CASE.TCLN_ID, TEST_CASE.UUID, TEST_CASE.REFERENCE,
 			TEST_CASE.IMPORTANCE, TEST_CASE.IMPORTANCE_AUTO, TEST_CASE.AUTOMATABLE,
 			TEST_CASE.TC_STATUS, TEST_CASE.PREREQUISITE,
 			TEST_CASE_LIBRARY_NODE.DESCRIPTION, TEST_CASE_LIBRARY_NODE.NAME,
@@ -218,7 +249,7 @@ public class ExportDao {
 			countDistinct(REQUIREMENT_VERSION_COVERAGE).as("countReqCoverages"),
 			countDistinct(ITEM_TEST_PLAN_LIST.ITERATION_ID).as("countIteration"),
 			countDistinct(TEST_CASE_STEPS.TEST_CASE_ID).as("countCaller"),
-			TCLN_RELATIONSHIP.CONTENT_ORDER)
+			contentOrder)
 		.from(TEST_CASE)
 			.join(TEST_CASE_LIBRARY_NODE).on(TEST_CASE_LIBRARY_NODE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
 			.join(PROJECT).on(PROJECT.PROJECT_ID.eq(TEST_CASE_LIBRARY_NODE.PROJECT_ID))
@@ -226,8 +257,9 @@ public class ExportDao {
 			.leftJoin(MILESTONE).on(MILESTONE.MILESTONE_ID.eq(MILESTONE_TEST_CASE.MILESTONE_ID))
 			.join(TEST_CASE_NATURE).on(TEST_CASE_NATURE.ITEM_ID.eq(TEST_CASE.TC_NATURE))
 			.join(TEST_CASE_TYPE).on(TEST_CASE_TYPE.ITEM_ID.eq(TEST_CASE.TC_TYPE))
-			.join(TCLN_RELATIONSHIP).on(TCLN_RELATIONSHIP.DESCENDANT_ID.eq(TEST_CASE.TCLN_ID))
-			.join(TEST_CASE_FOLDER).on(TEST_CASE_FOLDER.TCLN_ID.eq(TCLN_RELATIONSHIP.ANCESTOR_ID))
+			.leftJoin(TCLN_RELATIONSHIP).on(TCLN_RELATIONSHIP.DESCENDANT_ID.eq(TEST_CASE.TCLN_ID))
+			.leftJoin(TEST_CASE_FOLDER).on(TEST_CASE_FOLDER.TCLN_ID.eq(TCLN_RELATIONSHIP.ANCESTOR_ID))
+			.leftJoin(TEST_CASE_LIBRARY_CONTENT).on(TEST_CASE_LIBRARY_CONTENT.CONTENT_ID.eq(TEST_CASE.TCLN_ID))
 			.join(ATTACHMENT_LIST).on(ATTACHMENT_LIST.ATTACHMENT_LIST_ID.eq(TEST_CASE_LIBRARY_NODE.ATTACHMENT_LIST_ID))
 			.leftJoin(ATTACHMENT).on(ATTACHMENT.ATTACHMENT_LIST_ID.eq(ATTACHMENT_LIST.ATTACHMENT_LIST_ID))
 			.leftJoin(REQUIREMENT_VERSION_COVERAGE).on(REQUIREMENT_VERSION_COVERAGE.VERIFYING_TEST_CASE_ID.eq(TEST_CASE.TCLN_ID))
@@ -238,69 +270,22 @@ public class ExportDao {
 			.leftJoin(SCRIPTED_TEST_CASE).on(SCRIPTED_TEST_CASE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
 			.leftJoin(KEYWORD_TEST_CASE).on(KEYWORD_TEST_CASE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
 		.where(TEST_CASE.TCLN_ID.in(tclnIds))
+			.and(TEST_CASE_FOLDER.TCLN_ID.isNotNull().or(TEST_CASE_LIBRARY_CONTENT.CONTENT_ID.isNotNull()))
 		.groupBy(TEST_CASE.TCLN_ID, TEST_CASE_LIBRARY_NODE.TCLN_ID, PROJECT.PROJECT_ID,
 			TEST_CASE_NATURE.ITEM_ID, TEST_CASE_TYPE.ITEM_ID, TCLN_RELATIONSHIP.CONTENT_ORDER,
-			TEST_CASE_FOLDER.TCLN_ID, ATTACHMENT_LIST.ATTACHMENT_LIST_ID,
+			TEST_CASE_FOLDER.TCLN_ID, TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER, ATTACHMENT_LIST.ATTACHMENT_LIST_ID,
 			SCRIPTED_TEST_CASE.TCLN_ID, KEYWORD_TEST_CASE.TCLN_ID)
-		.fetch()
-		.forEach(record -> {
-			TestCaseModel model = createTestCaseModelFromQueryResult(record, record.get(TCLN_RELATIONSHIP.CONTENT_ORDER));
-			result.add(model);
-		});
-
-		return result;
+		.orderBy(TEST_CASE.TCLN_ID.sortAsc(tclnIds)),
+		record -> consumer.accept(createTestCaseModelFromQueryResult(record, record.get(contentOrder))));
 	}
 
-	private List<TestCaseModel> loadTestCaseModelsFromLibraryWithJOOQ(List<Long> tclnIds) {
-
-		List<TestCaseModel> result = new ArrayList<>();
-
-		dsl.select(TEST_CASE.TCLN_ID, TEST_CASE.UUID, TEST_CASE.REFERENCE,
-			TEST_CASE.IMPORTANCE, TEST_CASE.IMPORTANCE_AUTO, TEST_CASE.AUTOMATABLE,
-			TEST_CASE.TC_STATUS, TEST_CASE.PREREQUISITE,
-			TEST_CASE_LIBRARY_NODE.DESCRIPTION, TEST_CASE_LIBRARY_NODE.NAME,
-			TEST_CASE_LIBRARY_NODE.CREATED_BY, TEST_CASE_LIBRARY_NODE.CREATED_ON,
-			TEST_CASE_LIBRARY_NODE.LAST_MODIFIED_BY, TEST_CASE_LIBRARY_NODE.LAST_MODIFIED_ON,
-			PROJECT.PROJECT_ID, PROJECT.NAME,
-			TEST_CASE_NATURE.LABEL, TEST_CASE_NATURE.CODE,
-			TEST_CASE_TYPE.LABEL, TEST_CASE_TYPE.CODE,
-			SCRIPTED_TEST_CASE.TCLN_ID, SCRIPTED_TEST_CASE.SCRIPT,
-			KEYWORD_TEST_CASE.TCLN_ID,
-			groupConcatDistinct(MILESTONE.LABEL).separator("|").as("milestones"),
-			countDistinct(ATTACHMENT).as("countAttachments"),
-			countDistinct(REQUIREMENT_VERSION_COVERAGE).as("countReqCoverages"),
-			countDistinct(ITEM_TEST_PLAN_LIST.ITERATION_ID).as("countIteration"),
-			countDistinct(TEST_CASE_STEPS.TEST_CASE_ID).as("countCaller"),
-			TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER)
-			.from(TEST_CASE)
-			.join(TEST_CASE_LIBRARY_NODE).on(TEST_CASE_LIBRARY_NODE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
-			.join(PROJECT).on(PROJECT.PROJECT_ID.eq(TEST_CASE_LIBRARY_NODE.PROJECT_ID))
-			.leftJoin(MILESTONE_TEST_CASE).on(MILESTONE_TEST_CASE.TEST_CASE_ID.eq(TEST_CASE.TCLN_ID))
-			.leftJoin(MILESTONE).on(MILESTONE.MILESTONE_ID.eq(MILESTONE_TEST_CASE.MILESTONE_ID))
-			.join(TEST_CASE_NATURE).on(TEST_CASE_NATURE.ITEM_ID.eq(TEST_CASE.TC_NATURE))
-			.join(TEST_CASE_TYPE).on(TEST_CASE_TYPE.ITEM_ID.eq(TEST_CASE.TC_TYPE))
-			.join(TEST_CASE_LIBRARY_CONTENT).on(TEST_CASE_LIBRARY_CONTENT.CONTENT_ID.eq(TEST_CASE.TCLN_ID))
-			.join(ATTACHMENT_LIST).on(ATTACHMENT_LIST.ATTACHMENT_LIST_ID.eq(TEST_CASE_LIBRARY_NODE.ATTACHMENT_LIST_ID))
-			.leftJoin(ATTACHMENT).on(ATTACHMENT.ATTACHMENT_LIST_ID.eq(ATTACHMENT_LIST.ATTACHMENT_LIST_ID))
-			.leftJoin(REQUIREMENT_VERSION_COVERAGE).on(REQUIREMENT_VERSION_COVERAGE.VERIFYING_TEST_CASE_ID.eq(TEST_CASE.TCLN_ID))
-			.leftJoin(ITERATION_TEST_PLAN_ITEM).on(ITERATION_TEST_PLAN_ITEM.TCLN_ID.eq(TEST_CASE.TCLN_ID))
-			.leftJoin(ITEM_TEST_PLAN_LIST).on(ITEM_TEST_PLAN_LIST.ITEM_TEST_PLAN_ID.eq(ITERATION_TEST_PLAN_ITEM.ITEM_TEST_PLAN_ID))
-			.leftJoin(CALL_TEST_STEP).on(CALL_TEST_STEP.CALLED_TEST_CASE_ID.eq(TEST_CASE.TCLN_ID))
-			.leftJoin(TEST_CASE_STEPS).on(TEST_CASE_STEPS.STEP_ID.eq(CALL_TEST_STEP.TEST_STEP_ID))
-			.leftJoin(SCRIPTED_TEST_CASE).on(SCRIPTED_TEST_CASE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
-			.leftJoin(KEYWORD_TEST_CASE).on(KEYWORD_TEST_CASE.TCLN_ID.eq(TEST_CASE.TCLN_ID))
-			.where(TEST_CASE.TCLN_ID.in(tclnIds))
-			.groupBy(TEST_CASE.TCLN_ID, TEST_CASE_LIBRARY_NODE.TCLN_ID, PROJECT.PROJECT_ID,
-				TEST_CASE_NATURE.ITEM_ID, TEST_CASE_TYPE.ITEM_ID, TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER,
-				ATTACHMENT_LIST.ATTACHMENT_LIST_ID,
-				SCRIPTED_TEST_CASE.TCLN_ID, KEYWORD_TEST_CASE.TCLN_ID)
-			.fetch()
-			.forEach(record -> {
-				TestCaseModel model = createTestCaseModelFromQueryResult(record, record.get(TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER));
-				result.add(model);
-			});
-
-		return result;
+	/*
+	 * Consumes the records as they come instead of materializing the whole result first.
+	 */
+	private void fetchThroughCursor(ResultQuery<? extends Record> query, Consumer<Record> consumer) {
+		try (Cursor<? extends Record> cursor = query.fetchSize(FETCH_SIZE).fetchLazy()) {
+			cursor.forEach(consumer);
+		}
 	}
 
 	private TestCaseModel createTestCaseModelFromQueryResult(Record record, Integer testCaseOrderInContainer) {
@@ -334,38 +319,26 @@ public class ExportDao {
 		return model;
 	}
 
-	private List<TestCaseModel> findTestCaseModels(List<Long> tclnIds) {
-
-		List<TestCaseModel> models = new ArrayList<>(tclnIds.size());
-		List<TestCaseModel> buffer;
-
-		// get the models
-		//buffer = loadModels("testCase.excelExportDataFromFolder", tclnIds, TEST_CASE_IDS, TestCaseModel.class);
-		buffer = loadTestCaseModelsFromFolderWithJOOQ(tclnIds);
-		models.addAll(buffer);
-
-//		buffer = loadModels("testCase.excelExportDataFromLibrary", tclnIds, TEST_CASE_IDS, TestCaseModel.class);
-		buffer = loadTestCaseModelsFromLibraryWithJOOQ(tclnIds);
-		models.addAll(buffer);
+	/**
+	 * Hands the test case models to the consumer one at a time, in the order of the given ids, as they are read from
+	 * the database. Only their custom fields are loaded beforehand.
+	 */
+	public void forEachTestCaseModel(List<Long> tclnIds, Consumer<TestCaseModel> consumer) {
 
-		//get the cufs
-		List<CustomField> cufModels = loadModels("testCase.excelExportCUF", tclnIds, TEST_CASE_IDS, CustomField.class);
+		Map<Long, List<CustomField>> cufsByOwner = loadModels("testCase.excelExportCUF", tclnIds, TEST_CASE_IDS, CustomField.class)
+			.stream()
+			.collect(Collectors.groupingBy(CustomField::getOwnerId));
 
-		// add them to the test case models
-		for (TestCaseModel model : models) {
-			Long id = model.getId();
-			ListIterator<CustomField> cufIter = cufModels.listIterator();
+		fetchTestCaseModels(tclnIds, model -> {
+			cufsByOwner.getOrDefault(model.getId(), Collections.emptyList()).forEach(model::addCuf);
+			consumer.accept(model);
+		});
+	}
 
-			while (cufIter.hasNext()) {
-				CustomField cuf = cufIter.next();
-				if (id.equals(cuf.getOwnerId())) {
-					model.addCuf(cuf);
-					cufIter.remove();
-				}
-			}
-		}
+	private List<TestCaseModel> findTestCaseModels(List<Long> tclnIds) {
 
-		// end
+		List<TestCaseModel> models = new ArrayList<>(tclnIds.size());
+		forEachTestCaseModel(tclnIds, models::add);
 		return models;
 
 	}
@@ -480,8 +453,11 @@ public class ExportDao {
 
 
 	private void getOtherProperties(List<RequirementModel> requirementModels) {
+		List<Long> requirementIds = requirementModels.stream().map(RequirementModel::getRequirementId).distinct().collect(Collectors.toList());
+		Map<Long, String> pathById = gatherRequirementPaths(requirementIds);
+
 		for (RequirementModel requirementModel : requirementModels) {
-			requirementModel.setPath(getPathAsString(requirementModel));
+			requirementModel.setPath(pathById.get(requirementModel.getRequirementId()));
 			getModelRequirementPosition(requirementModel);
 			getModelRequirementCUF(requirementModel);
 		}
@@ -565,6 +541,19 @@ public class ExportDao {
 		return pathById;
 	}
 
+	private Map<Long, String> gatherTestCasePaths(List<Long> testCaseIds) {
+
+		int nbTestCases = testCaseIds.size();
+
+		List<String> pathes = pathService.buildTestCasesPaths(testCaseIds);
+		Map<Long, String> pathById = new HashMap<>(nbTestCases);
+		for (int i = 0; i < nbTestCases; i++) {
+			pathById.put(testCaseIds.get(i), pathes.get(i));
+		}
+
+		return pathById;
+	}
+
 	private void assignPaths(List<RequirementLinkModel> models, Map<Long, String> pathById) {
 		for (RequirementLinkModel model : models) {
 			String reqPath = pathById.get(model.getReqId());
@@ -59,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.defaultString;
 
 /**
  * @author jthebault
@@ -110,7 +111,7 @@ public class RequirementExcelExporter {
 	// that map will remember which column index is
 	private Map<String, Integer> cufColumnsByCode = new HashMap<>();
 
-	private Workbook workbook;
+	protected Workbook workbook;
 
 	protected boolean milestonesEnabled;
 
@@ -125,6 +126,7 @@ public class RequirementExcelExporter {
 
 		createWorkbook();
 		createHeaders();
+		workbook = prepareForRows(workbook);
 
 	}
 
@@ -163,9 +165,9 @@ public class RequirementExcelExporter {
 			r = covSheet.createRow(rIdx);
 
 
-			r.createCell(cIdx++).setCellValue(cm.getReqPath());
+			r.createCell(cIdx++).setCellValue(defaultString(cm.getReqPath()));
 			r.createCell(cIdx++).setCellValue(cm.getRequirementVersionNumber());
-			r.createCell(cIdx++).setCellValue(cm.getTcPath());
+			r.createCell(cIdx++).setCellValue(defaultString(cm.getTcPath()));
 
 			rIdx++;
 			cIdx = 0;
@@ -184,11 +186,11 @@ public class RequirementExcelExporter {
 		for (RequirementLinkModel lm : models){
 			r = linkSheet.createRow(rIdx);
 
-			r.createCell(cIdx++).setCellValue(lm.getReqPath());
+			r.createCell(cIdx++).setCellValue(defaultString(lm.getReqPath()));
 			r.createCell(cIdx++).setCellValue(lm.getReqVersion());
-			r.createCell(cIdx++).setCellValue(lm.getRelReqPath());
+			r.createCell(cIdx++).setCellValue(defaultString(lm.getRelReqPath()));
 			r.createCell(cIdx++).setCellValue(lm.getRelReqVersion());
-			r.createCell(cIdx++).setCellValue(lm.getRelatedReqRole());
+			r.createCell(cIdx++).setCellValue(defaultString(lm.getRelatedReqRole()));
 
 			rIdx++;
 			cIdx=0;
@@ -249,27 +251,27 @@ public class RequirementExcelExporter {
 
 		try {
 			row.createCell(colIndex++).setCellValue(reqModel.getProjectId());
-			row.createCell(colIndex++).setCellValue(reqModel.getProjectName());
-			row.createCell(colIndex++).setCellValue(reqModel.getPath());
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getProjectName()));
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getPath()));
 			row.createCell(colIndex++).setCellValue(reqModel.getRequirementIndex());
 			row.createCell(colIndex++).setCellValue(reqModel.getRequirementId());
 			row.createCell(colIndex++).setCellValue(reqModel.getRequirementVersionNumber());
 			row.createCell(colIndex++).setCellValue(reqModel.getId());
-			row.createCell(colIndex++).setCellValue(reqModel.getReference());
-			row.createCell(colIndex++).setCellValue(reqModel.getName());
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getReference()));
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getName()));
 			row.createCell(colIndex++).setCellValue(reqModel.getCriticality().toString());
-			row.createCell(colIndex++).setCellValue(reqModel.getCategoryLabel());
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getCategoryLabel()));
 			row.createCell(colIndex++).setCellValue(reqModel.getStatus().toString());
 			String description = reqModel.getDescription();
 			row.createCell(colIndex++).setCellValue(HtmlUtils.htmlUnescape(defaultIfBlank(reqModel.getDescription(), "")));
 			row.createCell(colIndex++).setCellValue(reqModel.getRequirementVersionCoveragesSize());
 			row.createCell(colIndex++).setCellValue(reqModel.getAttachmentListSize());
 			row.createCell(colIndex++).setCellValue(format(reqModel.getCreatedOn()));
-			row.createCell(colIndex++).setCellValue(reqModel.getCreatedBy());
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getCreatedBy()));
 			row.createCell(colIndex++).setCellValue(format(reqModel.getLastModifiedOn()));
-			row.createCell(colIndex++).setCellValue(reqModel.getLastModifiedBy());
+			row.createCell(colIndex++).setCellValue(defaultString(reqModel.getLastModifiedBy()));
 			if (milestonesEnabled) {
-				row.createCell(colIndex++).setCellValue(reqModel.getMilestonesLabels());
+				row.createCell(colIndex++).setCellValue(defaultString(reqModel.getMilestonesLabels()));
 			}
 			appendCustomFields(row, "REQ_VERSION_CUF_", reqModel.getCufs());
 			//call extension point and get the new column index in return
@@ -277,7 +279,7 @@ public class RequirementExcelExporter {
 		} catch (IllegalArgumentException wtf) {
 			reqSheet.removeRow(row);
 			row = reqSheet.createRow(rowIndex);
-			row.createCell(0).setCellValue(errorCellTooLargeMessage);
+			row.createCell(0).setCellValue(defaultString(errorCellTooLargeMessage));
 		}
 	}
 
@@ -309,7 +311,7 @@ public class RequirementExcelExporter {
 
 	public File print() {
 		try {
-			File temp = File.createTempFile("req_export_", "xls");
+			File temp = File.createTempFile("req_export_", getFileExtension());
 			temp.deleteOnExit();
 
 			FileOutputStream fos = new FileOutputStream(temp);
@@ -349,7 +351,7 @@ public class RequirementExcelExporter {
 
 	private int registerCuf(Sheet sheet, String code) {
 
-		Row headers = sheet.getRow(0);
+		Row headers = getHeaderRow(sheet.getSheetName());
 		int nextIdx = headers.getLastCellNum();
 		headers.createCell(nextIdx).setCellValue(code);
 
@@ -366,9 +368,8 @@ public class RequirementExcelExporter {
 		}
 	}
 
-	// for now we care only of Excel 2003
 	private void createWorkbook() {
-		Workbook wb = new HSSFWorkbook();
+		Workbook wb = newWorkbook();
 		wb.createSheet(REQUIREMENT_SHEET);
 		wb.createSheet(COV_SHEET);
 		wb.createSheet(REQ_LINK_SHEET);
@@ -376,6 +377,33 @@ public class RequirementExcelExporter {
 		this.workbook = wb;
 	}
 
+	/**
+	 * @return the empty workbook the sheets are created into, by default an Excel 2003 one.
+	 */
+	protected Workbook newWorkbook() {
+		return new HSSFWorkbook();
+	}
+
+	/**
+	 * @param withHeaders the workbook holding the sheets and their headers
+	 * @return the workbook the rows are then written into, by default the given one
+	 */
+	protected Workbook prepareForRows(Workbook withHeaders) {
+		return withHeaders;
+	}
+
+	protected String getFileExtension() {
+		return "xls";
+	}
+
+	/**
+	 * Returns the header row of the given sheet. Custom field columns are added to it as they are met, hence it must
+	 * remain available during the whole export.
+	 */
+	protected Row getHeaderRow(String sheetName) {
+		return workbook.getSheet(sheetName).getRow(0);
+	}
+
 	private void createHeaders() {
 		createRequirementHeaders();
 		createCoverageHeaders();
@@ -0,0 +1,98 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchexport;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.service.feature.FeatureManager;
+
+import javax.inject.Inject;
+import java.io.File;
+
+/**
+ * <p>Test case exporter producing an Excel 2007 (.xlsx) spreadsheet with the same sheets and columns as
+ * {@link ExcelExporter}, so that the file can be imported back.</p>
+ *
+ * <p>Rows are streamed to a temporary file and only the last {@value #ROW_ACCESS_WINDOW_SIZE} rows of each sheet are
+ * kept in memory, which bounds the memory used by large exports. The header rows are the exception : they stay in an
+ * in-memory template workbook because custom field columns are appended to them as they are met.</p>
+ */
+@Component
+@Scope("prototype")
+public class StreamingExcelExporter extends ExcelExporter {
+
+	static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+	@Inject
+	public StreamingExcelExporter(FeatureManager featureManager, MessageSource messageSource) {
+		super(featureManager, messageSource);
+	}
+
+	/**
+	 * @param withHeaders the workbook in which the sheets and headers were created
+	 * @return a workbook streaming the rows appended to the sheets of the given one, which keeps its own rows in memory
+	 */
+	static SXSSFWorkbook newStreamingWorkbook(Workbook withHeaders) {
+		SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook((XSSFWorkbook) withHeaders, ROW_ACCESS_WINDOW_SIZE);
+		streamingWorkbook.setCompressTempFiles(true);
+		return streamingWorkbook;
+	}
+
+	static Row getHeaderRow(Workbook streamingWorkbook, String sheetName) {
+		return ((SXSSFWorkbook) streamingWorkbook).getXSSFWorkbook().getSheet(sheetName).getRow(0);
+	}
+
+	@Override
+	protected Workbook newWorkbook() {
+		return new XSSFWorkbook();
+	}
+
+	@Override
+	protected Workbook prepareForRows(Workbook withHeaders) {
+		return newStreamingWorkbook(withHeaders);
+	}
+
+	@Override
+	protected String getFileExtension() {
+		return "xlsx";
+	}
+
+	@Override
+	protected Row getHeaderRow(String sheetName) {
+		return getHeaderRow(workbook, sheetName);
+	}
+
+	@Override
+	public File print() {
+		try {
+			return super.print();
+		} finally {
+			// deletes the temporary files backing the streamed sheets
+			((SXSSFWorkbook) workbook).dispose();
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchexport;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.service.feature.FeatureManager;
+
+import javax.inject.Inject;
+import java.io.File;
+
+/**
+ * Requirement exporter producing an Excel 2007 (.xlsx) spreadsheet with the same sheets and columns as
+ * {@link RequirementExcelExporter}. Like {@link StreamingExcelExporter}, only a window of rows is kept in memory.
+ */
+@Component
+@Scope("prototype")
+public class StreamingRequirementExcelExporter extends RequirementExcelExporter {
+
+	@Inject
+	public StreamingRequirementExcelExporter(FeatureManager featureManager, MessageSource messageSource) {
+		super(featureManager, messageSource);
+	}
+
+	@Override
+	protected Workbook newWorkbook() {
+		return new XSSFWorkbook();
+	}
+
+	@Override
+	protected Workbook prepareForRows(Workbook withHeaders) {
+		return StreamingExcelExporter.newStreamingWorkbook(withHeaders);
+	}
+
+	@Override
+	protected String getFileExtension() {
+		return "xlsx";
+	}
+
+	@Override
+	protected Row getHeaderRow(String sheetName) {
+		return StreamingExcelExporter.getHeaderRow(workbook, sheetName);
+	}
+
+	@Override
+	public File print() {
+		try {
+			return super.print();
+		} finally {
+			((SXSSFWorkbook) workbook).dispose();
+		}
+	}
+
+}
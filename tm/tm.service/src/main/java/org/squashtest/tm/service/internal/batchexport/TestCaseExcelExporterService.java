@@ -35,6 +35,7 @@ import javax.inject.Provider;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -55,6 +56,9 @@ public class TestCaseExcelExporterService {
 	@Named("excelExporter")
 	private Provider<ExcelExporter> exporterProvider;
 
+	@Inject
+	private Provider<StreamingExcelExporter> streamingExporterProvider;
+
 	@Inject
 	private Provider<SearchTestCaseExcelExporter> searchExporterProvider;
 
@@ -65,6 +69,14 @@ public class TestCaseExcelExporterService {
 		return doExportAsExcel(testCaseIds, keepRteFormat, messageSource, exporterProvider.get());
 	}
 
+	/**
+	 * Same as {@link #exportAsExcel(List, boolean, MessageSource)}, as an xlsx file whose rows are streamed to the disk
+	 * batch after batch.
+	 */
+	public File exportAsXlsx(List<Long> testCaseIds, boolean keepRteFormat, MessageSource messageSource){
+		return doExportAsExcel(testCaseIds, keepRteFormat, messageSource, streamingExporterProvider.get());
+	}
+
 	public File searchExportAsExcel(List<Long> testCaseIds, boolean keepRteFormat, MessageSource messageSource, String type){
 		return doExportAsExcel(testCaseIds, keepRteFormat, messageSource, searchExporterProvider.get());
 	}
@@ -86,9 +98,16 @@ public class TestCaseExcelExporterService {
 
 		while (idx < testCaseIds.size()){
 
-			ids = testCaseIds.subList(idx, max);
+			ids = new ArrayList<>(testCaseIds.subList(idx, max));
+			ids.sort(Comparator.comparing(pathById::get));
+
+			// the test cases are written as they are read, already sorted by path
+			exportDao.forEachTestCaseModel(ids, tcm -> {
+				tcm.setPath(pathById.get(tcm.getId()));
+				exporter.appendTestCase(tcm, keepRteFormat);
+			});
 
-			ExportModel model = exportDao.findModel(ids);
+			ExportModel model = exportDao.findContentModel(ids);
 			addPaths(pathById, model);
 			sort(model);
 
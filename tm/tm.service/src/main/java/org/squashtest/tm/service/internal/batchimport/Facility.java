@@ -25,6 +25,7 @@ import org.squashtest.tm.domain.testcase.CallTestStep;
 import org.squashtest.tm.domain.testcase.Parameter;
 import org.squashtest.tm.service.internal.batchimport.testcase.excel.CoverageInstruction;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -117,5 +118,13 @@ public interface Facility {
 	 */
 	LogTrain deleteRequirementLink(RequirementLinkInstruction instr);
 
+	/**
+	 * Loads at once whatever the given instructions will need to know about their targets, so that executing them
+	 * does not look up their targets one by one.
+	 *
+	 * @param instructions the instructions about to be executed
+	 */
+	void preloadTargets(Collection<Instruction<?>> instructions);
+
 }
 
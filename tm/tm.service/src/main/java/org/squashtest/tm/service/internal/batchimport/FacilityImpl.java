@@ -56,6 +56,7 @@ import org.squashtest.tm.service.testcase.TestCaseModificationService;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -421,6 +422,11 @@ public class FacilityImpl extends EntityFacilitySupport implements Facility {
 	}
 
 
+	@Override
+	public void preloadTargets(Collection<Instruction<?>> instructions) {
+		validator.preloadTargets(instructions);
+	}
+
 	/**
 	 * for all other stuffs that need to be done afterward
 	 */
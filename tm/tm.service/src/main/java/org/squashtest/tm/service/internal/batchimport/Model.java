@@ -31,28 +31,23 @@ import org.squashtest.tm.core.foundation.lang.PathUtils;
 import org.squashtest.tm.domain.NamedReference;
 import org.squashtest.tm.domain.customfield.BindableEntity;
 import org.squashtest.tm.domain.customfield.CustomField;
+import org.squashtest.tm.domain.customfield.CustomFieldBinding;
+import org.squashtest.tm.domain.customfield.MultiSelectField;
+import org.squashtest.tm.domain.customfield.SingleSelectField;
 import org.squashtest.tm.domain.library.structures.LibraryGraph;
 import org.squashtest.tm.domain.library.structures.LibraryGraph.SimpleNode;
-import org.squashtest.tm.domain.milestone.Milestone;
 import org.squashtest.tm.domain.milestone.MilestoneStatus;
 import org.squashtest.tm.domain.project.Project;
-import org.squashtest.tm.domain.requirement.Requirement;
-import org.squashtest.tm.domain.requirement.RequirementVersion;
-import org.squashtest.tm.domain.testcase.Dataset;
-import org.squashtest.tm.domain.testcase.Parameter;
 import org.squashtest.tm.domain.testcase.ParameterAssignationMode;
 import org.squashtest.tm.domain.testcase.TestCase;
 import org.squashtest.tm.domain.testcase.TestStep;
 import org.squashtest.tm.service.importer.Target;
 import org.squashtest.tm.service.internal.batchimport.TestCaseCallGraph.Node;
-import org.squashtest.tm.service.internal.repository.CustomFieldDao;
-import org.squashtest.tm.service.internal.repository.DatasetDao;
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.CoverageTarget;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.testcase.TestCaseCallTreeFinder;
-import org.squashtest.tm.service.milestone.MilestoneMembershipFinder;
 import org.squashtest.tm.service.requirement.LinkedRequirementVersionManagerService;
 import org.squashtest.tm.service.requirement.RequirementLibraryFinderService;
-import org.squashtest.tm.service.requirement.RequirementVersionManagerService;
-import org.squashtest.tm.service.testcase.ParameterFinder;
 import org.squashtest.tm.service.testcase.TestCaseFinder;
 import org.squashtest.tm.service.testcase.TestCaseLibraryFinderService;
 
@@ -64,13 +59,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -86,7 +85,7 @@ public class Model {
 	private EntityManager em;
 
 	@Inject
-	private CustomFieldDao cufDao;
+	private BindingCache bindingCache;
 
 	@Inject
 	private TestCaseLibraryFinderService finderService;
@@ -100,18 +99,6 @@ public class Model {
 	@Inject
 	private TestCaseFinder testCaseFinder;
 
-	@Inject
-	private ParameterFinder paramFinder;
-
-	@Inject
-	private MilestoneMembershipFinder milestoneMemberFinder;
-
-	@Inject
-	private DatasetDao dsDao;
-
-	@Inject
-	private RequirementVersionManagerService requirementVersionManagerService;
-
 	@Inject
 	private LinkedRequirementVersionManagerService reqlinkService;
 
@@ -894,6 +881,80 @@ public class Model {
 	// ************************** loading code
 	// **************************************
 
+	/**
+	 * <p>
+	 * Initializes at once the targets the given instructions refer to, before they are executed : test cases and the
+	 * test cases they call, their steps, milestones and projects, their parameters and datasets, and requirement
+	 * versions. This way, the execution of the instructions does not look them up one after the other.
+	 * </p>
+	 *
+	 * <p>
+	 * The parameters and datasets of test cases targeted by a test case or step instruction are left to be initialized
+	 * when needed : executing those instructions may create parameters that the model does not keep track of.
+	 * </p>
+	 *
+	 * @param instructions the instructions about to be executed
+	 */
+	public void preloadTargets(Collection<Instruction<?>> instructions) {
+		Set<TestCaseTarget> testCases = new LinkedHashSet<>();
+		Set<TestCaseTarget> parameterOwners = new LinkedHashSet<>();
+		Set<TestCaseTarget> modifiedTestCases = new HashSet<>();
+		Set<RequirementVersionTarget> requirementVersions = new LinkedHashSet<>();
+
+		for (Instruction<?> instruction : instructions) {
+			Target target = instruction.getTarget();
+			if (target == null || !target.isWellFormed()) {
+				continue;
+			}
+
+			if (target instanceof TestCaseTarget) {
+				testCases.add((TestCaseTarget) target);
+				modifiedTestCases.add((TestCaseTarget) target);
+
+			} else if (target instanceof TestStepTarget) {
+				TestCaseTarget testCase = ((TestStepTarget) target).getTestCase();
+				testCases.add(testCase);
+				modifiedTestCases.add(testCase);
+				if (instruction instanceof CallStepInstruction) {
+					addIfWellFormed(testCases, ((CallStepInstruction) instruction).getCalledTC());
+				}
+
+			} else if (target instanceof ParameterTarget) {
+				testCases.add(((ParameterTarget) target).getOwner());
+				parameterOwners.add(((ParameterTarget) target).getOwner());
+
+			} else if (target instanceof DatasetTarget) {
+				testCases.add(((DatasetTarget) target).getTestCase());
+				parameterOwners.add(((DatasetTarget) target).getTestCase());
+
+			} else if (target instanceof CoverageTarget) {
+				addIfWellFormed(testCases, new TestCaseTarget(((CoverageTarget) target).getTcPath()));
+
+			} else if (target instanceof RequirementVersionTarget) {
+				requirementVersions.add((RequirementVersionTarget) target);
+			}
+		}
+
+		parameterOwners.removeAll(modifiedTestCases);
+
+		if (!testCases.isEmpty()) {
+			mainInitTestCase(new ArrayList<>(testCases));
+		}
+		if (!parameterOwners.isEmpty()) {
+			initParameters(parameterOwners);
+			initDatasets(parameterOwners);
+		}
+		if (!requirementVersions.isEmpty()) {
+			mainInitRequirements(new ArrayList<>(requirementVersions));
+		}
+	}
+
+	private void addIfWellFormed(Collection<TestCaseTarget> testCases, TestCaseTarget testCase) {
+		if (testCase != null && testCase.isWellFormed()) {
+			testCases.add(testCase);
+		}
+	}
+
 	public void mainInitTestCase(TestCaseTarget target) {
 		mainInitTestCase(Arrays.asList(new TestCaseTarget[]{target}));
 	}
@@ -935,6 +996,9 @@ public class Model {
 		// find their ids
 		List<Long> ids = finderService.findNodeIdsByPath(paths);
 
+		// Issue 4973 : see comment on the attribute "isTargetMilestoneLocked"
+		Set<Long> lockedIds = findTestCasesLockedByMilestones(ids);
+
 		// now store them
 		for (int i = 0; i < paths.size(); i++) {
 
@@ -947,19 +1011,13 @@ public class Model {
 
 			testCaseStatusByTarget.put(t, status);
 
-			// Issue 4973
-			// see comment on the attribute "isTargetMilestoneLocked"
-			Boolean milestoneLocked = Boolean.FALSE;
-			if (existence == Existence.EXISTS) {
-				milestoneLocked = milestoneMemberFinder
-					.isTestCaseMilestoneDeletable(id);
-			}
-
-			isTargetMilestoneLocked.put(t, milestoneLocked);
+			isTargetMilestoneLocked.put(t, lockedIds.contains(id));
 		}
 	}
 
-	private void initParameters(List<TestCaseTarget> initialTargets) {
+	private void initParameters(Collection<TestCaseTarget> initialTargets) {
+
+		Map<Long, TestCaseTarget> targetsById = new HashMap<>();
 
 		for (TestCaseTarget t : initialTargets) {
 
@@ -967,24 +1025,23 @@ public class Model {
 				continue;
 			}
 
-			TargetStatus status = getStatus(t);
+			parametersByTestCase.put(t, new HashSet<ParameterTarget>());
 
+			TargetStatus status = getStatus(t);
 			if (status.id != null && status.status != Existence.TO_BE_DELETED) {
-				Collection<Parameter> params = paramFinder
-					.findOwnParameters(status.id);
-				Collection<ParameterTarget> parameters = new HashSet<>(
-					params.size());
-				for (Parameter p : params) {
-					parameters.add(new ParameterTarget(t, p.getName()));
-				}
-				parametersByTestCase.put(t, parameters);
-			} else {
-				parametersByTestCase.put(t, new HashSet<ParameterTarget>());
+				targetsById.put(status.id, t);
 			}
 		}
+
+		for (Object[] tuple : loadNamesByTestCase("Parameter.findOwnParameterNamesByTestCases", targetsById.keySet())) {
+			TestCaseTarget t = targetsById.get(tuple[0]);
+			parametersByTestCase.get(t).add(new ParameterTarget(t, (String) tuple[1]));
+		}
 	}
 
-	private void initDatasets(List<TestCaseTarget> testCases) {
+	private void initDatasets(Collection<TestCaseTarget> testCases) {
+
+		Map<Long, TestCaseTarget> targetsById = new HashMap<>();
 
 		for (TestCaseTarget t : testCases) {
 
@@ -992,21 +1049,18 @@ public class Model {
 				continue;
 			}
 
-			TargetStatus status = getStatus(t);
+			datasetsByTestCase.put(t, new HashSet<DatasetTarget>());
 
+			TargetStatus status = getStatus(t);
 			if (status.id != null && status.status != Existence.TO_BE_DELETED) {
-				Collection<Dataset> datasets = dsDao
-					.findOwnDatasetsByTestCase(status.id);
-				Set<DatasetTarget> dstargets = new HashSet<>(
-					datasets.size());
-				for (Dataset ds : datasets) {
-					dstargets.add(new DatasetTarget(t, ds.getName()));
-				}
-				datasetsByTestCase.put(t, dstargets);
-			} else {
-				datasetsByTestCase.put(t, new HashSet<DatasetTarget>());
+				targetsById.put(status.id, t);
 			}
 		}
+
+		for (Object[] tuple : loadNamesByTestCase("Dataset.findOwnDatasetNamesByTestCases", targetsById.keySet())) {
+			TestCaseTarget t = targetsById.get(tuple[0]);
+			datasetsByTestCase.get(t).add(new DatasetTarget(t, (String) tuple[1]));
+		}
 	}
 
 	/**
@@ -1015,6 +1069,8 @@ public class Model {
 	 */
 	private void initTestSteps(List<TestCaseTarget> targets) {
 
+		Map<Long, TestCaseTarget> targetsById = new HashMap<>();
+
 		for (TestCaseTarget target : targets) {
 
 			// do not double process the steps
@@ -1022,17 +1078,16 @@ public class Model {
 				continue;
 			}
 
-			TargetStatus status = testCaseStatusByTarget.get(target);
+			testCaseStepsByTarget.put(target, new ArrayList<InternalStepModel>());
 
-			List<InternalStepModel> steps;
+			TargetStatus status = testCaseStatusByTarget.get(target);
 			if (status.id != null && status.status != Existence.TO_BE_DELETED) {
-				steps = loadStepsModel(status.id);
-			} else {
-				steps = new ArrayList<>();
+				targetsById.put(status.id, target);
 			}
+		}
 
-			testCaseStepsByTarget.put(target, steps);
-
+		if (!targetsById.isEmpty()) {
+			loadStepsModels(targetsById);
 		}
 
 	}
@@ -1095,20 +1150,39 @@ public class Model {
 
 		Long projectId = projectStatusByName.get(projectName).id;
 
-		List<CustomField> tccufs = cufDao.findAllBoundCustomFields(projectId,
-			BindableEntity.TEST_CASE);
+		List<CustomField> tccufs = findBoundCustomFields(projectId, BindableEntity.TEST_CASE);
 		tcCufsPerProjectname.putAll(projectName, tccufs);
 
-		List<CustomField> stcufs = cufDao.findAllBoundCustomFields(projectId,
-			BindableEntity.TEST_STEP);
+		List<CustomField> stcufs = findBoundCustomFields(projectId, BindableEntity.TEST_STEP);
 		stepCufsPerProjectname.putAll(projectName, stcufs);
 
-		List<CustomField> reqcufs = cufDao.findAllBoundCustomFields(projectId,
-			BindableEntity.REQUIREMENT_VERSION);
+		List<CustomField> reqcufs = findBoundCustomFields(projectId, BindableEntity.REQUIREMENT_VERSION);
 		reqCufsPerProjectname.putAll(projectName, reqcufs);
 
 	}
 
+	/*
+	 * The custom fields are cached for the whole import, which may clear the persistence context between two chunks of
+	 * instructions : their lazy options are loaded right away.
+	 */
+	private List<CustomField> findBoundCustomFields(long projectId, BindableEntity entity) {
+		List<CustomField> customFields = bindingCache.findCustomFieldBindings(projectId, entity).stream()
+			.map(CustomFieldBinding::getCustomField)
+			.sorted(Comparator.comparing(CustomField::getName))
+			.collect(Collectors.toList());
+
+		// options come wrapped in unmodifiable collections, size() loads them
+		for (CustomField customField : customFields) {
+			if (customField instanceof SingleSelectField) {
+				((SingleSelectField) customField).getOptions().size(); // NOSONAR
+			} else if (customField instanceof MultiSelectField) {
+				((MultiSelectField) customField).getOptions().size(); // NOSONAR
+			}
+		}
+
+		return customFields;
+	}
+
 	public void mainInitRequirements(RequirementVersionTarget target) {
 		mainInitRequirements(Arrays.asList(target));
 	}
@@ -1148,6 +1222,19 @@ public class Model {
 			return;
 		}
 
+		// the requirements are still resolved one by one (they may be synchronized ones), but then the versions of
+		// those which exist and the milestones of those versions are loaded at once
+		Set<Long> reqIds = new HashSet<>();
+		for (RequirementVersionTarget target : targets) {
+			if (getStatus(target.getRequirement()).getStatus() == Existence.EXISTS) {
+				reqIds.add(requirementTree.getNodeId(target.getRequirement()));
+			}
+		}
+
+		// FIXME if we dont have READ rights, this breaks ! Model probably has to be revamped becaiuse it dont seem to care for access rights.
+		Map<Long, Map<Integer, Long>> versionIdsByRequirement = loadRequirementVersionIds(reqIds);
+		Map<Long, List<Object[]>> milestonesByVersion = loadRequirementVersionMilestones(versionIdsByRequirement);
+
 		for (RequirementVersionTarget target : targets) {
 			//Now we look in database for the requirement version
 			LOGGER.debug("ReqImport - Initialize target " + target.getPath());
@@ -1158,41 +1245,78 @@ public class Model {
 				requirementTree.addOrUpdateNode(target, TargetStatus.NOT_EXISTS);
 			} else {
 				Long reqId = requirementTree.getNodeId(target.getRequirement());
-				Integer versionNumber = target.getVersion();
-				Long reqVersionId = requirementVersionManagerService.findReqVersionIdByRequirementAndVersionNumber(reqId, versionNumber);
-				if (reqVersionId != null) {
-					// FIXME we should probably check for READ right here but i dont know what else could i write when i dont have the right
-					initExistingRequirementVersion(target, reqVersionId);
-				} else {
+				Map<Integer, Long> versionIds = versionIdsByRequirement.getOrDefault(reqId, Collections.<Integer, Long>emptyMap());
+				if (!versionIds.containsKey(target.getVersion())) {
 					requirementTree.addOrUpdateNode(target, new TargetStatus(Existence.NOT_EXISTS));
 				}
 				//now we init all existing requirement version in the same requirement we are trying to update or add,
-				// as we need it to make some check (milestone already used by another version...)
-				// FIXME if we dont have READ rights, this breaks ! Model probably has to be revamped becaiuse it dont seem to care for access rights.
-				Requirement req = requirementVersionManagerService.findRequirementById(reqId);
-				List<RequirementVersion> reqVersions = req.getRequirementVersions();
-				for (RequirementVersion requirementVersion : reqVersions) {
+				// as we need it to make some check (milestone already used by another version...). The imported one is
+				// among them when it exists.
+				for (Map.Entry<Integer, Long> version : versionIds.entrySet()) {
 					//we init the RequirementVersionTarget with the same RequirementTarget as the imported one as they have the same Requirement in db
-					RequirementVersionTarget existingRequirementversion = new RequirementVersionTarget(target.getRequirement(), requirementVersion.getVersionNumber());
-					initExistingRequirementVersion(existingRequirementversion, requirementVersion.getId());
+					RequirementVersionTarget existingRequirementversion = new RequirementVersionTarget(target.getRequirement(), version.getKey());
+					initExistingRequirementVersion(existingRequirementversion, version.getValue(), milestonesByVersion);
 				}
 			}
 		}
 	}
 
-	private void initExistingRequirementVersion(RequirementVersionTarget target, Long reqVersionId) {
+	private void initExistingRequirementVersion(RequirementVersionTarget target, Long reqVersionId, Map<Long, List<Object[]>> milestonesByVersion) {
 		requirementTree.addOrUpdateNode(target, new TargetStatus(Existence.EXISTS, reqVersionId));
 		//here get milestone and milestoneLocked
-		// FIXME if we dont have READ rights, this breaks ! Model probably has to be revamped becaiuse it dont seem to care for access rights.
-		Collection<Milestone> milestones = milestoneMemberFinder.findMilestonesForRequirementVersion(reqVersionId);
-		for (Milestone milestone : milestones) {
-			requirementTree.bindMilestone(target, milestone.getLabel());
-			if (milestone.getStatus() == MilestoneStatus.LOCKED || milestone.getStatus() == MilestoneStatus.PLANNED) {
+		for (Object[] milestone : milestonesByVersion.getOrDefault(reqVersionId, Collections.<Object[]>emptyList())) {
+			requirementTree.bindMilestone(target, (String) milestone[0]);
+			MilestoneStatus status = (MilestoneStatus) milestone[1];
+			if (status == MilestoneStatus.LOCKED || status == MilestoneStatus.PLANNED) {
 				requirementTree.milestoneLock(target);
 			}
 		}
 	}
 
+	/**
+	 * @return the ids of the versions of the given requirements, mapped by requirement id then by version number
+	 */
+	@SuppressWarnings(UNCHECKED)
+	private Map<Long, Map<Integer, Long>> loadRequirementVersionIds(Collection<Long> reqIds) {
+		if (reqIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Query query = em.createNamedQuery("requirementVersion.findVersionInfosByRequirementIds");
+		query.setParameter("requirementIds", reqIds);
+		List<Object[]> tuples = query.getResultList();
+
+		Map<Long, Map<Integer, Long>> versionIds = new HashMap<>();
+		for (Object[] tuple : tuples) {
+			versionIds.computeIfAbsent((Long) tuple[0], id -> new LinkedHashMap<>()).put((Integer) tuple[2], (Long) tuple[1]);
+		}
+		return versionIds;
+	}
+
+	/**
+	 * @return the (label, status) of the milestones of the given requirement versions, mapped by version id
+	 */
+	@SuppressWarnings(UNCHECKED)
+	private Map<Long, List<Object[]>> loadRequirementVersionMilestones(Map<Long, Map<Integer, Long>> versionIdsByRequirement) {
+		List<Long> versionIds = new ArrayList<>();
+		for (Map<Integer, Long> versions : versionIdsByRequirement.values()) {
+			versionIds.addAll(versions.values());
+		}
+		if (versionIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Query query = em.createNamedQuery("requirementVersion.findMilestoneInfosByVersionIds");
+		query.setParameter("versionIds", versionIds);
+		List<Object[]> tuples = query.getResultList();
+
+		Map<Long, List<Object[]>> milestones = new HashMap<>();
+		for (Object[] tuple : tuples) {
+			milestones.computeIfAbsent((Long) tuple[0], id -> new ArrayList<>()).add(new Object[]{tuple[1], tuple[2]});
+		}
+		return milestones;
+	}
+
 	/**
 	 * Add a requirement version to model, not to database.
 	 */
@@ -1284,29 +1408,72 @@ public class Model {
 		return q.getResultList();
 	}
 
+	/**
+	 * loads the steps of the given test cases at once, and stores them in testCaseStepsByTarget. The paths of the called
+	 * test cases are also fetched at once.
+	 */
 	@SuppressWarnings(UNCHECKED)
-	private List<InternalStepModel> loadStepsModel(Long tcId) {
+	private void loadStepsModels(Map<Long, TestCaseTarget> targetsById) {
 		Query query = em.createNamedQuery(
-			"testStep.findBasicInfosByTcId");
-		query.setParameter("tcId", tcId);
+			"testStep.findBasicInfosByTcIds");
+		query.setParameter("tcIds", targetsById.keySet());
 
 		List<Object[]> stepdata = query.getResultList();
 
-		List<InternalStepModel> steps = new ArrayList<>(
-			stepdata.size());
+		List<Long> calledIds = new ArrayList<>();
+		for (Object[] tuple : stepdata) {
+			if (tuple[2] != null) {
+				calledIds.add((Long) tuple[2]);
+			}
+		}
+
+		Map<Long, TestCaseTarget> calledTargetsById = new HashMap<>();
+		if (!calledIds.isEmpty()) {
+			List<Long> uniqueIds = uniqueList(calledIds);
+			List<String> paths = finderService.getPathsAsString(uniqueIds);
+			for (int i = 0; i < uniqueIds.size(); i++) {
+				calledTargetsById.put(uniqueIds.get(i), new TestCaseTarget(paths.get(i)));
+			}
+		}
+
+		// the tuples are ordered by test case, then by step position
 		for (Object[] tuple : stepdata) {
-			StepType type = StepType.valueOf((String) tuple[0]);
+			StepType type = StepType.valueOf((String) tuple[1]);
 			TestCaseTarget calledTC = null;
 			boolean delegates = false;
 			if (type == StepType.CALL) {
-				String path = finderService.getPathAsString((Long) tuple[1]);
-				calledTC = new TestCaseTarget(path);
-				delegates = (Boolean) tuple[2];
+				calledTC = calledTargetsById.get(tuple[2]);
+				delegates = (Boolean) tuple[3];
 			}
-			steps.add(new InternalStepModel(type, calledTC, delegates));
+			testCaseStepsByTarget.get(targetsById.get(tuple[0])).add(new InternalStepModel(type, calledTC, delegates));
+		}
+	}
+
+	@SuppressWarnings(UNCHECKED)
+	private Set<Long> findTestCasesLockedByMilestones(List<Long> ids) {
+		List<Long> existingIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toList());
+		if (existingIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+
+		Query query = em.createNamedQuery("testCase.findTestCasesWithMilestonesHavingStatuses");
+		query.setParameter("testCaseIds", existingIds);
+		query.setParameter("statuses", Arrays.asList(MilestoneStatus.PLANNED, MilestoneStatus.LOCKED));
+		return new HashSet<>(query.getResultList());
+	}
+
+	/**
+	 * runs the given query, which returns (test case id, name) tuples for a collection of test case ids.
+	 */
+	@SuppressWarnings(UNCHECKED)
+	private List<Object[]> loadNamesByTestCase(String queryName, Collection<Long> testCaseIds) {
+		if (testCaseIds.isEmpty()) {
+			return emptyList();
 		}
 
-		return steps;
+		Query query = em.createNamedQuery(queryName);
+		query.setParameter("testCaseIds", testCaseIds);
+		return query.getResultList();
 	}
 
 	/**
@@ -44,6 +44,7 @@ import org.squashtest.tm.domain.requirement.RequirementStatus;
 import org.squashtest.tm.domain.requirement.RequirementVersion;
 import org.squashtest.tm.exception.requirement.link.SameRequirementLinkedRequirementVersionException;
 import org.squashtest.tm.exception.requirement.link.UnlinkableLinkedRequirementVersionException;
+import org.squashtest.tm.service.importer.ImportMode;
 import org.squashtest.tm.service.importer.ImportStatus;
 import org.squashtest.tm.service.importer.LogEntry;
 import org.squashtest.tm.service.infolist.InfoListItemFinderService;
@@ -637,9 +638,17 @@ class RequirementFacility extends EntityFacilitySupport {
 	public void postprocess(List<Instruction<?>> instructions) {
 		if (postProcessHandler != null) {
 			postProcessHandler.doPostProcess(instructions);
+		} else if (!instructions.isEmpty()) {
+			// the versions were created / updated by a previous run of a resumed import
+			resumedPostProcessHandler(instructions).doPostProcess(instructions);
 		}
 	}
 
+	private ImportPostProcessHandler resumedPostProcessHandler(List<Instruction<?>> instructions) {
+		boolean anyUpdate = instructions.stream().anyMatch(instruction -> instruction.getMode() == ImportMode.UPDATE);
+		return anyUpdate ? new UpdateRequirementVersionPostProcessStrategy() : new CreateRequirementVersionPostProcessStrategy();
+	}
+
 
 	private class AddRequirementVisitor implements RequirementLibraryNodeVisitor {
 
@@ -29,6 +29,7 @@ import org.squashtest.tm.domain.testcase.Parameter;
 import org.squashtest.tm.service.internal.batchimport.testcase.excel.CoverageInstruction;
 
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -294,4 +295,9 @@ public class SimulationFacility implements Facility {
 		return validator.deleteRequirementLink(instr);
 	}
 
+	@Override
+	public void preloadTargets(Collection<Instruction<?>> instructions) {
+		validator.preloadTargets(instructions);
+	}
+
 }
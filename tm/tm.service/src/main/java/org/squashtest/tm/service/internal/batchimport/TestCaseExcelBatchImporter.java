@@ -24,12 +24,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.squashtest.tm.service.importer.EntityType;
 import org.squashtest.tm.service.internal.batchimport.excel.ExcelBatchImporter;
-import org.squashtest.tm.service.internal.batchimport.testcase.excel.ExcelWorkbookParser;
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.COVERAGE_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.DATASETS_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.DATASET_PARAM_VALUES_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.PARAMETERS_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.STEPS_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.TEST_CASES_SHEET;
+
 @Component
 public class TestCaseExcelBatchImporter extends ExcelBatchImporter {
 
@@ -43,35 +49,24 @@ public class TestCaseExcelBatchImporter extends ExcelBatchImporter {
 	}
 
 	@Override
-	public List<Instruction<?>> findInstructionsByEntity(ExcelWorkbookParser parser, EntityType entityType) {
-
-		LOGGER.debug("creating instructions for entity type : {}", entityType);
-
-		List<Instruction<?>> instructions = new ArrayList<>();
+	public TemplateWorksheet findWorksheetByEntity(EntityType entityType) {
 
 		switch (entityType) {
 		case TEST_CASE:
-			instructions.addAll(parser.getTestCaseInstructions());
-			break;
+			return TEST_CASES_SHEET;
 		case PARAMETER:
-			instructions.addAll(parser.getParameterInstructions());
-			break;
+			return PARAMETERS_SHEET;
 		case TEST_STEP:
-			instructions.addAll(parser.getTestStepInstructions());
-			break;
+			return STEPS_SHEET;
 		case DATASET:
-			instructions.addAll(parser.getDatasetInstructions());
-			break;
+			return DATASETS_SHEET;
 		case DATASET_PARAM_VALUES :
-			instructions.addAll(parser.getDatasetParamValuesInstructions());
-			break;
+			return DATASET_PARAM_VALUES_SHEET;
 		case COVERAGE:
-			instructions.addAll(parser.getCoverageInstructions());
-			break;
+			return COVERAGE_SHEET;
 		default:
-
+			throw new IllegalArgumentException("No test case import worksheet for entity type " + entityType);
 		}
-		return instructions;
 	}
 
 	@Override
@@ -64,6 +64,7 @@ import org.squashtest.tm.service.user.UserAccountService;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -214,6 +215,11 @@ public class ValidationFacility implements Facility, ValidationFacilitySubservic
 		return model;
 	}
 
+	@Override
+	public void preloadTargets(Collection<Instruction<?>> instructions) {
+		model.preloadTargets(instructions);
+	}
+
 	@Override
 	public InfoListItemFinderService getInfoListItemService() {
 		return infoListItemService;
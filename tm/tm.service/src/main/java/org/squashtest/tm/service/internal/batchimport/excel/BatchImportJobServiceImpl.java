@@ -0,0 +1,176 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.excel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.squashtest.tm.security.UserContextHolder;
+import org.squashtest.tm.service.batchimport.BatchImportJobService;
+import org.squashtest.tm.service.batchimport.BatchImportProgress;
+import org.squashtest.tm.service.batchimport.BatchImportProgress.Status;
+import org.squashtest.tm.service.internal.batchimport.TestCaseExcelBatchImporter;
+import org.squashtest.tm.service.internal.batchimport.requirement.excel.RequirementExcelBatchImporter;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jobs are kept in memory, finished ones are forgotten after {@link #RETENTION_MILLIS}.
+ */
+@Service("squashtest.tm.service.BatchImportJobService")
+public class BatchImportJobServiceImpl implements BatchImportJobService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchImportJobServiceImpl.class);
+
+	private static final long RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	@Inject
+	private TestCaseExcelBatchImporter testCaseImporter;
+
+	@Inject
+	private RequirementExcelBatchImporter requirementImporter;
+
+	@Inject
+	private TaskExecutor taskExecutor;
+
+	@Override
+	public String startTestCaseImport(File excelFile) {
+		return start(new Job(testCaseImporter, excelFile));
+	}
+
+	@Override
+	public String startRequirementImport(File excelFile) {
+		return start(new Job(requirementImporter, excelFile));
+	}
+
+	@Override
+	public BatchImportProgress getProgress(String jobId) {
+		return findJob(jobId).getProgress();
+	}
+
+	@Override
+	public void resume(String jobId) {
+		Job job = findJob(jobId);
+
+		synchronized (job) {
+			if (job.status != Status.FAILED) {
+				throw new IllegalStateException("Import job " + jobId + " is " + job.status + ", only failed jobs can be resumed");
+			}
+			job.status = Status.RUNNING;
+		}
+
+		submit(job);
+	}
+
+	private String start(Job job) {
+		forgetFinishedJobs();
+
+		jobs.put(job.id, job);
+		submit(job);
+
+		return job.id;
+	}
+
+	private void submit(Job job) {
+		// the import checks the permissions of the user who started it
+		taskExecutor.execute(new DelegatingSecurityContextRunnable(job::run));
+	}
+
+	private Job findJob(String jobId) {
+		Job job = jobs.get(jobId);
+
+		if (job == null || !job.username.equals(UserContextHolder.getUsername())) {
+			throw new IllegalArgumentException("No import job " + jobId);
+		}
+		return job;
+	}
+
+	private void forgetFinishedJobs() {
+		long now = System.currentTimeMillis();
+
+		jobs.values().removeIf(job -> {
+			boolean expired = job.status != Status.RUNNING && now - job.lastUpdate > RETENTION_MILLIS;
+			if (expired) {
+				job.deleteFile();
+			}
+			return expired;
+		});
+	}
+
+	private static final class Job {
+		private final String id = UUID.randomUUID().toString();
+		private final String username = Objects.requireNonNull(UserContextHolder.getUsername());
+		private final ExcelBatchImporter importer;
+		private final File excelFile;
+		private final ImportCheckpoint checkpoint = new ImportCheckpoint();
+
+		private volatile Status status = Status.RUNNING;
+		private volatile String failureMessage;
+		private volatile long lastUpdate = System.currentTimeMillis();
+
+		private Job(ExcelBatchImporter importer, File excelFile) {
+			super();
+			this.importer = importer;
+			this.excelFile = excelFile;
+		}
+
+		private void run() {
+			failureMessage = null;
+
+			try {
+				importer.performChunkedImport(excelFile, checkpoint);
+				status = Status.COMPLETED;
+				deleteFile();
+
+			} catch (RuntimeException ex) {
+				LOGGER.warn("Import job {} failed after {} committed rows", id, checkpoint.getCommittedCount(), ex);
+				failureMessage = ex.getMessage();
+				status = Status.FAILED;
+
+			} finally {
+				lastUpdate = System.currentTimeMillis();
+			}
+		}
+
+		private BatchImportProgress getProgress() {
+			Status currentStatus = status;
+			return new BatchImportProgress(id, currentStatus, checkpoint.getCommittedCount(), checkpoint.getErrorCount(),
+				currentStatus == Status.COMPLETED ? checkpoint.getImportLog() : null, failureMessage);
+		}
+
+		private void deleteFile() {
+			if (excelFile.exists() && !excelFile.delete()) {
+				LOGGER.debug("Could not delete import file {}", excelFile);
+			}
+		}
+	}
+
+}
@@ -21,7 +21,10 @@
 package org.squashtest.tm.service.internal.batchimport.excel;
 
 import org.slf4j.Logger;
-import org.squashtest.tm.service.annotation.CacheScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.squashtest.tm.service.importer.EntityType;
 import org.squashtest.tm.service.importer.ImportLog;
 import org.squashtest.tm.service.importer.LogEntry;
@@ -31,21 +34,36 @@ import org.squashtest.tm.service.internal.batchimport.Instruction;
 import org.squashtest.tm.service.internal.batchimport.LogTrain;
 import org.squashtest.tm.service.internal.batchimport.SimulationFacility;
 import org.squashtest.tm.service.internal.batchimport.testcase.excel.ExcelWorkbookParser;
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 public abstract class ExcelBatchImporter {
 
+	private static final int DEFAULT_CHUNK_SIZE = 200;
+
 	@Inject
 	private Provider<SimulationFacility> simulatorProvider;
 
 	@Inject
 	private Provider<FacilityImpl> facilityImplProvider;
 
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Value("${squashtm.batchimport.chunk-size:" + DEFAULT_CHUNK_SIZE + "}")
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
 	/*
 		1/ The logger is set by constructor, check the subclasses.
 
@@ -72,115 +90,225 @@ public abstract class ExcelBatchImporter {
 
 		SimulationFacility simulator = simulatorProvider.get();
 
-		LOGGER.trace("parsing excel file");
-		ExcelWorkbookParser parser = ExcelWorkbookParser.createParser(excelFile);
-		parser.parse().releaseResources();
-		LOGGER.trace("parsing done");
-
-		LogTrain unknownHeaders = parser.logUnknownHeaders();
-
-		List<Instruction<?>> instructions = buildOrderedInstruction(parser);
-		if (LOGGER.isTraceEnabled()){
-			LOGGER.trace("{} instructions created", instructions.size());
-		}
-
-
 		LOGGER.trace("running import simulation");
-		ImportLog importLog = run(instructions, simulator);
-
-		importLog.appendLogTrain(unknownHeaders);
+		ImportLog importLog = run(excelFile, simulator, (instruction, logs) -> { });
 
 		LOGGER.trace("done");
 		return importLog;
 
 	}
 
-	@CacheScope
 	public ImportLog performImport(File excelFile) {
 		LOGGER.debug("beginning import");
 
 		FacilityImpl impl = facilityImplProvider.get();
+		List<Instruction<?>> postProcessed = new ArrayList<>();
+
+		LOGGER.trace("running import");
+		ImportLog importLog = run(excelFile, impl, (instruction, logs) -> {
+			if (isPostProcessed(instruction, logs)) {
+				postProcessed.add(instruction);
+			}
+		});
+
+		LOGGER.trace("post processing");
+		impl.postprocess(postProcessed);
 
+		LOGGER.trace("done");
+		return importLog;
+
+	}
+
+	/*
+	 * The worksheets are parsed one after the other, in the order of execution of their instructions. Instructions are
+	 * executed by batches as they are parsed, then dropped unless they are needed for the post processing : the whole
+	 * workbook never has to fit in memory. The targets of a batch are preloaded by the facility before it is executed.
+	 */
+	private ImportLog run(File excelFile, Facility facility, BiConsumer<Instruction<?>, LogTrain> executedInstructions) {
 		LOGGER.trace("parsing excel file");
 		ExcelWorkbookParser parser = ExcelWorkbookParser.createParser(excelFile);
-		parser.parse().releaseResources();
-		LOGGER.trace("parsing done");
 
-		LogTrain unknownHeaders = parser.logUnknownHeaders();
-
-		List<Instruction<?>> instructions = buildOrderedInstruction(parser);
-		if (LOGGER.isTraceEnabled()){
-			LOGGER.trace("{} instructions created", instructions.size());
+		ImportLog importLog = new ImportLog();
+		List<Instruction<?>> batch = new ArrayList<>(chunkSize);
+		int[] count = new int[1];
+
+		Runnable executeBatch = () -> {
+			facility.preloadTargets(batch);
+			for (Instruction<?> instruction : batch) {
+				LogTrain logs = execute(instruction, facility);
+				importLog.appendLogTrain(logs);
+				executedInstructions.accept(instruction, logs);
+			}
+			count[0] += batch.size();
+			batch.clear();
+		};
+
+		try {
+			for (EntityType entity : getEntityType()) {
+				LOGGER.debug("running instructions for entity type : '{}'", entity);
+
+				parser.parseWorksheet(findWorksheetByEntity(entity), instruction -> {
+					batch.add(instruction);
+					if (batch.size() >= chunkSize) {
+						executeBatch.run();
+					}
+				});
+			}
+			executeBatch.run();
+		} finally {
+			parser.releaseResources();
 		}
 
-		LOGGER.trace("running import");
-		ImportLog importLog = run(instructions, impl);
+		LOGGER.trace("{} instructions executed", count[0]);
 
-		LOGGER.trace("post processing");
-		impl.postprocess(instructions);
+		// Feat 3695
+		importLog.packLogs();
 
-		importLog.appendLogTrain(unknownHeaders);
+		importLog.appendLogTrain(parser.logUnknownHeaders());
 
-		LOGGER.trace("done");
 		return importLog;
-
 	}
 
-	/*
+	/**
+	 * <p>
+	 * Performs the import by chunks of instructions. Each chunk runs in a transaction of its own, after which the
+	 * persistence context is flushed and cleared : a failure only rolls back the current chunk and the session does
+	 * not grow with the size of the file.
+	 * </p>
 	 *
-	 * Feat 3695 :
-	 *
-	 * an additional step is required now that DATASET and PArameter values are processed separately : we still need to
-	 * merge their logs.
+	 * <p>
+	 * The progress is recorded in the given checkpoint as chunks get committed. Instructions already committed
+	 * according to the checkpoint are skipped, so an import which failed can be resumed by calling this method again
+	 * with the same file and checkpoint.
+	 * </p>
 	 *
+	 * @param excelFile
+	 * @param checkpoint
 	 */
-	private ImportLog run(List<Instruction<?>> instructions, Facility facility) {
+	public void performChunkedImport(File excelFile, ImportCheckpoint checkpoint) {
+		LOGGER.debug("beginning chunked import, {} instructions already committed", checkpoint.getCommittedCount());
 
-		ImportLog importLog = new ImportLog();
+		// the model of the facility reads what previous chunks or runs committed
+		FacilityImpl impl = facilityImplProvider.get();
 
-		for (Instruction<?> instruction : instructions) {
-			if (LOGGER.isTraceEnabled()) {
-				LOGGER.debug("execution of instruction : (line {}) {} '{}'", instruction.getLine(), instruction.getMode(), instruction.getTarget());
-			}
-			LogTrain logs = instruction.execute(facility);
-			LOGGER.debug("completed execution of instruction : (line {}) {} '{}'", instruction.getLine(), instruction.getMode(), instruction.getTarget());
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
-			if (logs.hasNoErrorWhatsoever()) {
-				LOGGER.debug("no errors");
-				logs.addEntry(LogEntry.ok().forTarget(instruction.getTarget()).build());
-			}
-			else{
-				LOGGER.debug("some errors where raised and will be reported to the user");
-			}
+		LOGGER.trace("parsing excel file");
+		ExcelWorkbookParser parser = ExcelWorkbookParser.createParser(excelFile);
 
-			logs.setForAll(instruction.getMode());
-			logs.setForAll(instruction.getLine());
+		List<Instruction<?>> chunk = new ArrayList<>(chunkSize);
+		int[] position = new int[1];
+
+		try {
+			for (EntityType entity : getEntityType()) {
+				LOGGER.debug("running instructions for entity type : '{}'", entity);
+
+				parser.parseWorksheet(findWorksheetByEntity(entity), instruction -> {
+					if (position[0]++ < checkpoint.getCommittedCount()) {
+						return;
+					}
+					chunk.add(instruction);
+					if (chunk.size() >= chunkSize) {
+						runChunk(chunk, impl, transaction, checkpoint);
+						chunk.clear();
+					}
+				});
+			}
+			runChunk(chunk, impl, transaction, checkpoint);
 
-			importLog.appendLogTrain(logs);
+		} finally {
+			parser.releaseResources();
 		}
 
-		// Feat 3695
+		LOGGER.trace("post processing");
+		transaction.execute(status -> {
+			impl.postprocess(checkpoint.getPostProcessedInstructions());
+			return null;
+		});
+
+		ImportLog importLog = checkpoint.getImportLog();
 		importLog.packLogs();
+		importLog.appendLogTrain(parser.logUnknownHeaders());
 
-		return importLog;
+		LOGGER.trace("done");
 	}
 
-	public List<Instruction<?>> buildOrderedInstruction(ExcelWorkbookParser parser) {
-		List<Instruction<?>> instructions = new ArrayList<>();
-		for (EntityType entity : getEntityType()) {
-			LOGGER.debug("building instructions for entity type : '{}'", entity);
+	private void runChunk(List<Instruction<?>> chunk, Facility facility, TransactionTemplate transaction, ImportCheckpoint checkpoint) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+
+		List<Instruction<?>> postProcessed = new ArrayList<>();
+
+		List<LogTrain> chunkLogs = transaction.execute(status -> {
+			facility.preloadTargets(chunk);
+
+			List<LogTrain> logs = new ArrayList<>(chunk.size());
+			for (Instruction<?> instruction : chunk) {
+				LogTrain instructionLogs = execute(instruction, facility);
+				logs.add(instructionLogs);
+				if (isPostProcessed(instruction, instructionLogs)) {
+					postProcessed.add(instruction);
+				}
+			}
+
+			em.flush();
+			em.clear();
+			return logs;
+		});
 
-			List<Instruction<?>> entityInstructions = findInstructionsByEntity(parser, entity);
+		checkpoint.commit(chunkLogs, postProcessed);
+		LOGGER.debug("committed {} instructions", checkpoint.getCommittedCount());
+	}
 
-			LOGGER.trace("found {} instructions for entity type '{}'", entityInstructions.size(), entity);
+	/*
+	 *
+	 * Feat 3695 :
+	 *
+	 * an additional step is required now that DATASET and PArameter values are processed separately : we still need to
+	 * merge their logs.
+	 *
+	 */
+	private LogTrain execute(Instruction<?> instruction, Facility facility) {
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.debug("execution of instruction : (line {}) {} '{}'", instruction.getLine(), instruction.getMode(), instruction.getTarget());
+		}
+		LogTrain logs = instruction.execute(facility);
+		LOGGER.debug("completed execution of instruction : (line {}) {} '{}'", instruction.getLine(), instruction.getMode(), instruction.getTarget());
 
-			instructions.addAll(entityInstructions);
+		if (logs.hasNoErrorWhatsoever()) {
+			LOGGER.debug("no errors");
+			logs.addEntry(LogEntry.ok().forTarget(instruction.getTarget()).build());
+		}
+		else{
+			LOGGER.debug("some errors where raised and will be reported to the user");
 		}
-		return instructions;
+
+		logs.setForAll(instruction.getMode());
+		logs.setForAll(instruction.getLine());
+
+		return logs;
+	}
+
+	/**
+	 * Tells whether an instruction must be kept until the post processing of the import. Instructions are dropped once
+	 * executed otherwise.
+	 *
+	 * @param instruction the executed instruction
+	 * @param logs the logs of its execution
+	 * @return <code>false</code> by default
+	 */
+	protected boolean isPostProcessed(Instruction<?> instruction, LogTrain logs) {
+		return false;
 	}
 
 	public abstract List<EntityType> getEntityType();
 
-	public abstract List<Instruction<?>> findInstructionsByEntity(ExcelWorkbookParser parser, EntityType entityType);
+	/**
+	 * @param entityType
+	 * @return the worksheet holding the instructions for the given entity type
+	 */
+	public abstract TemplateWorksheet findWorksheetByEntity(EntityType entityType);
 
 }
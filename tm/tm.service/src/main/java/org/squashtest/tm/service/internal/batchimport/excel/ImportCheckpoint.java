@@ -0,0 +1,85 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.excel;
+
+import org.squashtest.tm.service.importer.ImportLog;
+import org.squashtest.tm.service.internal.batchimport.Instruction;
+import org.squashtest.tm.service.internal.batchimport.LogTrain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>State of a chunked import (see {@link ExcelBatchImporter#performChunkedImport(java.io.File, ImportCheckpoint)}).</p>
+ *
+ * <p>
+ * It only records chunks of instructions once they are committed : when an import fails, its checkpoint tells where
+ * to resume it from. The counters can be read from other threads while the import runs.
+ * </p>
+ */
+public class ImportCheckpoint {
+
+	private volatile int committedCount;
+	private volatile int errorCount;
+
+	private final ImportLog importLog = new ImportLog();
+	private final List<Instruction<?>> postProcessedInstructions = new ArrayList<>();
+
+	/**
+	 * @return the number of instructions committed so far, in order of execution
+	 */
+	public int getCommittedCount() {
+		return committedCount;
+	}
+
+	/**
+	 * @return the number of committed instructions which could not be carried out because of errors
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return the logs of the committed instructions. Only complete once the import is over.
+	 */
+	public ImportLog getImportLog() {
+		return importLog;
+	}
+
+	List<Instruction<?>> getPostProcessedInstructions() {
+		return postProcessedInstructions;
+	}
+
+	synchronized void commit(List<LogTrain> chunkLogs, List<Instruction<?>> postProcessed) {
+		int errors = 0;
+		for (LogTrain logs : chunkLogs) {
+			importLog.appendLogTrain(logs);
+			if (logs.hasCriticalErrors()) {
+				errors++;
+			}
+		}
+		postProcessedInstructions.addAll(postProcessed);
+
+		errorCount += errors;
+		committedCount += chunkLogs.size();
+	}
+
+}
@@ -23,14 +23,20 @@ package org.squashtest.tm.service.internal.batchimport.requirement.excel;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.squashtest.tm.service.importer.EntityType;
+import org.squashtest.tm.service.importer.ImportMode;
 import org.squashtest.tm.service.internal.batchimport.Instruction;
+import org.squashtest.tm.service.internal.batchimport.LogTrain;
+import org.squashtest.tm.service.internal.batchimport.RequirementVersionInstruction;
 import org.squashtest.tm.service.internal.batchimport.excel.ExcelBatchImporter;
-import org.squashtest.tm.service.internal.batchimport.testcase.excel.ExcelWorkbookParser;
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.COVERAGE_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.REQUIREMENT_LINKS_SHEET;
+import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.REQUIREMENT_SHEET;
+
 @Component
 public class RequirementExcelBatchImporter extends ExcelBatchImporter {
 
@@ -44,27 +50,30 @@ public class RequirementExcelBatchImporter extends ExcelBatchImporter {
 	}
 
 	@Override
-	public List<Instruction<?>> findInstructionsByEntity(ExcelWorkbookParser parser, EntityType entityType) {
-
-		LOGGER.debug("creating instructions for entity type : {}", entityType);
-
-		List<Instruction<?>> instructions = new ArrayList<>();
+	public TemplateWorksheet findWorksheetByEntity(EntityType entityType) {
 
 		switch (entityType) {
 
 		case REQUIREMENT_VERSION:
-			instructions.addAll(parser.getRequirementVersionInstructions());
-			break;
+			return REQUIREMENT_SHEET;
 		case COVERAGE:
-			instructions.addAll(parser.getCoverageInstructions());
-			break;
+			return COVERAGE_SHEET;
 		case REQUIREMENT_LINK:
-			instructions.addAll(parser.getRequirementLinkgsInstruction());
-			break;
+			return REQUIREMENT_LINKS_SHEET;
 		default:
-
+			throw new IllegalArgumentException("No requirement import worksheet for entity type " + entityType);
 		}
-		return instructions;
+	}
+
+	/**
+	 * The requirement versions which were created or updated are post processed by
+	 * {@link org.squashtest.tm.service.internal.batchimport.RequirementFacility}
+	 */
+	@Override
+	protected boolean isPostProcessed(Instruction<?> instruction, LogTrain logs) {
+		return instruction instanceof RequirementVersionInstruction
+			&& instruction.getMode() != ImportMode.DELETE
+			&& !logs.hasCriticalErrors();
 	}
 
 	@Override
@@ -0,0 +1,82 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.testcase.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link WorkbookRowReader} backed by a workbook loaded in memory. Used for Excel 2003 (.xls) files.
+ */
+class DomWorkbookRowReader implements WorkbookRowReader {
+
+	private Workbook workbook;
+
+	DomWorkbookRowReader(Workbook workbook) {
+		super();
+		this.workbook = workbook;
+	}
+
+	@Override
+	public List<String> getSheetNames() {
+		List<String> names = new ArrayList<>(workbook.getNumberOfSheets());
+		for (int iSheet = 0; iSheet < workbook.getNumberOfSheets(); iSheet++) {
+			names.add(workbook.getSheetAt(iSheet).getSheetName());
+		}
+		return names;
+	}
+
+	@Override
+	public Row readHeaderRow(String sheetName) {
+		return getSheet(sheetName).getRow(0);
+	}
+
+	@Override
+	public void readRows(String sheetName, Consumer<Row> consumer) {
+		Sheet sheet = getSheet(sheetName);
+
+		for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+			Row row = sheet.getRow(i);
+			if (row != null) {
+				consumer.accept(row);
+			}
+		}
+	}
+
+	private Sheet getSheet(String sheetName) {
+		if (workbook == null) {
+			throw new IllegalStateException("No workbook available. Maybe its resources were released by mistake.");
+		}
+		return workbook.getSheet(sheetName);
+	}
+
+	@Override
+	public void close() {
+		// as per POI doc : workbook resources are released upon GC
+		workbook = null;
+	}
+
+}
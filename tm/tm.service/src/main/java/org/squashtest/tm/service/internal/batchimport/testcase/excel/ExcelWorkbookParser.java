@@ -23,8 +23,6 @@ package org.squashtest.tm.service.internal.batchimport.testcase.excel;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -61,6 +59,7 @@ import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.COVERAGE_SHEET;
 import static org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet.DATASETS_SHEET;
@@ -105,7 +104,7 @@ public class ExcelWorkbookParser {
 
 
 
-	private Workbook workbook;
+	private WorkbookRowReader reader;
 	private final WorkbookMetaData wmd;
 
 	private final Map<TemplateWorksheet, List<Instruction<?>>> instructionsByWorksheet = new EnumMap<>(
@@ -116,12 +115,12 @@ public class ExcelWorkbookParser {
 	/**
 	 * Should be used by ExcelWorkbookParserBuilder only.
 	 *
-	 * @param workbook
+	 * @param reader
 	 * @param wmd
 	 */
-	ExcelWorkbookParser(@NotNull Workbook workbook, @NotNull WorkbookMetaData wmd) {
+	ExcelWorkbookParser(@NotNull WorkbookRowReader reader, @NotNull WorkbookMetaData wmd) {
 		super();
-		this.workbook = workbook;
+		this.reader = reader;
 		this.wmd = wmd;
 
 		instructionsByWorksheet.put(TEST_CASES_SHEET, new ArrayList<Instruction<?>>());
@@ -260,15 +259,10 @@ public class ExcelWorkbookParser {
 	 * @return this
 	 */
 	public ExcelWorkbookParser parse() {
-		LOGGER.info("Parsing test-cases excel workbook {}", workbook);
-
-		if (workbook == null) {
-			throw new IllegalStateException(
-					"No workbook available for parsing. Maybe you released this parser's resources by mistake.");
-		}
+		LOGGER.info("Parsing test-cases excel workbook {}", reader);
 
 		for (WorksheetDef<?> wd : wmd.getWorksheetDefs()) {
-			processWorksheet(wd);
+			processWorksheet(wd, instructionsByWorksheet.get(wd.getWorksheetType())::add);
 		}
 
 		LOGGER.debug("Done parsing test-cases workbook");
@@ -276,25 +270,41 @@ public class ExcelWorkbookParser {
 		return this;
 	}
 
+	/**
+	 * Parses the given worksheet and hands the instructions over to the consumer as soon as they are created. Unlike
+	 * {@link #parse()}, the instructions are not retained by this parser : this is the way to go for large workbooks.
+	 * Does nothing when the workbook has no such worksheet.
+	 *
+	 * @param worksheet
+	 * @param consumer
+	 */
+	public void parseWorksheet(TemplateWorksheet worksheet, Consumer<Instruction<?>> consumer) {
+		WorksheetDef<?> wd = wmd.getWorksheetDef(worksheet);
+
+		if (wd != null) {
+			processWorksheet(wd, consumer);
+		}
+	}
+
 	@SuppressWarnings({RAWTYPES, UNCHECKED})
-	private void processWorksheet(WorksheetDef<?> worksheetDef) {
+	private void processWorksheet(WorksheetDef<?> worksheetDef, Consumer<Instruction<?>> consumer) {
 		LOGGER.debug("Processing worksheet {}", worksheetDef.getWorksheetType());
 
-		Sheet sheet = workbook.getSheet(worksheetDef.getSheetName());
+		if (reader == null) {
+			throw new IllegalStateException(
+					"No workbook available for parsing. Maybe you released this parser's resources by mistake.");
+		}
 
 		InstructionBuilder<?, ?> instructionBuilder = instructionBuilderFactoryByWorksheet.get(
 				worksheetDef.getWorksheetType()).create((WorksheetDef) worksheetDef); // useless (WorksheetDef) cast
 		// required for compiler not to whine
 
-		for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-			LOGGER.trace("Creating instruction for row {}", i);
-			Row row = sheet.getRow(i);
+		reader.readRows(worksheetDef.getSheetName(), row -> {
+			LOGGER.trace("Creating instruction for row {}", row.getRowNum());
 			if (! isEmpty(row)) {
-				Instruction instruction = instructionBuilder.build(row);
-				instructionsByWorksheet.get(worksheetDef.getWorksheetType()).add(instruction);
+				consumer.accept(instructionBuilder.build(row));
 			}
-
-		}
+		});
 	}
 
 	/**
@@ -304,8 +314,10 @@ public class ExcelWorkbookParser {
 	 * @return this
 	 */
 	public ExcelWorkbookParser releaseResources() {
-		// as per POI doc : workbook resources are released upon GC
-		workbook = null;
+		if (reader != null) {
+			reader.close();
+			reader = null;
+		}
 		return this;
 	}
 
@@ -21,11 +21,11 @@
 package org.squashtest.tm.service.internal.batchimport.testcase.excel;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.poi.POIXMLDocument;
 import org.apache.poi.POIXMLException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.slf4j.Logger;
@@ -39,7 +39,6 @@ import javax.validation.constraints.NotNull;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -76,20 +75,18 @@ class ExcelWorkbookParserBuilder {
 	public ExcelWorkbookParser build() throws SheetCorruptedException,
 			TemplateMismatchException {
 
-		InputStream is = null;
-		try {
-			is = new BufferedInputStream(new FileInputStream(xls));
+		WorkbookRowReader reader = openReader();
 
-		Workbook wb = openWorkbook(is);
 		List<TemplateMismatchException> mismatches = new ArrayList<>();
 		WorkbookMetaData wmd = null;
 		try {
-			wmd = buildMetaData(wb);
+			wmd = buildMetaData(reader);
 			wmd.validate();
 		} catch (TemplateMismatchException tme) {
 			mismatches.add(tme);
 		}
 		if (!mismatches.isEmpty()) {
+			reader.close();
 			TemplateMismatchException tme = new TemplateMismatchException();
 			for (TemplateMismatchException mismatch : mismatches) {
 				tme.addWorksheetFormatStatus(mismatch.getWorksheetFormatStatuses());
@@ -99,8 +96,29 @@ class ExcelWorkbookParserBuilder {
 
 		LOGGER.trace("Metamodel is built, will create a parser based on the metamodel");
 
-		return new ExcelWorkbookParser(wb, wmd);
-		} catch (FileNotFoundException e) {
+		return new ExcelWorkbookParser(reader, wmd);
+	}
+
+	/**
+	 * Excel 2007 files are read in streaming mode, so that large imports do not exhaust the memory. Older files are
+	 * loaded in memory.
+	 *
+	 * @return the reader of the rows of the file
+	 * @throws SheetCorruptedException
+	 */
+	private WorkbookRowReader openReader() throws SheetCorruptedException {
+		InputStream is = null;
+		try {
+			is = new BufferedInputStream(new FileInputStream(xls));
+
+			if (POIXMLDocument.hasOOXMLHeader(is)) {
+				IOUtils.closeQuietly(is);
+				return new StreamingWorkbookRowReader(xls);
+			}
+
+			return new DomWorkbookRowReader(openWorkbook(is));
+
+		} catch (IOException e) {
 			throw new SheetCorruptedException(e);
 		} finally {
 			IOUtils.closeQuietly(is);
@@ -112,10 +130,14 @@ class ExcelWorkbookParserBuilder {
 	 * @return
 	 */
 	private WorkbookMetaData buildMetaData(Workbook wb) throws TemplateMismatchException {
+		return buildMetaData(new DomWorkbookRowReader(wb));
+	}
+
+	private WorkbookMetaData buildMetaData(WorkbookRowReader reader) throws TemplateMismatchException {
 		LOGGER.trace("Building metamodel for workbook");
 
 		WorkbookMetaData wmd = new WorkbookMetaData();
-		processSheets(wb, wmd);
+		processSheets(reader, wmd);
 
 		return wmd;
 	}
@@ -124,14 +146,14 @@ class ExcelWorkbookParserBuilder {
 	 * Reads the workbook's sheets and append {@link WorksheetDef}s to the
 	 * {@link WorkbookMetaData} accordingly.
 	 *
-	 * @param wb
+	 * @param reader
 	 * @param wmd
 	 */
-	private void processSheets(Workbook wb, WorkbookMetaData wmd) {
+	private void processSheets(WorkbookRowReader reader, WorkbookMetaData wmd) {
 		List<WorksheetFormatStatus> worksheetKOStatuses = new ArrayList<>();
 
-		for (int iSheet = 0; iSheet < wb.getNumberOfSheets(); iSheet++) {
-			processSheet(wb, wmd, worksheetKOStatuses, iSheet);
+		for (String sheetName : reader.getSheetNames()) {
+			processSheet(reader, wmd, worksheetKOStatuses, sheetName);
 		}
 		if (!worksheetKOStatuses.isEmpty()) {
 			throw new TemplateMismatchException(worksheetKOStatuses);
@@ -139,11 +161,8 @@ class ExcelWorkbookParserBuilder {
 	}
 
 	@SuppressWarnings("rawtypes")
-	private void processSheet(Workbook wb, WorkbookMetaData wmd, List<WorksheetFormatStatus> worksheetKOStatuses,
-			int iSheet) {
-		Sheet ws = wb.getSheetAt(iSheet);
-		String sheetName = ws.getSheetName();
-
+	private void processSheet(WorkbookRowReader reader, WorkbookMetaData wmd, List<WorksheetFormatStatus> worksheetKOStatuses,
+			String sheetName) {
 		Collection<TemplateWorksheet> sheetTypes = TemplateWorksheet.coerceFromSheetName(sheetName);
 
 		for (TemplateWorksheet sheetType : sheetTypes) {
@@ -153,27 +172,26 @@ class ExcelWorkbookParserBuilder {
 
 				WorksheetDef<?> wd = new WorksheetDef(sheetType);
 				wmd.addWorksheetDef(wd);
-				WorksheetFormatStatus workSheetFormatStatus = populateColumnDefs(wd, ws);
+				WorksheetFormatStatus workSheetFormatStatus = populateColumnDefs(wd, reader.readHeaderRow(sheetName));
 				if (!workSheetFormatStatus.isFormatOk()) {
 					worksheetKOStatuses.add(workSheetFormatStatus);
 				}
 			} else {
-				LOGGER.trace("Skipping unrecognized worksheet named '{}'", ws.getSheetName());
+				LOGGER.trace("Skipping unrecognized worksheet named '{}'", sheetName);
 
 			}
 		}
 	}
 
 	/**
-	 * Reads the given sheet and appends {@link ColumnDef} to the
+	 * Reads the given header row and appends {@link ColumnDef} to the
 	 * {@link WorksheetDef} accordingly.
 	 *
 	 * @param wd
-	 * @param ws
+	 * @param headerRow header row or <code>null</code>
 	 * @return {@link WorksheetFormatStatus}
 	 */
-	private WorksheetFormatStatus populateColumnDefs(WorksheetDef<?> wd, Sheet ws) {
-		Row headerRow = findHeaderRow(ws);
+	private WorksheetFormatStatus populateColumnDefs(WorksheetDef<?> wd, Row headerRow) {
 		WorksheetFormatStatus worksheetFormatStatus = new WorksheetFormatStatus(wd.getWorksheetType());
 
 		if (headerRow == null) {
@@ -197,15 +215,6 @@ class ExcelWorkbookParserBuilder {
 		return worksheetFormatStatus;
 	}
 
-	/**
-	 *
-	 * @param ws
-	 * @return header row or <code>null</code>
-	 */
-	private Row findHeaderRow(Sheet ws) {
-		return ws.getRow(0);
-	}
-
 	/**
 	 * Opens a workbook from a stream. Potential IO errors are converted /
 	 * softened into {@link SheetCorruptedException}
@@ -0,0 +1,409 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.testcase.excel;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.squashtest.tm.exception.SheetCorruptedException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>{@link WorkbookRowReader} for Excel 2007 (.xlsx) files which never loads a whole worksheet in memory.</p>
+ *
+ * <p>
+ * Each worksheet is read with a SAX parser. The cells of the current row are copied into a single scratch row, which is
+ * handed to the consumer then discarded : memory use is proportional to one row, plus the shared strings table of the
+ * file. Cell types (string, numeric, boolean, formula, error, blank) are kept so that the same cell coercers apply.
+ * </p>
+ */
+class StreamingWorkbookRowReader implements WorkbookRowReader {
+	private static final Logger LOGGER = LoggerFactory.getLogger(StreamingWorkbookRowReader.class);
+
+	private OPCPackage pkg;
+	private final XSSFReader reader;
+	private final ReadOnlySharedStringsTable sharedStrings;
+
+	/*
+	 * The rows handed to the consumers live in this workbook. It never flushes anything to the disk because rows are
+	 * removed as soon as they are consumed.
+	 */
+	private final SXSSFWorkbook scratchWorkbook;
+	private final Sheet scratchSheet;
+	private final Sheet headerSheet;
+
+	StreamingWorkbookRowReader(File xlsx) throws SheetCorruptedException {
+		super();
+		try {
+			pkg = OPCPackage.open(xlsx, PackageAccess.READ);
+			reader = new XSSFReader(pkg);
+			sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+			scratchWorkbook = new SXSSFWorkbook(-1);
+			scratchWorkbook.getXSSFWorkbook().getCTWorkbook().getWorkbookPr().setDate1904(isDate1904());
+			scratchSheet = scratchWorkbook.createSheet();
+			headerSheet = scratchWorkbook.createSheet();
+
+		} catch (OpenXML4JException | IOException | SAXException | ParserConfigurationException | POIXMLException | InvalidOperationException e) {
+			LOGGER.info(e.getMessage());
+			close();
+			throw new SheetCorruptedException(e);
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames() {
+		List<String> names = new ArrayList<>();
+		try {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				IOUtils.closeQuietly(sheets.next());
+				names.add(sheets.getSheetName());
+			}
+		} catch (OpenXML4JException | IOException e) {
+			throw new SheetCorruptedException(e);
+		}
+		return names;
+	}
+
+	@Override
+	public Row readHeaderRow(String sheetName) {
+		Row[] header = new Row[1];
+
+		try {
+			parseSheet(sheetName, row -> {
+				if (row.getRowNum() == 0) {
+					// the row is discarded by the parser, hence the copy
+					header[0] = copy(row);
+				}
+				throw new ParsingInterruption();
+			});
+		} catch (ParsingInterruption stop) { // NOSONAR this is how we stop once the first row is read
+			LOGGER.trace("Header of worksheet '{}' is read", sheetName);
+		}
+
+		return header[0];
+	}
+
+	@Override
+	public void readRows(String sheetName, Consumer<Row> consumer) {
+		parseSheet(sheetName, row -> {
+			if (row.getRowNum() > 0) {
+				consumer.accept(row);
+			}
+		});
+	}
+
+	@Override
+	public void close() {
+		if (scratchWorkbook != null) {
+			scratchWorkbook.dispose();
+		}
+		if (pkg != null) {
+			// read only package : nothing is written back
+			pkg.revert();
+			pkg = null;
+		}
+	}
+
+	private void parseSheet(String sheetName, Consumer<Row> consumer) {
+		if (pkg == null) {
+			throw new IllegalStateException("No workbook available. Maybe its resources were released by mistake.");
+		}
+
+		InputStream sheet = null;
+		try {
+			sheet = openSheet(sheetName);
+			XMLReader xmlReader = SAXHelper.newXMLReader();
+			xmlReader.setContentHandler(new SheetHandler(consumer));
+			xmlReader.parse(new InputSource(sheet));
+
+		} catch (ParsingInterruption stop) {
+			throw stop;
+		} catch (OpenXML4JException | IOException | SAXException | ParserConfigurationException e) {
+			throw new SheetCorruptedException(e);
+		} finally {
+			IOUtils.closeQuietly(sheet);
+		}
+	}
+
+	private InputStream openSheet(String sheetName) throws IOException, OpenXML4JException {
+		XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+		while (sheets.hasNext()) {
+			InputStream sheet = sheets.next();
+			if (sheets.getSheetName().equals(sheetName)) {
+				return sheet;
+			}
+			IOUtils.closeQuietly(sheet);
+		}
+		throw new IllegalArgumentException("No worksheet named '" + sheetName + "'");
+	}
+
+	private boolean isDate1904() throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+		boolean[] date1904 = new boolean[1];
+
+		InputStream workbook = null;
+		try {
+			workbook = reader.getWorkbookData();
+			XMLReader xmlReader = SAXHelper.newXMLReader();
+			xmlReader.setContentHandler(new DefaultHandler() {
+				@Override
+				public void startElement(String uri, String localName, String qName, Attributes attributes) {
+					if ("workbookPr".equals(elementName(localName, qName))) {
+						String value = attributes.getValue("date1904");
+						date1904[0] = "1".equals(value) || "true".equals(value);
+					}
+				}
+			});
+			xmlReader.parse(new InputSource(workbook));
+		} finally {
+			IOUtils.closeQuietly(workbook);
+		}
+
+		return date1904[0];
+	}
+
+	/*
+	 * Copies the row into the header sheet, so that it outlives the parsing.
+	 */
+	private Row copy(Row row) {
+		Row previous = headerSheet.getRow(row.getRowNum());
+		if (previous != null) {
+			headerSheet.removeRow(previous);
+		}
+
+		Row copy = headerSheet.createRow(row.getRowNum());
+		for (Cell cell : row) {
+			Cell cellCopy = copy.createCell(cell.getColumnIndex());
+			switch (cell.getCellType()) {
+				case Cell.CELL_TYPE_STRING:
+					cellCopy.setCellValue(cell.getStringCellValue());
+					break;
+				case Cell.CELL_TYPE_NUMERIC:
+					cellCopy.setCellValue(cell.getNumericCellValue());
+					break;
+				case Cell.CELL_TYPE_BOOLEAN:
+					cellCopy.setCellValue(cell.getBooleanCellValue());
+					break;
+				case Cell.CELL_TYPE_FORMULA:
+					cellCopy.setCellFormula(cell.getCellFormula());
+					break;
+				case Cell.CELL_TYPE_ERROR:
+					cellCopy.setCellErrorValue(cell.getErrorCellValue());
+					break;
+				default:
+					// blank
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Builds the rows of a worksheet from the SAX events and hands them over one at a time.
+	 */
+	private final class SheetHandler extends DefaultHandler {
+		private final Consumer<Row> consumer;
+
+		private Row row;
+		private int nextRowIndex;
+		private int nextColIndex;
+
+		private int colIndex;
+		private String cellType;
+		private String formula;
+		private final StringBuilder value = new StringBuilder();
+		private final StringBuilder formulaText = new StringBuilder();
+		private StringBuilder text;
+		private boolean inPhonetic;
+
+		private SheetHandler(Consumer<Row> consumer) {
+			super();
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			switch (elementName(localName, qName)) {
+				case "row":
+					String rowRef = attributes.getValue("r");
+					int rowIndex = rowRef != null ? Integer.parseInt(rowRef) - 1 : nextRowIndex;
+					row = scratchSheet.createRow(rowIndex);
+					nextRowIndex = rowIndex + 1;
+					nextColIndex = 0;
+					break;
+
+				case "c":
+					String cellRef = attributes.getValue("r");
+					colIndex = cellRef != null ? new CellReference(cellRef).getCol() : nextColIndex;
+					cellType = attributes.getValue("t");
+					formula = null;
+					value.setLength(0);
+					break;
+
+				case "f":
+					formulaText.setLength(0);
+					text = formulaText;
+					break;
+
+				case "v":
+					text = value;
+					break;
+
+				case "rPh":
+					inPhonetic = true;
+					break;
+
+				case "t":
+					// text of an inline string, phonetic runs excluded
+					text = inPhonetic ? null : value;
+					break;
+
+				default:
+					// other elements are irrelevant to the import
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (text != null) {
+				text.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			switch (elementName(localName, qName)) {
+				case "f":
+					formula = formulaText.toString();
+					text = null;
+					break;
+
+				case "v":
+				case "t":
+					text = null;
+					break;
+
+				case "rPh":
+					inPhonetic = false;
+					break;
+
+				case "c":
+					createCell();
+					nextColIndex = colIndex + 1;
+					break;
+
+				case "row":
+					try {
+						consumer.accept(row);
+					} finally {
+						scratchSheet.removeRow(row);
+						row = null;
+					}
+					break;
+
+				default:
+					// other elements are irrelevant to the import
+			}
+		}
+
+		private void createCell() {
+			Cell cell = row.createCell(colIndex);
+			String rawValue = value.toString();
+
+			if (formula != null) {
+				// like in a loaded workbook, the cell is a formula cell whatever its cached value
+				cell.setCellFormula(formula);
+				return;
+			}
+
+			if (cellType == null || "n".equals(cellType)) {
+				if (!rawValue.isEmpty()) {
+					cell.setCellValue(Double.parseDouble(rawValue));
+				}
+				return;
+			}
+
+			switch (cellType) {
+				case "s":
+					cell.setCellValue(sharedStrings.getEntryAt(Integer.parseInt(rawValue)));
+					break;
+				case "b":
+					cell.setCellValue("1".equals(rawValue) || "true".equalsIgnoreCase(rawValue));
+					break;
+				case "e":
+					cell.setCellErrorValue(toErrorCode(rawValue));
+					break;
+				default:
+					// inlineStr and str
+					cell.setCellValue(rawValue);
+			}
+		}
+
+		private byte toErrorCode(String rawValue) {
+			try {
+				return FormulaError.forString(rawValue).getCode();
+			} catch (IllegalArgumentException e) { // NOSONAR any error will do, the import rejects them all
+				return FormulaError.NA.getCode();
+			}
+		}
+	}
+
+	private static String elementName(String localName, String qName) {
+		return localName == null || localName.isEmpty() ? qName : localName;
+	}
+
+	/**
+	 * Thrown from a row consumer to stop reading a worksheet.
+	 */
+	@SuppressWarnings("serial")
+	private static final class ParsingInterruption extends RuntimeException {
+		private ParsingInterruption() {
+			super(null, null, false, false);
+		}
+	}
+
+}
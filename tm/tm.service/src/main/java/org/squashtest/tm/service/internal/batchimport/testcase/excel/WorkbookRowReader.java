@@ -0,0 +1,61 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.testcase.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Gives access to the rows of the worksheets of an import workbook, one sheet at a time.
+ *
+ * @see DomWorkbookRowReader
+ * @see StreamingWorkbookRowReader
+ */
+interface WorkbookRowReader {
+
+	/**
+	 * @return the names of the worksheets, in workbook order
+	 */
+	List<String> getSheetNames();
+
+	/**
+	 * @param sheetName
+	 * @return the first row of the given sheet, or <code>null</code> when the sheet has no first row
+	 */
+	Row readHeaderRow(String sheetName);
+
+	/**
+	 * Hands the rows of the given sheet, header row excluded, to the consumer in sheet order. A row is only
+	 * guaranteed to be usable during the call to the consumer.
+	 *
+	 * @param sheetName
+	 * @param consumer
+	 */
+	void readRows(String sheetName, Consumer<Row> consumer);
+
+	/**
+	 * Releases the underlying resources. Rows can no longer be read afterwards.
+	 */
+	void close();
+
+}
@@ -21,6 +21,7 @@
 package org.squashtest.tm.service.internal.bugtracker;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -89,6 +90,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import static org.squashtest.tm.service.security.Authorizations.OR_HAS_ROLE_ADMIN;
 import static org.squashtest.tm.service.security.Authorizations.READ_CAMPAIGN_OR_ROLE_ADMIN;
@@ -117,6 +119,9 @@ public class BugTrackersLocalServiceImpl implements BugTrackersLocalService {
 	@Inject
 	private BugTrackersService remoteBugTrackersService;
 
+	@Inject
+	private RemoteIssueCache remoteIssueCache;
+
 	@Inject
 	private ExecutionDao executionDao;
 
@@ -397,6 +402,19 @@ public class BugTrackersLocalServiceImpl implements BugTrackersLocalService {
 		return issueFinder("iterationIssueFinder").findSorted(iterationId, sorter);
 	}
 
+	@Override
+	@PreAuthorize(READ_ITERATION_OR_ROLE_ADMIN)
+	public void prefetchIssuesOfIteration(Long iterationId) {
+		Map<BugTracker, List<String>> remoteIdsByBugTracker = issueDao.findAllForIteration(iterationId).stream()
+			.collect(Collectors.groupingBy(Issue::getBugtracker, Collectors.mapping(Issue::getRemoteIssueId, Collectors.toList())));
+
+		remoteIdsByBugTracker.forEach((bugTracker, remoteIds) -> {
+			// the issues are loaded once the session is closed
+			Hibernate.initialize(bugTracker);
+			remoteIssueCache.prefetch(remoteIds, bugTracker);
+		});
+	}
+
 	@SuppressWarnings("unchecked")
 	private IssueOwnershipFinder issueFinder(String finderBeanName) {
 		IssueOwnershipFinder res = issueOwnershipFinderByBeanName.get(finderBeanName);
@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.bugtracker;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.i18n.LocaleContext;
@@ -94,6 +95,7 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public void testCredentials(BugTracker bugTracker, Credentials credentials) {
 		InternalBugtrackerConnector connector = bugTrackerConnectorFactory.createConnector(bugTracker);
 		if (! connector.supports(credentials.getImplementedProtocol())){
@@ -103,11 +105,13 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public RemoteProject findProject(String name, BugTracker bugTracker) {
 		return connect(bugTracker).findProject(name);
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public RemoteProject findProjectById(String projectId, BugTracker bugTracker) {
 		return connect(bugTracker).findProject(projectId);
 	}
@@ -155,6 +159,7 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public RemoteIssue createIssue(RemoteIssue issue, BugTracker bugTracker) {
 		RemoteIssue newissue = connect(bugTracker).createIssue(issue);
 		newissue.setBugtracker(bugTracker.getName());
@@ -162,6 +167,7 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public RemoteIssue createReportIssueTemplate(String projectName, BugTracker bugTracker) {
 		RemoteIssue issue = connect(bugTracker).createReportIssueTemplate(projectName);
 		issue.setBugtracker(bugTracker.getName());
@@ -170,6 +176,7 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public RemoteIssue getIssue(String key, BugTracker bugTracker) {
 		RemoteIssue issue = connect(bugTracker).findIssue(key);
 		issue.setBugtracker(bugTracker.getName());
@@ -204,6 +211,7 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public void forwardAttachments(String remoteIssueKey, BugTracker bugtracker, List<Attachment> attachments) {
 		connect(bugtracker).forwardAttachments(remoteIssueKey, attachments);
 	}
@@ -215,12 +223,14 @@ public class BugTrackersServiceImpl implements BugTrackersService {
 	}
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public void linkIssueToRemoteRequirements (String remoteIssueKey, List<String> remoteReqIds, BugTracker bugtracker) {
 		connect(bugtracker).linkIssues(remoteIssueKey, remoteReqIds);
 	}
 
 
 	@Override
+	@Timed("squash.bugtracker.call")
 	public Object forwardDelegateCommand(DelegateCommand command,
 			BugTracker bugtracker) {
 		return connect(bugtracker).executeDelegateCommand(command);
@@ -21,13 +21,7 @@
 package org.squashtest.tm.service.internal.bugtracker;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.i18n.LocaleContext;
-import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException;
 import org.squashtest.csp.core.bugtracker.domain.BugTracker;
 import org.squashtest.tm.bugtracker.definition.RemoteIssue;
 import org.squashtest.tm.core.foundation.collection.PagedCollectionHolder;
@@ -40,12 +34,9 @@ import org.squashtest.tm.domain.bugtracker.IssueOwnership;
 import org.squashtest.tm.domain.bugtracker.RemoteIssueDecorator;
 import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.execution.ExecutionStep;
-import org.squashtest.tm.service.bugtracker.BugTrackersService;
 import org.squashtest.tm.service.internal.repository.BugTrackerDao;
 import org.squashtest.tm.service.internal.repository.ExecutionDao;
 import org.squashtest.tm.service.internal.repository.IssueDao;
-import org.squashtest.tm.service.servers.CredentialsProvider;
-import org.squashtest.tm.service.servers.UserCredentialsCache;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -53,10 +44,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -85,12 +72,8 @@ class ExecutionIssueFinder implements IssueOwnershipFinder {
 		}
 	};
 
-	@Value("${squashtm.bugtracker.timeout:15}")
-	private long timeout;
 	@Inject
-	private BugTrackersService remoteBugTrackersService;
-	@Inject
-	private CredentialsProvider credentialsProvider;
+	private RemoteIssueCache remoteIssueCache;
 	@Inject
 	protected IssueDao issueDao;
 	@Inject
@@ -116,18 +99,6 @@ class ExecutionIssueFinder implements IssueOwnershipFinder {
 	}
 
 
-	private LocaleContext getLocaleContext() {
-		return LocaleContextHolder.getLocaleContext();
-	}
-
-	private SecurityContext getSecurityContext(){
-		return SecurityContextHolder.getContext();
-	}
-
-	private UserCredentialsCache getCredentialsCache(){
-		return credentialsProvider.getCache();
-	}
-
 	@Override
 	public final PagedCollectionHolder<List<IssueOwnership<RemoteIssueDecorator>>> findSorted(
 		long entityId, PagingAndSorting sorter) {
@@ -187,17 +158,11 @@ class ExecutionIssueFinder implements IssueOwnershipFinder {
 		List<IssueOwnership<RemoteIssueDecorator>> ownerships;
 		List<String> remoteIssueIds = IssueOwnershipFinderUtils.collectRemoteIssueIds(pairs);
 
-		try {
-			Future<List<RemoteIssue>> futureIssues = remoteBugTrackersService.getIssues(remoteIssueIds, bugTracker, getCredentialsCache(), getLocaleContext(), getSecurityContext());
-			List<RemoteIssue> btIssues = futureIssues.get(timeout, TimeUnit.SECONDS);
+		List<RemoteIssue> btIssues = remoteIssueCache.findIssues(remoteIssueIds, bugTracker);
 
-			Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
+		Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
 
-			ownerships = IssueOwnershipFinderUtils.coerceIntoIssueOwnerships(pairs, remoteById);
-
-		} catch (TimeoutException | ExecutionException | InterruptedException ex) {
-			throw new BugTrackerRemoteException(ex);
-		}
+		ownerships = IssueOwnershipFinderUtils.coerceIntoIssueOwnerships(pairs, remoteById);
 
 		return ownerships;
 	}
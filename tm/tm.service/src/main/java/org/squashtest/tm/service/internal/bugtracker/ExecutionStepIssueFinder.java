@@ -20,13 +20,7 @@
  */
 package org.squashtest.tm.service.internal.bugtracker;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.i18n.LocaleContext;
-import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException;
 import org.squashtest.csp.core.bugtracker.domain.BugTracker;
 import org.squashtest.tm.bugtracker.definition.RemoteIssue;
 import org.squashtest.tm.core.foundation.collection.PagedCollectionHolder;
@@ -36,12 +30,9 @@ import org.squashtest.tm.domain.bugtracker.Issue;
 import org.squashtest.tm.domain.bugtracker.IssueOwnership;
 import org.squashtest.tm.domain.bugtracker.RemoteIssueDecorator;
 import org.squashtest.tm.domain.execution.ExecutionStep;
-import org.squashtest.tm.service.bugtracker.BugTrackersService;
 import org.squashtest.tm.service.internal.repository.BugTrackerDao;
 import org.squashtest.tm.service.internal.repository.ExecutionStepDao;
 import org.squashtest.tm.service.internal.repository.IssueDao;
-import org.squashtest.tm.service.servers.CredentialsProvider;
-import org.squashtest.tm.service.servers.UserCredentialsCache;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -49,10 +40,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 /**
  * @author Gregory Fouquet
@@ -60,12 +47,8 @@ import java.util.concurrent.TimeoutException;
  */
 @Component
 public class ExecutionStepIssueFinder implements IssueOwnershipFinder {
-	@Value("${squashtm.bugtracker.timeout:15}")
-	private long timeout;
 	@Inject
-	private BugTrackersService remoteBugTrackersService;
-	@Inject
-	private CredentialsProvider credentialsProvider;
+	private RemoteIssueCache remoteIssueCache;
 	@Inject
 	private IssueDao issueDao;
 	@Inject
@@ -73,18 +56,6 @@ public class ExecutionStepIssueFinder implements IssueOwnershipFinder {
 	@Inject
 	private ExecutionStepDao executionStepDao;
 
-	private LocaleContext getLocaleContext() {
-		return LocaleContextHolder.getLocaleContext();
-	}
-
-	private SecurityContext getSecurityContext(){
-		return SecurityContextHolder.getContext();
-	}
-
-	private UserCredentialsCache getCredentialsCache(){
-		return credentialsProvider.getCache();
-	}
-
 	@Override
 	public PagedCollectionHolder<List<IssueOwnership<RemoteIssueDecorator>>> findSorted(long entityId, PagingAndSorting sorter) {
 		ExecutionStep executionStep = executionStepDao.findById(entityId);
@@ -109,17 +80,11 @@ public class ExecutionStepIssueFinder implements IssueOwnershipFinder {
 			remoteIssueIds.add(issue.getRemoteIssueId());
 		}
 
-		try {
-			Future<List<RemoteIssue>> futureIssues = remoteBugTrackersService.getIssues(remoteIssueIds, bugTracker, getCredentialsCache(), getLocaleContext(), getSecurityContext());
-			List<RemoteIssue> btIssues = futureIssues.get(timeout, TimeUnit.SECONDS);
+		List<RemoteIssue> btIssues = remoteIssueCache.findIssues(remoteIssueIds, bugTracker);
 
-			Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
+		Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
 
-			return IssueOwnershipFinderUtils.coerceIntoIssueOwnerships(executionStep, issues, remoteById);
-
-		} catch (TimeoutException | ExecutionException | InterruptedException ex) {
-			throw new BugTrackerRemoteException(ex);
-		}
+		return IssueOwnershipFinderUtils.coerceIntoIssueOwnerships(executionStep, issues, remoteById);
 	}
 
 	private long countIssues(ExecutionStep executionStep) {
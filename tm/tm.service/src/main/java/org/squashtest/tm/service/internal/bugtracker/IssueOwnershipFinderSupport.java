@@ -20,12 +20,6 @@
  */
 package org.squashtest.tm.service.internal.bugtracker;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.i18n.LocaleContext;
-import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException;
 import org.squashtest.csp.core.bugtracker.domain.BugTracker;
 import org.squashtest.tm.bugtracker.definition.RemoteIssue;
 import org.squashtest.tm.core.foundation.collection.PagedCollectionHolder;
@@ -35,20 +29,13 @@ import org.squashtest.tm.domain.bugtracker.Issue;
 import org.squashtest.tm.domain.bugtracker.IssueOwnership;
 import org.squashtest.tm.domain.bugtracker.RemoteIssueDecorator;
 import org.squashtest.tm.domain.execution.Execution;
-import org.squashtest.tm.service.bugtracker.BugTrackersService;
 import org.squashtest.tm.service.internal.repository.BugTrackerDao;
 import org.squashtest.tm.service.internal.repository.IssueDao;
-import org.squashtest.tm.service.servers.CredentialsProvider;
-import org.squashtest.tm.service.servers.UserCredentialsCache;
 
 import javax.inject.Inject;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of IssueOwnershipFinder using template mehod pattern.
@@ -60,12 +47,8 @@ import java.util.concurrent.TimeoutException;
  * @since 1.14.0  29/03/16
  */
 abstract class IssueOwnershipFinderSupport<H> implements IssueOwnershipFinder {
-	@Value("${squashtm.bugtracker.timeout:15}")
-	private long timeout;
 	@Inject
-	private BugTrackersService remoteBugTrackersService;
-	@Inject
-	private CredentialsProvider credentialsProvider;
+	private RemoteIssueCache remoteIssueCache;
 	@Inject
 	protected IssueDao issueDao;
 	@Inject
@@ -75,18 +58,6 @@ abstract class IssueOwnershipFinderSupport<H> implements IssueOwnershipFinder {
 		super();
 	}
 
-	private LocaleContext getLocaleContext() {
-		return LocaleContextHolder.getLocaleContext();
-	}
-
-	private SecurityContext getSecurityContext(){
-		return SecurityContextHolder.getContext();
-	}
-
-	private UserCredentialsCache getCredentialsCache(){
-		return credentialsProvider.getCache();
-	}
-
 	@Override
 	public final PagedCollectionHolder<List<IssueOwnership<RemoteIssueDecorator>>> findSorted(long entityId, PagingAndSorting sorter) {
 		H holder = findEntity(entityId);
@@ -116,22 +87,13 @@ abstract class IssueOwnershipFinderSupport<H> implements IssueOwnershipFinder {
 	 * @param bugTracker non-null bugtracker where to fetch issues
 	 */
 	private List<IssueOwnership<RemoteIssueDecorator>> findRemoteIssues(List<Pair<Execution, Issue>> pairs, BugTracker bugTracker) {
-		List<IssueOwnership<RemoteIssueDecorator>> ownerships;
 		List<String> remoteIssueIds = collectRemoteIssueIds(pairs);
 
-		try {
-			Future<List<RemoteIssue>> futureIssues = remoteBugTrackersService.getIssues(remoteIssueIds, bugTracker,
-				getCredentialsCache(), getLocaleContext(), getSecurityContext());
-			List<RemoteIssue> btIssues = futureIssues.get(timeout, TimeUnit.SECONDS);
+		List<RemoteIssue> btIssues = remoteIssueCache.findIssues(remoteIssueIds, bugTracker);
 
-			Map<String, RemoteIssue> remoteById = createRemoteIssueByRemoteIdMap(btIssues);
-
-			ownerships = coerceIntoIssueOwnerships(pairs, remoteById);
-		} catch (TimeoutException | ExecutionException | InterruptedException ex) {
-			throw new BugTrackerRemoteException(ex);
-		}
+		Map<String, RemoteIssue> remoteById = createRemoteIssueByRemoteIdMap(btIssues);
 
-		return ownerships;
+		return coerceIntoIssueOwnerships(pairs, remoteById);
 	}
 
 
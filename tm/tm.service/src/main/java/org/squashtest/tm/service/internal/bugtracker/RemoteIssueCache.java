@@ -0,0 +1,389 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.bugtracker;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException;
+import org.squashtest.csp.core.bugtracker.domain.BugTracker;
+import org.squashtest.tm.bugtracker.definition.RemoteIssue;
+import org.squashtest.tm.domain.servers.AuthenticationPolicy;
+import org.squashtest.tm.service.bugtracker.BugTrackersService;
+import org.squashtest.tm.service.servers.CredentialsProvider;
+import org.squashtest.tm.service.servers.UserCredentialsCache;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Cache of the issues fetched from the bugtrackers, so that the issue tables do not wait for the bugtracker on each
+ * page view.</p>
+ *
+ * <p>
+ * Issues are cached in {@value #CACHE_NAME} (see ehcache.xml), keyed on bugtracker, user and remote id : what a user
+ * sees depends on their credentials, unless the bugtracker uses application level credentials. An issue older than
+ * <code>squashtm.bugtracker.issue-cache.stale-after</code> seconds is still served, and refreshed in the background.
+ * Only the issues which are not cached at all are waited for, for at most <code>squashtm.bugtracker.timeout</code>
+ * seconds. When there is no cache manager, nothing is cached.
+ * </p>
+ */
+@Component
+public class RemoteIssueCache {
+
+	public static final String CACHE_NAME = "remoteIssueCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RemoteIssueCache.class);
+
+	private static final int REFRESH_THREADS = 2;
+	private static final int REFRESH_QUEUE_CAPACITY = 100;
+	private static final int LOAD_BATCH_SIZE = 50;
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private final Cache cache;
+
+	/*
+	 * Background loads wait for the bugtracker tasks, which run in the pool of @Async methods : they need threads of
+	 * their own.
+	 */
+	private final Executor refreshExecutor;
+
+	// keys being loaded in the background, so that a slow bugtracker is not asked for the same issue over and over
+	private final Set<Key> loading = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder remoteCalls = new LongAdder();
+	private final LongAdder remoteNanos = new LongAdder();
+
+	@Inject
+	private BugTrackersService remoteBugTrackersService;
+
+	@Inject
+	private CredentialsProvider credentialsProvider;
+
+	@Value("${squashtm.bugtracker.timeout:15}")
+	private long timeout;
+
+	@Value("${squashtm.bugtracker.issue-cache.stale-after:60}")
+	private long staleAfter;
+
+	@Inject
+	public RemoteIssueCache(ObjectProvider<CacheManager> cacheManager) {
+		this(findCache(cacheManager.getIfAvailable(NoOpCacheManager::new)), createRefreshExecutor());
+	}
+
+	RemoteIssueCache(Cache cache, Executor refreshExecutor) {
+		super();
+		this.cache = cache;
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	private static Cache findCache(CacheManager cacheManager) {
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		return cache != null ? cache : new NoOpCache(CACHE_NAME);
+	}
+
+	private static Executor createRefreshExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(REFRESH_THREADS);
+		executor.setMaxPoolSize(REFRESH_THREADS);
+		executor.setQueueCapacity(REFRESH_QUEUE_CAPACITY);
+		executor.setThreadNamePrefix("remote-issue-refresh-");
+		// a dropped refresh is attempted again on the next access
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (refreshExecutor instanceof ThreadPoolTaskExecutor) {
+			((ThreadPoolTaskExecutor) refreshExecutor).shutdown();
+		}
+	}
+
+	/**
+	 * Returns the issues of the given remote ids. Cached issues are returned right away, stale ones being refreshed in
+	 * the background. The others are fetched from the bugtracker. Issues the bugtracker does not know are left out.
+	 *
+	 * @param remoteIds  the remote ids of the issues
+	 * @param bugTracker the bugtracker of the issues
+	 * @return the issues, in no particular order
+	 * @throws BugTrackerRemoteException when the bugtracker fails or times out
+	 */
+	public List<RemoteIssue> findIssues(Collection<String> remoteIds, BugTracker bugTracker) {
+		String user = findCacheUser(bugTracker);
+		long now = System.currentTimeMillis();
+
+		List<RemoteIssue> issues = new ArrayList<>(remoteIds.size());
+		List<String> missing = new ArrayList<>();
+		List<String> stale = new ArrayList<>();
+
+		for (String remoteId : new LinkedHashSet<>(remoteIds)) {
+			Cache.ValueWrapper cached = cache.get(new Key(bugTracker.getId(), user, remoteId));
+
+			if (cached == null) {
+				misses.increment();
+				missing.add(remoteId);
+			} else {
+				Entry entry = (Entry) cached.get();
+				issues.add(entry.issue);
+				if (entry.isStale(now, staleAfter * MILLIS_PER_SECOND)) {
+					staleHits.increment();
+					stale.add(remoteId);
+				} else {
+					hits.increment();
+				}
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			issues.addAll(fetch(missing, bugTracker, user, RemoteContext.current(credentialsProvider)));
+		}
+
+		loadLater(stale, bugTracker, user);
+
+		return issues;
+	}
+
+	/**
+	 * Loads in the background the issues of the given remote ids which are not cached yet.
+	 *
+	 * @param remoteIds  the remote ids of the issues
+	 * @param bugTracker the bugtracker of the issues, which must be fully initialized
+	 */
+	public void prefetch(Collection<String> remoteIds, BugTracker bugTracker) {
+		String user = findCacheUser(bugTracker);
+
+		List<String> missing = new ArrayList<>();
+		for (String remoteId : new LinkedHashSet<>(remoteIds)) {
+			if (cache.get(new Key(bugTracker.getId(), user, remoteId)) == null) {
+				missing.add(remoteId);
+			}
+		}
+
+		loadLater(missing, bugTracker, user);
+	}
+
+	private String findCacheUser(BugTracker bugTracker) {
+		return bugTracker.getAuthenticationPolicy() == AuthenticationPolicy.APP_LEVEL ? null : credentialsProvider.currentUser();
+	}
+
+	private List<RemoteIssue> fetch(Collection<String> remoteIds, BugTracker bugTracker, String user, RemoteContext context) {
+		long start = System.nanoTime();
+
+		try {
+			Future<List<RemoteIssue>> futureIssues = remoteBugTrackersService.getIssues(remoteIds, bugTracker,
+				context.credentials, context.locale, context.security);
+			List<RemoteIssue> issues = futureIssues.get(timeout, TimeUnit.SECONDS);
+
+			long fetchedOn = System.currentTimeMillis();
+			for (RemoteIssue issue : issues) {
+				cache.put(new Key(bugTracker.getId(), user, issue.getId()), new Entry(issue, fetchedOn));
+			}
+
+			return issues;
+
+		} catch (TimeoutException | ExecutionException ex) {
+			throw new BugTrackerRemoteException(ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BugTrackerRemoteException(ex);
+		} finally {
+			remoteCalls.increment();
+			remoteNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	private void loadLater(Collection<String> remoteIds, BugTracker bugTracker, String user) {
+		List<String> toLoad = new ArrayList<>(remoteIds.size());
+		for (String remoteId : remoteIds) {
+			if (loading.add(new Key(bugTracker.getId(), user, remoteId))) {
+				toLoad.add(remoteId);
+			}
+		}
+
+		if (toLoad.isEmpty()) {
+			return;
+		}
+
+		RemoteContext context = RemoteContext.current(credentialsProvider);
+		for (List<String> batch : Lists.partition(toLoad, LOAD_BATCH_SIZE)) {
+			loadLater(batch, bugTracker, user, context);
+		}
+	}
+
+	private void loadLater(List<String> batch, BugTracker bugTracker, String user, RemoteContext context) {
+		Runnable load = () -> {
+			try {
+				fetch(batch, bugTracker, user, context);
+			} catch (RuntimeException ex) {
+				LOGGER.warn("Could not load issues {} from bugtracker {} : {}", batch, bugTracker.getName(), ex.getMessage());
+				LOGGER.debug("Issue load failure", ex);
+			} finally {
+				endLoad(batch, bugTracker, user);
+			}
+		};
+
+		try {
+			refreshExecutor.execute(load);
+		} catch (RejectedExecutionException ex) {
+			LOGGER.debug("Too many issue loads pending, dropping the load of issues {}", batch, ex);
+			endLoad(batch, bugTracker, user);
+		}
+	}
+
+	private void endLoad(List<String> batch, BugTracker bugTracker, String user) {
+		for (String remoteId : batch) {
+			loading.remove(new Key(bugTracker.getId(), user, remoteId));
+		}
+	}
+
+	/**
+	 * @return the number of issues served from the cache while fresh
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of issues served from the cache while stale
+	 */
+	public long getStaleHitCount() {
+		return staleHits.sum();
+	}
+
+	/**
+	 * @return the number of issues which were not cached when requested
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of requests sent to the bugtrackers, in the foreground or in the background
+	 */
+	public long getRemoteCallCount() {
+		return remoteCalls.sum();
+	}
+
+	/**
+	 * @return the total time spent waiting for the bugtrackers, in milliseconds
+	 */
+	public long getRemoteTotalTime() {
+		return TimeUnit.NANOSECONDS.toMillis(remoteNanos.sum());
+	}
+
+	/*
+	 * The contexts of the requesting thread, which the bugtracker tasks need since they run in other threads.
+	 */
+	private static final class RemoteContext {
+		private final UserCredentialsCache credentials;
+		private final LocaleContext locale;
+		private final SecurityContext security;
+
+		private RemoteContext(UserCredentialsCache credentials, LocaleContext locale, SecurityContext security) {
+			this.credentials = credentials;
+			this.locale = locale;
+			this.security = security;
+		}
+
+		private static RemoteContext current(CredentialsProvider credentialsProvider) {
+			return new RemoteContext(credentialsProvider.getCache(), LocaleContextHolder.getLocaleContext(), SecurityContextHolder.getContext());
+		}
+	}
+
+	private static final class Entry {
+		private final RemoteIssue issue;
+		private final long fetchedOn;
+
+		private Entry(RemoteIssue issue, long fetchedOn) {
+			this.issue = issue;
+			this.fetchedOn = fetchedOn;
+		}
+
+		private boolean isStale(long now, long staleAfterMillis) {
+			return now - fetchedOn > staleAfterMillis;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class Key implements Serializable {
+		private final Long bugTrackerId;
+		private final String user;
+		private final String remoteId;
+
+		private Key(Long bugTrackerId, String user, String remoteId) {
+			this.bugTrackerId = bugTrackerId;
+			this.user = user;
+			this.remoteId = remoteId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key other = (Key) o;
+			return Objects.equals(bugTrackerId, other.bugTrackerId)
+				&& Objects.equals(user, other.user)
+				&& Objects.equals(remoteId, other.remoteId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(bugTrackerId, user, remoteId);
+		}
+	}
+}
@@ -22,13 +22,7 @@ package org.squashtest.tm.service.internal.bugtracker;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.i18n.LocaleContext;
-import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException;
 import org.squashtest.csp.core.bugtracker.domain.BugTracker;
 import org.squashtest.tm.bugtracker.definition.RemoteIssue;
 import org.squashtest.tm.core.foundation.collection.PagedCollectionHolder;
@@ -39,12 +33,9 @@ import org.squashtest.tm.domain.bugtracker.IssueOwnership;
 import org.squashtest.tm.domain.bugtracker.RemoteIssueDecorator;
 import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.testcase.TestCase;
-import org.squashtest.tm.service.bugtracker.BugTrackersService;
 import org.squashtest.tm.service.internal.repository.BugTrackerDao;
 import org.squashtest.tm.service.internal.repository.IssueDao;
 import org.squashtest.tm.service.internal.repository.TestCaseDao;
-import org.squashtest.tm.service.servers.CredentialsProvider;
-import org.squashtest.tm.service.servers.UserCredentialsCache;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -55,10 +46,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -67,12 +54,8 @@ import java.util.stream.Collectors;
  */
 @Component
 public class TestCaseIssueFinder implements IssueOwnershipFinder {
-	@Value("${squashtm.bugtracker.timeout:15}")
-	private long timeout;
 	@Inject
-	private BugTrackersService remoteBugTrackersService;
-	@Inject
-	private CredentialsProvider credentialsProvider;
+	private RemoteIssueCache remoteIssueCache;
 	@Inject
 	private IssueDao issueDao;
 	@Inject
@@ -80,18 +63,6 @@ public class TestCaseIssueFinder implements IssueOwnershipFinder {
 	@Inject
 	private TestCaseDao testCaseDao;
 
-	private LocaleContext getLocaleContext() {
-		return LocaleContextHolder.getLocaleContext();
-	}
-
-	private SecurityContext getSecurityContext(){
-		return SecurityContextHolder.getContext();
-	}
-
-	private UserCredentialsCache getCredentialsCache(){
-		return credentialsProvider.getCache();
-	}
-
 	private List<Pair<Execution, Issue>> findExecutionIssuePairs(TestCase testCase, PagingAndSorting sorter) {
 		List<Pair<Execution, Issue>> listTmpExecutionIssuePairs = issueDao.findAllExecutionIssuePairsByTestCase(testCase, sorter);
 
@@ -206,16 +177,11 @@ public class TestCaseIssueFinder implements IssueOwnershipFinder {
 		Map<Pair<Execution, Issue>, IssueOwnership<RemoteIssueDecorator>> ownerships;
 		List<String> remoteIssueIds = IssueOwnershipFinderUtils.collectRemoteIssueIds(pairs);
 
-		try {
-			Future<List<RemoteIssue>> futureIssues = remoteBugTrackersService.getIssues(remoteIssueIds, bugTracker, getCredentialsCache(), getLocaleContext(), getSecurityContext());
-			List<RemoteIssue> btIssues = futureIssues.get(timeout, TimeUnit.SECONDS);
+		List<RemoteIssue> btIssues = remoteIssueCache.findIssues(remoteIssueIds, bugTracker);
 
-			Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
+		Map<String, RemoteIssue> remoteById = IssueOwnershipFinderUtils.createRemoteIssueByRemoteIdMap(btIssues);
 
-			ownerships = coerceIntoIssueOwnerships(pairs, remoteById);
-		} catch (TimeoutException | ExecutionException | InterruptedException ex) {
-			throw new BugTrackerRemoteException(ex);
-		}
+		ownerships = coerceIntoIssueOwnerships(pairs, remoteById);
 
 		return ownerships;
 	}
@@ -0,0 +1,232 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.squashtest.tm.domain.customfield.BindableEntity;
+import org.squashtest.tm.domain.customfield.CustomFieldBinding;
+import org.squashtest.tm.domain.infolist.SystemInfoListCode;
+import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao;
+import org.squashtest.tm.service.internal.repository.InfoListItemDao;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Application wide cache of the custom field bindings and info list items of the projects.</p>
+ *
+ * <p>
+ * Bindings are cached per project and bindable entity, as lists of ids. They are resolved in the current persistence
+ * context on each lookup, which is cheap since bindings also live in the second level cache. The consistency of an
+ * info list item code with the lists of a project is cached as is.
+ * </p>
+ *
+ * <p>
+ * The caches are {@value #BINDING_CACHE_NAME} and {@value #INFO_LIST_ITEM_CACHE_NAME} (see ehcache.xml). When there
+ * is no cache manager, nothing is cached. They must be evicted whenever bindings or info lists are modified : they
+ * are cleared right away, then again when the current transaction is over so that no concurrent transaction can put
+ * back data it read before the modification was committed.
+ * </p>
+ */
+@Component
+public class BindingCache {
+
+	public static final String BINDING_CACHE_NAME = "customFieldBindingCache";
+	public static final String INFO_LIST_ITEM_CACHE_NAME = "infoListItemCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BindingCache.class);
+
+	private final Cache bindingIds;
+	private final Cache itemConsistency;
+
+	/*
+	 * Incremented on each eviction, so that a value computed before an eviction is not put back in the cache after
+	 * that eviction.
+	 */
+	private final AtomicLong bindingGeneration = new AtomicLong();
+	private final AtomicLong itemGeneration = new AtomicLong();
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Inject
+	private CustomFieldBindingDao customFieldBindingDao;
+
+	@Inject
+	private InfoListItemDao infoListItemDao;
+
+	@Inject
+	public BindingCache(ObjectProvider<CacheManager> cacheManager) {
+		this(cacheManager.getIfAvailable(NoOpCacheManager::new));
+	}
+
+	private BindingCache(CacheManager cacheManager) {
+		this(findCache(cacheManager, BINDING_CACHE_NAME), findCache(cacheManager, INFO_LIST_ITEM_CACHE_NAME));
+	}
+
+	BindingCache(Cache bindingIds, Cache itemConsistency) {
+		super();
+		this.bindingIds = bindingIds;
+		this.itemConsistency = itemConsistency;
+	}
+
+	private static Cache findCache(CacheManager cacheManager, String name) {
+		Cache cache = cacheManager.getCache(name);
+		return cache != null ? cache : new NoOpCache(name);
+	}
+
+	/**
+	 * Returns the custom field bindings of the given project for the given kind of entity, ordered by position. The
+	 * returned list is a fresh one and can be modified by the caller.
+	 *
+	 * @param projectId  id of the project
+	 * @param entityType the kind of entity
+	 * @return the bindings
+	 */
+	public List<CustomFieldBinding> findCustomFieldBindings(long projectId, BindableEntity entityType) {
+		String key = entityType.name() + ':' + projectId;
+
+		Cache.ValueWrapper cached = bindingIds.get(key);
+		if (cached != null) {
+			@SuppressWarnings("unchecked")
+			List<CustomFieldBinding> bindings = resolveBindings((List<Long>) cached.get());
+			if (bindings != null) {
+				return bindings;
+			}
+			// some binding vanished in the meantime
+			bindingIds.evict(key);
+		}
+
+		long currentGeneration = bindingGeneration.get();
+		List<CustomFieldBinding> bindings = customFieldBindingDao.findAllForProjectAndEntity(projectId, entityType);
+
+		if (currentGeneration == bindingGeneration.get()) {
+			ArrayList<Long> ids = new ArrayList<>(bindings.size());
+			bindings.forEach(binding -> ids.add(binding.getId()));
+			bindingIds.put(key, ids);
+		}
+
+		return bindings;
+	}
+
+	private List<CustomFieldBinding> resolveBindings(List<Long> ids) {
+		List<CustomFieldBinding> bindings = new ArrayList<>(ids.size());
+
+		for (Long id : ids) {
+			CustomFieldBinding binding = em.find(CustomFieldBinding.class, id);
+			if (binding == null) {
+				return null;
+			}
+			bindings.add(binding);
+		}
+
+		return bindings;
+	}
+
+	/**
+	 * Tells whether the given project's list (requirement categories, test case natures or types) holds an item with
+	 * the given code.
+	 *
+	 * @param list      the list, identified by the role it plays for the project
+	 * @param projectId id of the project
+	 * @param itemCode  code of the item
+	 * @return <code>true</code> if the item is in the list
+	 */
+	public boolean isInfoListItemConsistent(SystemInfoListCode list, long projectId, String itemCode) {
+		String key = list.name() + ':' + projectId + ':' + itemCode;
+
+		Cache.ValueWrapper cached = itemConsistency.get(key);
+		if (cached != null) {
+			return (Boolean) cached.get();
+		}
+
+		long currentGeneration = itemGeneration.get();
+		boolean consistent = queryItemConsistency(list, projectId, itemCode);
+
+		if (currentGeneration == itemGeneration.get()) {
+			itemConsistency.put(key, consistent);
+		}
+
+		return consistent;
+	}
+
+	private boolean queryItemConsistency(SystemInfoListCode list, long projectId, String itemCode) {
+		switch (list) {
+			case REQUIREMENT_CATEGORY:
+				return infoListItemDao.isCategoryConsistent(projectId, itemCode);
+			case TEST_CASE_NATURE:
+				return infoListItemDao.isNatureConsistent(projectId, itemCode);
+			case TEST_CASE_TYPE:
+				return infoListItemDao.isTypeConsistent(projectId, itemCode);
+			default:
+				throw new IllegalArgumentException("Unknown info list " + list);
+		}
+	}
+
+	/**
+	 * Forgets every cached binding. Should be called whenever bindings are created, removed or reordered.
+	 */
+	public void evictCustomFieldBindings() {
+		LOGGER.debug("Evicting custom field bindings");
+		evict(bindingIds, bindingGeneration);
+	}
+
+	/**
+	 * Forgets every cached info list item. Should be called whenever items are created, removed or recoded, or when
+	 * lists are bound to projects.
+	 */
+	public void evictInfoListItems() {
+		LOGGER.debug("Evicting info list items");
+		evict(itemConsistency, itemGeneration);
+	}
+
+	private static void evict(Cache cache, AtomicLong generation) {
+		clear(cache, generation);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					clear(cache, generation);
+				}
+			});
+		}
+	}
+
+	private static void clear(Cache cache, AtomicLong generation) {
+		generation.incrementAndGet();
+		cache.clear();
+	}
+
+}
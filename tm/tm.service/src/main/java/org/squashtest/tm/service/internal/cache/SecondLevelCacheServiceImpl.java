@@ -0,0 +1,111 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.cache;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.squashtest.tm.service.cache.CacheRegionStatistics;
+import org.squashtest.tm.service.cache.SecondLevelCacheService;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Service("squashtest.tm.service.SecondLevelCacheService")
+public class SecondLevelCacheServiceImpl implements SecondLevelCacheService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SecondLevelCacheServiceImpl.class);
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Override
+	public void evict(Class<?>... entityTypes) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					doEvict(entityTypes);
+				}
+			});
+		} else {
+			doEvict(entityTypes);
+		}
+	}
+
+	private void doEvict(Class<?>... entityTypes) {
+		SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		Cache cache = sessionFactory.getCache();
+		String[] collectionRoles = sessionFactory.getMetamodel().getAllCollectionRoles();
+
+		for (Class<?> entityType : entityTypes) {
+			LOGGER.debug("Evicting {} from the second level cache", entityType.getName());
+			cache.evictEntityRegion(entityType);
+
+			String rolePrefix = entityType.getName() + '.';
+			for (String role : collectionRoles) {
+				if (role.startsWith(rolePrefix)) {
+					cache.evictCollectionRegion(role);
+				}
+			}
+		}
+
+		cache.evictQueryRegions();
+	}
+
+	@Override
+	public List<CacheRegionStatistics> findRegionStatistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		if (!statistics.isStatisticsEnabled()) {
+			return Collections.emptyList();
+		}
+
+		String[] regions = statistics.getSecondLevelCacheRegionNames();
+		Arrays.sort(regions);
+
+		List<CacheRegionStatistics> result = new ArrayList<>(regions.length);
+		for (String region : regions) {
+			SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+			if (regionStatistics != null) {
+				result.add(new CacheRegionStatistics(region,
+					regionStatistics.getHitCount(),
+					regionStatistics.getMissCount(),
+					regionStatistics.getPutCount(),
+					regionStatistics.getElementCountInMemory()));
+			}
+		}
+
+		return result;
+	}
+
+}
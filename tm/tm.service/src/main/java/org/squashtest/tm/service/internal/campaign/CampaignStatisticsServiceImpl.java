@@ -32,6 +32,7 @@ import org.squashtest.tm.domain.milestone.Milestone;
 import org.squashtest.tm.domain.testcase.TestCaseImportance;
 import org.squashtest.tm.service.campaign.CampaignStatisticsService;
 import org.squashtest.tm.service.internal.repository.CampaignDao;
+import org.squashtest.tm.service.internal.statistics.StatisticsQueryExecutor;
 import org.squashtest.tm.service.milestone.ActiveMilestoneHolder;
 import org.squashtest.tm.service.statistics.campaign.CampaignNonExecutedTestCaseImportanceStatistics;
 import org.squashtest.tm.service.statistics.campaign.CampaignProgressionStatistics;
@@ -47,13 +48,17 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.squashtest.tm.service.security.Authorizations.OR_HAS_ROLE_ADMIN;
 
@@ -76,6 +81,9 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 	@Inject
 	private ActiveMilestoneHolder activeMilestoneHolder;
 
+	@Inject
+	private StatisticsQueryExecutor statisticsExecutor;
+
 
 	// ************************************ all-in-one methods ******************************
 
@@ -83,6 +91,10 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 	@Override
 	@PreAuthorize(PERM_CAN_READ_CAMPAIGN + OR_HAS_ROLE_ADMIN)
 	public CampaignStatisticsBundle gatherCampaignStatisticsBundle(long campaignId) {
+		return statisticsExecutor.fanOut(() -> doGatherCampaignStatisticsBundle(campaignId));
+	}
+
+	private CampaignStatisticsBundle doGatherCampaignStatisticsBundle(long campaignId) {
 
 		CampaignStatisticsBundle bundle = new CampaignStatisticsBundle();
 
@@ -90,20 +102,19 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 		List<Long> campaignIds = Arrays.asList(campaignId);
 
 		// common methods
-		CampaignTestCaseStatusStatistics testcaseStatuses = gatherTestCaseStatusStatistics(campaignIds);
-		CampaignNonExecutedTestCaseImportanceStatistics testcaseImportance = gatherNonExecutedTestCaseImportanceStatistics(campaignIds);
-		CampaignTestCaseSuccessRateStatistics testcaseSuccessRate = gatherTestCaseSuccessRateStatistics(campaignIds);
+		Supplier<CommonStatistics> common = statisticsExecutor.fork(() -> gatherCommonStatistics(campaignIds));
 
 		// specific methods
-		List<IterationTestInventoryStatistics> inventory = gatherCampaignTestInventoryStatistics(campaignId);
+		Supplier<List<IterationTestInventoryStatistics>> inventory = statisticsExecutor.fork(() -> gatherCampaignTestInventoryStatistics(campaignId));
 		CampaignProgressionStatistics progression = gatherCampaignProgressionStatistics(campaignId);
 
 		// stuff it all
-		bundle.setIterationTestInventoryStatisticsList(inventory);
+		bundle.setIterationTestInventoryStatisticsList(inventory.get());
 		bundle.setCampaignProgressionStatistics(progression);
-		bundle.setCampaignTestCaseStatusStatistics(testcaseStatuses);
-		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(testcaseImportance);
-		bundle.setCampaignTestCaseSuccessRateStatistics(testcaseSuccessRate);
+		CommonStatistics commonStatistics = common.get();
+		bundle.setCampaignTestCaseStatusStatistics(commonStatistics.testcaseStatuses);
+		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(commonStatistics.testcaseImportance);
+		bundle.setCampaignTestCaseSuccessRateStatistics(commonStatistics.testcaseSuccessRate);
 		bundle.setSelectedId(campaignId);
 
 		// return
@@ -115,6 +126,10 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 	@Override
 	// TODO : security ? If never exposed through OSGI it might not be necessary
 	public CampaignStatisticsBundle gatherMilestoneStatisticsBundle() {
+		return statisticsExecutor.fanOut(this::doGatherMilestoneStatisticsBundle);
+	}
+
+	private CampaignStatisticsBundle doGatherMilestoneStatisticsBundle() {
 
 		CampaignStatisticsBundle bundle = new CampaignStatisticsBundle();
 
@@ -125,9 +140,7 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 		List<Long> campaignIds = campaignDao.findAllIdsByMilestone(milestoneId);
 
 		// common methods
-		CampaignTestCaseStatusStatistics testcaseStatuses = gatherTestCaseStatusStatistics(campaignIds);
-		CampaignNonExecutedTestCaseImportanceStatistics testcaseImportance = gatherNonExecutedTestCaseImportanceStatistics(campaignIds);
-		CampaignTestCaseSuccessRateStatistics testcaseSuccessRate = gatherTestCaseSuccessRateStatistics(campaignIds);
+		Supplier<CommonStatistics> common = statisticsExecutor.fork(() -> gatherCommonStatistics(campaignIds));
 
 		// specific methods
 		List<IterationTestInventoryStatistics> inventory = gatherMilestoneTestInventoryStatistics();
@@ -136,9 +149,10 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 		// stuff it all
 		bundle.setIterationTestInventoryStatisticsList(inventory);
 		bundle.setCampaignProgressionStatistics(progression);
-		bundle.setCampaignTestCaseStatusStatistics(testcaseStatuses);
-		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(testcaseImportance);
-		bundle.setCampaignTestCaseSuccessRateStatistics(testcaseSuccessRate);
+		CommonStatistics commonStatistics = common.get();
+		bundle.setCampaignTestCaseStatusStatistics(commonStatistics.testcaseStatuses);
+		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(commonStatistics.testcaseImportance);
+		bundle.setCampaignTestCaseSuccessRateStatistics(commonStatistics.testcaseSuccessRate);
 
 		// return
 		return bundle;
@@ -149,7 +163,10 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 	@Override
 	// TODO : security ? If never exposed through OSGI it might not be necessary
 	public ManyCampaignStatisticsBundle gatherFolderStatisticsBundle(Long folderId) {
+		return statisticsExecutor.fanOut(() -> doGatherFolderStatisticsBundle(folderId));
+	}
 
+	private ManyCampaignStatisticsBundle doGatherFolderStatisticsBundle(Long folderId) {
 
 		ManyCampaignStatisticsBundle bundle = new ManyCampaignStatisticsBundle();
 
@@ -162,22 +179,23 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 			campaignIds = campaignDao.filterByMilestone(campaignIds, activeMilestone.get().getId());
 		}
 
+		List<Long> perimeter = campaignIds;
+
 		// common methods
-		CampaignTestCaseStatusStatistics testcaseStatuses = gatherTestCaseStatusStatistics(campaignIds);
-		CampaignNonExecutedTestCaseImportanceStatistics testcaseImportance = gatherNonExecutedTestCaseImportanceStatistics(campaignIds);
-		CampaignTestCaseSuccessRateStatistics testcaseSuccessRate = gatherTestCaseSuccessRateStatistics(campaignIds);
+		Supplier<CommonStatistics> common = statisticsExecutor.fork(() -> gatherCommonStatistics(perimeter));
 
 		// specific methods
-		List<CampaignTestInventoryStatistics> inventory = gatherFolderTestInventoryStatistics(campaignIds);
+		List<CampaignTestInventoryStatistics> inventory = gatherFolderTestInventoryStatistics(perimeter);
 		CampaignProgressionStatistics progression = new CampaignProgressionStatistics(); // not used in the by-milestone dashboard
 
 		// stuff it all
 		bundle.setCampaignTestInventoryStatisticsList(inventory);
 		bundle.setCampaignProgressionStatistics(progression);
-		bundle.setCampaignTestCaseStatusStatistics(testcaseStatuses);
-		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(testcaseImportance);
-		bundle.setCampaignTestCaseSuccessRateStatistics(testcaseSuccessRate);
-		bundle.setSelectedIds(campaignIds);
+		CommonStatistics commonStatistics = common.get();
+		bundle.setCampaignTestCaseStatusStatistics(commonStatistics.testcaseStatuses);
+		bundle.setCampaignNonExecutedTestCaseImportanceStatistics(commonStatistics.testcaseImportance);
+		bundle.setCampaignTestCaseSuccessRateStatistics(commonStatistics.testcaseSuccessRate);
+		bundle.setSelectedIds(perimeter);
 		// return
 		return bundle;
 	}
@@ -227,6 +245,24 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 
 
 
+	/**
+	 * Given a list of campaign id, gathers the three statistics above at once : they all derive from the number of test
+	 * cases grouped by weight and execution status.
+	 *
+	 * @param campaignIds
+	 * @return
+	 */
+	private CommonStatistics gatherCommonStatistics(List<Long> campaignIds) {
+		List<Object[]> tuples = fetchCommonTuples("CampaignStatistics.successRate", campaignIds);
+
+		CommonStatistics statistics = new CommonStatistics();
+		statistics.testcaseStatuses = processTestCaseStatusStatistics(selectStatusCounts(tuples));
+		statistics.testcaseImportance = processNonExecutedTestCaseImportance(selectNonExecutedImportanceCounts(tuples));
+		statistics.testcaseSuccessRate = processTestCaseSuccessRateStatistics(tuples);
+		return statistics;
+	}
+
+
 	/* ************************************* statistics specific to one lone campaign************************************** */
 
 	@Override
@@ -410,6 +446,38 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 
 	;
 
+	/**
+	 * Turns tuples (importance, status, count) into the tuples (status, count) of CampaignStatistics.globaltestinventory
+	 */
+	private List<Object[]> selectStatusCounts(List<Object[]> importanceStatusCounts) {
+		Map<ExecutionStatus, Long> counts = new EnumMap<>(ExecutionStatus.class);
+		for (Object[] tuple : importanceStatusCounts) {
+			counts.merge((ExecutionStatus) tuple[1], (Long) tuple[2], Long::sum);
+		}
+		return toTuples(counts);
+	}
+
+	/**
+	 * Turns tuples (importance, status, count) into the tuples (importance, count) of
+	 * CampaignStatistics.nonexecutedTestcaseImportance
+	 */
+	private List<Object[]> selectNonExecutedImportanceCounts(List<Object[]> importanceStatusCounts) {
+		Map<TestCaseImportance, Long> counts = new EnumMap<>(TestCaseImportance.class);
+		for (Object[] tuple : importanceStatusCounts) {
+			ExecutionStatus status = (ExecutionStatus) tuple[1];
+			if (status == ExecutionStatus.READY || status == ExecutionStatus.RUNNING) {
+				counts.merge((TestCaseImportance) tuple[0], (Long) tuple[2], Long::sum);
+			}
+		}
+		return toTuples(counts);
+	}
+
+	private static List<Object[]> toTuples(Map<?, Long> counts) {
+		List<Object[]> tuples = new ArrayList<>(counts.size());
+		counts.forEach((key, count) -> tuples.add(new Object[]{key, count}));
+		return tuples;
+	}
+
 	private CampaignTestCaseStatusStatistics processTestCaseStatusStatistics(List<Object[]> tuples) {
 		CampaignTestCaseStatusStatistics result = new CampaignTestCaseStatusStatistics();
 
@@ -485,4 +553,10 @@ public class CampaignStatisticsServiceImpl implements CampaignStatisticsService
 	}
 
 
+	private static final class CommonStatistics {
+		private CampaignTestCaseStatusStatistics testcaseStatuses;
+		private CampaignNonExecutedTestCaseImportanceStatistics testcaseImportance;
+		private CampaignTestCaseSuccessRateStatistics testcaseSuccessRate;
+	}
+
 }
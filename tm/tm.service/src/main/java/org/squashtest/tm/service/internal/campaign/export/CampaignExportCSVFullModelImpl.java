@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.campaign.export;
 
+import com.google.common.collect.Lists;
 import org.jooq.Record;
 import org.jooq.Record5;
 import org.slf4j.Logger;
@@ -40,10 +41,14 @@ import org.squashtest.tm.service.internal.dto.TestStepDto;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -139,8 +144,19 @@ public class CampaignExportCSVFullModelImpl extends AbstractCampaignExportCSVMod
 
 	private static final String UNCHECKED = "unchecked";
 
+	private static final int CALLED_TEST_CASES_BATCH_SIZE = 500;
+
 	private int nbRows;
 
+	// test cases called by the test plan items which have no execution, directly or not
+	private final Map<Long, TestCaseDto> calledTestCases = new HashMap<>();
+
+	// action steps of a test plan item test case once its call steps are expanded, by test case id
+	private final Map<Long, List<TestStepDto>> actionStepsByTestCase = new HashMap<>();
+
+	// same for the called test cases
+	private final Map<Long, List<TestStepDto>> calledActionStepsByTestCase = new HashMap<>();
+
 	public CampaignExportCSVFullModelImpl() {
 		super();
 	}
@@ -158,6 +174,8 @@ public class CampaignExportCSVFullModelImpl extends AbstractCampaignExportCSVMod
 
 		populateCampaignDto(iterator, allTestCaseIds, allExecutionIds);
 
+		populateCalledTestCases();
+
 		Set<Long> allIterationIds = campaignDto.getIterationMap().keySet();
 
 		List<Long> allExecutionStepIds = collectLatestExecutionStepId(campaignDto.getIterationMap().values());
@@ -357,6 +375,142 @@ public class CampaignExportCSVFullModelImpl extends AbstractCampaignExportCSVMod
 		return es;
 	}
 
+	/*
+	 * The test plan items which were never executed are exported with the steps of their test case, call steps being
+	 * replaced by the steps of the called test case. Instead of querying each called test case when the rows are
+	 * iterated over, the whole call graph is loaded here, one level of calls at a time.
+	 */
+	private void populateCalledTestCases() {
+		Set<Long> toLoad = collectCalledTestCaseIds(
+			campaignDto.getIterationList().stream()
+				.flatMap(iteration -> iteration.getTestPlanList().stream())
+				.filter(itpi -> !itpi.isTestCaseDeleted() && itpi.getLatestExecution() == null)
+				.map(ITPIDto::getTestCase)
+				.collect(Collectors.toList()));
+
+		while (!toLoad.isEmpty()) {
+			Collection<TestCaseDto> loaded = findCalledTestCases(toLoad);
+			loaded.forEach(testCase -> calledTestCases.put(testCase.getId(), testCase));
+
+			toLoad = collectCalledTestCaseIds(loaded);
+			toLoad.removeAll(calledTestCases.keySet());
+		}
+
+		LOGGER.debug("campaign full export : {} called test cases loaded", calledTestCases.size());
+	}
+
+	private Set<Long> collectCalledTestCaseIds(Collection<TestCaseDto> testCases) {
+		return testCases.stream()
+			.flatMap(testCase -> testCase.getStepMap().values().stream())
+			.filter(TestStepDto::isCallStep)
+			.map(TestStepDto::getCalledTestCaseId)
+			.collect(Collectors.toSet());
+	}
+
+	private Collection<TestCaseDto> findCalledTestCases(Collection<Long> testCaseIds) {
+		Map<Long, TestCaseDto> result = new HashMap<>();
+
+		for (List<Long> ids : Lists.partition(new ArrayList<>(testCaseIds), CALLED_TEST_CASES_BATCH_SIZE)) {
+			Iterator<Record5<Long, Integer, Long, Long, Long>> iterator = DSL.select(TC_ID, TS_ORDER, TS_ID, CTS_CALLED_TS, TS_REQUIREMENT_VERIFIED)
+				.from(TEST_CASE)
+				.leftJoin(TEST_CASE_STEPS).on(TEST_CASE_STEPS.TEST_CASE_ID.eq(TC_ID))
+				.leftJoin(CALL_TEST_STEP).on(CALL_TEST_STEP.TEST_STEP_ID.eq(TS_ID))
+				.leftJoin(ACTION_TEST_STEP).on(ACTION_TEST_STEP.TEST_STEP_ID.eq(TS_ID))
+				.leftJoin(VERIFYING_STEPS.as("ts_verifying_step")).on(VERIFYING_STEPS.as("ts_verifying_step").TEST_STEP_ID.eq(ACTION_TEST_STEP.TEST_STEP_ID))
+				.leftJoin(REQUIREMENT_VERSION_COVERAGE.as("ts_rvc")).on(TS_REQUIREMENT_VERIFIED.eq(VERIFYING_STEPS.as("ts_verifying_step").REQUIREMENT_VERSION_COVERAGE_ID))
+				.where(TC_ID.in(ids))
+				.orderBy(TC_ID, TS_ORDER)
+				.fetch().iterator();
+
+			while (iterator.hasNext()) {
+				Record r = iterator.next();
+				TestCaseDto testCase = result.computeIfAbsent(r.get(TC_ID), id -> {
+					TestCaseDto dto = new TestCaseDto();
+					dto.setId(id);
+					return dto;
+				});
+
+				Long stepId = r.get(TS_ID);
+				if (stepId == null) {
+					// a called test case without steps still takes an (empty) step row where it is called
+					testCase.addStep(new TestStepDto(null, 0));
+					continue;
+				}
+
+				TestStepDto step = testCase.getStep(stepId);
+				if (step == null) {
+					testCase.addStep(createTestStepDto(r));
+				} else if (r.get(TS_REQUIREMENT_VERIFIED) != null) {
+					step.addRequirement(r.get(TS_REQUIREMENT_VERIFIED));
+				}
+			}
+		}
+
+		return result.values();
+	}
+
+	/*
+	 * Returns the action steps of the given test case, in order, with the call steps expanded. The lists are computed
+	 * once per test case : they are requested for each row of the test plan items which were never executed.
+	 */
+	private List<TestStepDto> getActionTestStepList(TestCaseDto testCase) {
+		return actionStepsByTestCase.computeIfAbsent(testCase.getId(), id -> {
+			Set<Long> visited = new HashSet<>();
+			visited.add(id);
+			return expandCallSteps(testCase, visited);
+		});
+	}
+
+	/*
+	 * Same as above for a called test case. Its steps differ from those of a test plan item test case when it has none :
+	 * it is then given an empty step. The visited set holds the test cases being expanded and breaks call cycles.
+	 */
+	private List<TestStepDto> getCalledActionTestStepList(Long calledTestCaseId, Set<Long> visited) {
+		List<TestStepDto> result = calledActionStepsByTestCase.get(calledTestCaseId);
+
+		if (result == null) {
+			if (!visited.add(calledTestCaseId)) {
+				LOGGER.warn("campaign full export : test case {} calls itself, the call is ignored", calledTestCaseId);
+				return Collections.emptyList();
+			}
+
+			result = expandCallSteps(getCalledTestCase(calledTestCaseId), visited);
+			visited.remove(calledTestCaseId);
+			calledActionStepsByTestCase.put(calledTestCaseId, result);
+		}
+
+		return result;
+	}
+
+	private List<TestStepDto> expandCallSteps(TestCaseDto testCase, Set<Long> visited) {
+		List<TestStepDto> steps = new ArrayList<>(testCase.getStepMap().values());
+		steps.sort(Comparator.comparing(TestStepDto::getStepOrder));
+
+		List<TestStepDto> result = new ArrayList<>();
+		for (TestStepDto step : steps) {
+			if (!step.isCallStep()) {
+				result.add(step);
+			} else {
+				result.addAll(getCalledActionTestStepList(step.getCalledTestCaseId(), visited));
+			}
+		}
+
+		return result;
+	}
+
+	private TestCaseDto getCalledTestCase(Long calledTestCaseId) {
+		TestCaseDto calledTestCase = calledTestCases.get(calledTestCaseId);
+
+		if (calledTestCase == null) {
+			// the called test case has no row anymore
+			calledTestCase = new TestCaseDto();
+			calledTestCase.setId(calledTestCaseId);
+			calledTestCases.put(calledTestCaseId, calledTestCase);
+		}
+
+		return calledTestCase;
+	}
+
 	private TestStepDto createTestStepDto(Record r) {
 		TestStepDto step = new TestStepDto(r.get(TS_ID), r.get(TS_ORDER));
 		if (r.get(CTS_CALLED_TS) != null) {
@@ -913,61 +1067,6 @@ public class CampaignExportCSVFullModelImpl extends AbstractCampaignExportCSVMod
 
 		}
 
-		private List<TestStepDto> getActionTestStepList(TestCaseDto testCase) {
-
-			List<TestStepDto> result = new ArrayList<>();
-			List<TestStepDto> steps = new ArrayList<>(testCase.getStepMap().values());
-			steps.sort(Comparator.comparing(TestStepDto::getStepOrder));
-
-			result.addAll(getActionTestStepListRec(steps));
-
-			return result;
-		}
-
-		private List<TestStepDto> getActionTestStepListRec(List<TestStepDto> steps) {
-
-			List<TestStepDto> result = new ArrayList<>();
-
-			for (TestStepDto step : steps) {
-				if (!step.isCallStep()) {
-					result.add(step);
-				} else {
-					TestCaseDto calledTestCase = getCalledTestCase(step.getCalledTestCaseId());
-					result.addAll(getActionTestStepList(calledTestCase));
-				}
-			}
-
-			return result;
-		}
-
-		private TestCaseDto getCalledTestCase(Long calledTestId) {
-			TestCaseDto result = new TestCaseDto();
-			TestStepDto currentStep = new TestStepDto();
-			result.setId(calledTestId);
-			Iterator<Record5<Long, Integer, Long, Long, Long>> iterator = DSL.select(TC_ID, TS_ORDER, TS_ID, CTS_CALLED_TS, TS_REQUIREMENT_VERIFIED)
-				.from(TEST_CASE)
-				.leftJoin(TEST_CASE_STEPS).on(TEST_CASE_STEPS.TEST_CASE_ID.eq(TC_ID))
-				.leftJoin(CALL_TEST_STEP).on(CALL_TEST_STEP.TEST_STEP_ID.eq(TS_ID))
-				.leftJoin(ACTION_TEST_STEP).on(ACTION_TEST_STEP.TEST_STEP_ID.eq(TS_ID))
-				.leftJoin(VERIFYING_STEPS.as("ts_verifying_step")).on(VERIFYING_STEPS.as("ts_verifying_step").TEST_STEP_ID.eq(ACTION_TEST_STEP.TEST_STEP_ID))
-				.leftJoin(REQUIREMENT_VERSION_COVERAGE.as("ts_rvc")).on(TS_REQUIREMENT_VERIFIED.eq(VERIFYING_STEPS.as("ts_verifying_step").REQUIREMENT_VERSION_COVERAGE_ID))
-				.where(TC_ID.eq(calledTestId))
-				.orderBy(TS_ORDER)
-				.fetch().iterator();
-
-			while (iterator.hasNext()) {
-				Record r = iterator.next();
-				if (!currentStep.getId().equals(r.get(TS_ID))) {
-					TestStepDto dto = createTestStepDto(r);
-					result.addStep(dto);
-					currentStep = result.getStep(r.get(TS_ID));
-				} else if (r.get(TS_REQUIREMENT_VERIFIED) != null) {
-					currentStep.addRequirement(r.get(TS_REQUIREMENT_VERIFIED));
-				}
-			}
-			return result;
-		}
-
 		private boolean moveToNextTestCase() {
 
 			boolean foundNextTC;
@@ -22,6 +22,7 @@ package org.squashtest.tm.service.internal.chart;
 
 import com.querydsl.core.Tuple;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.annotation.Timed;
 import org.hibernate.Session;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -116,12 +117,14 @@ public class ChartModificationServiceImpl implements ChartModificationService {
 
 
 	@Override
+	@Timed("squash.chart.generation")
 	public ChartInstance generateChart(long chartDefId, List<EntityReference> dynamicScope, Long dashboardId) {
 		ChartDefinition def = findById(chartDefId);
 		return generateChart(def, dynamicScope, dashboardId);
 	}
 
 	@Override
+	@Timed("squash.chart.generation")
 	public ChartInstance generateChart(ChartDefinition chartDefinition, List<EntityReference> dynamicScope, Long dashboardId) {
 
 		ChartToConfiguredQueryConverter converter = converterProvider.get();
@@ -135,6 +138,7 @@ public class ChartModificationServiceImpl implements ChartModificationService {
 	}
 
 	@Override
+	@Timed("squash.chart.generation")
 	public ChartInstance generateChart(ChartDefinition chartDef, Long projectId) {
 		if (chartDef.getProject() == null) {
 			Project project = em.find(Project.class, projectId);
@@ -173,6 +177,7 @@ public class ChartModificationServiceImpl implements ChartModificationService {
 	}
 
 	@Override
+	@Timed("squash.chart.generation")
 	public ChartInstance generateChartForMilestoneDashboard(ChartDefinition chart, Long milestoneId, Workspace workspace) {
 
 		ChartToConfiguredQueryConverter converter = converterProvider.get();
@@ -186,6 +191,7 @@ public class ChartModificationServiceImpl implements ChartModificationService {
 	}
 
 	@Override
+	@Timed("squash.chart.generation")
 	public ChartInstance generateChartInMilestoneMode(ChartDefinition chart, List<EntityReference> scope, Workspace workspace) {
 		ChartToConfiguredQueryConverter converter = converterProvider.get();
 
@@ -41,6 +41,7 @@ import org.squashtest.tm.exception.NameAlreadyInUseException;
 import org.squashtest.tm.exception.customfield.CodeAlreadyExistsException;
 import org.squashtest.tm.exception.customfield.DefaultValueRequiredException;
 import org.squashtest.tm.service.customfield.CustomCustomFieldManagerService;
+import org.squashtest.tm.service.cache.SecondLevelCacheService;
 import org.squashtest.tm.service.customfield.CustomFieldBindingModificationService;
 import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao;
 import org.squashtest.tm.service.internal.repository.CustomFieldDao;
@@ -77,6 +78,9 @@ public class CustomCustomFieldManagerServiceImpl implements CustomCustomFieldMan
 	@Inject
 	private ApplicationEventPublisher eventPublisher;
 
+	@Inject
+	private SecondLevelCacheService secondLevelCacheService;
+
 	/**
 	 * @see org.squashtest.tm.service.customfield.CustomFieldFinderService#findSortedCustomFields(PagingAndSorting)
 	 */
@@ -102,6 +106,9 @@ public class CustomCustomFieldManagerServiceImpl implements CustomCustomFieldMan
 			customFieldBindingModificationService.doRemoveCustomFieldBindings(bindingIds);
 		}
 		customFieldDao.delete(customField);
+
+		// bindings and values are removed with bulk queries
+		secondLevelCacheService.evict(CustomField.class, CustomFieldBinding.class);
 	}
 
 	/**
@@ -42,6 +42,7 @@ import org.squashtest.tm.event.CreateCustomFieldBindingEvent;
 import org.squashtest.tm.event.DeleteCustomFieldBindingEvent;
 import org.squashtest.tm.exception.project.LockedParameterException;
 import org.squashtest.tm.service.customfield.CustomFieldBindingModificationService;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.dto.CustomFieldBindingModel;
 import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao;
 import org.squashtest.tm.service.internal.repository.CustomFieldDao;
@@ -82,6 +83,9 @@ public class CustomFieldBindingModificationServiceImpl implements CustomFieldBin
 	@Inject
 	private ApplicationEventPublisher eventPublisher;
 
+	@Inject
+	private BindingCache bindingCache;
+
 	private static final Transformer BINDING_ID_COLLECTOR = new Transformer() {
 		@Override
 		public Object transform(Object input) {
@@ -116,13 +120,13 @@ public class CustomFieldBindingModificationServiceImpl implements CustomFieldBin
 	@Override
 	@Transactional(readOnly = true)
 	public List<CustomFieldBinding> findCustomFieldsForProjectAndEntity(long projectId, BindableEntity entity) {
-		return customFieldBindingDao.findAllForProjectAndEntity(projectId, entity);
+		return bindingCache.findCustomFieldBindings(projectId, entity);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<CustomFieldBinding> findCustomFieldsForBoundEntity(BoundEntity boundEntity) {
-		return customFieldBindingDao.findAllForProjectAndEntity(boundEntity.getProject().getId(),
+		return bindingCache.findCustomFieldBindings(boundEntity.getProject().getId(),
 				boundEntity.getBoundEntityType());
 	}
 
@@ -215,6 +219,7 @@ public class CustomFieldBindingModificationServiceImpl implements CustomFieldBin
 			bindingIdsToRemove.addAll(customFieldBindingDao.findEquivalentBindingsForBoundProjects(bindingIds));
 			customValueService.cascadeCustomFieldValuesDeletion(bindingIdsToRemove);
 			customFieldBindingDao.removeCustomFieldBindings(bindingIdsToRemove);
+			bindingCache.evictCustomFieldBindings();
 			eventPublisher.publishEvent(new DeleteCustomFieldBindingEvent(bindingIdsToRemove));
 		}
 	}
@@ -239,6 +244,7 @@ public class CustomFieldBindingModificationServiceImpl implements CustomFieldBin
 			List<CustomFieldBinding> bindingList = customFieldBindingDao.findAllAlike(bindingIds.get(0));
 			PositionAwareBindingList reorderList = new PositionAwareBindingList(bindingList);
 			reorderList.reorderItems(bindingIds, newIndex);
+			bindingCache.evictCustomFieldBindings();
 		}
 
 	}
@@ -259,6 +265,7 @@ public class CustomFieldBindingModificationServiceImpl implements CustomFieldBin
 			}
 
 			customFieldBindingDao.save(newBinding);
+			bindingCache.evictCustomFieldBindings();
 			eventPublisher.publishEvent(new CreateCustomFieldBindingEvent(newBinding));
 
 			return newBinding;
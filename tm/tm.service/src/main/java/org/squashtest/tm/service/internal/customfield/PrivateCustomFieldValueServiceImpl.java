@@ -39,9 +39,8 @@ import org.squashtest.tm.domain.customfield.CustomFieldValue;
 import org.squashtest.tm.domain.customfield.RawValue;
 import org.squashtest.tm.domain.customfield.RenderingLocation;
 import org.squashtest.tm.domain.project.Project;
-import org.squashtest.tm.service.annotation.CachableType;
-import org.squashtest.tm.service.annotation.CacheResult;
 import org.squashtest.tm.service.audit.AuditModificationService;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.repository.BoundEntityDao;
 import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao;
 import org.squashtest.tm.service.internal.repository.CustomFieldValueDao;
@@ -85,6 +84,9 @@ public class PrivateCustomFieldValueServiceImpl implements PrivateCustomFieldVal
 	@Inject
 	private CustomFieldBindingDao customFieldBindingDao;
 
+	@Inject
+	private BindingCache bindingCache;
+
 	@Inject
 	private BoundEntityDao boundEntityDao;
 
@@ -409,17 +411,12 @@ public class PrivateCustomFieldValueServiceImpl implements PrivateCustomFieldVal
 		auditModificationService.updateRelatedToCustomFieldAuditableEntity(boundEntity);
 	}
 
-	// This method is just here to use the @CacheResult annotation
-	@CacheResult(type = CachableType.CUSTOM_FIELD)
 	private List<CustomFieldBinding> optimizedFindCustomField(BoundEntity entity) {
-		return customFieldBindingDao.findAllForProjectAndEntity(entity
-			.getProject().getId(), entity.getBoundEntityType());
+		return optimizedFindCustomField(entity, entity.getProject());
 	}
 
-	// This method is just here to use the @CacheResult annotation
-	@CacheResult(type = CachableType.CUSTOM_FIELD)
 	private List<CustomFieldBinding> optimizedFindCustomField(BoundEntity entity, Project project) {
-		return customFieldBindingDao.findAllForProjectAndEntity(project.getId(), entity.getBoundEntityType());
+		return bindingCache.findCustomFieldBindings(project.getId(), entity.getBoundEntityType());
 	}
 
 	@Override
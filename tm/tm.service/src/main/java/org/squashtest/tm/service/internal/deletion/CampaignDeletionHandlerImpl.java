@@ -36,7 +36,6 @@ import org.squashtest.tm.domain.campaign.Iteration;
 import org.squashtest.tm.domain.campaign.IterationTestPlanItem;
 import org.squashtest.tm.domain.campaign.TestSuite;
 import org.squashtest.tm.domain.customfield.BindableEntity;
-import org.squashtest.tm.domain.denormalizedfield.DenormalizedFieldHolderType;
 import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.execution.ExecutionStep;
 import org.squashtest.tm.domain.milestone.Milestone;
@@ -46,6 +45,7 @@ import org.squashtest.tm.service.campaign.IterationTestPlanManagerService;
 import org.squashtest.tm.service.deletion.BoundToLockedMilestonesReport;
 import org.squashtest.tm.service.deletion.BoundToMultipleMilestonesReport;
 import org.squashtest.tm.service.deletion.BoundToNotSelectedTestSuite;
+import org.squashtest.tm.service.deletion.ExecutionPurgeService;
 import org.squashtest.tm.service.deletion.MilestoneModeNoFolderDeletion;
 import org.squashtest.tm.service.deletion.NotDeletableCampaignsPreviewReport;
 import org.squashtest.tm.service.deletion.OperationReport;
@@ -59,7 +59,6 @@ import org.squashtest.tm.service.internal.repository.CampaignDao;
 import org.squashtest.tm.service.internal.repository.CampaignDeletionDao;
 import org.squashtest.tm.service.internal.repository.CampaignFolderDao;
 import org.squashtest.tm.service.internal.repository.ExecutionDao;
-import org.squashtest.tm.service.internal.repository.ExecutionStepDao;
 import org.squashtest.tm.service.internal.repository.FolderDao;
 import org.squashtest.tm.service.internal.repository.IterationDao;
 import org.squashtest.tm.service.internal.repository.IterationTestPlanDao;
@@ -80,7 +79,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Component("squashtest.tm.service.deletion.CampaignNodeDeletionHandler")
 public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<CampaignLibraryNode, CampaignFolder>
@@ -110,9 +108,6 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 	@Inject
 	private ExecutionDao executionDao;
 
-	@Inject
-	private ExecutionStepDao executionStepDao;
-
 	@Inject
 	private AutomatedTestDao autoTestDao;
 
@@ -137,6 +132,12 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 	@Inject
 	private IterationTestPlanDao testPlanItemDao;
 
+	@Inject
+	private ExecutionPurgeQueue purgeQueue;
+
+	@Inject
+	private ExecutionPurgeService purgeService;
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
@@ -423,6 +424,9 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 	 * by Nodes we mean the CampaignLibraryNodes.
 	 */
 	protected OperationReport batchDeleteNodes(List<Long> ids) {
+		// the executions are left to the background purge, before the campaigns are loaded
+		tombstoneExecutions(purgeQueue.findExecutionIdsByIterationIds(purgeQueue.findIterationIdsByCampaignIds(ids)));
+
 		List<Long> attachmentsLists = new ArrayList<>();
 
 		//prepare the operation report:
@@ -490,7 +494,6 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 	public OperationReport deleteIterations(List<Long> targetIds) {
 
 		List<Iteration> iterations = iterationDao.findAllByIds(targetIds);
-		List<Iteration> iterationsToBeDeleted = new ArrayList<>(iterations.size());
 		List<Long> deletedTargetIds = new ArrayList<>(targetIds.size());
 
 		for (Iteration iteration : iterations) {
@@ -499,35 +502,31 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 
 				try {
 					PermissionsUtils.checkPermission(permissionEvaluationService, new SecurityCheckableObject(iteration, EXTENDED_DELETE));
-					registerIterationDeletion(iteration, iterationsToBeDeleted, deletedTargetIds);
+					deletedTargetIds.add(iteration.getId());
 				} catch (AccessDeniedException exception) { // NOSONAR : this exception is part of the nominal use case
 					// Apparently, we don't wanna do anything, not even log something.
 				}
 			} else {
-				registerIterationDeletion(iteration, iterationsToBeDeleted, deletedTargetIds);
+				deletedTargetIds.add(iteration.getId());
 			}
 		}
 
+		// the executions are left to the background purge, the iterations are loaded again without them
+		tombstoneExecutions(purgeQueue.findExecutionIdsByIterationIds(deletedTargetIds));
+
+		List<Iteration> iterationsToBeDeleted = iterationDao.findAllByIds(deletedTargetIds);
+		for (Iteration iteration : iterationsToBeDeleted) {
+			iteration.getCampaign().removeIteration(iteration);
+		}
+
 		doDeleteIterations(iterationsToBeDeleted);
 
 		OperationReport report = new OperationReport();
 		report.addRemoved(deletedTargetIds, "iteration");
 
-		Set<Campaign> campaignToUpdate = new HashSet<>();
-		for (Iteration iteration : iterations) {
-			campaignToUpdate.add(iteration.getCampaign());
-		}
-
 		return report;
 	}
 
-	private void registerIterationDeletion(Iteration iteration, List<Iteration> iterationsToBeDeleted, List<Long> deletedTargetIds) {
-		Campaign camp = iteration.getCampaign();
-		camp.removeIteration(iteration);
-		iterationsToBeDeleted.add(iteration);
-		deletedTargetIds.add(iteration.getId());
-	}
-
 	private void doDeleteSuites(Collection<TestSuite> testSuites) {
 		List<ExternalContentCoordinates> pairContentIDListIDS = new ArrayList<>();
 		for (TestSuite testSuite : testSuites) {
@@ -570,40 +569,37 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 	}
 
 
+	/*
+	 * The executions are only tombstoned here, their rows are deleted later on by the background purge (see
+	 * ExecutionPurgeQueue). The status of each test plan item and test suite is computed once.
+	 */
 	@Override
 	public void bulkDeleteExecutions(List<Long> executionIds) {
-		List<ExternalContentCoordinates> pairContentIDListIDSteps = new ArrayList<>();
-		List<ExternalContentCoordinates> pairContentIDListIDExec = new ArrayList<>();
-
 		List<List<Long>> executionIdPartitions = Lists.partition(executionIds, BIND_VARIABLES_LIMIT);
 
 		Set<Long> testSuiteIds = new HashSet<>();
-		Set<Long>  itpiIds = new HashSet<>();
 
 		executionIdPartitions.forEach(executionIdPartition -> {
 			testSuiteIds.addAll(
 				suiteDao.findAllIdsByExecutionIds(executionIdPartition));
 
-			pairContentIDListIDSteps.addAll(
-				deleteExecSteps(executionIdPartition));
-			pairContentIDListIDExec.addAll(
-				attachmentManager.getListPairContentIDListIDForExecutionIds(executionIdPartition));
-
-
+			Set<IterationTestPlanItem> testPlanItems = new HashSet<>();
 			List<Execution> executions = executionDao.findAllWithTestPlanWithExecutionsItemByIds(executionIdPartition);
 			for (Execution execution : executions) {
-				// a direct deleteAll seems not possible because of the unmodifiable view EXECUTION_ISSUES_CLOSURE
 				IterationTestPlanItem testPlanItem = execution.getTestPlan();
-				deletionDao.removeEntity(execution);
-				testPlanItem.getExecutions().removeIf(
-					currentExec -> currentExec.getId().equals(execution.getId()));
-				testPlanItem.updateExecutionStatus();
+				if (testPlanItem != null) {
+					testPlanItem.getExecutions().removeIf(
+						currentExec -> currentExec.getId().equals(execution.getId()));
+					testPlanItems.add(testPlanItem);
+				}
 			}
 
-			denormalizedFieldValueService.deleteAllDenormalizedFieldValues(DenormalizedFieldHolderType.EXECUTION, executionIdPartition);
-			customValueService.deleteAllCustomFieldValues(BindableEntity.EXECUTION, executionIdPartition);
+			for (IterationTestPlanItem testPlanItem : testPlanItems) {
+				testPlanItem.updateExecutionStatus();
+			}
 
 			entityManager.flush();
+			purgeQueue.enqueue(executionIdPartition);
 			entityManager.clear();
 		});
 
@@ -612,12 +608,21 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 			customTestSuiteModificationService.updateExecutionStatus(testSuite);
 		}
 
-		List<ExternalContentCoordinates> attachmentContentToDelete =
-			Stream.concat(
-				pairContentIDListIDExec.stream(),
-				pairContentIDListIDSteps.stream())
-				.collect(Collectors.toList());
-		attachmentManager.deleteContents(attachmentContentToDelete);
+		purgeService.startPurge();
+	}
+
+	/*
+	 * Detaches the given executions from their test plan items and queues them for the background purge. The
+	 * persistence context is cleared, so that the test plan items are loaded again without these executions.
+	 */
+	private void tombstoneExecutions(List<Long> executionIds) {
+		if (executionIds.isEmpty()) {
+			return;
+		}
+		entityManager.flush();
+		purgeQueue.enqueue(executionIds);
+		entityManager.clear();
+		purgeService.startPurge();
 	}
 
 	/*
@@ -748,30 +753,6 @@ public class CampaignDeletionHandlerImpl extends AbstractNodeDeletionHandler<Cam
 		return pairContentIDListID;
 	}
 
-	/**
-	 * Bulk delete ExecutionSteps given a List of Execution ids.
-	 * @param executionsIds ids of all Executions which ExecutionSteps must be deleted.
-	 * @return a List of ExternalContentCoordinates of all Attachments that were attached to the deleted ExecutionSteps
-	 */
-	private List<ExternalContentCoordinates> deleteExecSteps(List<Long> executionsIds) {
-		List<ExternalContentCoordinates> pairContentIDListID = new ArrayList<>();
-		List<Long> executionStepIds = executionStepDao.findAllIdsByExecutionIds(executionsIds);
-		List<List<Long>> executionStepIdPartitions = Lists.partition(executionStepIds, BIND_VARIABLES_LIMIT);
-		executionStepIdPartitions.forEach(executionStepIdPartition -> {
-			//saving path Content for FileSystem Repository
-			if (!executionStepIdPartition.isEmpty()) {
-				pairContentIDListID.addAll(attachmentManager.getListPairContentIDListIDForExecutionStepsIds(executionsIds));
-			// now we can delete them
-			denormalizedFieldValueService.deleteAllDenormalizedFieldValues(DenormalizedFieldHolderType.EXECUTION_STEP, executionStepIdPartition);
-			customValueService.deleteAllCustomFieldValues(BindableEntity.EXECUTION_STEP, executionStepIdPartition);
-			executionStepDao.deleteAllByIds(executionStepIdPartition);
-			entityManager.flush();
-			entityManager.clear();
-			}
-		});
-		return pairContentIDListID;
-	}
-
 	private void deleteAutomatedExecutionExtender(Execution execution) {
 		if (execution.getAutomatedExecutionExtender() != null) {
 			AutomatedExecutionExtender extender = execution.getAutomatedExecutionExtender();
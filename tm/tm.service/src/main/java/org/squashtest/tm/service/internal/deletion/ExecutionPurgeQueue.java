@@ -0,0 +1,237 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.deletion;
+
+import com.google.common.collect.Lists;
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.attachment.ExternalContentCoordinates;
+import org.squashtest.tm.domain.customfield.BindableEntity;
+import org.squashtest.tm.domain.denormalizedfield.DenormalizedFieldHolderType;
+import org.squashtest.tm.service.attachment.AttachmentManagerService;
+import org.squashtest.tm.service.internal.customfield.PrivateCustomFieldValueService;
+import org.squashtest.tm.service.internal.denormalizedField.PrivateDenormalizedFieldValueService;
+
+import javax.inject.Inject;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import static org.jooq.impl.DSL.val;
+import static org.squashtest.tm.jooq.domain.Tables.AUTOMATED_EXECUTION_EXTENDER;
+import static org.squashtest.tm.jooq.domain.Tables.CAMPAIGN_ITERATION;
+import static org.squashtest.tm.jooq.domain.Tables.EXECUTION;
+import static org.squashtest.tm.jooq.domain.Tables.EXECUTION_EXECUTION_STEPS;
+import static org.squashtest.tm.jooq.domain.Tables.EXECUTION_PURGE_QUEUE;
+import static org.squashtest.tm.jooq.domain.Tables.EXECUTION_STEP;
+import static org.squashtest.tm.jooq.domain.Tables.ISSUE;
+import static org.squashtest.tm.jooq.domain.Tables.ISSUE_LIST;
+import static org.squashtest.tm.jooq.domain.Tables.ITEM_TEST_PLAN_EXECUTION;
+import static org.squashtest.tm.jooq.domain.Tables.ITEM_TEST_PLAN_LIST;
+import static org.squashtest.tm.jooq.domain.Tables.KEYWORD_EXECUTION;
+import static org.squashtest.tm.jooq.domain.Tables.SCRIPTED_EXECUTION;
+
+/**
+ * <p>Set based deletion of the executions, in two stages.</p>
+ *
+ * <p>
+ * {@link #enqueue(Collection)} tombstones the executions within the transaction of the user : they are detached from
+ * their test plan items and from their test case, so that they vanish from the workspaces, the searches and the
+ * execution histories, and their ids are written in the table EXECUTION_PURGE_QUEUE.
+ * </p>
+ *
+ * <p>
+ * {@link #purgeNextBatch(int)} later deletes a batch of the queued executions along with their steps, issues,
+ * automated extenders, custom and denormalized field values and attachments. It is run in the background by
+ * {@link ExecutionPurgeServiceImpl}.
+ * </p>
+ */
+@Component
+public class ExecutionPurgeQueue {
+
+	@Inject
+	private DSLContext DSL;
+
+	@Inject
+	private PrivateCustomFieldValueService customValueService;
+
+	@Inject
+	private PrivateDenormalizedFieldValueService denormalizedFieldValueService;
+
+	@Inject
+	private AttachmentManagerService attachmentManager;
+
+	/**
+	 * @param iterationIds ids of iterations
+	 * @return the ids of the executions of the test plans of these iterations
+	 */
+	public List<Long> findExecutionIdsByIterationIds(Collection<Long> iterationIds) {
+		List<Long> executionIds = new ArrayList<>();
+
+		for (List<Long> partition : Lists.partition(new ArrayList<>(iterationIds), CampaignDeletionHandlerImpl.BIND_VARIABLES_LIMIT)) {
+			executionIds.addAll(DSL.select(ITEM_TEST_PLAN_EXECUTION.EXECUTION_ID)
+				.from(ITEM_TEST_PLAN_EXECUTION)
+				.innerJoin(ITEM_TEST_PLAN_LIST).on(ITEM_TEST_PLAN_LIST.ITEM_TEST_PLAN_ID.eq(ITEM_TEST_PLAN_EXECUTION.ITEM_TEST_PLAN_ID))
+				.where(ITEM_TEST_PLAN_LIST.ITERATION_ID.in(partition))
+				.fetch(ITEM_TEST_PLAN_EXECUTION.EXECUTION_ID));
+		}
+
+		return executionIds;
+	}
+
+	/**
+	 * @param campaignIds ids of campaign library nodes, the folders are ignored
+	 * @return the ids of the iterations of these campaigns
+	 */
+	public List<Long> findIterationIdsByCampaignIds(Collection<Long> campaignIds) {
+		List<Long> iterationIds = new ArrayList<>();
+
+		for (List<Long> partition : Lists.partition(new ArrayList<>(campaignIds), CampaignDeletionHandlerImpl.BIND_VARIABLES_LIMIT)) {
+			iterationIds.addAll(DSL.select(CAMPAIGN_ITERATION.ITERATION_ID)
+				.from(CAMPAIGN_ITERATION)
+				.where(CAMPAIGN_ITERATION.CAMPAIGN_ID.in(partition))
+				.fetch(CAMPAIGN_ITERATION.ITERATION_ID));
+		}
+
+		return iterationIds;
+	}
+
+	/**
+	 * Tombstones the given executions. The persistence context must be flushed beforehand and cleared afterwards,
+	 * because the test plan items it holds may still list these executions.
+	 *
+	 * @param executionIds ids of the executions to delete
+	 */
+	public void enqueue(Collection<Long> executionIds) {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		for (List<Long> partition : Lists.partition(new ArrayList<>(executionIds), CampaignDeletionHandlerImpl.BIND_VARIABLES_LIMIT)) {
+			DSL.deleteFrom(ITEM_TEST_PLAN_EXECUTION)
+				.where(ITEM_TEST_PLAN_EXECUTION.EXECUTION_ID.in(partition))
+				.execute();
+
+			DSL.update(EXECUTION)
+				.set(EXECUTION.TCLN_ID, (Long) null)
+				.where(EXECUTION.EXECUTION_ID.in(partition))
+				.execute();
+
+			DSL.insertInto(EXECUTION_PURGE_QUEUE, EXECUTION_PURGE_QUEUE.EXECUTION_ID, EXECUTION_PURGE_QUEUE.QUEUED_ON)
+				.select(DSL.select(EXECUTION.EXECUTION_ID, val(now))
+					.from(EXECUTION)
+					.where(EXECUTION.EXECUTION_ID.in(partition))
+					.andNotExists(DSL.selectOne()
+						.from(EXECUTION_PURGE_QUEUE)
+						.where(EXECUTION_PURGE_QUEUE.EXECUTION_ID.eq(EXECUTION.EXECUTION_ID))))
+				.execute();
+		}
+	}
+
+	/**
+	 * @return the number of executions waiting to be purged
+	 */
+	public int countPending() {
+		return DSL.fetchCount(EXECUTION_PURGE_QUEUE);
+	}
+
+	/**
+	 * Deletes the oldest queued executions. Must be run within a transaction.
+	 *
+	 * @param batchSize maximum number of executions to delete
+	 * @return the number of executions deleted, 0 when the queue is empty
+	 */
+	public int purgeNextBatch(int batchSize) {
+		List<Long> executionIds = DSL.select(EXECUTION_PURGE_QUEUE.EXECUTION_ID)
+			.from(EXECUTION_PURGE_QUEUE)
+			.orderBy(EXECUTION_PURGE_QUEUE.QUEUED_ON, EXECUTION_PURGE_QUEUE.EXECUTION_ID)
+			.limit(batchSize)
+			.fetch(EXECUTION_PURGE_QUEUE.EXECUTION_ID);
+
+		if (executionIds.isEmpty()) {
+			return 0;
+		}
+
+		List<Long> stepIds = DSL.select(EXECUTION_EXECUTION_STEPS.EXECUTION_STEP_ID)
+			.from(EXECUTION_EXECUTION_STEPS)
+			.where(EXECUTION_EXECUTION_STEPS.EXECUTION_ID.in(executionIds))
+			.fetch(EXECUTION_EXECUTION_STEPS.EXECUTION_STEP_ID);
+
+		List<Long> attachmentListIds = new ArrayList<>();
+		List<Long> issueListIds = new ArrayList<>();
+
+		DSL.select(EXECUTION.ATTACHMENT_LIST_ID, EXECUTION.ISSUE_LIST_ID)
+			.from(EXECUTION)
+			.where(EXECUTION.EXECUTION_ID.in(executionIds))
+			.forEach(row -> {
+				attachmentListIds.add(row.value1());
+				issueListIds.add(row.value2());
+			});
+
+		List<ExternalContentCoordinates> contents = new ArrayList<>(
+			attachmentManager.getListPairContentIDListIDForExecutionIds(executionIds));
+
+		if (!stepIds.isEmpty()) {
+			DSL.select(EXECUTION_STEP.ATTACHMENT_LIST_ID, EXECUTION_STEP.ISSUE_LIST_ID)
+				.from(EXECUTION_STEP)
+				.where(EXECUTION_STEP.EXECUTION_STEP_ID.in(stepIds))
+				.forEach(row -> {
+					attachmentListIds.add(row.value1());
+					issueListIds.add(row.value2());
+				});
+
+			contents.addAll(attachmentManager.getListPairContentIDListIDForExecutionStepsIds(stepIds));
+
+			denormalizedFieldValueService.deleteAllDenormalizedFieldValues(DenormalizedFieldHolderType.EXECUTION_STEP, stepIds);
+			customValueService.deleteAllCustomFieldValues(BindableEntity.EXECUTION_STEP, stepIds);
+		}
+
+		denormalizedFieldValueService.deleteAllDenormalizedFieldValues(DenormalizedFieldHolderType.EXECUTION, executionIds);
+		customValueService.deleteAllCustomFieldValues(BindableEntity.EXECUTION, executionIds);
+
+		issueListIds.removeIf(Objects::isNull);
+
+		// children first, the foreign keys do not cascade
+		if (!issueListIds.isEmpty()) {
+			DSL.deleteFrom(ISSUE).where(ISSUE.ISSUE_LIST_ID.in(issueListIds)).execute();
+		}
+		DSL.deleteFrom(EXECUTION_EXECUTION_STEPS).where(EXECUTION_EXECUTION_STEPS.EXECUTION_ID.in(executionIds)).execute();
+		if (!stepIds.isEmpty()) {
+			DSL.deleteFrom(EXECUTION_STEP).where(EXECUTION_STEP.EXECUTION_STEP_ID.in(stepIds)).execute();
+		}
+		DSL.deleteFrom(AUTOMATED_EXECUTION_EXTENDER).where(AUTOMATED_EXECUTION_EXTENDER.MASTER_EXECUTION_ID.in(executionIds)).execute();
+		DSL.deleteFrom(KEYWORD_EXECUTION).where(KEYWORD_EXECUTION.EXECUTION_ID.in(executionIds)).execute();
+		DSL.deleteFrom(SCRIPTED_EXECUTION).where(SCRIPTED_EXECUTION.EXECUTION_ID.in(executionIds)).execute();
+		DSL.deleteFrom(ITEM_TEST_PLAN_EXECUTION).where(ITEM_TEST_PLAN_EXECUTION.EXECUTION_ID.in(executionIds)).execute();
+		DSL.deleteFrom(EXECUTION).where(EXECUTION.EXECUTION_ID.in(executionIds)).execute();
+		if (!issueListIds.isEmpty()) {
+			DSL.deleteFrom(ISSUE_LIST).where(ISSUE_LIST.ISSUE_LIST_ID.in(issueListIds)).execute();
+		}
+
+		attachmentManager.removeAttachmentsAndLists(attachmentListIds);
+		attachmentManager.deleteContents(contents);
+
+		DSL.deleteFrom(EXECUTION_PURGE_QUEUE).where(EXECUTION_PURGE_QUEUE.EXECUTION_ID.in(executionIds)).execute();
+
+		return executionIds.size();
+	}
+
+}
@@ -0,0 +1,153 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.deletion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.squashtest.tm.service.deletion.ExecutionPurgeProgress;
+import org.squashtest.tm.service.deletion.ExecutionPurgeService;
+import org.squashtest.tm.service.internal.repository.AutomatedTestDao;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs at most one purge at a time, on the task executor. The purge deletes the queued executions by batches of
+ * {@link #batchSize} until the queue is empty.
+ */
+@Service("squashtest.tm.service.ExecutionPurgeService")
+public class ExecutionPurgeServiceImpl implements ExecutionPurgeService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionPurgeServiceImpl.class);
+
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final AtomicLong purgedCount = new AtomicLong();
+
+	private volatile String failureMessage;
+
+	@Inject
+	private ExecutionPurgeQueue purgeQueue;
+
+	@Inject
+	private AutomatedTestDao automatedTestDao;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private TaskExecutor taskExecutor;
+
+	@Inject
+	@Named("squashtest.tm.service.ThreadPoolTaskScheduler")
+	private TaskScheduler taskScheduler;
+
+	// number of executions deleted in each transaction
+	@Value("${squashtm.execution-purge.batch-size:100}")
+	private int batchSize;
+
+	// delay between two scheduled purges, in seconds
+	@Value("${squashtm.execution-purge.delay:300}")
+	private long delay;
+
+	@PostConstruct
+	public void schedulePurges() {
+		long delayMillis = delay * MILLIS_PER_SECOND;
+		taskScheduler.scheduleWithFixedDelay(this::submit, new Date(System.currentTimeMillis() + delayMillis), delayMillis);
+	}
+
+	@Override
+	public void startPurge() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					submit();
+				}
+			});
+		} else {
+			submit();
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ExecutionPurgeProgress getProgress() {
+		return new ExecutionPurgeProgress(running.get(), purgeQueue.countPending(), purgedCount.get(), failureMessage);
+	}
+
+	private void submit() {
+		if (running.compareAndSet(false, true)) {
+			taskExecutor.execute(this::purge);
+		}
+	}
+
+	/*
+	 * Each batch is committed on its own : a failure or a shutdown only loses the batch in progress, which the next
+	 * purge will delete again.
+	 */
+	private void purge() {
+		try {
+			TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+			long start = System.currentTimeMillis();
+			long total = 0;
+			int purged;
+
+			do {
+				purged = transaction.execute(status -> purgeQueue.purgeNextBatch(batchSize));
+				total += purged;
+				purgedCount.addAndGet(purged);
+			} while (purged > 0);
+
+			if (total > 0) {
+				transaction.execute(status -> {
+					automatedTestDao.pruneOrphans();
+					return null;
+				});
+				LOGGER.info("Purged {} deleted executions in {} ms", total, System.currentTimeMillis() - start);
+			}
+			failureMessage = null;
+
+		} catch (RuntimeException e) {
+			LOGGER.error("Failed to purge the deleted executions", e);
+			failureMessage = e.getMessage();
+
+		} finally {
+			running.set(false);
+		}
+	}
+
+}
@@ -53,6 +53,7 @@ import org.squashtest.tm.service.internal.repository.FolderDao;
 import org.squashtest.tm.service.internal.repository.TestCaseDao;
 import org.squashtest.tm.service.internal.repository.TestCaseDeletionDao;
 import org.squashtest.tm.service.internal.repository.TestCaseFolderDao;
+import org.squashtest.tm.service.internal.testcase.TestCaseCallGraphIndex;
 import org.squashtest.tm.service.internal.testcase.TestCaseCallTreeFinder;
 import org.squashtest.tm.service.internal.testcase.TestCaseNodeDeletionHandler;
 import org.squashtest.tm.service.milestone.ActiveMilestoneHolder;
@@ -97,6 +98,9 @@ AbstractNodeDeletionHandler<TestCaseLibraryNode, TestCaseFolder> implements Test
 	@Inject
 	private TestCaseCallTreeFinder calltreeFinder;
 
+	@Inject
+	private TestCaseCallGraphIndex callGraphIndex;
+
 	@Inject
 	private AutomatedTestDao autoTestDao;
 
@@ -295,6 +299,7 @@ AbstractNodeDeletionHandler<TestCaseLibraryNode, TestCaseFolder> implements Test
 
 			customValueService.deleteAllCustomFieldValues(BindableEntity.TEST_STEP, stepIds);
 			deletionDao.removeAllSteps(stepIds);
+			callGraphIndex.callsChanged();
 			attachmentManager.removeAttachmentsAndLists(testStepAttachmentIds);
 
 			customValueService.deleteAllCustomFieldValues(BindableEntity.TESTCASE_FOLDER, folderIds);
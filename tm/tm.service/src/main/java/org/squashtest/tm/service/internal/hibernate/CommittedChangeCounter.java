@@ -0,0 +1,98 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.hibernate;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Counts the entity insertions, updates and deletions once their transaction is committed. The count is a cheap
+ * "data version" : whatever was computed from the database while it had a given value may be reused as long as it
+ * does not change.</p>
+ *
+ * <p>Changes made through bulk HQL, jOOQ or plain SQL are not seen, so consumers should not rely on it alone and give
+ * what they cache a time to live.</p>
+ */
+@SuppressWarnings("serial")
+@Component
+public class CommittedChangeCounter implements PostInsertEventListener, PostUpdateEventListener,
+	PostDeleteEventListener {
+
+	private final AtomicLong version = new AtomicLong();
+
+	@Inject
+	private transient EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+
+		registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+		registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+		registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+	}
+
+	/**
+	 * @return the number of entity changes committed since startup
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		version.incrementAndGet();
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		version.incrementAndGet();
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * The post-commit listeners are only called when this returns true.
+	 */
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return true;
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.hibernate;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counts the SQL statements Hibernate prepares, overall and for the request processed by the current thread.</p>
+ *
+ * <p>
+ * The per-request count is only active between {@link #openRequestScope()} and {@link #closeRequestScope()}, which the
+ * web layer calls around each http request. Statements issued through jOOQ or plain JDBC are not counted.
+ * </p>
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+	private final ThreadLocal<long[]> requestCount = new ThreadLocal<>();
+
+	private final LongAdder totalCount = new LongAdder();
+
+	/**
+	 * Counts the statement and leaves it untouched.
+	 */
+	@Override
+	public String inspect(String sql) {
+		totalCount.increment();
+
+		long[] count = requestCount.get();
+		if (count != null) {
+			count[0]++;
+		}
+
+		return sql;
+	}
+
+	/**
+	 * Starts counting the statements prepared by the current thread.
+	 */
+	public void openRequestScope() {
+		requestCount.set(new long[1]);
+	}
+
+	/**
+	 * Stops counting the statements prepared by the current thread.
+	 *
+	 * @return the number of statements prepared since {@link #openRequestScope()}, or 0 when no scope was open
+	 */
+	public long closeRequestScope() {
+		long[] count = requestCount.get();
+		requestCount.remove();
+		return count == null ? 0 : count[0];
+	}
+
+	/**
+	 * @return the number of statements prepared by the current thread since {@link #openRequestScope()}, or 0 when
+	 * no scope is open
+	 */
+	public long getRequestCount() {
+		long[] count = requestCount.get();
+		return count == null ? 0 : count[0];
+	}
+
+	/**
+	 * @return the number of statements prepared since the application started
+	 */
+	public long getTotalCount() {
+		return totalCount.sum();
+	}
+
+}
@@ -29,6 +29,7 @@ import org.squashtest.tm.domain.project.GenericProject;
 import org.squashtest.tm.domain.project.Project;
 import org.squashtest.tm.exception.project.LockedParameterException;
 import org.squashtest.tm.service.infolist.InfoListBindingManagerService;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.project.ProjectHelper;
 import org.squashtest.tm.service.internal.repository.GenericProjectDao;
 import org.squashtest.tm.service.internal.repository.InfoListDao;
@@ -49,6 +50,8 @@ public class InfoListBindingManagerServiceImpl implements InfoListBindingManager
 	private ProjectDao projectDao;
 	@Inject
 	private InfoListDao infoListDao;
+	@Inject
+	private BindingCache bindingCache;
 
 	@Override
 	@PreAuthorize(HAS_ROLE_ADMIN_OR_PROJECT_MANAGER)
@@ -69,6 +72,8 @@ public class InfoListBindingManagerServiceImpl implements InfoListBindingManager
 				infoListDao.setDefaultCategoryForProject(boundProject.getId(), defaultItem);
 			}
 		}
+
+		bindingCache.evictInfoListItems();
 	}
 
 	@Override
@@ -89,6 +94,8 @@ public class InfoListBindingManagerServiceImpl implements InfoListBindingManager
 				infoListDao.setDefaultNatureForProject(boundProject.getId(), defaultItem);
 			}
 		}
+
+		bindingCache.evictInfoListItems();
 	}
 
 	@Override
@@ -109,6 +116,8 @@ public class InfoListBindingManagerServiceImpl implements InfoListBindingManager
 				infoListDao.setDefaultTypeForProject(boundProject.getId(), defaultItem);
 			}
 		}
+
+		bindingCache.evictInfoListItems();
 	}
 
 	private void checkIfParameterIsModifiable(GenericProject genericProject) {
@@ -28,10 +28,9 @@ import org.squashtest.tm.domain.infolist.ListItemReference;
 import org.squashtest.tm.domain.infolist.SystemInfoListCode;
 import org.squashtest.tm.domain.infolist.SystemInfoListItemCode;
 import org.squashtest.tm.domain.infolist.SystemListItem;
-import org.squashtest.tm.service.annotation.CachableType;
-import org.squashtest.tm.service.annotation.CacheResult;
 import org.squashtest.tm.service.infolist.InfoListItemManagerService;
 import org.squashtest.tm.service.infolist.InfoListManagerService;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.repository.InfoListItemDao;
 
 import javax.inject.Inject;
@@ -44,6 +43,9 @@ public class InfoListItemManagerServiceImpl implements InfoListItemManagerServic
 	@Inject
 	private InfoListItemDao itemDao;
 
+	@Inject
+	private BindingCache bindingCache;
+
 
 	@Inject
 	private InfoListManagerService infoListService;
@@ -65,6 +67,7 @@ public class InfoListItemManagerServiceImpl implements InfoListItemManagerServic
 		InfoListItem item = itemDao.getOne(infoListItemId);
 		SystemInfoListItemCode.verifyModificationPermission(item);
 		item.setCode(newCode);
+		bindingCache.evictInfoListItems();
 	}
 
 	@Override
@@ -116,6 +119,7 @@ public class InfoListItemManagerServiceImpl implements InfoListItemManagerServic
 		item.setInfoList(infoList);
 		itemDao.save(item);
 		infoList.addItem(item);
+		bindingCache.evictInfoListItems();
 	}
 
 	@Override
@@ -154,21 +158,18 @@ public class InfoListItemManagerServiceImpl implements InfoListItemManagerServic
 	}
 
 	@Override
-	@CacheResult(type = CachableType.CATEGORY)
 	public boolean isCategoryConsistent(long projectId, String itemCode) {
-		return itemDao.isCategoryConsistent(projectId, itemCode);
+		return bindingCache.isInfoListItemConsistent(SystemInfoListCode.REQUIREMENT_CATEGORY, projectId, itemCode);
 	}
 
 	@Override
-	@CacheResult(type = CachableType.NATURE)
 	public boolean isNatureConsistent(long projectId, String itemCode) {
-		return itemDao.isNatureConsistent(projectId, itemCode);
+		return bindingCache.isInfoListItemConsistent(SystemInfoListCode.TEST_CASE_NATURE, projectId, itemCode);
 	}
 
 	@Override
-	@CacheResult(type = CachableType.TYPE)
 	public boolean isTypeConsistent(long projectId, String itemCode) {
-		return itemDao.isTypeConsistent(projectId, itemCode);
+		return bindingCache.isInfoListItemConsistent(SystemInfoListCode.TEST_CASE_TYPE, projectId, itemCode);
 	}
 
 	@Override
@@ -190,6 +191,7 @@ public class InfoListItemManagerServiceImpl implements InfoListItemManagerServic
 		infoList.removeItem(item);
 		itemDao.removeInfoListItem(infoListItemId, defaultItem);
 		itemDao.delete(item);
+		bindingCache.evictInfoListItems();
 	}
 
 }
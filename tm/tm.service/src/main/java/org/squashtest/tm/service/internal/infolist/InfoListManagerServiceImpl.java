@@ -29,9 +29,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.squashtest.tm.domain.infolist.InfoList;
 import org.squashtest.tm.domain.infolist.InfoListItem;
 import org.squashtest.tm.domain.infolist.SystemInfoListCode;
+import org.squashtest.tm.domain.project.GenericProject;
 import org.squashtest.tm.exception.customfield.CodeAlreadyExistsException;
+import org.squashtest.tm.service.cache.SecondLevelCacheService;
 import org.squashtest.tm.service.infolist.InfoListManagerService;
 import org.squashtest.tm.service.infolist.IsBoundInfoListAdapter;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.repository.InfoListDao;
 import org.squashtest.tm.service.internal.repository.InfoListItemDao;
 
@@ -60,6 +63,12 @@ public class InfoListManagerServiceImpl implements InfoListManagerService {
 	@Inject
 	private InfoListItemDao infoListItemDao;
 
+	@Inject
+	private SecondLevelCacheService secondLevelCacheService;
+
+	@Inject
+	private BindingCache bindingCache;
+
 	@Override
 	public InfoList findById(Long id) {
 		return infoListDao.getOne(id);
@@ -140,6 +149,10 @@ public class InfoListManagerServiceImpl implements InfoListManagerService {
 		}
 
 		infoListDao.delete(infoList);
+
+		// projects were rebound to the default lists behind the session's back
+		secondLevelCacheService.evict(InfoList.class, InfoListItem.class, GenericProject.class);
+		bindingCache.evictInfoListItems();
 	}
 
 	@Override
@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.library;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PostFilter;
@@ -40,6 +41,7 @@ import org.squashtest.tm.service.internal.customfield.PrivateCustomFieldValueSer
 import org.squashtest.tm.service.internal.repository.FolderDao;
 import org.squashtest.tm.service.internal.repository.LibraryDao;
 import org.squashtest.tm.service.internal.repository.LibraryNodeDao;
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache;
 import org.squashtest.tm.service.library.LibraryNavigationService;
 import org.squashtest.tm.service.security.PermissionEvaluationService;
 import org.squashtest.tm.service.security.PermissionsUtils;
@@ -116,6 +118,8 @@ public abstract class AbstractLibraryNavigationService<LIBRARY extends Library<N
 	private Provider<FirstLayerTreeNodeMover> firstLayerMoverProvider;
 	@Inject
 	private Provider<NextLayersTreeNodeMover> nextLayersMoverProvider;
+	@Inject
+	private PermissionDecisionCache permissionDecisionCache;
 
 	public AbstractLibraryNavigationService() {
 		super();
@@ -359,6 +363,7 @@ public abstract class AbstractLibraryNavigationService<LIBRARY extends Library<N
 	}
 
 	@Override
+	@Timed("squash.deletion")
 	public OperationReport deleteNodes(List<Long> targetIds) {
 
 		// check. Note : we wont recursively check for the whole hierarchy as it's supposed to have the same
@@ -381,6 +386,8 @@ public abstract class AbstractLibraryNavigationService<LIBRARY extends Library<N
 	protected void makeMoverStrategy(PasteStrategy<?, ?> pasteStrategy) {
 		pasteStrategy.setFirstLayerOperationFactory(firstLayerMoverProvider);
 		pasteStrategy.setNextLayersOperationFactory(nextLayersMoverProvider);
+		// moved nodes may inherit their acls from another library : forget the decisions once the move is committed
+		permissionDecisionCache.evictAllOnCompletion();
 	}
 
 	protected void checkPermission(SecurityCheckableObject... checkableObjects) {
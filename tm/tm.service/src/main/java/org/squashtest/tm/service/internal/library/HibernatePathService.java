@@ -20,17 +20,22 @@
  */
 package org.squashtest.tm.service.internal.library;
 
+import org.hibernate.FlushMode;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache.Library;
 import org.squashtest.tm.service.internal.repository.hibernate.TestCaseDaoImpl;
 
+import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for computing nodes paths. Factored out of {@link TestCaseDaoImpl}
@@ -61,6 +66,9 @@ public class HibernatePathService implements PathService {
 	@PersistenceContext
 	private EntityManager em;
 
+	@Inject
+	private LibraryNodePathCache pathCache;
+
 	private Session currentSession() {
 		return em.unwrap(Session.class);
 	}
@@ -70,7 +78,7 @@ public class HibernatePathService implements PathService {
 	 */
 	@Override
 	public String buildTestCasePath(long id) {
-		return buildPath("TestCasePathEdge.findPathById", id);
+		return buildPath(Library.TEST_CASE, "TestCasePathEdge.findPathsByIds", id);
 	}
 
 	/**
@@ -78,33 +86,39 @@ public class HibernatePathService implements PathService {
 	 */
 	@Override
 	public List<String> buildTestCasesPaths(List<Long> ids) {
-		return buildAllPaths("TestCasePathEdge.findPathsByIds", ids);
+		return buildAllPaths(Library.TEST_CASE, "TestCasePathEdge.findPathsByIds", ids);
 	}
 
 	@Override
 	public String buildTestCaseFoldersPath(long id) {
-		return buildPath("TestCasePathEdge.findFoldersPathById", id);
+		List<String> paths = findPathById("TestCasePathEdge.findFoldersPathById", id);
+
+		if (paths.isEmpty()) {
+			return null;
+		}
+
+		return escapePath(paths.get(0));
 	}
 
 	@Override
 	public String buildRequirementPath(long id) {
-		return buildPath("RequirementPathEdge.findPathById", id);
+		return buildPath(Library.REQUIREMENT, "RequirementPathEdge.findPathsByIds", id);
 	}
 
 
 	@Override
 	public List<String> buildRequirementsPaths(List<Long> ids) {
-		return buildAllPaths("RequirementPathEdge.findPathsByIds", ids);
+		return buildAllPaths(Library.REQUIREMENT, "RequirementPathEdge.findPathsByIds", ids);
 	}
 
 	@Override
 	public String buildCampaignPath(long id) {
-		return buildPath("CampaignPathEdge.findPathById", id);
+		return buildPath(Library.CAMPAIGN, "CampaignPathEdge.findPathsByIds", id);
 	}
 
 	@Override
 	public List<String> buildCampaignPaths(List<Long> ids) {
-		return buildAllPaths("CampaignPathEdge.findPathsByIds", ids);
+		return buildAllPaths(Library.CAMPAIGN, "CampaignPathEdge.findPathsByIds", ids);
 	}
 
 
@@ -120,34 +134,37 @@ public class HibernatePathService implements PathService {
 
 	// ************************* private methods *************************************
 
-	private String buildPath(String queryname, long id) {
-		List<String> paths = findPathById(queryname, id);
-
-		if (paths.isEmpty()) {
-			return null;
-		}
-
-		return escapePath(paths.get(0));
+	private String buildPath(Library library, String queryname, long id) {
+		return buildAllPaths(library, queryname, Collections.singletonList(id)).get(0);
 	}
 
 
-	private List<String> buildAllPaths(String queryname, List<Long> ids) {
+	private List<String> buildAllPaths(Library library, String queryname, List<Long> ids) {
 
 		// the DB dies if you query with an empty list argument
 		if (ids.isEmpty()){
 			return new ArrayList<>();
 		}
+
+		// pending renames or moves must be flushed before looking up the index, as a query would
+		Session session = currentSession();
+		if (session.getHibernateFlushMode() != FlushMode.MANUAL) {
+			session.flush();
+		}
+
+		return pathCache.findPaths(library, ids, missingIds -> computePaths(queryname, missingIds));
+	}
+
+	private Map<Long, String> computePaths(String queryname, List<Long> ids) {
 		List<Object[]> paths = findPathsByIds(queryname, ids);
 
-		String[] res = new String[ids.size()];
+		Map<Long, String> res = new HashMap<>(paths.size());
 
 		for (Object[] path : paths) {
-
-			int pos = ids.indexOf(path[0]);
-			res[pos] = escapePath((String) path[1]);
+			res.put((Long) path[0], escapePath((String) path[1]));
 		}
 
-		return Arrays.asList(res);
+		return res;
 	}
 
 
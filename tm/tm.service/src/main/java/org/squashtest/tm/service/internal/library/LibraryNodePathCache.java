@@ -0,0 +1,311 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.library;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <p>Index of the paths of the library nodes, so that they are not computed again from the closure tables on each
+ * call.</p>
+ *
+ * <p>
+ * Both directions are cached in {@value #CACHE_NAME} (see ehcache.xml) : node id to path, and path to node id. Entries
+ * are computed on demand and shared by all the users. Whenever a node is renamed, moved or deleted, or a project is
+ * renamed, {@link LibraryNodePathChangeListener} invokes {@link #nodesChanged()} and the whole index is dropped.
+ * </p>
+ *
+ * <p>
+ * Changes are only visible to the other transactions once committed. Thus a transaction which changed some paths
+ * neither reads nor feeds the index until it ends, and the index is dropped again when it does. A transaction which
+ * created nodes does not feed the path to id direction, for the nodes may vanish on rollback.
+ * </p>
+ */
+@Component
+public class LibraryNodePathCache {
+
+	public static final String CACHE_NAME = "libraryNodePathCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LibraryNodePathCache.class);
+
+	/**
+	 * The kinds of library, ids and paths of different libraries living in different namespaces.
+	 */
+	public enum Library {
+		TEST_CASE, REQUIREMENT, CAMPAIGN
+	}
+
+	private final Cache cache;
+
+	/*
+	 * Incremented on each eviction, so that a path computed before an eviction is not put back in the cache after
+	 * that eviction.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@Inject
+	public LibraryNodePathCache(ObjectProvider<CacheManager> cacheManager) {
+		this(findCache(cacheManager.getIfAvailable(NoOpCacheManager::new)));
+	}
+
+	LibraryNodePathCache(Cache cache) {
+		super();
+		this.cache = cache;
+	}
+
+	private static Cache findCache(CacheManager cacheManager) {
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		return cache != null ? cache : new NoOpCache(CACHE_NAME);
+	}
+
+	/**
+	 * Returns the paths of the given nodes. The paths which are not indexed are computed using the given computation,
+	 * which receives the ids of the missing nodes, each only once, and returns their paths by id.
+	 *
+	 * @param library     the library of the nodes
+	 * @param ids         the ids of the nodes
+	 * @param computation the actual path computation
+	 * @return the paths, in the order of the ids. The path of an unknown node is <code>null</code>
+	 */
+	public List<String> findPaths(Library library, List<Long> ids, Function<List<Long>, Map<Long, String>> computation) {
+		return find(ids, id -> new PathKey(library, id), computation, true);
+	}
+
+	/**
+	 * Returns the ids of the nodes at the given paths. The ids which are not indexed are computed using the given
+	 * computation, which receives the missing paths, each only once, and returns the ids by path.
+	 *
+	 * @param library     the library of the nodes
+	 * @param paths       the paths of the nodes, as given by the user
+	 * @param computation the actual id lookup
+	 * @return the ids, in the order of the paths. The id of an unknown path is <code>null</code>
+	 */
+	public List<Long> findIds(Library library, List<String> paths, Function<List<String>, Map<String, Long>> computation) {
+		TransactionState state = currentState();
+		return find(paths, path -> new IdKey(library, path), computation, state == null || !state.nodesCreated);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <K, V> List<V> find(List<K> keys, Function<K, Object> cacheKey, Function<List<K>, Map<K, V>> computation,
+								boolean mayFeed) {
+		if (keys.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		TransactionState state = currentState();
+		boolean shared = state == null || !state.nodesChanged;
+		long currentGeneration = generation.get();
+
+		Object[] values = new Object[keys.size()];
+		Set<K> missing = new LinkedHashSet<>();
+
+		for (int i = 0; i < values.length; i++) {
+			Cache.ValueWrapper cached = shared ? cache.get(cacheKey.apply(keys.get(i))) : null;
+			if (cached != null) {
+				hits.increment();
+				values[i] = cached.get();
+			} else {
+				missing.add(keys.get(i));
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			misses.add(missing.size());
+			Map<K, V> computed = computation.apply(new ArrayList<>(missing));
+
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == null) {
+					values[i] = computed.get(keys.get(i));
+				}
+			}
+
+			if (shared && mayFeed && currentGeneration == generation.get()) {
+				computed.forEach((key, value) -> {
+					if (value != null) {
+						cache.put(cacheKey.apply(key), value);
+					}
+				});
+			}
+		}
+
+		return (List<V>) Arrays.asList(values);
+	}
+
+	/**
+	 * Notifies that some paths changed : a node was renamed, moved or deleted, or a project was renamed.
+	 */
+	public void nodesChanged() {
+		evictAll();
+
+		TransactionState state = bindState();
+		if (state != null) {
+			state.nodesChanged = true;
+		}
+	}
+
+	/**
+	 * Notifies that some nodes were created.
+	 */
+	public void nodesCreated() {
+		TransactionState state = bindState();
+		if (state != null) {
+			state.nodesCreated = true;
+		}
+	}
+
+	/**
+	 * Forgets every path.
+	 */
+	public void evictAll() {
+		LOGGER.debug("Evicting all library node paths");
+		generation.incrementAndGet();
+		cache.clear();
+	}
+
+	/**
+	 * @return the number of paths or ids served by the index
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of paths or ids which had to be computed
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	private TransactionState currentState() {
+		return (TransactionState) TransactionSynchronizationManager.getResource(this);
+	}
+
+	private TransactionState bindState() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+
+		TransactionState state = currentState();
+
+		if (state == null) {
+			TransactionState newState = new TransactionState();
+			TransactionSynchronizationManager.bindResource(this, newState);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(LibraryNodePathCache.this);
+					if (newState.nodesChanged) {
+						evictAll();
+					}
+				}
+			});
+			state = newState;
+		}
+
+		return state;
+	}
+
+	private static final class TransactionState {
+		private boolean nodesChanged;
+		private boolean nodesCreated;
+	}
+
+	@SuppressWarnings("serial")
+	private static final class PathKey implements Serializable {
+		private final Library library;
+		private final Long id;
+
+		PathKey(Library library, Long id) {
+			this.library = library;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			PathKey other = (PathKey) o;
+			return library == other.library && Objects.equals(id, other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(library, id);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class IdKey implements Serializable {
+		private final Library library;
+		private final String path;
+
+		IdKey(Library library, String path) {
+			this.library = library;
+			this.path = path;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			IdKey other = (IdKey) o;
+			return library == other.library && Objects.equals(path, other.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(library, path);
+		}
+	}
+}
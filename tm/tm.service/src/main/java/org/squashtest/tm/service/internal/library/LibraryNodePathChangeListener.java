@@ -0,0 +1,165 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.library;
+
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.library.GenericLibraryNode;
+import org.squashtest.tm.domain.project.GenericProject;
+import org.squashtest.tm.domain.requirement.RequirementLibraryNode;
+import org.squashtest.tm.domain.resource.Resource;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+
+/**
+ * Watches the flushes of the library nodes and notifies the {@link LibraryNodePathCache} when they may change some
+ * paths. Moves are detected as the removal of a node from the content of its former parent.
+ */
+@SuppressWarnings("serial")
+@Component
+public class LibraryNodePathChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+	PostDeleteEventListener, PreCollectionUpdateEventListener {
+
+	private static final String NAME = "name";
+	private static final String PROJECT = "project";
+	private static final String CURRENT_VERSION = "resource";
+
+	@Inject
+	private transient LibraryNodePathCache pathCache;
+
+	@Inject
+	private transient EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+
+		registry.appendListeners(EventType.POST_INSERT, this);
+		registry.appendListeners(EventType.POST_UPDATE, this);
+		registry.appendListeners(EventType.POST_DELETE, this);
+		registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, this);
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		if (isNode(event.getEntity())) {
+			pathCache.nodesCreated();
+		}
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		Object entity = event.getEntity();
+
+		boolean pathChanged;
+		if (entity instanceof GenericLibraryNode) {
+			pathChanged = isDirty(event, NAME, PROJECT);
+		} else if (entity instanceof RequirementLibraryNode) {
+			pathChanged = isDirty(event, PROJECT, CURRENT_VERSION);
+		} else if (entity instanceof Resource || entity instanceof GenericProject) {
+			pathChanged = isDirty(event, NAME);
+		} else {
+			pathChanged = false;
+		}
+
+		if (pathChanged) {
+			pathCache.nodesChanged();
+		}
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		Object entity = event.getEntity();
+
+		if (isNode(entity) || entity instanceof GenericProject) {
+			pathCache.nodesChanged();
+		}
+	}
+
+	@Override
+	public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+		PersistentCollection collection = event.getCollection();
+		Type elementType = event.getSession().getFactory().getMetamodel()
+			.collectionPersister(collection.getRole())
+			.getElementType();
+
+		if (!elementType.isEntityType()) {
+			return;
+		}
+
+		String elementName = ((EntityType) elementType).getAssociatedEntityName();
+		Collection<?> removed = collection.wasInitialized()
+			? collection.getOrphans(collection.getStoredSnapshot(), elementName)
+			: collection.getQueuedOrphans(elementName);
+
+		if (removed.stream().anyMatch(LibraryNodePathChangeListener::isNode)) {
+			pathCache.nodesChanged();
+		}
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+
+	private static boolean isNode(Object entity) {
+		return entity instanceof GenericLibraryNode || entity instanceof RequirementLibraryNode;
+	}
+
+	private static boolean isDirty(PostUpdateEvent event, String... properties) {
+		int[] dirtyProperties = event.getDirtyProperties();
+
+		// when unknown, anything may have changed
+		if (dirtyProperties == null) {
+			return true;
+		}
+
+		String[] propertyNames = event.getPersister().getPropertyNames();
+		for (int index : dirtyProperties) {
+			for (String property : properties) {
+				if (property.equals(propertyNames[index])) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
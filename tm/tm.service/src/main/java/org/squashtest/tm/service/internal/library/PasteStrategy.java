@@ -34,7 +34,6 @@ import org.squashtest.tm.domain.testcase.TestCaseFactory;
 import org.squashtest.tm.domain.testcase.TestCaseFolder;
 import org.squashtest.tm.domain.testcase.TestCaseImportance;
 import org.squashtest.tm.domain.testcase.TestCaseLibrary;
-import org.squashtest.tm.service.annotation.CacheScope;
 import org.squashtest.tm.service.internal.repository.EntityDao;
 import org.squashtest.tm.service.testcase.TestCaseLibraryNavigationService;
 import org.squashtest.tm.service.testcase.fromreq.ReqToTestCaseConfiguration;
@@ -137,17 +136,14 @@ public class PasteStrategy<CONTAINER extends NodeContainer<NODE>, NODE extends T
 	// ******************* code *****************************
 
 
-	@CacheScope
 	public List<NODE> pasteNodes(long containerId, List<Long> list) {
 		return internalPasteNodes(containerId, list, WHATEVER_POSITION);
 	}
 
-	@CacheScope
 	public List<NODE> pasteReqToTestCasesNodes(long containerId, List<Long> list, ReqToTestCaseConfiguration configuration) {
 		return internalReqToTestCasesPasteNodes(containerId, list, configuration, WHATEVER_POSITION);
 	}
 
-	@CacheScope
 	public List<NODE> pasteNodes(long containerId, List<Long> list, Integer position) {
 		return internalPasteNodes(containerId, list, position);
 	}
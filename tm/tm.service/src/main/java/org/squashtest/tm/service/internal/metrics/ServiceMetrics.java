@@ -0,0 +1,102 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.service.internal.bugtracker.RemoteIssueCache;
+import org.squashtest.tm.service.internal.hibernate.StatementCounter;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache;
+import org.squashtest.tm.service.internal.milestone.MilestoneVisibilityCache;
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the statistics of the application caches and the number of SQL statements prepared by Hibernate. The
+ * meter registry binds it at startup. The statistics of the Hibernate second-level cache are published by the
+ * actuator itself, under the <code>hibernate.*</code> meters.
+ */
+@Component
+public class ServiceMetrics implements MeterBinder {
+
+	private static final String CACHE_GETS = "squash.cache.gets";
+	private static final String CACHE_TAG = "cache";
+	private static final String RESULT_TAG = "result";
+
+	@Inject
+	private PermissionDecisionCache permissionDecisionCache;
+
+	@Inject
+	private LibraryNodePathCache libraryNodePathCache;
+
+	@Inject
+	private MilestoneVisibilityCache milestoneVisibilityCache;
+
+	@Inject
+	private RemoteIssueCache remoteIssueCache;
+
+	@Inject
+	private StatementCounter statementCounter;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bindCacheGets(registry, PermissionDecisionCache.CACHE_NAME, "hit", permissionDecisionCache, PermissionDecisionCache::getSharedHitCount);
+		bindCacheGets(registry, PermissionDecisionCache.CACHE_NAME, "request-hit", permissionDecisionCache, PermissionDecisionCache::getRequestHitCount);
+		bindCacheGets(registry, PermissionDecisionCache.CACHE_NAME, "miss", permissionDecisionCache, PermissionDecisionCache::getMissCount);
+
+		bindCacheGets(registry, LibraryNodePathCache.CACHE_NAME, "hit", libraryNodePathCache, LibraryNodePathCache::getHitCount);
+		bindCacheGets(registry, LibraryNodePathCache.CACHE_NAME, "miss", libraryNodePathCache, LibraryNodePathCache::getMissCount);
+
+		bindCacheGets(registry, MilestoneVisibilityCache.CACHE_NAME, "hit", milestoneVisibilityCache, MilestoneVisibilityCache::getHitCount);
+		bindCacheGets(registry, MilestoneVisibilityCache.CACHE_NAME, "miss", milestoneVisibilityCache, MilestoneVisibilityCache::getMissCount);
+
+		bindCacheGets(registry, RemoteIssueCache.CACHE_NAME, "hit", remoteIssueCache, RemoteIssueCache::getHitCount);
+		bindCacheGets(registry, RemoteIssueCache.CACHE_NAME, "stale-hit", remoteIssueCache, RemoteIssueCache::getStaleHitCount);
+		bindCacheGets(registry, RemoteIssueCache.CACHE_NAME, "miss", remoteIssueCache, RemoteIssueCache::getMissCount);
+
+		FunctionCounter.builder("squash.bugtracker.remote.calls", remoteIssueCache, RemoteIssueCache::getRemoteCallCount)
+			.description("The number of requests sent to the bugtrackers to refresh the issue cache")
+			.register(registry);
+
+		FunctionCounter.builder("squash.bugtracker.remote.time", remoteIssueCache, cache -> cache.getRemoteTotalTime() / (double) TimeUnit.SECONDS.toMillis(1))
+			.description("The total time spent waiting for the bugtrackers to refresh the issue cache")
+			.baseUnit("seconds")
+			.register(registry);
+
+		FunctionCounter.builder("squash.hibernate.statements", statementCounter, StatementCounter::getTotalCount)
+			.description("The number of SQL statements prepared by Hibernate")
+			.register(registry);
+	}
+
+	private static <T> void bindCacheGets(MeterRegistry registry, String cacheName, String result, T cache, ToDoubleFunction<T> count) {
+		FunctionCounter.builder(CACHE_GETS, cache, count)
+			.tag(CACHE_TAG, cacheName)
+			.tag(RESULT_TAG, result)
+			.description("The number of times the cache was queried, by result")
+			.register(registry);
+	}
+
+}
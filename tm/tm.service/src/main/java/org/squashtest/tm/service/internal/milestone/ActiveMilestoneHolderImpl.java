@@ -26,7 +26,6 @@ import org.squashtest.tm.service.milestone.ActiveMilestoneHolder;
 import org.squashtest.tm.service.milestone.MilestoneFinderService;
 
 import javax.inject.Inject;
-import java.util.List;
 import java.util.Optional;
 
 
@@ -46,12 +45,11 @@ public class ActiveMilestoneHolderImpl implements ActiveMilestoneHolder {
 		if (activeMilestoneHolder.get() == null) {
 			final Long milestoneId = activeMilestoneIdHolder.get();			
 			
-			List<Long> milestoneIds = milestoneFinderService.findAllIdsVisibleToCurrentUser();
-			
+			// no need to look up the visible milestones when none is active
 			Milestone milestone = null;
-			if (milestoneIds.contains(milestoneId)){
+			if (milestoneId != null && milestoneFinderService.findAllIdsVisibleToCurrentUser().contains(milestoneId)){
 				milestone = milestoneFinderService.findById(milestoneId);
-			}			
+			}
 			
 			activeMilestoneHolder.set(Optional.ofNullable(milestone));
 		}
@@ -33,6 +33,7 @@ import org.squashtest.tm.domain.project.GenericProject;
 import org.squashtest.tm.domain.requirement.RequirementVersion;
 import org.squashtest.tm.domain.testcase.TestCase;
 import org.squashtest.tm.exception.milestone.MilestoneLabelAlreadyExistsException;
+import org.squashtest.tm.service.cache.SecondLevelCacheService;
 import org.squashtest.tm.service.internal.dto.UserDto;
 import org.squashtest.tm.service.internal.repository.CustomMilestoneDao.HolderConsumer;
 import org.squashtest.tm.service.internal.repository.MilestoneDao;
@@ -78,6 +79,12 @@ private static final String ADMIN_ROLE = "ROLE_ADMIN";
 	@Inject
 	private PermissionEvaluationService permissionEvaluationService;
 
+	@Inject
+	private SecondLevelCacheService secondLevelCacheService;
+
+	@Inject
+	private MilestoneVisibilityCache visibilityCache;
+
 	@PersistenceContext
 	private EntityManager em;
 
@@ -116,6 +123,7 @@ private static final String ADMIN_ROLE = "ROLE_ADMIN";
 			deleteMilestoneBinding(milestone);
 			deleteMilestone(milestone);
 		}
+		secondLevelCacheService.evict(Milestone.class, GenericProject.class);
 	}
 
 	private void deleteMilestoneBinding(final Milestone milestone) {
@@ -222,12 +230,14 @@ private static final String ADMIN_ROLE = "ROLE_ADMIN";
 	@Transactional(readOnly = true)
 	public List<Long> findAllIdsVisibleToCurrentUser() {
 		UserDto user = userService.findCurrentUserDto();
-		if (user.isAdmin()){
-			return milestoneDao.findAllMilestoneIds();
-		}
-		else{
-			return milestoneDao.findMilestoneIdsForUsers(user.getPartyIds());
-		}
+		return visibilityCache.findVisibleMilestoneIds(user.isAdmin(), user.getPartyIds(), () -> {
+			if (user.isAdmin()){
+				return milestoneDao.findAllMilestoneIds();
+			}
+			else{
+				return milestoneDao.findMilestoneIdsForUsers(user.getPartyIds());
+			}
+		});
 	}
 
 	private boolean isInAProjetICanManage(Milestone milestone) {
@@ -511,6 +521,8 @@ private static final String ADMIN_ROLE = "ROLE_ADMIN";
 			milestone.clearPerimeter();
 			session.delete(milestone);
 		}
+
+		secondLevelCacheService.evict(Milestone.class, GenericProject.class);
 	}
 
 	@Override
@@ -0,0 +1,191 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.milestone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache;
+
+import javax.inject.Inject;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <p>Cache of the ids of the milestones visible to a user, which are otherwise looked up through the acls each time a
+ * request resolves the active milestone.</p>
+ *
+ * <p>
+ * Entries are kept in {@value #CACHE_NAME} (see ehcache.xml), keyed on the parties of the user (the user and their
+ * teams) and on the generation of the {@link PermissionDecisionCache}, so that a change of team or of acls leads to a
+ * new key. That generation changes again once the acl change is committed, so ids looked up from the former acls in
+ * the meantime are not served afterwards. Whenever a milestone is created, deleted, bound to or unbound from a project,
+ * {@link MilestoneVisibilityChangeListener} invokes {@link #milestonesChanged()} and the whole cache is dropped.
+ * </p>
+ *
+ * <p>
+ * Changes are only visible to the other transactions once committed. Thus a transaction which changed some milestones
+ * neither reads nor feeds the cache until it ends, and the cache is dropped again when it does.
+ * </p>
+ */
+@Component
+public class MilestoneVisibilityCache {
+
+	public static final String CACHE_NAME = "milestoneVisibilityCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MilestoneVisibilityCache.class);
+
+	private final Cache cache;
+
+	private final PermissionDecisionCache permissionDecisionCache;
+
+	/*
+	 * Incremented on each eviction, so that ids computed before an eviction are not put back in the cache after that
+	 * eviction.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@Inject
+	public MilestoneVisibilityCache(ObjectProvider<CacheManager> cacheManager, PermissionDecisionCache permissionDecisionCache) {
+		this(findCache(cacheManager.getIfAvailable(NoOpCacheManager::new)), permissionDecisionCache);
+	}
+
+	MilestoneVisibilityCache(Cache cache, PermissionDecisionCache permissionDecisionCache) {
+		super();
+		this.cache = cache;
+		this.permissionDecisionCache = permissionDecisionCache;
+	}
+
+	private static Cache findCache(CacheManager cacheManager) {
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		return cache != null ? cache : new NoOpCache(CACHE_NAME);
+	}
+
+	/**
+	 * Returns the ids of the milestones visible to a user. When they are not cached, they are computed using the given
+	 * computation and cached.
+	 *
+	 * @param admin       whether the user is an administrator, who sees every milestone
+	 * @param partyIds    the ids of the user and of their teams
+	 * @param computation the actual lookup
+	 * @return the ids of the visible milestones
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Long> findVisibleMilestoneIds(boolean admin, Collection<Long> partyIds, Supplier<List<Long>> computation) {
+		boolean shared = !changedInCurrentTransaction();
+		long currentGeneration = generation.get();
+		Key key = new Key(admin, partyIds, permissionDecisionCache.getGeneration());
+
+		Cache.ValueWrapper cached = shared ? cache.get(key) : null;
+		if (cached != null) {
+			hits.increment();
+			return new ArrayList<>((List<Long>) cached.get());
+		}
+
+		misses.increment();
+		List<Long> ids = computation.get();
+
+		if (shared && currentGeneration == generation.get()) {
+			cache.put(key, new ArrayList<>(ids));
+		}
+
+		return ids;
+	}
+
+	public void milestonesChanged() {
+		evictAll();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive() && !changedInCurrentTransaction()) {
+			TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(MilestoneVisibilityCache.this);
+					evictAll();
+				}
+			});
+		}
+	}
+
+	public void evictAll() {
+		LOGGER.debug("Evicting all milestone visibilities");
+		generation.incrementAndGet();
+		cache.clear();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	private boolean changedInCurrentTransaction() {
+		return TransactionSynchronizationManager.hasResource(this);
+	}
+
+	@SuppressWarnings("serial")
+	private static final class Key implements Serializable {
+		// administrators all see the same milestones, whatever their teams
+		private final TreeSet<Long> partyIds;
+		private final long aclGeneration;
+
+		private Key(boolean admin, Collection<Long> partyIds, long aclGeneration) {
+			this.partyIds = admin ? null : new TreeSet<>(partyIds);
+			this.aclGeneration = aclGeneration;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key other = (Key) o;
+			return aclGeneration == other.aclGeneration && Objects.equals(partyIds, other.partyIds);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(partyIds, aclGeneration);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.milestone;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.milestone.Milestone;
+import org.squashtest.tm.domain.project.GenericProject;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Watches the flushes of the milestones and of their bindings to projects, and notifies the
+ * {@link MilestoneVisibilityCache} when they may change which milestones a user can see.
+ */
+@SuppressWarnings("serial")
+@Component
+public class MilestoneVisibilityChangeListener implements PostInsertEventListener, PostDeleteEventListener,
+	PreCollectionUpdateEventListener {
+
+	private static final String PROJECT_MILESTONES_ROLE = GenericProject.class.getName() + ".milestones";
+
+	@Inject
+	private transient MilestoneVisibilityCache visibilityCache;
+
+	@Inject
+	private transient EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+
+		registry.appendListeners(EventType.POST_INSERT, this);
+		registry.appendListeners(EventType.POST_DELETE, this);
+		registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, this);
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		if (event.getEntity() instanceof Milestone) {
+			visibilityCache.milestonesChanged();
+		}
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		Object entity = event.getEntity();
+
+		if (entity instanceof Milestone || entity instanceof GenericProject) {
+			visibilityCache.milestonesChanged();
+		}
+	}
+
+	@Override
+	public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+		// the bindings, from either side, and the perimeters
+		if (event.getAffectedOwnerOrNull() instanceof Milestone
+			|| PROJECT_MILESTONES_ROLE.equals(event.getCollection().getRole())) {
+			visibilityCache.milestonesChanged();
+		}
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+}
@@ -53,6 +53,7 @@ import org.squashtest.tm.domain.campaign.CampaignLibrary;
 import org.squashtest.tm.domain.customreport.CustomReportLibrary;
 import org.squashtest.tm.domain.customreport.CustomReportLibraryNode;
 import org.squashtest.tm.domain.customreport.CustomReportTreeDefinition;
+import org.squashtest.tm.domain.customfield.CustomFieldBinding;
 import org.squashtest.tm.domain.execution.ExecutionStatus;
 import org.squashtest.tm.domain.execution.ExecutionStatusReport;
 import org.squashtest.tm.domain.infolist.InfoList;
@@ -83,9 +84,11 @@ import org.squashtest.tm.exception.UnknownEntityException;
 import org.squashtest.tm.exception.project.LockedParameterException;
 import org.squashtest.tm.exception.testautomation.DuplicateTMLabelException;
 import org.squashtest.tm.security.acls.PermissionGroup;
+import org.squashtest.tm.service.cache.SecondLevelCacheService;
 import org.squashtest.tm.service.customfield.CustomFieldBindingModificationService;
 import org.squashtest.tm.service.execution.ExecutionProcessingService;
 import org.squashtest.tm.service.infolist.InfoListFinderService;
+import org.squashtest.tm.service.internal.cache.BindingCache;
 import org.squashtest.tm.service.internal.repository.ActionWordLibraryNodeDao;
 import org.squashtest.tm.service.internal.repository.AutomationRequestDao;
 import org.squashtest.tm.service.internal.repository.BugTrackerBindingDao;
@@ -196,6 +199,10 @@ public class CustomGenericProjectManagerImpl implements CustomGenericProjectMana
 	private AutomationRequestDao automationRequestDao;
 	@Inject
 	private RemoteAutomationRequestExtenderDao remoteAutomationRequestExtenderDao;
+	@Inject
+	private SecondLevelCacheService secondLevelCacheService;
+	@Inject
+	private BindingCache bindingCache;
 
 	@Autowired(required = false)
 	Collection<WorkspaceWizard> plugins = Collections.EMPTY_LIST;
@@ -333,12 +340,14 @@ public class CustomGenericProjectManagerImpl implements CustomGenericProjectMana
 		permissionsManager.copyAssignedUsersFromProjectToTemplate(template, projectId);
 		permissionsManager.removeAllPermissionsFromProject(projectId);
 		objectIdentityService.removeObjectIdentity(projectId, Project.class);
+		secondLevelCacheService.evict(GenericProject.class, CustomFieldBinding.class);
 	}
 
 	@Override
 	@PreAuthorize(HAS_ROLE_ADMIN)
 	public void deleteProject(long projectId) {
 		projectDeletionHandler.deleteProject(projectId);
+		secondLevelCacheService.evict(GenericProject.class, CustomFieldBinding.class);
 	}
 
 	@Override
@@ -1122,6 +1131,7 @@ public class CustomGenericProjectManagerImpl implements CustomGenericProjectMana
 		target.setRequirementCategories(source.getRequirementCategories());
 		target.setTestCaseNatures(source.getTestCaseNatures());
 		target.setTestCaseTypes(source.getTestCaseTypes());
+		bindingCache.evictInfoListItems();
 	}
 
 	private void copyExecutionStatuses(GenericProject target, GenericProject source) {
@@ -27,6 +27,7 @@ import org.springframework.data.repository.query.Param;
 import org.squashtest.tm.domain.attachment.AttachmentContent;
 import org.squashtest.tm.domain.attachment.ExternalContentCoordinates;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -38,6 +39,12 @@ public interface AttachmentContentDao extends JpaRepository<AttachmentContent, L
 	@Query
 	List<ExternalContentCoordinates> getListPairContentIDListIDFromAttachmentLists(@Param("ids") List<Long> attachmentsList);
 
+	/**
+	 * Among the given content hashes, returns those which are still referenced by an attachment.
+	 */
+	@Query
+	Set<String> findReferencedContentHashes(@Param("hashes") Collection<String> contentHashes);
+
 	@Modifying
 	@Query
 	void deleteByIds(@Param("ids") List<Long> attachmentContentIds);
@@ -22,10 +22,12 @@ package org.squashtest.tm.service.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.squashtest.tm.domain.testautomation.AutomatedExecutionExtender;
 import org.squashtest.tm.service.testautomation.AutomatedExecutionSetIdentifier;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -46,4 +48,26 @@ public interface AutomatedExecutionExtenderDao extends JpaRepository<AutomatedEx
 	List<AutomatedExecutionExtender> findAllBySuiteIdAndTestName(@NotNull String suiteId, @NotNull String testName,
 		@NotNull String projectName);
 
+	/**
+	 * Returns the {@link AutomatedExecutionExtender}s of the given ids, along with their executions and test plan
+	 * items.
+	 *
+	 * @param ids
+	 * @return
+	 */
+	@Query
+	List<AutomatedExecutionExtender> findAllWithExecutionByIds(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Returns the {@link AutomatedExecutionExtender}s of the given suites which run a test of one of the given names,
+	 * along with their tests, test automation projects and executions.
+	 *
+	 * @param suiteIds
+	 * @param testNames
+	 * @return
+	 */
+	@Query
+	List<AutomatedExecutionExtender> findAllBySuiteIdsAndTestNames(@Param("suiteIds") Collection<String> suiteIds,
+		@Param("testNames") Collection<String> testNames);
+
 }
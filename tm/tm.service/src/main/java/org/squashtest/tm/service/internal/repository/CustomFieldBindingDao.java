@@ -22,11 +22,13 @@ package org.squashtest.tm.service.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.squashtest.tm.domain.customfield.BindableEntity;
 import org.squashtest.tm.domain.customfield.CustomFieldBinding;
 import org.squashtest.tm.service.annotation.EmptyCollectionGuard;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 
@@ -45,6 +47,7 @@ public interface CustomFieldBindingDao extends JpaRepository<CustomFieldBinding,
 	@Query
 	List<CustomFieldBinding> findAllForGenericProject(long projectId);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@Query
 	List<CustomFieldBinding> findAllForProjectAndEntity(@Param("projectId") long projectId, @Param("entityType") BindableEntity boundEntity);
 
@@ -33,6 +33,7 @@ import org.squashtest.tm.domain.testcase.TestStep;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Gregory Fouquet
@@ -119,6 +120,30 @@ public interface CustomTestCaseDao extends EntityDao<TestCase> {
 	 */
 	List<Long> findAllTestCasesIdsCallingTestCases(List<Long> testCasesIds);
 
+	/**
+	 * Tells whether the database supports the recursive queries of {@link #findAllTestCasesIdsCalledRecursively(Collection)}
+	 * and {@link #findAllTestCasesIdsCallingRecursively(Collection)}.
+	 */
+	boolean supportsRecursiveCallQueries();
+
+	/**
+	 * Finds all the ids of the test cases called by the given ones, directly or not, with a single recursive query.
+	 * The given test cases are only included when one of them calls them.
+	 *
+	 * @param testCasesIds : the ids of the calling test cases
+	 * @return the ids of the called test cases
+	 */
+	Set<Long> findAllTestCasesIdsCalledRecursively(Collection<Long> testCasesIds);
+
+	/**
+	 * Finds all the ids of the test cases calling the given ones, directly or not, with a single recursive query.
+	 * The given test cases are only included when they call one of them.
+	 *
+	 * @param testCasesIds : the ids of the called test cases
+	 * @return the ids of the calling test cases
+	 */
+	Set<Long> findAllTestCasesIdsCallingRecursively(Collection<Long> testCasesIds);
+
 	/**
 	 * returns the test cases having at least one call test step referencing the given test case.
 	 *
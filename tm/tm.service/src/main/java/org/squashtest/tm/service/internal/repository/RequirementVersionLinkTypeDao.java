@@ -22,9 +22,11 @@ package org.squashtest.tm.service.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.squashtest.tm.domain.requirement.RequirementVersionLinkType;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -44,6 +46,7 @@ public interface RequirementVersionLinkTypeDao extends JpaRepository<Requirement
 	/**
 	 * Find all the RequirementVersionLinkTypes that exist.
 	 */
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	List<RequirementVersionLinkType> getAllRequirementVersionLinkTypes();
 
 	@Query("from RequirementVersionLinkType where role1Code = :roleCode or role2Code = :roleCode")
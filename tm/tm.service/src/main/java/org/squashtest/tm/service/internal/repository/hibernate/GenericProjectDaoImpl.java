@@ -69,6 +69,8 @@ public class GenericProjectDaoImpl implements CustomGenericProjectDao {
 			throw new HibernateException("Expected 1 changed row but got " + changedRows + " instead");
 		}
 		session.flush();
+		// the second level cache would still hand out a Project
+		session.getSessionFactory().getCache().evictEntity(GenericProject.class, projectId);
 
 		return (ProjectTemplate) session.load(ProjectTemplate.class, projectId);
 	}
@@ -28,6 +28,8 @@ import org.squashtest.tm.domain.project.GenericProject;
 import org.squashtest.tm.domain.requirement.Requirement;
 import org.squashtest.tm.domain.requirement.RequirementFolder;
 import org.squashtest.tm.domain.requirement.RequirementLibraryNode;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache.Library;
 import org.squashtest.tm.service.internal.repository.LibraryNodeDao;
 import org.squashtest.tm.service.internal.repository.ParameterNames;
 import org.squashtest.tm.service.internal.repository.ProjectDao;
@@ -35,7 +37,10 @@ import org.squashtest.tm.service.internal.repository.ProjectDao;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @SuppressWarnings("rawtypes")
 @Repository("squashtest.tm.repository.RequirementLibraryNodeDao")
@@ -45,6 +50,9 @@ public class HibernateRequirementLibraryNodeDao extends HibernateEntityDao<Requi
 	@Inject
 	private ProjectDao projectDao;
 
+	@Inject
+	private LibraryNodePathCache pathCache;
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> getParentsName(long entityId) {
@@ -64,17 +72,31 @@ public class HibernateRequirementLibraryNodeDao extends HibernateEntityDao<Requi
 
 	@Override
 	public List<Long> findNodeIdsByPath(List<String> paths) {
-		List<Long> result = new ArrayList<>();
-		for (String path : paths.subList(1, paths.size())) {
-			result.add(findNodeIdByPath(path));
+		// pending renames or moves must reach the index first
+		entityManager.flush();
+		return pathCache.findIds(Library.REQUIREMENT, paths.subList(1, paths.size()), this::computeNodeIdsByPath);
+	}
+
+	@Override
+	public Long findNodeIdByPath(String path) {
+		entityManager.flush();
+		return pathCache.findIds(Library.REQUIREMENT, Collections.singletonList(path), this::computeNodeIdsByPath).get(0);
+	}
+
+	private Map<String, Long> computeNodeIdsByPath(List<String> paths) {
+		Map<String, Long> idByPath = new HashMap<>(paths.size());
+		for (String path : paths) {
+			Long id = computeNodeIdByPath(path);
+			if (id != null) {
+				idByPath.put(path, id);
+			}
 		}
-		return result;
+		return idByPath;
 	}
 
 	// Naive and probably sub optimized implementation but request on closure table don't give expected results, so we have to do it by recursive algorithm.
 	// Hibernate or the RDBS seems to not be able to do the proper group concat on polymorphic associations.
-	@Override
-	public Long findNodeIdByPath(String path) {
+	private Long computeNodeIdByPath(String path) {
 		// TODO this looks way too complex for a dao method, probably more like a service method
 		String projectName = PathUtils.extractUnescapedProjectName(path);
 		List<String> splits = Arrays.asList(PathUtils.splitPath(path));
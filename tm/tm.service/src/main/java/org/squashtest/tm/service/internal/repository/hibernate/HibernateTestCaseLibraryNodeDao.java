@@ -27,6 +27,8 @@ import org.jooq.Field;
 import org.springframework.stereotype.Repository;
 import org.squashtest.tm.core.foundation.lang.PathUtils;
 import org.squashtest.tm.domain.testcase.TestCaseLibraryNode;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache.Library;
 import org.squashtest.tm.service.internal.repository.ParameterNames;
 import org.squashtest.tm.service.internal.repository.TestCaseLibraryNodeDao;
 
@@ -34,6 +36,7 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -53,6 +56,9 @@ TestCaseLibraryNodeDao {
 	@Inject
 	private DSLContext DSL;
 
+	@Inject
+	private LibraryNodePathCache pathCache;
+
 	@SuppressWarnings(UNCHECKED)
 	@Override
 	public List<String> getParentsName(long entityId) {
@@ -83,59 +89,67 @@ TestCaseLibraryNodeDao {
 		return Arrays.asList(toReturn);
 	}
 
-	@SuppressWarnings(UNCHECKED)
 	@Override
 	public List<Long> findNodeIdsByPath(List<String> paths) {
 		//we will make a select with jooq, flushing session as hibernate would do if the request was made in hql
 		entityManager.flush();
 		if (!paths.isEmpty()) {
-			// process the paths parameter : we don't want escaped '/' in there
-			List<String> effectiveParameters = unescapeSlashes(paths);
-
-			//get all the last node names
-			List<String> tclnNames = paths.stream()
-				.map(PathUtils::splitPath)//split path
-				.map(Arrays::asList)//into a stream of List<String>
-				//keeping only size > 1 ie more than just a project name
-				.filter(pathParts -> pathParts.size() > 1)
-				//want to keep only last element in names, ie the name of the last node in path
-				.map(pathParts -> pathParts.get(pathParts.size()-1))
-				.map(this::unescapeSlashes)
-				.collect(Collectors.toList());
-
-			if(tclnNames.isEmpty()){//avoiding mysql crash with empty list...
-				return Collections.emptyList();
-			}
-
-			//now let's go for some SQL
-			//the basic idea here is to concat all paths for descendants witch have a name in terminal list and only them
-			//and thus comparing theses paths with our list in having clause
-			org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode ancestor = TEST_CASE_LIBRARY_NODE.as("ancestor");
-			org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode descendant = TEST_CASE_LIBRARY_NODE.as("descendant");
-			AggregateFunction<String> groupConcatFunction = groupConcat(ancestor.NAME).orderBy(TCLN_RELATIONSHIP_CLOSURE.DEPTH.desc()).separator("/");
-			Field<String> concatPath = concat(concat("/",PROJECT.NAME),concat("/", groupConcatFunction));
-
-			Map<String, Long> idByPath = DSL.select(concatPath.as("path"), TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID)
-				.from(TCLN_RELATIONSHIP_CLOSURE)
-				.innerJoin(ancestor).on(TCLN_RELATIONSHIP_CLOSURE.ANCESTOR_ID.eq(ancestor.TCLN_ID))
-				.innerJoin(PROJECT).on(ancestor.PROJECT_ID.eq(PROJECT.PROJECT_ID))
-				.innerJoin(descendant).on(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID.eq(descendant.TCLN_ID))
-				.where(descendant.NAME.in(tclnNames))
-				.groupBy(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID, PROJECT.NAME)
-				.having(concatPath.in(effectiveParameters))
-				.fetch()
-				.stream()
-				.collect(Collectors.toMap(r -> r.get("path", String.class), r -> r.get(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID)));
-
-			//this should preserve order of initial list
-			return effectiveParameters.stream()
-				.map(idByPath::get)
-				.collect(Collectors.toList());
+			return pathCache.findIds(Library.TEST_CASE, paths, this::computeNodeIdsByPath);
 		} else {
 			return Collections.emptyList();
 		}
 	}
 
+	private Map<String, Long> computeNodeIdsByPath(List<String> paths) {
+		// process the paths parameter : we don't want escaped '/' in there
+		List<String> effectiveParameters = unescapeSlashes(paths);
+
+		//get all the last node names
+		List<String> tclnNames = paths.stream()
+			.map(PathUtils::splitPath)//split path
+			.map(Arrays::asList)//into a stream of List<String>
+			//keeping only size > 1 ie more than just a project name
+			.filter(pathParts -> pathParts.size() > 1)
+			//want to keep only last element in names, ie the name of the last node in path
+			.map(pathParts -> pathParts.get(pathParts.size()-1))
+			.map(this::unescapeSlashes)
+			.collect(Collectors.toList());
+
+		if(tclnNames.isEmpty()){//avoiding mysql crash with empty list...
+			return Collections.emptyMap();
+		}
+
+		//now let's go for some SQL
+		//the basic idea here is to concat all paths for descendants witch have a name in terminal list and only them
+		//and thus comparing theses paths with our list in having clause
+		org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode ancestor = TEST_CASE_LIBRARY_NODE.as("ancestor");
+		org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode descendant = TEST_CASE_LIBRARY_NODE.as("descendant");
+		AggregateFunction<String> groupConcatFunction = groupConcat(ancestor.NAME).orderBy(TCLN_RELATIONSHIP_CLOSURE.DEPTH.desc()).separator("/");
+		Field<String> concatPath = concat(concat("/",PROJECT.NAME),concat("/", groupConcatFunction));
+
+		Map<String, Long> idByPath = DSL.select(concatPath.as("path"), TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID)
+			.from(TCLN_RELATIONSHIP_CLOSURE)
+			.innerJoin(ancestor).on(TCLN_RELATIONSHIP_CLOSURE.ANCESTOR_ID.eq(ancestor.TCLN_ID))
+			.innerJoin(PROJECT).on(ancestor.PROJECT_ID.eq(PROJECT.PROJECT_ID))
+			.innerJoin(descendant).on(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID.eq(descendant.TCLN_ID))
+			.where(descendant.NAME.in(tclnNames))
+			.groupBy(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID, PROJECT.NAME)
+			.having(concatPath.in(effectiveParameters))
+			.fetch()
+			.stream()
+			.collect(Collectors.toMap(r -> r.get("path", String.class), r -> r.get(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID)));
+
+		// the results are keyed by the paths as given
+		Map<String, Long> idByGivenPath = new HashMap<>(paths.size());
+		for (int i = 0; i < paths.size(); i++) {
+			Long id = idByPath.get(effectiveParameters.get(i));
+			if (id != null) {
+				idByGivenPath.put(paths.get(i), id);
+			}
+		}
+		return idByGivenPath;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -25,7 +25,12 @@ import org.hibernate.Hibernate;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.type.LongType;
+import org.jooq.CommonTableExpression;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Name;
+import org.jooq.Record1;
+import org.jooq.SQLDialect;
 import org.squashtest.tm.core.foundation.collection.DefaultSorting;
 import org.squashtest.tm.core.foundation.collection.Paging;
 import org.squashtest.tm.core.foundation.collection.PagingAndSorting;
@@ -62,12 +67,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.table;
+import static org.squashtest.tm.jooq.domain.Tables.CALL_TEST_STEP;
 import static org.squashtest.tm.jooq.domain.Tables.MILESTONE_TEST_CASE;
 import static org.squashtest.tm.jooq.domain.Tables.PROJECT;
 import static org.squashtest.tm.jooq.domain.Tables.SCRIPTED_TEST_CASE;
 import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE;
 import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_LIBRARY_NODE;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_STEPS;
 
 /**
  * DAO for org.squashtest.tm.domain.testcase.TestCase
@@ -87,6 +98,8 @@ public class TestCaseDaoImpl extends HibernateEntityDao<TestCase> implements Cus
 	private static final String TEST_CASES_IDS = "testCasesIds";
 	private static final String UNCHECKED = "unchecked";
 	private static final String PROJECT_ID = "projectId";
+	private static final String CALL_TREE = "CALL_TREE";
+	private static final String CALL_TREE_ID = "TEST_CASE_ID";
 
 	private static final String FIND_DESCENDANT_QUERY = "select DESCENDANT_ID from TCLN_RELATIONSHIP where ANCESTOR_ID in (:list)";
 
@@ -260,6 +273,50 @@ public class TestCaseDaoImpl extends HibernateEntityDao<TestCase> implements Cus
 		return query.list();
 	}
 
+	@Override
+	public boolean supportsRecursiveCallQueries() {
+		// recursive common table expressions are not available in MySQL 5 and not reliable in H2
+		return DSL.dialect().family() == SQLDialect.POSTGRES;
+	}
+
+	@Override
+	public Set<Long> findAllTestCasesIdsCalledRecursively(Collection<Long> testCasesIds) {
+		return findCallsRecursively(testCasesIds, TEST_CASE_STEPS.TEST_CASE_ID, CALL_TEST_STEP.CALLED_TEST_CASE_ID);
+	}
+
+	@Override
+	public Set<Long> findAllTestCasesIdsCallingRecursively(Collection<Long> testCasesIds) {
+		return findCallsRecursively(testCasesIds, CALL_TEST_STEP.CALLED_TEST_CASE_ID, TEST_CASE_STEPS.TEST_CASE_ID);
+	}
+
+	/*
+	 * Follows the calls from the "from" side to the "to" side. The union (rather than union all) discards the test cases
+	 * already reached, so that the query terminates on cyclic calls.
+	 */
+	private Set<Long> findCallsRecursively(Collection<Long> testCasesIds, Field<Long> from, Field<Long> to) {
+		if (testCasesIds.isEmpty()) {
+			return new HashSet<>();
+		}
+
+		Name reached = name(CALL_TREE);
+		Field<Long> reachedId = field(name(CALL_TREE, CALL_TREE_ID), Long.class);
+
+		CommonTableExpression<Record1<Long>> callTree = reached.fields(CALL_TREE_ID).as(
+			DSL.select(to)
+				.from(CALL_TEST_STEP)
+				.join(TEST_CASE_STEPS).on(TEST_CASE_STEPS.STEP_ID.eq(CALL_TEST_STEP.TEST_STEP_ID))
+				.where(from.in(testCasesIds))
+			.union(DSL.select(to)
+				.from(CALL_TEST_STEP)
+				.join(TEST_CASE_STEPS).on(TEST_CASE_STEPS.STEP_ID.eq(CALL_TEST_STEP.TEST_STEP_ID))
+				.join(table(reached)).on(from.eq(reachedId))));
+
+		return new HashSet<>(DSL.withRecursive(callTree)
+			.select(reachedId)
+			.from(callTree)
+			.fetch(reachedId));
+	}
+
 	@Override
 	@SuppressWarnings(UNCHECKED)
 	public List<TestCase> findAllCallingTestCases(final long testCaseId, final PagingAndSorting sorting) {
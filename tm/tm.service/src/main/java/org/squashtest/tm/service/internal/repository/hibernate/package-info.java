@@ -426,6 +426,11 @@
 	+ "case when st.class = CallTestStep then st.calledTestCase.id else null end as calledTC, "
 	+ "case when st.class=CallTestStep then st.delegateParameterValues else false end as delegates "
 	+ "from TestCase tc join tc.steps st where tc.id = :tcId order by index(st)"),
+	@NamedQuery(name = "testStep.findBasicInfosByTcIds",
+	query = "select tc.id, case when st.class = ActionTestStep then 'ACTION' else 'CALL' end as steptype, "
+	+ "case when st.class = CallTestStep then st.calledTestCase.id else null end as calledTC, "
+	+ "case when st.class=CallTestStep then st.delegateParameterValues else false end as delegates "
+	+ "from TestCase tc join tc.steps st where tc.id in (:tcIds) order by tc.id, index(st)"),
 	@NamedQuery(name = "testStep.findIdByTestCaseAndPosition", query = "select st.id from TestCase tc join tc.steps st where tc.id = :tcId and index(st) = :position"),
 	@NamedQuery(name = "testStep.findByTestCaseAndPosition", query = "select st from TestCase tc join tc.steps st where tc.id = :tcId and index(st) = :position"),
 	@NamedQuery(name = "testStep.findByIdOrderedByIndex", query = "select st from TestCase tc join tc.steps st where st.id in (:testStepIds) order by index(st)"),
@@ -433,6 +438,7 @@
 
 	//TestParameters
 	@NamedQuery(name = "Parameter.findOwnParametersByTestCases", query = "select parameter from Parameter as parameter join parameter.testCase testCase where testCase.id in (:testCaseIds) order by testCase.name,  parameter.name "),
+	@NamedQuery(name = "Parameter.findOwnParameterNamesByTestCases", query = "select testCase.id, parameter.name from Parameter as parameter join parameter.testCase testCase where testCase.id in (:testCaseIds)"),
 	@NamedQuery(name = "Parameter.findOwnParametersByTestCase", query = "select parameter from Parameter as parameter join parameter.testCase testCase where testCase.id = :testCaseId order by parameter.name "),
 	@NamedQuery(name = "Parameter.findOwnParameterByNameAndTestCase", query = "select parameter from Parameter as parameter join parameter.testCase testCase where testCase.id = :testCaseId and parameter.name = :name "),
 	@NamedQuery(name = "Parameter.removeAllByTestCaseIds", query = "delete Parameter pm where pm.testCase.id in (:testCaseIds)"),
@@ -443,6 +449,7 @@
 
 	//Datasets
 	@NamedQuery(name = "Dataset.findOwnDatasetsByTestCase", query = "select dataset from Dataset as dataset join dataset.testCase testCase where testCase.id = :testCaseId order by dataset.name "),
+	@NamedQuery(name = "Dataset.findOwnDatasetNamesByTestCases", query = "select testCase.id, dataset.name from Dataset as dataset join dataset.testCase testCase where testCase.id in (:testCaseIds)"),
 	@NamedQuery(name = "Dataset.findOwnDatasetsByTestCases", query = "select dataset from Dataset as dataset join dataset.testCase testCase where testCase.id in (:testCaseIds) order by dataset.name "),
 	@NamedQuery(name = "Dataset.findByTestCaseIdAndName", query = "select dataset from Dataset as dataset join dataset.testCase testCase where testCase.id = :testCaseId and dataset.name = :name order by dataset.name "),
 	@NamedQuery(name = "dataset.removeDatasetFromItsIterationTestPlanItems", query = "update IterationTestPlanItem set referencedDataset = null where referencedDataset in (from Dataset dataset where dataset.id = :datasetId) "),
@@ -529,6 +536,7 @@
 	@NamedQuery(name = "AttachmentContent.findNotOrphanAttachmentContent", query = "select distinct content.id from Attachment at inner join at.content content  where content.id in (:ids) group by content.id"),
 	@NamedQuery(name = "AttachmentContent.getListPairContentIDListIDFromAttachmentLists", query = "select new org.squashtest.tm.domain.attachment.ExternalContentCoordinates(list.id, content.id) from Attachment at inner join at.content content inner join at.attachmentList list where list.id in (:ids)"),
 	@NamedQuery(name = "AttachmentContent.deleteByIds", query = "delete AttachmentContent ac where ac.id in (:ids)"),
+	@NamedQuery(name = "AttachmentContent.findReferencedContentHashes", query = "select distinct content.contentHash from Attachment at inner join at.content content where content.contentHash in (:hashes)"),
 	//ProjectFilter
 	@NamedQuery(name = "projectFilter.findByUserLogin", query = "from ProjectFilter where userLogin = :givenUserLogin"),
 
@@ -630,6 +638,8 @@
 	@NamedQuery(name = "requirementVersion.findDistinctRequirementsCriticalitiesVerifiedByTestCases", query = "select distinct r.criticality from TestCase tc join tc.requirementVersionCoverages rvc join rvc.verifiedRequirementVersion r where tc.id in (:testCasesIds) "),
 	@NamedQuery(name = "requirementVersion.findDistinctRequirementsCriticalities", query = "select distinct r.criticality from RequirementVersion as r  where r.id in (:requirementsIds) "),
 	@NamedQuery(name = "requirementVersion.findLatestRequirementVersion", query = "select version from Requirement req join req.resource version where req.id = :requirementId"),
+	@NamedQuery(name = "requirementVersion.findVersionInfosByRequirementIds", query = "select req.id, version.id, version.versionNumber from Requirement req join req.versions version where req.id in (:requirementIds)"),
+	@NamedQuery(name = "requirementVersion.findMilestoneInfosByVersionIds", query = "select version.id, milestone.label, milestone.status from RequirementVersion version join version.milestones milestone where version.id in (:versionIds)"),
 	@NamedQuery(name = "requirementVersion.findVersionByRequirementAndMilestone", query = "select version from Requirement req join req.versions version join version.milestones milestone where req.id = :requirementId and milestone.id = :milestoneId"),
 	@NamedQuery(name = "RequirementVersion.findAllWithMilestones", query = "from RequirementVersion rv where rv.milestones is empty"),
 	@NamedQuery(name = "RequirementVersion.findAllForMilestones", query = "select reqVer.id from RequirementVersion reqVer join reqVer.milestones milestone where milestone.id in (:milestonesIds)"),
@@ -688,6 +698,9 @@
 
 	//AutomatedExecution
 	@NamedQuery(name = "AutomatedExecutionExtender.findAllBySuiteIdAndTestName", query = "from AutomatedExecutionExtender ex where ex.automatedSuite.id = ?1 and ex.automatedTest.name = ?2 and ex.automatedTest.project.jobName = ?3"),
+	@NamedQuery(name = "AutomatedExecutionExtender.findAllWithExecutionByIds", query = "select ex from AutomatedExecutionExtender ex join fetch ex.execution e left join fetch e.testPlan where ex.id in (:ids)"),
+	@NamedQuery(name = "AutomatedExecutionExtender.findAllBySuiteIdsAndTestNames", query = "select ex from AutomatedExecutionExtender ex join fetch ex.automatedTest test join fetch test.project join fetch ex.execution "
+		+ "where ex.automatedSuite.id in (:suiteIds) and test.name in (:testNames)"),
 
 	//AutomatedTest
 	@NamedQuery(name = "automatedTest.findAllByExtenderIds", query = "select distinct test from AutomatedExecutionExtender ext join ext.automatedTest test where ext.id in (:extenderIds)"),
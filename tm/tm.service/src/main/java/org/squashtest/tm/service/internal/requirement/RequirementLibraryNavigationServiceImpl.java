@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.requirement;
 
+import io.micrometer.core.annotation.Timed;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -73,6 +74,7 @@ import org.squashtest.tm.service.internal.batchexport.RequirementExcelExporter;
 import org.squashtest.tm.service.internal.batchexport.RequirementExportModel;
 import org.squashtest.tm.service.internal.batchexport.SearchRequirementExcelExporter;
 import org.squashtest.tm.service.internal.batchexport.SearchSimpleRequirementExcelExporter;
+import org.squashtest.tm.service.internal.batchexport.StreamingRequirementExcelExporter;
 import org.squashtest.tm.service.internal.batchimport.requirement.excel.RequirementExcelBatchImporter;
 import org.squashtest.tm.service.internal.customfield.PrivateCustomFieldValueService;
 import org.squashtest.tm.service.internal.library.AbstractLibraryNavigationService;
@@ -183,6 +185,9 @@ public class RequirementLibraryNavigationServiceImpl extends
 	@Named(value = "requirementExcelExporter")
 	private Provider<RequirementExcelExporter> exporterProvider;
 
+	@Inject
+	private Provider<StreamingRequirementExcelExporter> streamingExporterProvider;
+
 	@Inject
 	private Provider<SearchRequirementExcelExporter> searchExporterProvider;
 
@@ -684,9 +689,23 @@ public class RequirementLibraryNavigationServiceImpl extends
 	}
 
 	@Override
+	@Timed("squash.export")
 	public File exportRequirementAsExcel(List<Long> libraryIds,
 	                                     List<Long> nodeIds, boolean keepRteFormat,
 	                                     MessageSource messageSource,Boolean isCurrentVersion) {
+		return doExportRequirementAsExcel(libraryIds, nodeIds, keepRteFormat, isCurrentVersion, exporterProvider.get());
+	}
+
+	@Override
+	@Timed("squash.export")
+	public File exportRequirementAsXlsx(List<Long> libraryIds,
+	                                    List<Long> nodeIds, boolean keepRteFormat,
+	                                    MessageSource messageSource, Boolean isCurrentVersion) {
+		return doExportRequirementAsExcel(libraryIds, nodeIds, keepRteFormat, isCurrentVersion, streamingExporterProvider.get());
+	}
+
+	private File doExportRequirementAsExcel(List<Long> libraryIds, List<Long> nodeIds, boolean keepRteFormat,
+	                                        Boolean isCurrentVersion, RequirementExcelExporter exporter) {
 		//1. Check permissions for all librairies and all nodes selecteds
 		PermissionsUtils.checkPermission(permissionService, libraryIds, EXPORT, RequirementLibrary.class.getName());
 		PermissionsUtils.checkPermission(permissionService, nodeIds, EXPORT, RequirementLibraryNode.class.getName());
@@ -701,13 +720,13 @@ public class RequirementLibraryNavigationServiceImpl extends
 		//4. Get exportModel from database
 		RequirementExportModel exportModel = exportDao.findAllRequirementModel(reqVersionIds,isCurrentVersion);
 
-		//5. Instantiate a fresh exporter, append model to excel file and return
-		RequirementExcelExporter exporter = exporterProvider.get();
+		//5. Append model to the fresh exporter and return
 		exporter.appendToWorkbook(exportModel, keepRteFormat);
 		return exporter.print();
 	}
 
 	@Override
+	@Timed("squash.export")
 	public File searchExportRequirementAsExcel(List<Long> nodeIds,
 	                                           boolean keepRteFormat, MessageSource messageSource, String type, Boolean isCurrentVersion) {
 
@@ -737,11 +756,13 @@ public class RequirementLibraryNavigationServiceImpl extends
 	}
 
 	@Override
+	@Timed("squash.import")
 	public ImportLog simulateImportExcelRequirement(File xls) {
 		return batchImporter.simulateImport(xls);
 	}
 
 	@Override
+	@Timed("squash.import")
 	public ImportLog importExcelRequirement(File xls) {
 		return batchImporter.performImport(xls);
 	}
@@ -35,6 +35,7 @@ import org.squashtest.tm.domain.execution.ExecutionStatus;
 import org.squashtest.tm.domain.requirement.RequirementCriticality;
 import org.squashtest.tm.domain.requirement.RequirementStatus;
 import org.squashtest.tm.domain.testcase.TestCaseStatus;
+import org.squashtest.tm.service.internal.statistics.StatisticsQueryExecutor;
 import org.squashtest.tm.service.requirement.RequirementStatisticsService;
 import org.squashtest.tm.service.statistics.requirement.RequirementBoundDescriptionStatistics;
 import org.squashtest.tm.service.statistics.requirement.RequirementBoundTestCasesStatistics;
@@ -56,6 +57,7 @@ import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.count;
@@ -210,6 +212,9 @@ public class RequirementStatisticsServiceImpl implements RequirementStatisticsSe
 	@Inject
 	private DSLContext DSL;
 
+	@Inject
+	private StatisticsQueryExecutor statisticsExecutor;
+
 	@Override
 	public RequirementBoundTestCasesStatistics gatherBoundTestCaseStatistics(
 		Collection<Long> requirementIds) {
@@ -548,15 +553,20 @@ public class RequirementStatisticsServiceImpl implements RequirementStatisticsSe
 	@Override
 	public RequirementStatisticsBundle gatherRequirementStatisticsBundle(
 		Collection<Long> requirementIds) {
+		return statisticsExecutor.fanOut(() -> doGatherRequirementStatisticsBundle(requirementIds));
+	}
+
+	private RequirementStatisticsBundle doGatherRequirementStatisticsBundle(Collection<Long> requirementIds) {
 
-		RequirementBoundTestCasesStatistics tcs = gatherBoundTestCaseStatistics(requirementIds);
-		RequirementStatusesStatistics status = gatherRequirementStatusesStatistics(requirementIds);
+		// the queries are independent : the heaviest ones are started first
+		Supplier<RequirementValidationStatistics> validation = statisticsExecutor.fork(() -> gatherRequirementValidationStatistics(requirementIds));
+		Supplier<RequirementCoverageStatistics> coverage = statisticsExecutor.fork(() -> gatherRequirementCoverageStatistics(requirementIds));
+		Supplier<RequirementBoundTestCasesStatistics> tcs = statisticsExecutor.fork(() -> gatherBoundTestCaseStatistics(requirementIds));
+		Supplier<RequirementBoundDescriptionStatistics> description = statisticsExecutor.fork(() -> gatherRequirementBoundDescriptionStatistics(requirementIds));
+		Supplier<RequirementStatusesStatistics> status = statisticsExecutor.fork(() -> gatherRequirementStatusesStatistics(requirementIds));
 		RequirementCriticalityStatistics criticality = gatherRequirementCriticalityStatistics(requirementIds);
-		RequirementBoundDescriptionStatistics description = gatherRequirementBoundDescriptionStatistics(requirementIds);
-		RequirementCoverageStatistics coverage = gatherRequirementCoverageStatistics(requirementIds);
-		RequirementValidationStatistics validation = gatherRequirementValidationStatistics(requirementIds);
 
-		return new RequirementStatisticsBundle(tcs, status, criticality, description, coverage, validation, requirementIds);
+		return new RequirementStatisticsBundle(tcs.get(), status.get(), criticality, description.get(), coverage.get(), validation.get(), requirementIds);
 	}
 
 	@Override
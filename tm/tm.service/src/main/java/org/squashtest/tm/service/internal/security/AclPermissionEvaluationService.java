@@ -20,35 +20,49 @@
  */
 package org.squashtest.tm.service.internal.security;
 
+import org.hibernate.proxy.HibernateProxyHelper;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.security.acls.domain.BasePermission;
 import org.springframework.security.acls.domain.PermissionFactory;
+import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.Permission;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.squashtest.tm.domain.Identified;
 import org.squashtest.tm.security.acls.CustomPermission;
 import org.squashtest.tm.service.security.PermissionEvaluationService;
 import org.squashtest.tm.service.security.UserContextService;
+import org.squashtest.tm.service.security.acls.model.BatchObjectIdentityGenerator;
+import org.squashtest.tm.service.security.acls.model.ObjectAclService;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.validation.constraints.NotNull;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 
 /**
- * TODO this service can be queried many times by a controller outside of a tx, which means lots of shord lived tx and
- * measurable performance effects. We should add some sort of cache over this service which would short-circuit the tx.
+ * This service can be queried many times by a controller outside of a tx, so decisions are cached in a
+ * {@link PermissionDecisionCache} and the service only joins existing transactions : when a decision is not cached, the
+ * acl service opens its own.
  */
 @Service("squashtest.core.security.PermissionEvaluationService")
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class AclPermissionEvaluationService implements PermissionEvaluationService {
-	// TODO this should be externalized and may be based on the hack from hasMoreThanRead
+	// TODO this should be externalized
 	private static final String[] RIGHTS = {
 		"READ",
 		"WRITE",
@@ -65,6 +79,26 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 		"READ_UNASSIGNED"
 	};
 
+	/**
+	 * Every permission but READ.
+	 */
+	private static final List<Permission> MORE_THAN_READ = Arrays.asList(
+		BasePermission.WRITE,
+		BasePermission.CREATE,
+		BasePermission.DELETE,
+		BasePermission.ADMINISTRATION,
+		CustomPermission.MANAGEMENT,
+		CustomPermission.EXPORT,
+		CustomPermission.EXECUTE,
+		CustomPermission.LINK,
+		CustomPermission.IMPORT,
+		CustomPermission.ATTACH,
+		CustomPermission.EXTENDED_DELETE,
+		CustomPermission.READ_UNASSIGNED,
+		CustomPermission.WRITE_AS_FUNCTIONAL,
+		CustomPermission.WRITE_AS_AUTOMATION
+	);
+
 	@Inject
 	private UserContextService userContextService;
 
@@ -75,6 +109,17 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 	@Inject
 	private PermissionFactory permissionFactory;
 
+	@Inject
+	private PermissionDecisionCache decisionCache;
+
+	@Inject
+	@Lazy
+	private ObjectAclService aclService;
+
+	@Inject
+	@Named("squashtest.core.security.ObjectIdentityGeneratorStrategy")
+	private BatchObjectIdentityGenerator objectIdentityGenerator;
+
 	private static final String ROLE_ADMIN = "ROLE_ADMIN";
 
 	/*
@@ -85,7 +130,39 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 			return true;
 		}
 
-		return permissionEvaluator.hasPermission(userContextService.getAuthentication(), object, permission);
+		return hasPermission(object, permission);
+	}
+
+	/*
+	 * Decisions are only cached when they depend on the acls alone, which is not granted when extra evaluators
+	 * are registered.
+	 */
+	private boolean hasPermission(Object entity, Permission permission) {
+		Authentication authentication = userContextService.getAuthentication();
+
+		if (!(entity instanceof Identified) || permissionEvaluator.hasExtraEvaluators()) {
+			return permissionEvaluator.hasPermission(authentication, entity, permission);
+		}
+
+		String type = HibernateProxyHelper.getClassWithoutInitializingProxy(entity).getName();
+
+		return decisionCache.getDecision(usernameOf(authentication), type, ((Identified) entity).getId(), permission.getMask(),
+			() -> permissionEvaluator.hasPermission(authentication, entity, permission));
+	}
+
+	private boolean hasPermission(Long entityId, String entityClassName, Permission permission) {
+		Authentication authentication = userContextService.getAuthentication();
+
+		if (permissionEvaluator.hasExtraEvaluators()) {
+			return permissionEvaluator.hasPermission(authentication, entityId, entityClassName, permission);
+		}
+
+		return decisionCache.getDecision(usernameOf(authentication), entityClassName, entityId, permission.getMask(),
+			() -> permissionEvaluator.hasPermission(authentication, entityId, entityClassName, permission));
+	}
+
+	private String usernameOf(Authentication authentication) {
+		return authentication == null ? null : authentication.getName();
 	}
 
 
@@ -99,7 +176,7 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 	 */
 	@Override
 	public boolean hasPermissionOnObject(String permission, Object entity) {
-		return permissionEvaluator.hasPermission(userContextService.getAuthentication(), entity, permissionFactory.buildFromName(permission));
+		return hasPermission(entity, permissionFactory.buildFromName(permission));
 	}
 
 	@Override
@@ -126,44 +203,32 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public boolean hasMoreThanRead(Object object) {
-		boolean hasMore = false;
 		if (userContextService.hasRole(ROLE_ADMIN)) {
-			hasMore = true;
-		} else {
-			Authentication authentication = userContextService.getAuthentication();
-			Field[] fields = CustomPermission.class.getFields();
-			// TODO below is a hacky enum of all rights, should be externalized.
-			hasMore = findPermission(fields, object,authentication);
-
+			return true;
 		}
-		return hasMore;
-	}
 
-	boolean findPermission(Field[] fields , Object object,Authentication authentication){
-		for (Field field : fields) {
-			try {
-				if (!"READ".equals(field.getName())
-					&& permissionEvaluator.hasPermission(authentication, object, field.getName())) {
-					return true;
-				}
-			} catch (IllegalArgumentException iaexecption) {
-				List<String> knownMessages = Arrays.asList("Unknown permission 'RESERVED_ON'",
-					"Unknown permission 'RESERVED_OFF'", "Unknown permission 'THIRTY_TWO_RESERVED_OFF'");
-				if (!knownMessages.contains(iaexecption.getMessage())) {
-					throw iaexecption;
-				}
-			}
+		Long id = object instanceof Identified ? ((Identified) object).getId() : null;
+
+		if (id == null || permissionEvaluator.hasExtraEvaluators()) {
+			return MORE_THAN_READ.stream().anyMatch(permission -> hasPermission(object, permission));
 		}
-		return false;
+
+		String username = usernameOf(userContextService.getAuthentication());
+		String className = HibernateProxyHelper.getClassWithoutInitializingProxy(object).getName();
+
+		// the mask is only fetched when a decision is not cached yet, then settles the other ones
+		Map<Long, Integer> masks = new HashMap<>(1);
+		IntSupplier mask = () -> masks.computeIfAbsent(id, key -> findPermissionMasks(className, Collections.singletonList(key)).get(key));
+
+		return MORE_THAN_READ.stream().anyMatch(permission ->
+			decisionCache.getDecision(username, className, id, permission.getMask(), () -> (mask.getAsInt() & permission.getMask()) != 0));
 	}
 
 	@Override
 	public boolean hasPermissionOnObject(String permissionName, Long entityId, String entityClassName) {
-		Authentication authentication = userContextService.getAuthentication();
-		Permission permission = permissionFactory.buildFromName(permissionName);
-
-		return permissionEvaluator.hasPermission(authentication, entityId, entityClassName, permission);
+		return hasPermission(entityId, entityClassName, permissionFactory.buildFromName(permissionName));
 	}
 
 	@Override
@@ -179,13 +244,76 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Collection<String> permissionsOn(@NotNull String className, long id) {
-		List<String> perms = new ArrayList<>();
+		return permissionsOn(className, Collections.singletonList(id)).get(id);
+	}
+
+	/**
+	 * The permission masks of all the entities are fetched at once, then each right is checked against them. The
+	 * resulting decisions are memoized for the rest of the request.
+	 *
+	 * @see PermissionEvaluationService#permissionsOn(String, Collection)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Long, Collection<String>> permissionsOn(@NotNull String className, @NotNull Collection<Long> ids) {
+		Map<Long, Collection<String>> permsById = new LinkedHashMap<>(ids.size());
 
 		if (this.hasRole(ROLE_ADMIN)) {
-			return Arrays.asList(RIGHTS);
+			for (Long id : ids) {
+				permsById.put(id, Arrays.asList(RIGHTS));
+			}
+			return permsById;
 		}
 
+		if (permissionEvaluator.hasExtraEvaluators()) {
+			for (Long id : ids) {
+				permsById.put(id, evaluateRightsOn(className, id));
+			}
+			return permsById;
+		}
+
+		String username = usernameOf(userContextService.getAuthentication());
+		Map<Long, Integer> masks = findPermissionMasks(className, ids);
+
+		for (Map.Entry<Long, Integer> entry : masks.entrySet()) {
+			List<String> perms = new ArrayList<>();
+
+			for (String right : RIGHTS) {
+				int rightMask = permissionFactory.buildFromName(right).getMask();
+				boolean granted = (entry.getValue() & rightMask) != 0;
+
+				decisionCache.memoize(username, className, entry.getKey(), rightMask, granted);
+				if (granted) {
+					perms.add(right);
+				}
+			}
+
+			permsById.put(entry.getKey(), perms);
+		}
+
+		return permsById;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void preloadPermissionsOn(@NotNull Collection<? extends Identified> entities) {
+		Map<String, List<Long>> idsByClassName = entities.stream()
+			.collect(groupingBy(
+				entity -> HibernateProxyHelper.getClassWithoutInitializingProxy(entity).getName(),
+				mapping(Identified::getId, toList())
+			));
+
+		idsByClassName.forEach(this::permissionsOn);
+	}
+
+	/*
+	 * Extra evaluators don't know about permission masks, so each right has to be evaluated separately.
+	 */
+	private List<String> evaluateRightsOn(String className, long id) {
+		List<String> perms = new ArrayList<>();
+
 		for (String right : RIGHTS) {
 			if (this.hasPermissionOnObject(right, id, className)) {
 				perms.add(right);
@@ -195,4 +323,18 @@ public class AclPermissionEvaluationService implements PermissionEvaluationServi
 		return perms;
 	}
 
+	/*
+	 * The acls are declared on the libraries / projects which hold the entities, so the object identities of the
+	 * holders are resolved first.
+	 */
+	private Map<Long, Integer> findPermissionMasks(String className, Collection<Long> ids) {
+		Map<Long, ObjectIdentity> identities = objectIdentityGenerator.createObjectIdentities(ids, className);
+
+		Map<ObjectIdentity, Integer> masks = aclService.findPermissionMasks(userContextService.getUsername(), identities.values());
+
+		Map<Long, Integer> masksById = new LinkedHashMap<>(ids.size());
+		identities.forEach((id, identity) -> masksById.put(id, masks.getOrDefault(identity, 0)));
+		return masksById;
+	}
+
 }
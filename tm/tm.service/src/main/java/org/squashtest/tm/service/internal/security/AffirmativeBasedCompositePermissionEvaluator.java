@@ -66,6 +66,13 @@ public class AffirmativeBasedCompositePermissionEvaluator extends AclPermissionE
 		}
 	}
 
+	/**
+	 * @return true when extra evaluators were registered, in which case decisions may not depend on the acls alone.
+	 */
+	public boolean hasExtraEvaluators() {
+		return !evaluators.isEmpty();
+	}
+
 	@Override
 	public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission){
 
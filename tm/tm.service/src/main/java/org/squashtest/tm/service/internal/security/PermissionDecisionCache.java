@@ -0,0 +1,270 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>Two-tier cache of the permission decisions made by {@link AclPermissionEvaluationService}.</p>
+ *
+ * <p>
+ * The first tier is a memo bound to the current thread. It is only active between {@link #openRequestScope()} and
+ * {@link #closeRequestScope()}, which the web layer calls around each http request. The second tier is the shared,
+ * bounded cache {@value #CACHE_NAME} (see ehcache.xml).
+ * </p>
+ *
+ * <p>
+ * Decisions are keyed on user, object identity and permission mask. Because permissions are inherited from the
+ * library / project they are declared on, a change on any ACL can affect any key : {@link #evictAll()} must be invoked
+ * whenever ACLs are modified. As other threads keep reading the former ACLs until the change is committed, the
+ * decisions are evicted again once the current transaction completes.
+ * </p>
+ */
+@Component
+public class PermissionDecisionCache {
+
+	public static final String CACHE_NAME = "permissionDecisionCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PermissionDecisionCache.class);
+
+	private final ThreadLocal<Map<Key, Boolean>> requestMemo = new ThreadLocal<>();
+
+	private final Cache sharedCache;
+
+	/*
+	 * Incremented on each eviction, so that a decision computed before an eviction is not put back in the shared
+	 * cache after that eviction.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder requestHits = new LongAdder();
+	private final LongAdder sharedHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@Inject
+	public PermissionDecisionCache(CacheManager cacheManager) {
+		this(cacheManager.getCache(CACHE_NAME));
+	}
+
+	PermissionDecisionCache(Cache sharedCache) {
+		super();
+		this.sharedCache = sharedCache;
+	}
+
+	/**
+	 * Starts the memoization of the decisions made by the current thread.
+	 */
+	public void openRequestScope() {
+		requestMemo.set(new HashMap<>());
+	}
+
+	/**
+	 * Ends the memoization of the decisions made by the current thread.
+	 */
+	public void closeRequestScope() {
+		requestMemo.remove();
+	}
+
+	/**
+	 * Returns the cached decision for the given user, object and permission. When there is no such decision, it is
+	 * computed using the given evaluation and cached.
+	 *
+	 * @param username   login of the user, the decision is not cached when <code>null</code>
+	 * @param type       class name of the object
+	 * @param identifier identifier of the object
+	 * @param mask       mask of the permission
+	 * @param evaluation the actual permission evaluation
+	 * @return the decision
+	 */
+	public boolean getDecision(String username, String type, Serializable identifier, int mask, BooleanSupplier evaluation) {
+		if (username == null || type == null || identifier == null) {
+			return evaluation.getAsBoolean();
+		}
+
+		Key key = new Key(username, type, identifier, mask);
+		Map<Key, Boolean> memo = requestMemo.get();
+
+		Boolean decision = memo == null ? null : memo.get(key);
+		if (decision != null) {
+			requestHits.increment();
+			return decision;
+		}
+
+		Cache.ValueWrapper cached = sharedCache.get(key);
+		if (cached != null) {
+			sharedHits.increment();
+			decision = (Boolean) cached.get();
+
+		} else {
+			misses.increment();
+			long currentGeneration = generation.get();
+			decision = evaluation.getAsBoolean();
+
+			if (currentGeneration == generation.get()) {
+				sharedCache.put(key, decision);
+			}
+		}
+
+		if (memo != null) {
+			memo.put(key, decision);
+		}
+
+		return decision;
+	}
+
+	/**
+	 * Stores in the request memo a decision which was computed beforehand, e.g. by a bulk permission query. It is not
+	 * put in the shared cache because an eviction may have happened since it was computed. Does nothing when no request
+	 * scope is opened.
+	 *
+	 * @param username   login of the user
+	 * @param type       class name of the object
+	 * @param identifier identifier of the object
+	 * @param mask       mask of the permission
+	 * @param decision   the decision
+	 */
+	public void memoize(String username, String type, Serializable identifier, int mask, boolean decision) {
+		Map<Key, Boolean> memo = requestMemo.get();
+
+		if (memo != null && username != null && type != null && identifier != null) {
+			memo.put(new Key(username, type, identifier, mask), decision);
+		}
+	}
+
+	/**
+	 * Forgets every cached decision, right away and again once the current transaction completes : decisions
+	 * computed meanwhile by other threads are based on the ACLs as they were before the change. The request memos of
+	 * other threads are left alone, they will be dropped at the end of their request.
+	 */
+	public void evictAll() {
+		clear();
+		evictAllOnCompletion();
+	}
+
+	/**
+	 * Forgets every cached decision once the current transaction completes, or right away when there is no
+	 * transaction.
+	 */
+	public void evictAllOnCompletion() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					clear();
+				}
+			});
+		} else {
+			clear();
+		}
+	}
+
+	private void clear() {
+		LOGGER.debug("Evicting all permission decisions");
+		generation.incrementAndGet();
+		sharedCache.clear();
+
+		Map<Key, Boolean> memo = requestMemo.get();
+		if (memo != null) {
+			memo.clear();
+		}
+	}
+
+	/**
+	 * @return a number which changes each time the cached decisions are evicted, i.e. each time the acls change, and
+	 * again once the change is committed. Other caches of data derived from the acls may key their entries on it.
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * @return the number of decisions served by the request memo
+	 */
+	public long getRequestHitCount() {
+		return requestHits.sum();
+	}
+
+	/**
+	 * @return the number of decisions served by the shared cache
+	 */
+	public long getSharedHitCount() {
+		return sharedHits.sum();
+	}
+
+	/**
+	 * @return the number of decisions which had to be evaluated
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@SuppressWarnings("serial")
+	private static final class Key implements Serializable {
+		private final String username;
+		private final String type;
+		private final Serializable identifier;
+		private final int mask;
+
+		private Key(String username, String type, Serializable identifier, int mask) {
+			super();
+			this.username = username;
+			this.type = type;
+			// ids may come as Integer or Long depending on the caller
+			this.identifier = identifier instanceof Number ? Long.valueOf(((Number) identifier).longValue()) : identifier;
+			this.mask = mask;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key other = (Key) o;
+			return mask == other.mask
+				&& username.equals(other.username)
+				&& type.equals(other.type)
+				&& identifier.equals(other.identifier);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(username, type, identifier, mask);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.statistics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Runs the independent queries of a statistics bundle side by side, on a small pool of threads. Each query runs in a
+ * read-only transaction of its own.
+ * </p>
+ * <p>
+ * The calling thread keeps its own database connection while it waits for the queries, and each query needs another
+ * one. To make sure the callers and the queries cannot take every connection of the pool between them, only
+ * <code>squashtm.statistics.concurrent-bundles</code> bundles at a time may {@link #fanOut(Supplier) fan out} their
+ * queries : the queries of the other bundles run in the calling thread.
+ * </p>
+ * <p>
+ * The queries also run in the calling thread when the current transaction is not a read-only one : the other
+ * transactions would not see its changes. They also do when the pool is saturated.
+ * </p>
+ */
+@Component
+public class StatisticsQueryExecutor {
+
+	private static final int QUEUE_CAPACITY = 50;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	/*
+	 * Each thread holds a database connection while it runs : keep it well below the size of the connection pool.
+	 */
+	@Value("${squashtm.statistics.parallelism:4}")
+	private int parallelism = 4;
+
+	/*
+	 * Callers fanning out hold a connection too : this plus the parallelism must stay below the size of the connection
+	 * pool.
+	 */
+	@Value("${squashtm.statistics.concurrent-bundles:4}")
+	private int concurrentBundles = 4;
+
+	private ThreadPoolTaskExecutor executor;
+
+	private Semaphore fanOutPermits;
+
+	private final ThreadLocal<Boolean> fanningOut = new ThreadLocal<>();
+
+	@PostConstruct
+	public void initialize() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(parallelism);
+		executor.setMaxPoolSize(parallelism);
+		executor.setQueueCapacity(QUEUE_CAPACITY);
+		executor.setThreadNamePrefix("statistics-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+
+		fanOutPermits = new Semaphore(concurrentBundles);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Gathers a bundle, the queries it {@link #fork(Supplier) forks} being run side by side when a permit to fan out is
+	 * available right away, in the calling thread otherwise.
+	 *
+	 * @param bundle the gathering of the bundle
+	 * @return the bundle
+	 */
+	public <T> T fanOut(Supplier<T> bundle) {
+		if (fanOutPermits == null || Boolean.TRUE.equals(fanningOut.get()) || !fanOutPermits.tryAcquire()) {
+			return bundle.get();
+		}
+
+		fanningOut.set(Boolean.TRUE);
+		try {
+			return bundle.get();
+		} finally {
+			fanningOut.remove();
+			fanOutPermits.release();
+		}
+	}
+
+	/**
+	 * Starts the given query, and returns a supplier which waits for its result. Exceptions thrown by the query are
+	 * thrown again by the supplier. The query only runs in another thread within {@link #fanOut(Supplier)}.
+	 *
+	 * @param query the query. It must not rely on state bound to the calling thread (security context, active
+	 *              milestone...)
+	 * @return the supplier of the result
+	 */
+	public <T> Supplier<T> fork(Supplier<T> query) {
+		if (executor == null || !Boolean.TRUE.equals(fanningOut.get()) || !inReadOnlyTransaction()) {
+			T result = query.get();
+			return () -> result;
+		}
+
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+
+		Future<T> future = executor.submit(() -> template.execute(status -> query.get()));
+		return () -> join(future);
+	}
+
+	private static boolean inReadOnlyTransaction() {
+		return TransactionSynchronizationManager.isActualTransactionActive()
+			&& TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	private static <T> T join(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			throw new IllegalStateException("Interrupted while waiting for a statistics query", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+}
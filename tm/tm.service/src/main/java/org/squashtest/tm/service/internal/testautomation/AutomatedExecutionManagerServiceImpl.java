@@ -20,8 +20,10 @@
  */
 package org.squashtest.tm.service.internal.testautomation;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,21 +31,39 @@ import org.springframework.web.util.HtmlUtils;
 import org.squashtest.tm.api.testautomation.execution.dto.TestExecutionStatus;
 import org.squashtest.tm.core.foundation.exception.InvalidUrlException;
 import org.squashtest.tm.core.foundation.lang.UrlUtils;
+import org.squashtest.tm.domain.campaign.IterationTestPlanItem;
+import org.squashtest.tm.domain.campaign.TestSuite;
+import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.execution.ExecutionStatus;
+import org.squashtest.tm.domain.project.Project;
 import org.squashtest.tm.domain.testautomation.AutomatedExecutionExtender;
+import org.squashtest.tm.domain.testautomation.AutomatedSuite;
+import org.squashtest.tm.service.campaign.IterationTestPlanManagerService;
 import org.squashtest.tm.service.campaign.AutomatedSuiteModificationService;
 import org.squashtest.tm.service.campaign.CustomTestSuiteModificationService;
 import org.squashtest.tm.service.execution.ExecutionProcessingService;
 import org.squashtest.tm.service.internal.repository.AutomatedExecutionExtenderDao;
 import org.squashtest.tm.service.security.PermissionEvaluationService;
+import org.squashtest.tm.service.security.UserContextService;
 import org.squashtest.tm.service.testautomation.AutomatedExecutionManagerService;
+import org.squashtest.tm.service.testautomation.AutomatedExecutionResult;
 import org.squashtest.tm.service.testautomation.AutomatedExecutionSetIdentifier;
 import org.squashtest.tm.service.testautomation.TestAutomationCallbackService;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Gregory Fouquet
@@ -70,6 +90,12 @@ public class AutomatedExecutionManagerServiceImpl implements AutomatedExecutionM
 	@Inject
 	private AutomatedSuiteModificationService automatedSuiteModificationService;
 
+	@Inject
+	private IterationTestPlanManagerService testPlanService;
+
+	@Inject
+	private UserContextService userContextService;
+
 	private static final String EXECUTE = "EXECUTE";
 
 	private static final String ROLE_ADMIN = "ROLE_ADMIN";
@@ -111,6 +137,73 @@ public class AutomatedExecutionManagerServiceImpl implements AutomatedExecutionM
 
 	}
 
+	@Override
+	@Timed("squash.automation.callback")
+	public void updateExecutionResults(Collection<AutomatedExecutionResult> results) {
+		if (results.isEmpty()) {
+			return;
+		}
+
+		Map<List<String>, List<AutomatedExecutionExtender>> extendersByIdentifier = findExtendersFor(results);
+		Set<Project> checkedProjects = new HashSet<>();
+		List<AutomatedExecutionExtender> executed = new ArrayList<>();
+
+		for (AutomatedExecutionResult result : results) {
+			List<AutomatedExecutionExtender> execs = extendersByIdentifier.getOrDefault(toKey(result.getIdentifier()),
+				Collections.emptyList());
+
+			for (AutomatedExecutionExtender exec : execs) {
+				// the permission is granted at project level : checking it once per project is enough
+				if (checkedProjects.add(exec.getExecution().getProject())
+					&& !permissionService.hasRoleOrPermissionOnObject(ROLE_ADMIN, EXECUTE, exec)) {
+					throw new AccessDeniedException("Access is denied");
+				}
+
+				if (result.getStatus() != null) {
+					exec.setExecutionStatus(result.getStatus());
+					executed.add(exec);
+				}
+				if (result.getResultURL() != null) {
+					exec.setResultURL(result.getResultURL());
+				}
+				if (result.getResultSummary() != null) {
+					exec.setResultSummary(HtmlUtils.htmlEscape(result.getResultSummary()));
+				}
+			}
+		}
+
+		updateMetadataAndStatuses(executed);
+	}
+
+	/*
+	 * Resolves the extenders of all the identifiers with a single query : the query matches on the suites and test
+	 * names only, the test automation projects are matched afterwards.
+	 */
+	private Map<List<String>, List<AutomatedExecutionExtender>> findExtendersFor(Collection<AutomatedExecutionResult> results) {
+		Set<String> suiteIds = new HashSet<>();
+		Set<String> testNames = new HashSet<>();
+
+		for (AutomatedExecutionResult result : results) {
+			suiteIds.add(result.getIdentifier().getAutomatedSuiteId());
+			testNames.add(result.getIdentifier().getAutomatedTestName());
+		}
+
+		Map<List<String>, List<AutomatedExecutionExtender>> extendersByIdentifier = new HashMap<>();
+
+		for (AutomatedExecutionExtender exec : automatedExecutionDao.findAllBySuiteIdsAndTestNames(suiteIds, testNames)) {
+			List<String> key = Arrays.asList(exec.getAutomatedSuite().getId(), exec.getAutomatedTest().getName(),
+				exec.getAutomatedTest().getProject().getJobName());
+			extendersByIdentifier.computeIfAbsent(key, k -> new ArrayList<>()).add(exec);
+		}
+
+		return extendersByIdentifier;
+	}
+
+	private List<String> toKey(AutomatedExecutionSetIdentifier identifier) {
+		return Arrays.asList(identifier.getAutomatedSuiteId(), identifier.getAutomatedTestName(),
+			identifier.getTestAutomationProjectName());
+	}
+
 	private List<AutomatedExecutionExtender> findExtendersFor(AutomatedExecutionSetIdentifier setIdentifier) {
 		return automatedExecutionDao.findAllBySuiteIdAndTestName(setIdentifier.getAutomatedSuiteId(),
 			setIdentifier.getAutomatedTestName(), setIdentifier.getTestAutomationProjectName());
@@ -127,6 +220,13 @@ public class AutomatedExecutionManagerServiceImpl implements AutomatedExecutionM
 		automatedSuiteModificationService.updateExecutionStatus(exec.getAutomatedSuite());
 		customTestSuiteModificationService.updateExecutionStatus(exec.getExecution().getTestPlan().getTestSuites());
 
+		setResultUrl(exec, stateChange);
+
+		execProcService.updateExecutionMetadata(exec);
+
+	}
+
+	private void setResultUrl(AutomatedExecutionExtender exec, TestExecutionStatus stateChange) {
 		try {
 			URL result = UrlUtils.toUrl(stateChange.getResultUrl());
 			exec.setResultURL(result);
@@ -134,9 +234,6 @@ public class AutomatedExecutionManagerServiceImpl implements AutomatedExecutionM
 			LOGGER.warn("Received a result url which does not math any valid url pattern : {}",
 				stateChange.getResultUrl(), ex);
 		}
-
-		execProcService.updateExecutionMetadata(exec);
-
 	}
 
 	/**
@@ -158,4 +255,69 @@ public class AutomatedExecutionManagerServiceImpl implements AutomatedExecutionM
 
 	}
 
+	@Override
+	@PreAuthorize("hasRole('ROLE_TA_API_CLIENT')")
+	@Timed("squash.automation.callback")
+	public void changeExecutionStates(@NotNull Map<Long, TestExecutionStatus> stateChanges) {
+		if (stateChanges.isEmpty()) {
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		List<AutomatedExecutionExtender> execs = automatedExecutionDao.findAllWithExecutionByIds(stateChanges.keySet());
+		Set<Long> unknownIds = new HashSet<>(stateChanges.keySet());
+
+		for (AutomatedExecutionExtender exec : execs) {
+			unknownIds.remove(exec.getId());
+			TestExecutionStatus stateChange = stateChanges.get(exec.getId());
+			exec.setResultSummary(HtmlUtils.htmlEscape(stateChange.getStatusMessage()));
+			exec.setExecutionStatus(coerce(stateChange.getStatus()));
+			setResultUrl(exec, stateChange);
+		}
+
+		if (!unknownIds.isEmpty()) {
+			LOGGER.warn("Ignored the state changes of unknown automated executions {}", unknownIds);
+		}
+
+		updateMetadataAndStatuses(execs);
+
+		LOGGER.debug("Changed the state of {} automated executions in {} ms", execs.size(), System.currentTimeMillis() - start);
+	}
+
+	/*
+	 * Each test plan item, test suite and automated suite is updated once, however many of its executions were
+	 * changed.
+	 */
+	private void updateMetadataAndStatuses(List<AutomatedExecutionExtender> execs) {
+		Date now = new Date();
+		String username = userContextService.getUsername();
+
+		Set<IterationTestPlanItem> items = new LinkedHashSet<>();
+		Set<AutomatedSuite> automatedSuites = new LinkedHashSet<>();
+
+		for (AutomatedExecutionExtender exec : execs) {
+			Execution execution = exec.getExecution();
+			execution.setLastExecutedOn(now);
+			execution.setLastExecutedBy(username);
+
+			if (execution.getTestPlan() != null) {
+				items.add(execution.getTestPlan());
+			}
+			if (exec.getAutomatedSuite() != null) {
+				automatedSuites.add(exec.getAutomatedSuite());
+			}
+		}
+
+		Set<TestSuite> testSuites = new LinkedHashSet<>();
+		for (IterationTestPlanItem item : items) {
+			testPlanService.updateMetadata(item);
+			testSuites.addAll(item.getTestSuites());
+		}
+
+		for (AutomatedSuite automatedSuite : automatedSuites) {
+			automatedSuiteModificationService.updateExecutionStatus(automatedSuite);
+		}
+		customTestSuiteModificationService.updateExecutionStatus(new ArrayList<>(testSuites));
+	}
+
 }
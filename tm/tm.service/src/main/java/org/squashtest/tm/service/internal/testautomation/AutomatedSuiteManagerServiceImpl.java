@@ -70,6 +70,7 @@ import org.squashtest.tm.service.internal.repository.ProjectDao;
 import org.squashtest.tm.service.internal.repository.TestSuiteDao;
 import org.squashtest.tm.service.security.PermissionEvaluationService;
 import org.squashtest.tm.service.security.PermissionsUtils;
+import org.squashtest.tm.service.testautomation.AutomatedExecutionResult;
 import org.squashtest.tm.service.testautomation.AutomatedExecutionSetIdentifier;
 import org.squashtest.tm.service.testautomation.AutomatedSuiteManagerService;
 import org.squashtest.tm.service.testautomation.AutomationDeletionCount;
@@ -810,6 +811,12 @@ public class AutomatedSuiteManagerServiceImpl implements AutomatedSuiteManagerSe
 			wrapped.updateResultSummary(execIdentifier, newSummary);
 		}
 
+		@Override
+		public void updateExecutionResults(Collection<AutomatedExecutionResult> results) {
+			SecurityContextHolder.setContext(secContext);
+			wrapped.updateExecutionResults(results);
+		}
+
 	}
 
 
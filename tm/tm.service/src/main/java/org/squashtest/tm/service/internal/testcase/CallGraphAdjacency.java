@@ -0,0 +1,300 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>In-memory adjacency of the test case calls : for each test case, the ids of the test cases it calls and of those
+ * calling it, kept in primitive arrays. A test case calling another one several times holds that many edges.</p>
+ *
+ * <p>Traversals remember the visited test cases, so they terminate on cyclic data.</p>
+ *
+ * <p>This class is not thread-safe, see {@link TestCaseCallGraphIndex}.</p>
+ */
+final class CallGraphAdjacency {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	/*
+	 * Open addressing table from the test case ids to the node indexes. A slot holds the node index + 1, 0 meaning
+	 * that the slot is free.
+	 */
+	private long[] keys = new long[INITIAL_CAPACITY * 2];
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+	// node index -> test case id and edges
+	private long[] ids = new long[INITIAL_CAPACITY];
+	private long[][] callees = new long[INITIAL_CAPACITY][];
+	private int[] calleeCounts = new int[INITIAL_CAPACITY];
+	private long[][] callers = new long[INITIAL_CAPACITY][];
+	private int[] callerCounts = new int[INITIAL_CAPACITY];
+
+	private int nodeCount;
+	private int edgeCount;
+
+	void addEdge(long callerId, long calledId) {
+		int caller = indexOrAdd(callerId);
+		int called = indexOrAdd(calledId);
+
+		callees[caller] = append(callees[caller], calleeCounts[caller]++, calledId);
+		callers[called] = append(callers[called], callerCounts[called]++, callerId);
+		edgeCount++;
+	}
+
+	/**
+	 * Removes one of the edges from the caller to the called test case.
+	 *
+	 * @return <code>false</code> if there was no such edge
+	 */
+	boolean removeEdge(long callerId, long calledId) {
+		int caller = indexOf(callerId);
+		int called = indexOf(calledId);
+
+		if (caller < 0 || called < 0
+			|| !remove(callees[caller], calleeCounts[caller], calledId)
+			|| !remove(callers[called], callerCounts[called], callerId)) {
+			return false;
+		}
+
+		calleeCounts[caller]--;
+		callerCounts[called]--;
+		edgeCount--;
+		return true;
+	}
+
+	/**
+	 * @return the ids of the test cases called by the given ones, directly or not. The given test cases are only
+	 * included when they are called by one of them.
+	 */
+	Set<Long> findCallees(Collection<Long> testCaseIds) {
+		return traverse(testCaseIds, true, false);
+	}
+
+	/**
+	 * @return the ids of the test cases calling the given ones, directly or not. The given test cases are only
+	 * included when they call one of them.
+	 */
+	Set<Long> findCallers(Collection<Long> testCaseIds) {
+		return traverse(testCaseIds, false, true);
+	}
+
+	/**
+	 * @return the ids of the test cases connected to the given ones by calls in either direction, including the given
+	 * ones
+	 */
+	Set<Long> findConnected(Collection<Long> testCaseIds) {
+		Set<Long> connected = traverse(testCaseIds, true, true);
+		connected.addAll(testCaseIds);
+		return connected;
+	}
+
+	/**
+	 * @return whether the first test case calls the second one, directly or not
+	 */
+	boolean calls(long callerId, long calledId) {
+		int start = indexOf(callerId);
+		int target = indexOf(calledId);
+		if (start < 0 || target < 0) {
+			return false;
+		}
+
+		BitSet visited = new BitSet(nodeCount);
+		int[] queue = new int[nodeCount];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		visited.set(start);
+
+		while (head < tail) {
+			int node = queue[head++];
+			long[] edges = callees[node];
+			for (int i = 0; i < calleeCounts[node]; i++) {
+				int next = indexOf(edges[i]);
+				if (next == target) {
+					return true;
+				}
+				if (!visited.get(next)) {
+					visited.set(next);
+					queue[tail++] = next;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	int getNodeCount() {
+		return nodeCount;
+	}
+
+	int getEdgeCount() {
+		return edgeCount;
+	}
+
+	private Set<Long> traverse(Collection<Long> testCaseIds, boolean downward, boolean upward) {
+		BitSet visited = new BitSet(nodeCount);
+		// each node is queued once when reached through an edge, and the start nodes once more at most
+		int[] queue = new int[nodeCount + testCaseIds.size()];
+		int tail = 0;
+
+		for (Long id : testCaseIds) {
+			int node = indexOf(id);
+			if (node >= 0) {
+				queue[tail++] = node;
+			}
+		}
+
+		// the start nodes are only marked as visited when reached through an edge
+		BitSet processed = new BitSet(nodeCount);
+		Set<Long> result = new HashSet<>();
+		int head = 0;
+
+		while (head < tail) {
+			int node = queue[head++];
+			if (processed.get(node)) {
+				continue;
+			}
+			processed.set(node);
+
+			if (downward) {
+				tail = visit(callees[node], calleeCounts[node], visited, queue, tail, result);
+			}
+			if (upward) {
+				tail = visit(callers[node], callerCounts[node], visited, queue, tail, result);
+			}
+		}
+
+		return result;
+	}
+
+	private int visit(long[] edges, int count, BitSet visited, int[] queue, int tail, Set<Long> result) {
+		int newTail = tail;
+		for (int i = 0; i < count; i++) {
+			int next = indexOf(edges[i]);
+			if (!visited.get(next)) {
+				visited.set(next);
+				result.add(edges[i]);
+				queue[newTail++] = next;
+			}
+		}
+		return newTail;
+	}
+
+	private static long[] append(long[] edges, int count, long id) {
+		long[] target = edges;
+		if (target == null) {
+			target = new long[2];
+		} else if (count == target.length) {
+			target = Arrays.copyOf(target, count * 2);
+		}
+		target[count] = id;
+		return target;
+	}
+
+	private static boolean remove(long[] edges, int count, long id) {
+		if (edges == null) {
+			return false;
+		}
+		for (int i = 0; i < count; i++) {
+			if (edges[i] == id) {
+				edges[i] = edges[count - 1];
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int indexOf(long id) {
+		int mask = keys.length - 1;
+		int slot = hash(id) & mask;
+		while (slots[slot] != 0) {
+			if (keys[slot] == id) {
+				return slots[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int indexOrAdd(long id) {
+		int mask = keys.length - 1;
+		int slot = hash(id) & mask;
+		while (slots[slot] != 0) {
+			if (keys[slot] == id) {
+				return slots[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		int node = nodeCount++;
+		if (node == ids.length) {
+			growNodes();
+		}
+		ids[node] = id;
+		keys[slot] = id;
+		slots[slot] = node + 1;
+
+		// the table is kept at most half full
+		if (nodeCount * 2 > keys.length) {
+			rehash();
+		}
+		return node;
+	}
+
+	private void growNodes() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		callees = Arrays.copyOf(callees, capacity);
+		calleeCounts = Arrays.copyOf(calleeCounts, capacity);
+		callers = Arrays.copyOf(callers, capacity);
+		callerCounts = Arrays.copyOf(callerCounts, capacity);
+	}
+
+	private void rehash() {
+		keys = new long[keys.length * 2];
+		slots = new int[slots.length * 2];
+		int mask = keys.length - 1;
+
+		for (int node = 0; node < nodeCount; node++) {
+			int slot = hash(ids[node]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = ids[node];
+			slots[slot] = node + 1;
+		}
+	}
+
+	private static int hash(long id) {
+		// murmur3 finalizer, the ids being sequential
+		long h = id;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+}
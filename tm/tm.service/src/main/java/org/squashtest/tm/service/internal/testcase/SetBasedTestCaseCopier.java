@@ -0,0 +1,653 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase;
+
+import com.google.common.collect.Lists;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep4;
+import org.jooq.Record2;
+import org.jooq.Record6;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.Sizes;
+import org.squashtest.tm.domain.attachment.Attachment;
+import org.squashtest.tm.domain.customfield.BindableEntity;
+import org.squashtest.tm.domain.library.NodeContainer;
+import org.squashtest.tm.domain.requirement.RequirementStatus;
+import org.squashtest.tm.domain.testcase.TestCaseAutomatable;
+import org.squashtest.tm.domain.testcase.TestCaseFolder;
+import org.squashtest.tm.domain.testcase.TestCaseLibraryNode;
+import org.squashtest.tm.jooq.domain.tables.CopyIdMapping;
+import org.squashtest.tm.jooq.domain.tables.CustomFieldValue;
+import org.squashtest.tm.jooq.domain.tables.Dataset;
+import org.squashtest.tm.jooq.domain.tables.Parameter;
+import org.squashtest.tm.jooq.domain.tables.RequirementVersionCoverage;
+import org.squashtest.tm.jooq.domain.tables.records.CopyIdMappingRecord;
+import org.squashtest.tm.security.UserContextHolder;
+import org.squashtest.tm.service.attachment.AttachmentManagerService;
+import org.squashtest.tm.service.internal.attachment.AttachmentStorageMode;
+import org.squashtest.tm.service.internal.attachment.AttachmentStorageModeConfigurer;
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache;
+import org.squashtest.tm.service.internal.library.LibraryUtils;
+import org.squashtest.tm.service.security.PermissionEvaluationService;
+import org.squashtest.tm.service.security.PermissionsUtils;
+import org.squashtest.tm.service.security.SecurityCheckableObject;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.val;
+import static org.squashtest.tm.jooq.domain.Tables.ACTION_TEST_STEP;
+import static org.squashtest.tm.jooq.domain.Tables.ATTACHMENT;
+import static org.squashtest.tm.jooq.domain.Tables.ATTACHMENT_LIST;
+import static org.squashtest.tm.jooq.domain.Tables.CALL_TEST_STEP;
+import static org.squashtest.tm.jooq.domain.Tables.COPY_ID_MAPPING;
+import static org.squashtest.tm.jooq.domain.Tables.CUSTOM_FIELD_VALUE;
+import static org.squashtest.tm.jooq.domain.Tables.CUSTOM_FIELD_VALUE_OPTION;
+import static org.squashtest.tm.jooq.domain.Tables.DATASET;
+import static org.squashtest.tm.jooq.domain.Tables.DATASET_PARAM_VALUE;
+import static org.squashtest.tm.jooq.domain.Tables.KEYWORD_TEST_CASE;
+import static org.squashtest.tm.jooq.domain.Tables.MILESTONE_TEST_CASE;
+import static org.squashtest.tm.jooq.domain.Tables.PARAMETER;
+import static org.squashtest.tm.jooq.domain.Tables.REQUIREMENT_VERSION;
+import static org.squashtest.tm.jooq.domain.Tables.REQUIREMENT_VERSION_COVERAGE;
+import static org.squashtest.tm.jooq.domain.Tables.RESOURCE;
+import static org.squashtest.tm.jooq.domain.Tables.SCRIPTED_TEST_CASE;
+import static org.squashtest.tm.jooq.domain.Tables.TCLN_RELATIONSHIP;
+import static org.squashtest.tm.jooq.domain.Tables.TCLN_RELATIONSHIP_CLOSURE;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_FOLDER;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_LIBRARY_CONTENT;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_LIBRARY_NODE;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_STEPS;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_STEP;
+import static org.squashtest.tm.jooq.domain.Tables.VERIFYING_STEPS;
+
+/**
+ * <p>Copies whole branches of the test case workspace with set based statements, instead of walking the branch and
+ * persisting each copied entity through Hibernate like {@link org.squashtest.tm.service.internal.library.TreeNodeCopier}
+ * does.</p>
+ *
+ * <p>
+ * Most kinds of rows are copied with one <code>INSERT ... SELECT</code>. The generated ids of the copies are matched
+ * with the ids of their sources through the work table COPY_ID_MAPPING, so that the next layers of rows can be
+ * copied in turn. The rows of ATTACHMENT_LIST and TEST_STEP are the exception : they have no other column than their
+ * generated id, so each one is inserted by its own statement to learn its id. On top of the fixed number of set
+ * based statements, a branch therefore costs one statement per attachment list (one per node and per action step)
+ * and one per step.
+ * </p>
+ *
+ * <p>
+ * Disabled unless <code>squashtm.copy.set-based</code> is set to true.
+ * </p>
+ *
+ * <p>
+ * Only the copies within the project of the source nodes are handled. {@link #copyNodes(NodeContainer, List)} returns
+ * an empty optional when the copy must go through the entity based paste strategies instead : the destination lies
+ * in another project, the sources hold keyword test cases, or the sources overlap.
+ * </p>
+ */
+@Component
+public class SetBasedTestCaseCopier {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SetBasedTestCaseCopier.class);
+
+	private static final String KIND_NODE = "NODE";
+	private static final String KIND_ATTACHMENT_LIST = "ATTACHMENT_LIST";
+	private static final String KIND_TEST_STEP = "TEST_STEP";
+
+	private static final int MAPPING_BATCH_SIZE = 500;
+
+	private static final List<String> NODE_ENTITY_TYPES = Arrays.asList(BindableEntity.TEST_CASE.name(),
+		BindableEntity.TESTCASE_FOLDER.name());
+	private static final List<String> STEP_ENTITY_TYPES = Arrays.asList(BindableEntity.TEST_STEP.name());
+
+	@Inject
+	private DSLContext DSL;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Inject
+	private PermissionEvaluationService permissionService;
+
+	@Inject
+	private AttachmentManagerService attachmentManagerService;
+
+	@Inject
+	private AttachmentStorageModeConfigurer attachmentStorageModeConfigurer;
+
+	@Inject
+	private LibraryNodePathCache pathCache;
+
+	@Inject
+	private TestCaseCallGraphIndex callGraphIndex;
+
+	@Value("${squashtm.copy.set-based:false}")
+	private boolean enabled;
+
+	/**
+	 * Copies the given nodes and their whole content at the end of the given destination. The copies are renamed the
+	 * same way {@link org.squashtest.tm.service.internal.library.TreeNodeCopier} does when their name is already taken.
+	 *
+	 * @param destination the folder or library to copy the nodes in
+	 * @param sourceIds   the ids of the nodes to copy
+	 * @return the copies, in the order of their sources, or an empty optional when the nodes cannot be copied that way
+	 */
+	public Optional<List<TestCaseLibraryNode>> copyNodes(NodeContainer<TestCaseLibraryNode> destination, List<Long> sourceIds) {
+		if (!enabled || sourceIds.isEmpty() || new HashSet<>(sourceIds).size() != sourceIds.size()) {
+			return Optional.empty();
+		}
+
+		// the rows are read directly from the database, pending changes must be there as well
+		entityManager.flush();
+
+		Optional<Map<Long, Long>> branch = findCopiableBranch(destination, sourceIds);
+		if (!branch.isPresent()) {
+			LOGGER.debug("Nodes {} will be copied node by node", sourceIds);
+			return Optional.empty();
+		}
+
+		PermissionsUtils.checkPermission(permissionService, new SecurityCheckableObject(destination, "CREATE"));
+		for (Long sourceId : sourceIds) {
+			PermissionsUtils.checkPermission(permissionService,
+				new SecurityCheckableObject(entityManager.find(TestCaseLibraryNode.class, sourceId), "READ"));
+		}
+
+		Operation operation = new Operation();
+		List<Long> copyIds = operation.copy(destination, sourceIds, branch.get());
+
+		pathCache.nodesCreated();
+		if (entityManager.contains(destination)) {
+			entityManager.refresh(destination);
+		}
+
+		List<TestCaseLibraryNode> copies = new ArrayList<>(copyIds.size());
+		for (Long copyId : copyIds) {
+			copies.add(entityManager.find(TestCaseLibraryNode.class, copyId));
+		}
+		return Optional.of(copies);
+	}
+
+	/*
+	 * Returns the attachment list ids of the nodes of the branch, mapped by node id, or nothing when the branch cannot
+	 * be copied here.
+	 */
+	private Optional<Map<Long, Long>> findCopiableBranch(NodeContainer<TestCaseLibraryNode> destination, List<Long> sourceIds) {
+		Long projectId = destination.getProject().getId();
+		Long destinationNodeId = destination instanceof TestCaseFolder ? destination.getId() : null;
+
+		List<Record6<Long, Long, Long, Long, Long, Long>> rows = DSL
+			.select(TEST_CASE_LIBRARY_NODE.TCLN_ID, TEST_CASE_LIBRARY_NODE.PROJECT_ID,
+				TEST_CASE_LIBRARY_NODE.ATTACHMENT_LIST_ID, TEST_CASE_FOLDER.TCLN_ID, TEST_CASE.TCLN_ID,
+				KEYWORD_TEST_CASE.TCLN_ID)
+			.from(TCLN_RELATIONSHIP_CLOSURE)
+			.join(TEST_CASE_LIBRARY_NODE).on(TEST_CASE_LIBRARY_NODE.TCLN_ID.eq(TCLN_RELATIONSHIP_CLOSURE.DESCENDANT_ID))
+			.leftJoin(TEST_CASE_FOLDER).on(TEST_CASE_FOLDER.TCLN_ID.eq(TEST_CASE_LIBRARY_NODE.TCLN_ID))
+			.leftJoin(TEST_CASE).on(TEST_CASE.TCLN_ID.eq(TEST_CASE_LIBRARY_NODE.TCLN_ID))
+			.leftJoin(KEYWORD_TEST_CASE).on(KEYWORD_TEST_CASE.TCLN_ID.eq(TEST_CASE_LIBRARY_NODE.TCLN_ID))
+			.where(TCLN_RELATIONSHIP_CLOSURE.ANCESTOR_ID.in(sourceIds))
+			.fetch();
+
+		Map<Long, Long> attachmentListIdsByNodeId = new HashMap<>(rows.size());
+		for (Record6<Long, Long, Long, Long, Long, Long> row : rows) {
+			Long nodeId = row.value1();
+			boolean copiable = projectId.equals(row.value2())
+				&& (row.value4() != null || row.value5() != null)
+				&& row.value6() == null
+				&& !nodeId.equals(destinationNodeId)
+				// a node found twice is the descendant of two sources
+				&& attachmentListIdsByNodeId.put(nodeId, row.value3()) == null;
+
+			if (!copiable) {
+				return Optional.empty();
+			}
+		}
+
+		if (!attachmentListIdsByNodeId.keySet().containsAll(sourceIds)) {
+			return Optional.empty();
+		}
+		return Optional.of(attachmentListIdsByNodeId);
+	}
+
+	/**
+	 * A single copy, which owns the rows it writes in COPY_ID_MAPPING.
+	 */
+	private class Operation {
+		private final String operationId = UUID.randomUUID().toString();
+		private final String username = UserContextHolder.getUsername();
+		private final Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		private final CopyIdMapping node = COPY_ID_MAPPING.as("NODE_MAPPING");
+		private final CopyIdMapping list = COPY_ID_MAPPING.as("LIST_MAPPING");
+		private final CopyIdMapping step = COPY_ID_MAPPING.as("STEP_MAPPING");
+
+		List<Long> copy(NodeContainer<TestCaseLibraryNode> destination, List<Long> sourceIds, Map<Long, Long> attachmentListIdsByNodeId) {
+			LOGGER.debug("Copying {} nodes under {} with operation {}", attachmentListIdsByNodeId.size(), sourceIds, operationId);
+
+			copyNodes(attachmentListIdsByNodeId.values());
+			copySteps();
+			copyParametersAndDatasets();
+			copyAttachments();
+			copyCustomFieldValues(KIND_NODE, NODE_ENTITY_TYPES);
+			copyCustomFieldValues(KIND_TEST_STEP, STEP_ENTITY_TYPES);
+			copyMilestones();
+			copyCoverages();
+			copyRelationships();
+			List<Long> copyIds = attachFirstLayer(destination, sourceIds);
+			copyContentsOnExternalRepository();
+
+			DSL.deleteFrom(COPY_ID_MAPPING).where(COPY_ID_MAPPING.OPERATION_ID.eq(operationId)).execute();
+			return copyIds;
+		}
+
+		private void copyNodes(Iterable<Long> attachmentListIds) {
+			Map<Long, Long> listCopies = new HashMap<>();
+			for (Long attachmentListId : attachmentListIds) {
+				listCopies.put(attachmentListId, newAttachmentList());
+			}
+			map(KIND_ATTACHMENT_LIST, listCopies);
+
+			org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode source = TEST_CASE_LIBRARY_NODE.as("SOURCE_NODE");
+			org.squashtest.tm.jooq.domain.tables.TestCaseLibraryNode copy = TEST_CASE_LIBRARY_NODE.as("COPY_NODE");
+
+			DSL.insertInto(TEST_CASE_LIBRARY_NODE, TEST_CASE_LIBRARY_NODE.DESCRIPTION, TEST_CASE_LIBRARY_NODE.NAME,
+				TEST_CASE_LIBRARY_NODE.CREATED_BY, TEST_CASE_LIBRARY_NODE.CREATED_ON, TEST_CASE_LIBRARY_NODE.PROJECT_ID,
+				TEST_CASE_LIBRARY_NODE.ATTACHMENT_LIST_ID)
+				.select(DSL.select(source.DESCRIPTION, source.NAME, val(username), val(now), source.PROJECT_ID, list.COPY_ID)
+					.from(source)
+					.join(list).on(mapped(list, KIND_ATTACHMENT_LIST, source.ATTACHMENT_LIST_ID)))
+				.execute();
+
+			// each node has its own attachment list, which tells which copy comes from which source
+			DSL.insertInto(COPY_ID_MAPPING, COPY_ID_MAPPING.OPERATION_ID, COPY_ID_MAPPING.ENTITY_KIND,
+				COPY_ID_MAPPING.SOURCE_ID, COPY_ID_MAPPING.COPY_ID)
+				.select(DSL.select(val(operationId), val(KIND_NODE), source.TCLN_ID, copy.TCLN_ID)
+					.from(source)
+					.join(list).on(mapped(list, KIND_ATTACHMENT_LIST, source.ATTACHMENT_LIST_ID))
+					.join(copy).on(copy.ATTACHMENT_LIST_ID.eq(list.COPY_ID)))
+				.execute();
+
+			DSL.insertInto(TEST_CASE_FOLDER, TEST_CASE_FOLDER.TCLN_ID)
+				.select(DSL.select(node.COPY_ID)
+					.from(TEST_CASE_FOLDER)
+					.join(node).on(mapped(node, KIND_NODE, TEST_CASE_FOLDER.TCLN_ID)))
+				.execute();
+
+			DSL.insertInto(TEST_CASE, TEST_CASE.TCLN_ID, TEST_CASE.VERSION, TEST_CASE.EXECUTION_MODE,
+				TEST_CASE.IMPORTANCE, TEST_CASE.IMPORTANCE_AUTO, TEST_CASE.PREREQUISITE, TEST_CASE.REFERENCE,
+				TEST_CASE.TA_TEST, TEST_CASE.TC_STATUS, TEST_CASE.TC_NATURE, TEST_CASE.TC_TYPE, TEST_CASE.AUTOMATABLE,
+				TEST_CASE.UUID)
+				.select(DSL.select(node.COPY_ID, inline(1), TEST_CASE.EXECUTION_MODE, TEST_CASE.IMPORTANCE,
+					TEST_CASE.IMPORTANCE_AUTO, TEST_CASE.PREREQUISITE, TEST_CASE.REFERENCE, TEST_CASE.TA_TEST,
+					TEST_CASE.TC_STATUS, TEST_CASE.TC_NATURE, TEST_CASE.TC_TYPE, inline(TestCaseAutomatable.M.name()),
+					randomUuid())
+					.from(TEST_CASE)
+					.join(node).on(mapped(node, KIND_NODE, TEST_CASE.TCLN_ID)))
+				.execute();
+
+			DSL.insertInto(SCRIPTED_TEST_CASE, SCRIPTED_TEST_CASE.TCLN_ID, SCRIPTED_TEST_CASE.SCRIPT)
+				.select(DSL.select(node.COPY_ID, SCRIPTED_TEST_CASE.SCRIPT)
+					.from(SCRIPTED_TEST_CASE)
+					.join(node).on(mapped(node, KIND_NODE, SCRIPTED_TEST_CASE.TCLN_ID)))
+				.execute();
+		}
+
+		private void copySteps() {
+			Map<Long, Long> stepCopies = new HashMap<>();
+			Map<Long, Long> listCopies = new HashMap<>();
+
+			List<Record2<Long, Long>> steps = DSL.select(TEST_CASE_STEPS.STEP_ID, ACTION_TEST_STEP.ATTACHMENT_LIST_ID)
+				.from(TEST_CASE_STEPS)
+				.join(node).on(mapped(node, KIND_NODE, TEST_CASE_STEPS.TEST_CASE_ID))
+				.leftJoin(ACTION_TEST_STEP).on(ACTION_TEST_STEP.TEST_STEP_ID.eq(TEST_CASE_STEPS.STEP_ID))
+				.fetch();
+
+			for (Record2<Long, Long> sourceStep : steps) {
+				stepCopies.put(sourceStep.value1(), newTestStep());
+				if (sourceStep.value2() != null) {
+					listCopies.put(sourceStep.value2(), newAttachmentList());
+				}
+			}
+			map(KIND_TEST_STEP, stepCopies);
+			map(KIND_ATTACHMENT_LIST, listCopies);
+
+			DSL.insertInto(ACTION_TEST_STEP, ACTION_TEST_STEP.TEST_STEP_ID, ACTION_TEST_STEP.ACTION,
+				ACTION_TEST_STEP.EXPECTED_RESULT, ACTION_TEST_STEP.ATTACHMENT_LIST_ID)
+				.select(DSL.select(step.COPY_ID, ACTION_TEST_STEP.ACTION, ACTION_TEST_STEP.EXPECTED_RESULT, list.COPY_ID)
+					.from(ACTION_TEST_STEP)
+					.join(step).on(mapped(step, KIND_TEST_STEP, ACTION_TEST_STEP.TEST_STEP_ID))
+					.join(list).on(mapped(list, KIND_ATTACHMENT_LIST, ACTION_TEST_STEP.ATTACHMENT_LIST_ID)))
+				.execute();
+
+			// called test cases and datasets are kept, even when they are copied as well
+			DSL.insertInto(CALL_TEST_STEP, CALL_TEST_STEP.TEST_STEP_ID, CALL_TEST_STEP.CALLED_TEST_CASE_ID,
+				CALL_TEST_STEP.CALLED_DATASET, CALL_TEST_STEP.DELEGATE_PARAMETER_VALUES)
+				.select(DSL.select(step.COPY_ID, CALL_TEST_STEP.CALLED_TEST_CASE_ID, CALL_TEST_STEP.CALLED_DATASET,
+					CALL_TEST_STEP.DELEGATE_PARAMETER_VALUES)
+					.from(CALL_TEST_STEP)
+					.join(step).on(mapped(step, KIND_TEST_STEP, CALL_TEST_STEP.TEST_STEP_ID)))
+				.execute();
+			callGraphIndex.callsChanged();
+
+			DSL.insertInto(TEST_CASE_STEPS, TEST_CASE_STEPS.TEST_CASE_ID, TEST_CASE_STEPS.STEP_ID,
+				TEST_CASE_STEPS.STEP_ORDER)
+				.select(DSL.select(node.COPY_ID, step.COPY_ID, TEST_CASE_STEPS.STEP_ORDER)
+					.from(TEST_CASE_STEPS)
+					.join(node).on(mapped(node, KIND_NODE, TEST_CASE_STEPS.TEST_CASE_ID))
+					.join(step).on(mapped(step, KIND_TEST_STEP, TEST_CASE_STEPS.STEP_ID)))
+				.execute();
+		}
+
+		/*
+		 * Parameters and datasets are unique by name within a test case, the copies are found back that way.
+		 */
+		private void copyParametersAndDatasets() {
+			DSL.insertInto(PARAMETER, PARAMETER.NAME, PARAMETER.TEST_CASE_ID, PARAMETER.DESCRIPTION)
+				.select(DSL.select(PARAMETER.NAME, node.COPY_ID, PARAMETER.DESCRIPTION)
+					.from(PARAMETER)
+					.join(node).on(mapped(node, KIND_NODE, PARAMETER.TEST_CASE_ID)))
+				.execute();
+
+			DSL.insertInto(DATASET, DATASET.NAME, DATASET.TEST_CASE_ID)
+				.select(DSL.select(DATASET.NAME, node.COPY_ID)
+					.from(DATASET)
+					.join(node).on(mapped(node, KIND_NODE, DATASET.TEST_CASE_ID)))
+				.execute();
+
+			Dataset sourceDataset = DATASET.as("SOURCE_DATASET");
+			Dataset copyDataset = DATASET.as("COPY_DATASET");
+			Parameter sourceParam = PARAMETER.as("SOURCE_PARAM");
+			Parameter copyParam = PARAMETER.as("COPY_PARAM");
+
+			// values of parameters which belong to called test cases still point to those parameters
+			DSL.insertInto(DATASET_PARAM_VALUE, DATASET_PARAM_VALUE.DATASET_ID, DATASET_PARAM_VALUE.PARAM_ID,
+				DATASET_PARAM_VALUE.PARAM_VALUE)
+				.select(DSL.select(copyDataset.DATASET_ID, coalesce(copyParam.PARAM_ID, sourceParam.PARAM_ID),
+					DATASET_PARAM_VALUE.PARAM_VALUE)
+					.from(DATASET_PARAM_VALUE)
+					.join(sourceDataset).on(sourceDataset.DATASET_ID.eq(DATASET_PARAM_VALUE.DATASET_ID))
+					.join(node).on(mapped(node, KIND_NODE, sourceDataset.TEST_CASE_ID))
+					.join(copyDataset).on(copyDataset.TEST_CASE_ID.eq(node.COPY_ID)
+						.and(copyDataset.NAME.eq(sourceDataset.NAME)))
+					.join(sourceParam).on(sourceParam.PARAM_ID.eq(DATASET_PARAM_VALUE.PARAM_ID))
+					.leftJoin(copyParam).on(sourceParam.TEST_CASE_ID.eq(sourceDataset.TEST_CASE_ID)
+						.and(copyParam.TEST_CASE_ID.eq(node.COPY_ID))
+						.and(copyParam.NAME.eq(sourceParam.NAME))))
+				.execute();
+		}
+
+		/*
+		 * Same as Attachment#shallowCopy() : the copies share the content of their source.
+		 */
+		private void copyAttachments() {
+			DSL.insertInto(ATTACHMENT, ATTACHMENT.NAME, ATTACHMENT.TYPE, ATTACHMENT.SIZE, ATTACHMENT.ADDED_ON,
+				ATTACHMENT.CONTENT_ID, ATTACHMENT.ATTACHMENT_LIST_ID)
+				.select(DSL.select(ATTACHMENT.NAME, ATTACHMENT.TYPE, ATTACHMENT.SIZE, val(now), ATTACHMENT.CONTENT_ID,
+					list.COPY_ID)
+					.from(ATTACHMENT)
+					.join(list).on(mapped(list, KIND_ATTACHMENT_LIST, ATTACHMENT.ATTACHMENT_LIST_ID)))
+				.execute();
+		}
+
+		private void copyCustomFieldValues(String kind, List<String> boundEntityTypes) {
+			CopyIdMapping entity = COPY_ID_MAPPING.as("ENTITY_MAPPING");
+			CustomFieldValue source = CUSTOM_FIELD_VALUE.as("SOURCE_CFV");
+			CustomFieldValue copy = CUSTOM_FIELD_VALUE.as("COPY_CFV");
+
+			DSL.insertInto(CUSTOM_FIELD_VALUE, CUSTOM_FIELD_VALUE.BOUND_ENTITY_ID, CUSTOM_FIELD_VALUE.BOUND_ENTITY_TYPE,
+				CUSTOM_FIELD_VALUE.CFB_ID, CUSTOM_FIELD_VALUE.VALUE, CUSTOM_FIELD_VALUE.LARGE_VALUE,
+				CUSTOM_FIELD_VALUE.FIELD_TYPE, CUSTOM_FIELD_VALUE.NUMERIC_VALUE, CUSTOM_FIELD_VALUE.CF_ID)
+				.select(DSL.select(entity.COPY_ID, source.BOUND_ENTITY_TYPE, source.CFB_ID, source.VALUE,
+					source.LARGE_VALUE, source.FIELD_TYPE, source.NUMERIC_VALUE, source.CF_ID)
+					.from(source)
+					.join(entity).on(mapped(entity, kind, source.BOUND_ENTITY_ID))
+					.where(source.BOUND_ENTITY_TYPE.in(boundEntityTypes)))
+				.execute();
+
+			// the options of tag fields
+			DSL.insertInto(CUSTOM_FIELD_VALUE_OPTION, CUSTOM_FIELD_VALUE_OPTION.CFV_ID, CUSTOM_FIELD_VALUE_OPTION.LABEL,
+				CUSTOM_FIELD_VALUE_OPTION.POSITION)
+				.select(DSL.select(copy.CFV_ID, CUSTOM_FIELD_VALUE_OPTION.LABEL, CUSTOM_FIELD_VALUE_OPTION.POSITION)
+					.from(CUSTOM_FIELD_VALUE_OPTION)
+					.join(source).on(source.CFV_ID.eq(CUSTOM_FIELD_VALUE_OPTION.CFV_ID))
+					.join(entity).on(mapped(entity, kind, source.BOUND_ENTITY_ID))
+					.join(copy).on(copy.BOUND_ENTITY_ID.eq(entity.COPY_ID)
+						.and(copy.BOUND_ENTITY_TYPE.eq(source.BOUND_ENTITY_TYPE))
+						.and(copy.CFB_ID.eq(source.CFB_ID)))
+					.where(source.BOUND_ENTITY_TYPE.in(boundEntityTypes)))
+				.execute();
+		}
+
+		private void copyMilestones() {
+			DSL.insertInto(MILESTONE_TEST_CASE, MILESTONE_TEST_CASE.MILESTONE_ID, MILESTONE_TEST_CASE.TEST_CASE_ID)
+				.select(DSL.select(MILESTONE_TEST_CASE.MILESTONE_ID, node.COPY_ID)
+					.from(MILESTONE_TEST_CASE)
+					.join(node).on(mapped(node, KIND_NODE, MILESTONE_TEST_CASE.TEST_CASE_ID)))
+				.execute();
+		}
+
+		/*
+		 * Same as RequirementVersionCoverage#copyForTestCase(TestCase) : obsolete versions cannot be linked.
+		 */
+		private void copyCoverages() {
+			RequirementVersionCoverage source = REQUIREMENT_VERSION_COVERAGE.as("SOURCE_COVERAGE");
+			RequirementVersionCoverage copy = REQUIREMENT_VERSION_COVERAGE.as("COPY_COVERAGE");
+
+			DSL.insertInto(REQUIREMENT_VERSION_COVERAGE, REQUIREMENT_VERSION_COVERAGE.VERIFIED_REQ_VERSION_ID,
+				REQUIREMENT_VERSION_COVERAGE.VERIFYING_TEST_CASE_ID)
+				.select(DSL.select(source.VERIFIED_REQ_VERSION_ID, node.COPY_ID)
+					.from(source)
+					.join(node).on(mapped(node, KIND_NODE, source.VERIFYING_TEST_CASE_ID))
+					.join(REQUIREMENT_VERSION).on(REQUIREMENT_VERSION.RES_ID.eq(source.VERIFIED_REQ_VERSION_ID))
+					.where(REQUIREMENT_VERSION.REQUIREMENT_STATUS.ne(RequirementStatus.OBSOLETE.name())))
+				.execute();
+
+			DSL.insertInto(VERIFYING_STEPS, VERIFYING_STEPS.REQUIREMENT_VERSION_COVERAGE_ID, VERIFYING_STEPS.TEST_STEP_ID)
+				.select(DSL.select(copy.REQUIREMENT_VERSION_COVERAGE_ID, step.COPY_ID)
+					.from(VERIFYING_STEPS)
+					.join(source).on(source.REQUIREMENT_VERSION_COVERAGE_ID.eq(VERIFYING_STEPS.REQUIREMENT_VERSION_COVERAGE_ID))
+					.join(node).on(mapped(node, KIND_NODE, source.VERIFYING_TEST_CASE_ID))
+					.join(copy).on(copy.VERIFYING_TEST_CASE_ID.eq(node.COPY_ID)
+						.and(copy.VERIFIED_REQ_VERSION_ID.eq(source.VERIFIED_REQ_VERSION_ID)))
+					.join(step).on(mapped(step, KIND_TEST_STEP, VERIFYING_STEPS.TEST_STEP_ID)))
+				.execute();
+
+			// what AuditLogInterceptor does when a coverage is created
+			DSL.update(RESOURCE)
+				.set(RESOURCE.LAST_MODIFIED_BY, username)
+				.set(RESOURCE.LAST_MODIFIED_ON, now)
+				.where(RESOURCE.RES_ID.in(DSL.select(REQUIREMENT_VERSION_COVERAGE.VERIFIED_REQ_VERSION_ID)
+					.from(REQUIREMENT_VERSION_COVERAGE)
+					.join(node).on(node.OPERATION_ID.eq(operationId)
+						.and(node.ENTITY_KIND.eq(KIND_NODE))
+						.and(node.COPY_ID.eq(REQUIREMENT_VERSION_COVERAGE.VERIFYING_TEST_CASE_ID)))))
+				.execute();
+		}
+
+		/*
+		 * The closure table is fed by the triggers on TCLN_RELATIONSHIP, whatever the order the rows are inserted in.
+		 */
+		private void copyRelationships() {
+			CopyIdMapping ancestor = COPY_ID_MAPPING.as("ANCESTOR_MAPPING");
+			CopyIdMapping descendant = COPY_ID_MAPPING.as("DESCENDANT_MAPPING");
+
+			DSL.insertInto(TCLN_RELATIONSHIP, TCLN_RELATIONSHIP.ANCESTOR_ID, TCLN_RELATIONSHIP.DESCENDANT_ID,
+				TCLN_RELATIONSHIP.CONTENT_ORDER)
+				.select(DSL.select(ancestor.COPY_ID, descendant.COPY_ID, TCLN_RELATIONSHIP.CONTENT_ORDER)
+					.from(TCLN_RELATIONSHIP)
+					.join(ancestor).on(mapped(ancestor, KIND_NODE, TCLN_RELATIONSHIP.ANCESTOR_ID))
+					.join(descendant).on(mapped(descendant, KIND_NODE, TCLN_RELATIONSHIP.DESCENDANT_ID)))
+				.execute();
+		}
+
+		/*
+		 * Appends the copies of the sources to the destination, renaming them like TreeNodeCopier does.
+		 */
+		private List<Long> attachFirstLayer(NodeContainer<TestCaseLibraryNode> destination, List<Long> sourceIds) {
+			boolean toFolder = destination instanceof TestCaseFolder;
+
+			Map<Long, Long> copyIdsBySourceId = DSL.select(COPY_ID_MAPPING.SOURCE_ID, COPY_ID_MAPPING.COPY_ID)
+				.from(COPY_ID_MAPPING)
+				.where(COPY_ID_MAPPING.OPERATION_ID.eq(operationId))
+				.and(COPY_ID_MAPPING.ENTITY_KIND.eq(KIND_NODE))
+				.and(COPY_ID_MAPPING.SOURCE_ID.in(sourceIds))
+				.fetchMap(COPY_ID_MAPPING.SOURCE_ID, COPY_ID_MAPPING.COPY_ID);
+
+			Map<Long, String> namesById = DSL.select(TEST_CASE_LIBRARY_NODE.TCLN_ID, TEST_CASE_LIBRARY_NODE.NAME)
+				.from(TEST_CASE_LIBRARY_NODE)
+				.where(TEST_CASE_LIBRARY_NODE.TCLN_ID.in(sourceIds))
+				.fetchMap(TEST_CASE_LIBRARY_NODE.TCLN_ID, TEST_CASE_LIBRARY_NODE.NAME);
+
+			List<String> contentNames = new ArrayList<>(toFolder
+				? DSL.select(TEST_CASE_LIBRARY_NODE.NAME)
+				.from(TEST_CASE_LIBRARY_NODE)
+				.join(TCLN_RELATIONSHIP).on(TCLN_RELATIONSHIP.DESCENDANT_ID.eq(TEST_CASE_LIBRARY_NODE.TCLN_ID))
+				.where(TCLN_RELATIONSHIP.ANCESTOR_ID.eq(destination.getId()))
+				.fetch(TEST_CASE_LIBRARY_NODE.NAME)
+				: DSL.select(TEST_CASE_LIBRARY_NODE.NAME)
+				.from(TEST_CASE_LIBRARY_NODE)
+				.join(TEST_CASE_LIBRARY_CONTENT).on(TEST_CASE_LIBRARY_CONTENT.CONTENT_ID.eq(TEST_CASE_LIBRARY_NODE.TCLN_ID))
+				.where(TEST_CASE_LIBRARY_CONTENT.LIBRARY_ID.eq(destination.getId()))
+				.fetch(TEST_CASE_LIBRARY_NODE.NAME));
+
+			int position = contentNames.size();
+			List<Long> copyIds = new ArrayList<>(sourceIds.size());
+
+			for (Long sourceId : sourceIds) {
+				Long copyId = copyIdsBySourceId.get(sourceId);
+				String name = namesById.get(sourceId);
+
+				if (contentNames.contains(name)) {
+					name = LibraryUtils.generateUniqueCopyName(contentNames, name, Sizes.NAME_MAX);
+					DSL.update(TEST_CASE_LIBRARY_NODE)
+						.set(TEST_CASE_LIBRARY_NODE.NAME, name)
+						.where(TEST_CASE_LIBRARY_NODE.TCLN_ID.eq(copyId))
+						.execute();
+				}
+				contentNames.add(name);
+
+				if (toFolder) {
+					DSL.insertInto(TCLN_RELATIONSHIP, TCLN_RELATIONSHIP.ANCESTOR_ID, TCLN_RELATIONSHIP.DESCENDANT_ID,
+						TCLN_RELATIONSHIP.CONTENT_ORDER)
+						.values(destination.getId(), copyId, position++)
+						.execute();
+				} else {
+					DSL.insertInto(TEST_CASE_LIBRARY_CONTENT, TEST_CASE_LIBRARY_CONTENT.LIBRARY_ID,
+						TEST_CASE_LIBRARY_CONTENT.CONTENT_ID, TEST_CASE_LIBRARY_CONTENT.CONTENT_ORDER)
+						.values(destination.getId(), copyId, position++)
+						.execute();
+				}
+				copyIds.add(copyId);
+			}
+
+			return copyIds;
+		}
+
+		/*
+		 * When the attachments live in a file repository, each copy needs its own file.
+		 */
+		private void copyContentsOnExternalRepository() {
+			if (attachmentStorageModeConfigurer.getAttachmentStorageMode() == AttachmentStorageMode.DATABASE) {
+				return;
+			}
+
+			org.squashtest.tm.jooq.domain.tables.Attachment source = ATTACHMENT.as("SOURCE_ATTACHMENT");
+			org.squashtest.tm.jooq.domain.tables.Attachment copy = ATTACHMENT.as("COPY_ATTACHMENT");
+
+			List<Record2<Long, Long>> pairs = DSL.select(source.ATTACHMENT_ID, copy.ATTACHMENT_ID)
+				.from(source)
+				.join(list).on(mapped(list, KIND_ATTACHMENT_LIST, source.ATTACHMENT_LIST_ID))
+				.join(copy).on(copy.ATTACHMENT_LIST_ID.eq(list.COPY_ID)
+					.and(copy.CONTENT_ID.eq(source.CONTENT_ID)))
+				.fetch();
+
+			for (Record2<Long, Long> pair : pairs) {
+				Attachment attachment = entityManager.find(Attachment.class, pair.value2());
+				attachment.setAttachmentToCopyId(pair.value1());
+				attachmentManagerService.copyContent(attachment);
+			}
+		}
+
+		private Long newAttachmentList() {
+			return DSL.insertInto(ATTACHMENT_LIST)
+				.defaultValues()
+				.returning(ATTACHMENT_LIST.ATTACHMENT_LIST_ID)
+				.fetchOne()
+				.getAttachmentListId();
+		}
+
+		private Long newTestStep() {
+			return DSL.insertInto(TEST_STEP)
+				.defaultValues()
+				.returning(TEST_STEP.TEST_STEP_ID)
+				.fetchOne()
+				.getTestStepId();
+		}
+
+		private void map(String kind, Map<Long, Long> copyIdsBySourceId) {
+			for (List<Entry<Long, Long>> batch : Lists.partition(new ArrayList<>(copyIdsBySourceId.entrySet()), MAPPING_BATCH_SIZE)) {
+				InsertValuesStep4<CopyIdMappingRecord, String, String, Long, Long> insert = DSL.insertInto(COPY_ID_MAPPING,
+					COPY_ID_MAPPING.OPERATION_ID, COPY_ID_MAPPING.ENTITY_KIND, COPY_ID_MAPPING.SOURCE_ID, COPY_ID_MAPPING.COPY_ID);
+				for (Entry<Long, Long> entry : batch) {
+					insert = insert.values(operationId, kind, entry.getKey(), entry.getValue());
+				}
+				insert.execute();
+			}
+		}
+
+		private Condition mapped(CopyIdMapping mapping, String kind, Field<Long> sourceId) {
+			return mapping.OPERATION_ID.eq(operationId)
+				.and(mapping.ENTITY_KIND.eq(kind))
+				.and(mapping.SOURCE_ID.eq(sourceId));
+		}
+
+		private Field<String> randomUuid() {
+			switch (DSL.dialect().family()) {
+				case POSTGRES:
+					return field("cast(uuid_generate_v4() as varchar)", String.class);
+				case MYSQL:
+					return field("uuid()", String.class);
+				default:
+					return field("cast(random_uuid() as varchar)", String.class);
+			}
+		}
+	}
+
+}
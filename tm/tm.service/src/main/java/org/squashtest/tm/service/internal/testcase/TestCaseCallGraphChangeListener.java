@@ -0,0 +1,124 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.squashtest.tm.domain.testcase.CallTestStep;
+import org.squashtest.tm.domain.testcase.TestCase;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+/**
+ * Watches the flushes of the call steps, and reports the calls they create or remove to the
+ * {@link TestCaseCallGraphIndex}.
+ */
+@SuppressWarnings("serial")
+@Component
+public class TestCaseCallGraphChangeListener implements PostInsertEventListener, PostDeleteEventListener,
+	PostUpdateEventListener {
+
+	private static final String CALLED_TEST_CASE = "calledTestCase";
+
+	@Inject
+	private transient TestCaseCallGraphIndex callGraphIndex;
+
+	@Inject
+	private transient EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	public void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+
+		registry.appendListeners(EventType.POST_INSERT, this);
+		registry.appendListeners(EventType.POST_DELETE, this);
+		registry.appendListeners(EventType.POST_UPDATE, this);
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		if (event.getEntity() instanceof CallTestStep) {
+			CallTestStep step = (CallTestStep) event.getEntity();
+			if (step.getTestCase() == null || step.getCalledTestCase() == null) {
+				callGraphIndex.callsChanged();
+			} else {
+				callGraphIndex.callAdded(step.getTestCase().getId(), step.getCalledTestCase().getId());
+			}
+		}
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		if (event.getEntity() instanceof CallTestStep) {
+			CallTestStep step = (CallTestStep) event.getEntity();
+			if (step.getTestCase() == null || step.getCalledTestCase() == null) {
+				callGraphIndex.callsChanged();
+			} else {
+				callGraphIndex.callRemoved(step.getTestCase().getId(), step.getCalledTestCase().getId());
+			}
+		}
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		if (!(event.getEntity() instanceof CallTestStep)) {
+			return;
+		}
+
+		int property = Arrays.asList(event.getPersister().getPropertyNames()).indexOf(CALLED_TEST_CASE);
+		Object[] oldState = event.getOldState();
+		if (oldState == null || property < 0) {
+			callGraphIndex.callsChanged();
+			return;
+		}
+
+		TestCase oldCalled = (TestCase) oldState[property];
+		TestCase newCalled = (TestCase) event.getState()[property];
+		if (oldCalled != newCalled) {
+			TestCase caller = ((CallTestStep) event.getEntity()).getTestCase();
+			if (caller == null || oldCalled == null || newCalled == null) {
+				callGraphIndex.callsChanged();
+			} else {
+				callGraphIndex.callRemoved(caller.getId(), oldCalled.getId());
+				callGraphIndex.callAdded(caller.getId(), newCalled.getId());
+			}
+		}
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+}
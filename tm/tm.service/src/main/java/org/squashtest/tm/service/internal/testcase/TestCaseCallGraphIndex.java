@@ -0,0 +1,288 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase;
+
+import org.jooq.DSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.squashtest.tm.jooq.domain.Tables.CALL_TEST_STEP;
+import static org.squashtest.tm.jooq.domain.Tables.TEST_CASE_STEPS;
+
+/**
+ * <p>Index of the test case calls, answering the call graph queries of {@link TestCaseCallTreeFinder} from memory.</p>
+ *
+ * <p>
+ * The index is loaded in the background the first time it is queried, with a single query. It then follows the
+ * committed changes of the call steps, reported by {@link TestCaseCallGraphChangeListener} and by the bulk operations
+ * through {@link #callsChanged()} (in which case it is loaded again).
+ * </p>
+ *
+ * <p>
+ * The index only knows of the committed calls. While it is loading, and in a transaction which changed some calls,
+ * the queries fall back to the database. The pending changes of the current transaction are flushed beforehand, so
+ * that they are known.
+ * </p>
+ */
+@Component
+public class TestCaseCallGraphIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestCaseCallGraphIndex.class);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// null until loaded, and after a change it could not follow
+	private CallGraphAdjacency adjacency;
+
+	/*
+	 * Incremented on each committed change, so that an index loaded while calls were changed is not used.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicBoolean loading = new AtomicBoolean();
+
+	@Inject
+	private DSLContext DSL;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private TaskExecutor taskExecutor;
+
+	/**
+	 * Runs the given query against the index, or the fallback when the index cannot answer it.
+	 *
+	 * @param query    the query, run while the index cannot change
+	 * @param fallback the equivalent database query
+	 * @return the result of either
+	 */
+	<T> T query(Function<CallGraphAdjacency, T> query, Supplier<T> fallback) {
+		flushPendingChanges();
+
+		if (changesInCurrentTransaction() == null) {
+			lock.readLock().lock();
+			try {
+				if (adjacency != null) {
+					return query.apply(adjacency);
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			loadInBackground();
+		}
+
+		return fallback.get();
+	}
+
+	/**
+	 * Records that a call step was created. The index follows it once the current transaction commits.
+	 */
+	public void callAdded(long callerId, long calledId) {
+		Changes changes = bindChanges();
+		if (changes != null) {
+			changes.added.add(new long[]{callerId, calledId});
+		}
+	}
+
+	/**
+	 * Records that a call step was deleted. The index follows it once the current transaction commits.
+	 */
+	public void callRemoved(long callerId, long calledId) {
+		Changes changes = bindChanges();
+		if (changes != null) {
+			changes.removed.add(new long[]{callerId, calledId});
+		}
+	}
+
+	/**
+	 * Records that the call steps were changed in a way the index cannot follow, eg by a bulk query. The index is
+	 * loaded again once the current transaction commits.
+	 */
+	public void callsChanged() {
+		Changes changes = bindChanges();
+		if (changes != null) {
+			changes.reload = true;
+		}
+	}
+
+	/**
+	 * Drops the index, it is loaded again when next queried.
+	 */
+	public void evict() {
+		lock.writeLock().lock();
+		try {
+			generation.incrementAndGet();
+			adjacency = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * The call steps persisted or removed in the current transaction are only reported once flushed.
+	 */
+	private void flushPendingChanges() {
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+			&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			entityManager.flush();
+		}
+	}
+
+	private Changes changesInCurrentTransaction() {
+		return (Changes) TransactionSynchronizationManager.getResource(this);
+	}
+
+	/*
+	 * Returns the changes of the current transaction, or null (having dropped the index) when there is no transaction
+	 * to wait for.
+	 */
+	private Changes bindChanges() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			evict();
+			return null;
+		}
+
+		Changes changes = changesInCurrentTransaction();
+		if (changes == null) {
+			Changes newChanges = new Changes();
+			TransactionSynchronizationManager.bindResource(this, newChanges);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(TestCaseCallGraphIndex.this);
+					if (status == TransactionSynchronization.STATUS_COMMITTED) {
+						apply(newChanges);
+					}
+				}
+			});
+			changes = newChanges;
+		}
+		return changes;
+	}
+
+	private void apply(Changes changes) {
+		lock.writeLock().lock();
+		try {
+			generation.incrementAndGet();
+			if (adjacency == null) {
+				return;
+			}
+
+			if (changes.reload) {
+				LOGGER.debug("Test case calls were changed in bulk, dropping the call graph index");
+				adjacency = null;
+				return;
+			}
+
+			for (long[] call : changes.added) {
+				adjacency.addEdge(call[0], call[1]);
+			}
+			for (long[] call : changes.removed) {
+				if (!adjacency.removeEdge(call[0], call[1])) {
+					LOGGER.debug("Unknown call from test case #{} to #{}, dropping the call graph index", call[0], call[1]);
+					adjacency = null;
+					return;
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void loadInBackground() {
+		if (loading.compareAndSet(false, true)) {
+			try {
+				taskExecutor.execute(this::load);
+			} catch (RuntimeException e) {
+				loading.set(false);
+				LOGGER.warn("Could not schedule the loading of the call graph index", e);
+			}
+		}
+	}
+
+	private void load() {
+		try {
+			long startGeneration = generation.get();
+
+			TransactionTemplate template = new TransactionTemplate(transactionManager);
+			template.setReadOnly(true);
+			CallGraphAdjacency loaded = template.execute(status -> {
+				CallGraphAdjacency result = new CallGraphAdjacency();
+				DSL.select(TEST_CASE_STEPS.TEST_CASE_ID, CALL_TEST_STEP.CALLED_TEST_CASE_ID)
+					.from(CALL_TEST_STEP)
+					.join(TEST_CASE_STEPS).on(TEST_CASE_STEPS.STEP_ID.eq(CALL_TEST_STEP.TEST_STEP_ID))
+					.fetch()
+					.forEach(call -> result.addEdge(call.value1(), call.value2()));
+				return result;
+			});
+
+			lock.writeLock().lock();
+			try {
+				if (startGeneration == generation.get()) {
+					adjacency = loaded;
+					LOGGER.info("Loaded the call graph index : {} test cases, {} calls", loaded.getNodeCount(), loaded.getEdgeCount());
+				} else {
+					LOGGER.debug("Test case calls changed while loading the call graph index, it will be loaded again");
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+		} catch (RuntimeException e) {
+			LOGGER.warn("Could not load the call graph index", e);
+		} finally {
+			loading.set(false);
+		}
+	}
+
+	/*
+	 * The calls changed by a transaction. Not thread-safe, it belongs to the transaction.
+	 */
+	private static final class Changes {
+		private final List<long[]> added = new ArrayList<>();
+		private final List<long[]> removed = new ArrayList<>();
+		private boolean reload;
+	}
+
+}
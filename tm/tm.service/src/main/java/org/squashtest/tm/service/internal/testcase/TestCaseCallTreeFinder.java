@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.testcase;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.collections.Bag;
 import org.apache.commons.collections.bag.HashBag;
 import org.slf4j.Logger;
@@ -32,13 +33,19 @@ import org.squashtest.tm.domain.library.structures.LibraryGraph.SimpleNode;
 import org.squashtest.tm.service.internal.repository.TestCaseDao;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
+ * Navigates the test case calls. The queries are answered by the {@link TestCaseCallGraphIndex} when possible, and
+ * by the database otherwise : with a single recursive query when it supports them, one query per level of calls if
+ * not.
  *
  * @author Gregory Fouquet
  *
@@ -48,9 +55,15 @@ public class TestCaseCallTreeFinder {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TestCaseCallTreeFinder.class);
 
+	// size of the batches of test cases which details are fetched at once
+	private static final int DETAILS_BATCH_SIZE = 1000;
+
 	@Inject
 	private TestCaseDao testCaseDao;
 
+	@Inject
+	private TestCaseCallGraphIndex callGraphIndex;
+
 	/**
 	 *  given the Id of a test case, will compute the subsequent test case call tree.
 	 *
@@ -58,6 +71,19 @@ public class TestCaseCallTreeFinder {
 	 * @return a set containing the ids of the called test cases, that will not include the calling test case id. Not null, possibly empty.
 	 */
 	public Set<Long> getTestCaseCallTree(Long rootTcId) {
+		return callGraphIndex.query(graph -> {
+			Set<Long> calleesIds = graph.findCallees(Collections.singleton(rootTcId));
+			calleesIds.remove(rootTcId);
+			return calleesIds;
+		}, () -> findTestCaseCallTree(rootTcId));
+	}
+
+	private Set<Long> findTestCaseCallTree(Long rootTcId) {
+		if (testCaseDao.supportsRecursiveCallQueries()) {
+			Set<Long> calleesIds = testCaseDao.findAllTestCasesIdsCalledRecursively(Collections.singleton(rootTcId));
+			calleesIds.remove(rootTcId);
+			return calleesIds;
+		}
 
 		Set<Long> calleesIds = new HashSet<>();
 		List<Long> prevCalleesIds = testCaseDao.findAllDistinctTestCasesIdsCalledByTestCase(rootTcId);
@@ -67,12 +93,12 @@ public class TestCaseCallTreeFinder {
 		prevCalleesIds.remove(rootTcId);// added to prevent infinite cycle in case of inconsistent data
 
 		while (!prevCalleesIds.isEmpty()) {
-			// FIXME a tester avant correction : boucle infinie quand il y a un cycle dans les appels de cas de test
 			calleesIds.addAll(prevCalleesIds);
 			prevCalleesIds = testCaseDao.findAllTestCasesIdsCalledByTestCases(prevCalleesIds);
 
 			LOGGER.trace("TestCase #{} indirectly calls {}", rootTcId, prevCalleesIds);
 			prevCalleesIds.remove(rootTcId);// added to prevent infinite cycle in case of inconsistent data
+			prevCalleesIds.removeAll(calleesIds);// same, for the cycles which do not involve the root test case
 		}
 
 		return calleesIds;
@@ -85,6 +111,13 @@ public class TestCaseCallTreeFinder {
 	 * @return
 	 */
 	public Set<Long> getTestCaseCallTree(Collection<Long> tcIds) {
+		return callGraphIndex.query(graph -> graph.findCallees(tcIds), () -> findTestCaseCallTree(tcIds));
+	}
+
+	private Set<Long> findTestCaseCallTree(Collection<Long> tcIds) {
+		if (testCaseDao.supportsRecursiveCallQueries()) {
+			return testCaseDao.findAllTestCasesIdsCalledRecursively(tcIds);
+		}
 
 		Set<Long> result = new HashSet<>();
 
@@ -112,6 +145,19 @@ public class TestCaseCallTreeFinder {
 	 * @return : all calling test case (even through multiple call)
 	 */
 	public Set<Long> getTestCaseCallers(Long rootTcId) {
+		return callGraphIndex.query(graph -> {
+			Set<Long> callerIds = graph.findCallers(Collections.singleton(rootTcId));
+			callerIds.remove(rootTcId);
+			return callerIds;
+		}, () -> findTestCaseCallers(rootTcId));
+	}
+
+	private Set<Long> findTestCaseCallers(Long rootTcId) {
+		if (testCaseDao.supportsRecursiveCallQueries()) {
+			Set<Long> callerIds = testCaseDao.findAllTestCasesIdsCallingRecursively(Collections.singleton(rootTcId));
+			callerIds.remove(rootTcId);
+			return callerIds;
+		}
 
 		Set<Long> callerIds = new HashSet<>();
 		List<Long> prevCallerIds = testCaseDao.findAllDistinctTestCasesIdsCallingTestCase(rootTcId);
@@ -121,12 +167,12 @@ public class TestCaseCallTreeFinder {
 		prevCallerIds.remove(rootTcId);// added to prevent infinite cycle in case of inconsistent data
 
 		while (!prevCallerIds.isEmpty()) {
-			// FIXME a tester avant correction : boucle infinie quand il y a un cycle dans les appels de cas de test
 			callerIds.addAll(prevCallerIds);
 			prevCallerIds = testCaseDao.findAllTestCasesIdsCallingTestCases(prevCallerIds);
 
 			LOGGER.trace("TestCase #{} indirectly calls {}", prevCallerIds, rootTcId);
 			prevCallerIds.remove(rootTcId);// added to prevent infinite cycle in case of inconsistent data
+			prevCallerIds.removeAll(callerIds);// same, for the cycles which do not involve the root test case
 		}
 
 		return callerIds;
@@ -140,6 +186,31 @@ public class TestCaseCallTreeFinder {
 	 */
 	public LibraryGraph<NamedReference, SimpleNode<NamedReference>> getCallerGraph(List<Long> calledIds) {
 
+		// when the index knows of all the callers, their details are fetched at once
+		Optional<Set<Long>> indexedIds = callGraphIndex.<Optional<Set<Long>>>query(graph -> Optional.of(graph.findCallers(calledIds)), Optional::empty);
+
+		List<NamedReferencePair> allpairs = indexedIds
+			.map(callerIds -> {
+				Set<Long> allIds = new HashSet<>(calledIds);
+				allIds.addAll(callerIds);
+				return findCallsUpstream(allIds);
+			})
+			.orElseGet(() -> collectCallsUpstream(calledIds));
+
+		// phase 2 : make that graph
+
+		LibraryGraph<NamedReference, SimpleNode<NamedReference>> graph = new LibraryGraph<>();
+
+		for (NamedReferencePair pair : allpairs) {
+			graph.addEdge(node(pair.getCaller()), node(pair.getCalled()));
+		}
+
+		return graph;
+
+	}
+
+	private List<NamedReferencePair> collectCallsUpstream(List<Long> calledIds) {
+
 		// remember which nodes were processed (so that we can spare less DB calls in the worst cases scenarios)
 		Set<Long> allIds = new HashSet<>();
 		allIds.addAll(calledIds);
@@ -185,15 +256,7 @@ public class TestCaseCallTreeFinder {
 
 		}
 
-		// phase 2 : make that graph
-
-		LibraryGraph<NamedReference, SimpleNode<NamedReference>> graph = new LibraryGraph<>();
-
-		for (NamedReferencePair pair : allpairs) {
-			graph.addEdge(node(pair.getCaller()), node(pair.getCalled()));
-		}
-
-		return graph;
+		return allpairs;
 
 	}
 
@@ -210,6 +273,41 @@ public class TestCaseCallTreeFinder {
 	// that's why we use a bag here, and then we halve the cardinality.
 	public LibraryGraph<NamedReference, SimpleNode<NamedReference>> getExtendedGraph(List<Long> sourceIds) {
 
+		// when the index knows of all the connected test cases, their details are fetched at once
+		Optional<Set<Long>> indexedIds = callGraphIndex.<Optional<Set<Long>>>query(graph -> Optional.of(graph.findConnected(sourceIds)), Optional::empty);
+
+		Bag allpairs = indexedIds
+			.map(allIds -> {
+				Bag pairs = new HashBag();
+				pairs.addAll(findCallsUpstream(allIds));
+				pairs.addAll(findCallsDownstream(allIds));
+				return pairs;
+			})
+			.orElseGet(() -> collectCallsBothWays(sourceIds));
+
+		// phase 2 : halve the number of edges as explained in the comment above the method
+		// every edges will appear two times, except for "boundaries" (ie caller is null or called is null),
+		// for which the cardinality is 1.
+		for (NamedReferencePair pair : (Set<NamedReferencePair>) allpairs.uniqueSet()) {
+			int cardinality = allpairs.getCount(pair);
+			if (cardinality > 1) {
+				allpairs.remove(pair, cardinality / 2);
+			}
+		}
+
+		// phase 3 : make that graph
+		LibraryGraph<NamedReference, SimpleNode<NamedReference>> graph = new LibraryGraph<>();
+
+		for (NamedReferencePair pair : (Iterable<NamedReferencePair>) allpairs) {
+			graph.addEdge(node(pair.getCaller()), node(pair.getCalled()));
+		}
+
+		return graph;
+
+	}
+
+	private Bag collectCallsBothWays(List<Long> sourceIds) {
+
 		// remember which nodes were processed (so that we can spare less DB calls in the worst cases scenarios)
 		Set<Long> treated = new HashSet<>();
 		treated.addAll(sourceIds);
@@ -265,25 +363,24 @@ public class TestCaseCallTreeFinder {
 
 		}
 
-		// phase 2 : halve the number of edges as explained in the comment above the method
-		// every edges will appear two times, except for "boundaries" (ie caller is null or called is null),
-		// for which the cardinality is 1.
-		for (NamedReferencePair pair : (Set<NamedReferencePair>) allpairs.uniqueSet()) {
-			int cardinality = allpairs.getCount(pair);
-			if (cardinality > 1) {
-				allpairs.remove(pair, cardinality / 2);
-			}
-		}
+		return allpairs;
 
-		// phase 3 : make that graph
-		LibraryGraph<NamedReference, SimpleNode<NamedReference>> graph = new LibraryGraph<>();
+	}
 
-		for (NamedReferencePair pair : (Iterable<NamedReferencePair>) allpairs) {
-			graph.addEdge(node(pair.getCaller()), node(pair.getCalled()));
+	private List<NamedReferencePair> findCallsUpstream(Collection<Long> testCaseIds) {
+		List<NamedReferencePair> pairs = new ArrayList<>();
+		for (List<Long> batch : Lists.partition(new ArrayList<>(testCaseIds), DETAILS_BATCH_SIZE)) {
+			pairs.addAll(testCaseDao.findTestCaseCallsUpstream(batch));
 		}
+		return pairs;
+	}
 
-		return graph;
-
+	private List<NamedReferencePair> findCallsDownstream(Collection<Long> testCaseIds) {
+		List<NamedReferencePair> pairs = new ArrayList<>();
+		for (List<Long> batch : Lists.partition(new ArrayList<>(testCaseIds), DETAILS_BATCH_SIZE)) {
+			pairs.addAll(testCaseDao.findTestCaseCallsDownstream(batch));
+		}
+		return pairs;
 	}
 
 	private SimpleNode<NamedReference> node(NamedReference ref) {
@@ -20,6 +20,7 @@
  */
 package org.squashtest.tm.service.internal.testcase;
 
+import io.micrometer.core.annotation.Timed;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
@@ -211,6 +212,9 @@ public class TestCaseLibraryNavigationServiceImpl
 	@Inject
 	private NameResolver nameResolver;
 
+	@Inject
+	private SetBasedTestCaseCopier setBasedCopier;
+
 	@Override
 	protected NodeDeletionHandler<TestCaseLibraryNode, TestCaseFolder> getDeletionHandler() {
 		return deletionHandler;
@@ -613,17 +617,20 @@ public class TestCaseLibraryNavigationServiceImpl
 	@Override
 	@PreAuthorize("hasPermission(#libraryId, 'org.squashtest.tm.domain.testcase.TestCaseLibrary', 'IMPORT')"
 		+ OR_HAS_ROLE_ADMIN)
+	@Timed("squash.import")
 	public ImportSummary importZipTestCase(InputStream archiveStream, long libraryId, String encoding) {
 
 		return testCaseImporter.importExcelTestCases(archiveStream, libraryId, encoding);
 	}
 
 	@Override
+	@Timed("squash.import")
 	public ImportLog simulateImportExcelTestCase(File excelFile) {
 		return batchImporter.simulateImport(excelFile);
 	}
 
 	@Override
+	@Timed("squash.import")
 	public ImportLog performImportExcelTestCase(File excelFile) {
 		return batchImporter.performImport(excelFile);
 	}
@@ -653,6 +660,7 @@ public class TestCaseLibraryNavigationServiceImpl
 
 	@Override
 	@Transactional(readOnly = true)
+	@Timed("squash.export")
 	public File exportTestCaseAsExcel(List<Long> libraryIds, List<Long> nodeIds, boolean includeCalledTests,
 									  boolean keepRteFormat, MessageSource messageSource) {
 
@@ -664,6 +672,19 @@ public class TestCaseLibraryNavigationServiceImpl
 
 	@Override
 	@Transactional(readOnly = true)
+	@Timed("squash.export")
+	public File exportTestCaseAsXlsx(List<Long> libraryIds, List<Long> nodeIds, boolean includeCalledTests,
+									 boolean keepRteFormat, MessageSource messageSource) {
+
+		Collection<Long> allIds = findTestCaseIdsFromSelection(libraryIds, nodeIds, includeCalledTests);
+		allIds = securityFilterIds(allIds, TEST_CASE_CLASS_NAME, EXPORT);
+
+		return excelService.exportAsXlsx(new ArrayList<>(allIds), keepRteFormat, messageSource);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	@Timed("squash.export")
 	public File exportGherkinTestCaseAsFeatureFiles(List<Long> libraryIds, List<Long> nodeIds, MessageSource messageSource) {
 		Collection<Long> ids = findTestCaseIdsFromSelection(libraryIds, nodeIds);
 		return doGherkinExport(ids);
@@ -671,6 +692,7 @@ public class TestCaseLibraryNavigationServiceImpl
 
 	@Override
 	@Transactional(readOnly = true)
+	@Timed("squash.export")
 	public File exportKeywordTestCaseAsScriptFiles(List<Long> libraryIds, List<Long> nodeIds, MessageSource messageSource) {
 		Collection<Long> ids = findTestCaseIdsFromSelection(libraryIds, nodeIds);
 		return doKeywordExport(ids, messageSource);
@@ -750,6 +772,7 @@ public class TestCaseLibraryNavigationServiceImpl
 
 	@Override
 	@SuppressWarnings("unchecked")
+	@Timed("squash.export")
 	public File searchExportTestCaseAsExcel(List<Long> nodeIds, boolean includeCalledTests, boolean keepRteFormat,
 											MessageSource messageSource, String type) {
 
@@ -999,7 +1022,9 @@ public class TestCaseLibraryNavigationServiceImpl
 		@BatchPreventConcurrent(entityType = TestCaseLibrary.class, paramName = SOURCE_NODES_IDS, coercer = TestCaseLibraryIdsCoercerForArray.class)})
 	public List<TestCaseLibraryNode> copyNodesToFolder(@Id(DESTINATION_ID) long destinationId,
 													   @Ids(SOURCE_NODES_IDS) Long[] sourceNodesIds) {
-		return super.copyNodesToFolder(destinationId, sourceNodesIds);
+		TestCaseFolder destination = testCaseFolderDao.findById(destinationId);
+		Optional<List<TestCaseLibraryNode>> copies = setBasedCopier.copyNodes(destination, Arrays.asList(sourceNodesIds));
+		return copies.isPresent() ? copies.get() : super.copyNodesToFolder(destinationId, sourceNodesIds);
 	}
 
 	@Override
@@ -1027,7 +1052,9 @@ public class TestCaseLibraryNavigationServiceImpl
 		@BatchPreventConcurrent(entityType = TestCaseLibrary.class, paramName = TARGET_ID, coercer = TestCaseLibraryIdsCoercerForArray.class)})
 	public List<TestCaseLibraryNode> copyNodesToLibrary(@Id(DESTINATION_ID) long destinationId,
 														@Ids(TARGET_ID) Long[] targetId) {
-		return super.copyNodesToLibrary(destinationId, targetId);
+		TestCaseLibrary destination = testCaseLibraryDao.findById(destinationId);
+		Optional<List<TestCaseLibraryNode>> copies = setBasedCopier.copyNodes(destination, Arrays.asList(targetId));
+		return copies.isPresent() ? copies.get() : super.copyNodesToLibrary(destinationId, targetId);
 	}
 
 	@Override
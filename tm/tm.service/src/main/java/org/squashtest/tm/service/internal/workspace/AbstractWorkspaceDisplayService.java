@@ -21,6 +21,7 @@
 package org.squashtest.tm.service.internal.workspace;
 
 
+import io.micrometer.core.annotation.Timed;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MultiMap;
 import org.apache.commons.collections.map.MultiValueMap;
@@ -32,6 +33,8 @@ import org.jooq.Record1;
 import org.jooq.TableLike;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.web.util.HtmlUtils;
 import org.squashtest.tm.domain.milestone.MilestoneStatus;
 import org.squashtest.tm.domain.project.ProjectResource;
@@ -43,11 +46,13 @@ import org.squashtest.tm.service.internal.dto.json.JsonProject;
 import org.squashtest.tm.service.internal.helper.HyphenedStringHelper;
 import org.squashtest.tm.service.internal.repository.hibernate.HibernateEntityDao;
 import org.squashtest.tm.service.internal.repository.hibernate.HibernateRequirementDao;
+import org.squashtest.tm.service.security.acls.model.ObjectAclService;
 import org.squashtest.tm.service.workspace.WorkspaceDisplayService;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,22 +64,16 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.jooq.impl.DSL.count;
 import static org.squashtest.tm.domain.project.Project.PROJECT_TYPE;
-import static org.squashtest.tm.jooq.domain.Tables.ACL_CLASS;
-import static org.squashtest.tm.jooq.domain.Tables.ACL_GROUP_PERMISSION;
-import static org.squashtest.tm.jooq.domain.Tables.ACL_OBJECT_IDENTITY;
-import static org.squashtest.tm.jooq.domain.Tables.ACL_RESPONSIBILITY_SCOPE_ENTRY;
 import static org.squashtest.tm.jooq.domain.Tables.LIBRARY_PLUGIN_BINDING;
 import static org.squashtest.tm.jooq.domain.Tables.MILESTONE;
 import static org.squashtest.tm.jooq.domain.Tables.PROJECT;
 import static org.squashtest.tm.jooq.domain.Tables.PROJECT_FILTER;
 import static org.squashtest.tm.jooq.domain.Tables.PROJECT_FILTER_ENTRY;
-import static org.squashtest.tm.service.internal.dto.PermissionWithMask.findByMask;
 
 public abstract class AbstractWorkspaceDisplayService implements WorkspaceDisplayService {
 
@@ -89,6 +88,9 @@ public abstract class AbstractWorkspaceDisplayService implements WorkspaceDispla
 	@Inject
 	private HibernateRequirementDao hibernateRequirementDao;
 
+	@Inject
+	private ObjectAclService aclService;
+
 	protected static final String MILESTONE_STATUS_IN_PROGRESS = "IN_PROGRESS";
 	protected static final String MILESTONE_STATUS_FINISHED = "FINISHED";
 	protected static final Integer NODE_WITHOUT_MILESTONES_ATTRIBUTE = -1;
@@ -98,6 +100,7 @@ public abstract class AbstractWorkspaceDisplayService implements WorkspaceDispla
 
 	// ************************************* get Stuff to show the workspace trees *************************************
 
+	@Timed("squash.workspace.tree")
 	public Collection<JsTreeNode> findAllLibraries(List<Long> readableProjectIds, UserDto currentUser, MultiMap expansionCandidates, Long activeMilestoneId) {
 		Set<Long> childrenIds = new HashSet<>();
 
@@ -196,6 +199,7 @@ public abstract class AbstractWorkspaceDisplayService implements WorkspaceDispla
 		return jsonProjects.values();
 	}
 
+	@Timed("squash.workspace.tree")
 	public Collection<JsTreeNode> getNodeContent(Long entityId, UserDto currentUser, String entityClass, Long activeMilestoneId) {
 		Set<Long> childrenIds = new HashSet<>();
 		MultiMap expansionCandidates = new MultiValueMap();
@@ -241,19 +245,10 @@ public abstract class AbstractWorkspaceDisplayService implements WorkspaceDispla
 	// ********************************************** Utils ************************************************************
 
 	protected void findNodeChildrenPermissionMap(UserDto currentUser, Map<Long, JsTreeNode> libraryChildrenMap, Long libraryId) {
-		List<Integer> masks = DSL
-			.selectDistinct(ACL_GROUP_PERMISSION.PERMISSION_MASK)
-			.from(getLibraryTable())
-			.join(PROJECT).on(getProjectLibraryColumn().eq(selectLibraryId()))
-			.join(ACL_OBJECT_IDENTITY).on(ACL_OBJECT_IDENTITY.IDENTITY.eq(selectLibraryId()))
-			.join(ACL_RESPONSIBILITY_SCOPE_ENTRY).on(ACL_OBJECT_IDENTITY.ID.eq(ACL_RESPONSIBILITY_SCOPE_ENTRY.OBJECT_IDENTITY_ID))
-			.join(ACL_GROUP_PERMISSION).on(ACL_RESPONSIBILITY_SCOPE_ENTRY.ACL_GROUP_ID.eq(ACL_GROUP_PERMISSION.ACL_GROUP_ID))
-			.join(ACL_CLASS).on(ACL_GROUP_PERMISSION.CLASS_ID.eq(ACL_CLASS.ID).and(ACL_CLASS.CLASSNAME.eq(getLibraryClassName())))
-			.where(ACL_RESPONSIBILITY_SCOPE_ENTRY.PARTY_ID.in(currentUser.getPartyIds())).and(PROJECT.PROJECT_TYPE.eq(PROJECT_TYPE)).and(getProjectLibraryColumn().in(libraryId))
-			.fetch(ACL_GROUP_PERMISSION.PERMISSION_MASK, Integer.class);
+		int mask = findLibraryPermissionMasks(currentUser, Collections.singleton(libraryId)).get(libraryId);
 
 		for (JsTreeNode node : libraryChildrenMap.values()) {
-			givePermissions(node, masks);
+			givePermissions(node, mask);
 		}
 	}
 
@@ -273,42 +268,37 @@ public abstract class AbstractWorkspaceDisplayService implements WorkspaceDispla
 
 
 	public void findPermissionMap(UserDto currentUser, Map<Long, JsTreeNode> jsTreeNodes) {
-		Set<Long> libraryIds = jsTreeNodes.keySet();
+		findLibraryPermissionMasks(currentUser, jsTreeNodes.keySet())
+			.forEach((Long libraryId, Integer mask) -> givePermissions(jsTreeNodes.get(libraryId), mask));
+	}
 
-		DSL
-			.selectDistinct(selectLibraryId(), ACL_GROUP_PERMISSION.PERMISSION_MASK)
-			.from(getLibraryTable())
-			.join(PROJECT).on(getProjectLibraryColumn().eq(selectLibraryId()))
-			.join(ACL_OBJECT_IDENTITY).on(ACL_OBJECT_IDENTITY.IDENTITY.eq(selectLibraryId()))
-			.join(ACL_RESPONSIBILITY_SCOPE_ENTRY).on(ACL_OBJECT_IDENTITY.ID.eq(ACL_RESPONSIBILITY_SCOPE_ENTRY.OBJECT_IDENTITY_ID))
-			.join(ACL_GROUP_PERMISSION).on(ACL_RESPONSIBILITY_SCOPE_ENTRY.ACL_GROUP_ID.eq(ACL_GROUP_PERMISSION.ACL_GROUP_ID))
-			.join(ACL_CLASS).on(ACL_GROUP_PERMISSION.CLASS_ID.eq(ACL_CLASS.ID).and(ACL_CLASS.CLASSNAME.eq(getLibraryClassName())))
-			.where(ACL_RESPONSIBILITY_SCOPE_ENTRY.PARTY_ID.in(currentUser.getPartyIds())).and(PROJECT.PROJECT_TYPE.eq(PROJECT_TYPE)).and(getProjectLibraryColumn().in(libraryIds))
-			.fetch()
-			.stream()
-			.collect(groupingBy(
-				r -> r.getValue(selectLibraryId()),
-				mapping(
-					r -> r.getValue(ACL_GROUP_PERMISSION.PERMISSION_MASK),
-					toList()
-				)
-			)).forEach((Long nodeId, List<Integer> masks) -> {
-			JsTreeNode node = jsTreeNodes.get(nodeId);
-			givePermissions(node, masks);
-		});
+	/*
+	 * The acls are declared on the libraries, so the permissions on the whole tree are resolved by a single query
+	 */
+	private Map<Long, Integer> findLibraryPermissionMasks(UserDto currentUser, Collection<Long> libraryIds) {
+		List<ObjectIdentity> libraryRefs = libraryIds.stream()
+			.map(libraryId -> new ObjectIdentityImpl(getLibraryClassName(), libraryId))
+			.collect(toList());
+
+		Map<ObjectIdentity, Integer> masks = aclService.findPermissionMasksForParties(currentUser.getPartyIds(), libraryRefs);
+
+		Map<Long, Integer> masksByLibraryId = new HashMap<>(libraryIds.size());
+		for (ObjectIdentity libraryRef : libraryRefs) {
+			masksByLibraryId.put((Long) libraryRef.getIdentifier(), masks.getOrDefault(libraryRef, 0));
+		}
+		return masksByLibraryId;
 	}
 
-	private void givePermissions(JsTreeNode node, List<Integer> masks) {
-		for (Integer mask : masks) {
-			PermissionWithMask permission = findByMask(mask);
-			if (permission != null) {
+	private void givePermissions(JsTreeNode node, int mask) {
+		for (PermissionWithMask permission : PermissionWithMask.values()) {
+			if ((mask & permission.getMask()) != 0) {
 				node.addAttr(permission.getQuality(), String.valueOf(true));
 			}
 		}
 
 		if (!CollectionUtils.isEmpty(node.getChildren())) {
 			for (JsTreeNode child : node.getChildren()) {
-				givePermissions(child, masks);
+				givePermissions(child, mask);
 			}
 		}
 
@@ -147,6 +147,13 @@ RequirementLibraryFinderService {
 	File exportRequirementAsExcel(List<Long> libraryIds, List<Long> nodeIds,
 			boolean keepRteFormat, MessageSource messageSource, Boolean isCurrentVersion);
 
+	/**
+	 * Same as {@link #exportRequirementAsExcel(List, List, boolean, MessageSource, Boolean)}, as a xlsx file which is
+	 * written as a stream.
+	 */
+	File exportRequirementAsXlsx(List<Long> libraryIds, List<Long> nodeIds,
+			boolean keepRteFormat, MessageSource messageSource, Boolean isCurrentVersion);
+
 	/**
 	 * Generate a xls file to export requirements from research screen
 	 * @param nodeIds List of nodeIds (ie req id or folder id) selected for export
@@ -20,6 +20,8 @@
  */
 package org.squashtest.tm.service.security;
 
+import org.squashtest.tm.domain.Identified;
+
 import javax.validation.constraints.NotNull;
 import java.util.Collection;
 import java.util.Map;
@@ -115,4 +117,23 @@ public interface PermissionEvaluationService {
 	 */
 	Collection<String> permissionsOn(@NotNull String className, long id);
 
+	/**
+	 * Batch version of {@link #permissionsOn(String, long)}, which should be preferred whenever the permissions on many
+	 * entities of the same class are needed.
+	 *
+	 * @param className class name of the entities
+	 * @param ids identifiers of the entities
+	 * @return the permissions for each entity, mapped by identifier.
+	 */
+	Map<Long, Collection<String>> permissionsOn(@NotNull String className, @NotNull Collection<Long> ids);
+
+	/**
+	 * Resolves at once the permissions of the current user on the given entities, so that the evaluations made on them
+	 * for the rest of the current request don't hit the database anymore. Meant to be called before rendering
+	 * a table or a tree which checks permissions row by row.
+	 *
+	 * @param entities the entities
+	 */
+	void preloadPermissionsOn(@NotNull Collection<? extends Identified> entities);
+
 }
@@ -20,13 +20,31 @@
  */
 package org.squashtest.tm.service.security.acls.domain;
 
+import com.google.common.collect.Lists;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.ObjectIdentityGenerator;
 import org.springframework.security.acls.model.ObjectIdentityRetrievalStrategy;
+import org.squashtest.tm.domain.Identified;
+import org.squashtest.tm.security.annotation.AclConstrainedObject;
+import org.squashtest.tm.security.annotation.InheritsAcls;
+import org.squashtest.tm.service.security.acls.model.BatchObjectIdentityGenerator;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This {@link ObjectIdentityGenerator} fetches the entity using hibernate and
@@ -36,7 +54,9 @@ import java.io.Serializable;
  * @author bsiri
  * @reviewed-on 2011/11/23
  */
-public class DatabaseBackedObjectIdentityGeneratorStrategy implements ObjectIdentityGenerator {
+public class DatabaseBackedObjectIdentityGeneratorStrategy implements BatchObjectIdentityGenerator {
+
+	private static final int FETCH_BATCH_SIZE = 500;
 	/**
 	 * Object identity which won't match anything. Identifier is "0" to prevent
 	 * funky behaviour when querying the ACLs. Type is target type suffixed with
@@ -78,6 +98,11 @@ public class DatabaseBackedObjectIdentityGeneratorStrategy implements ObjectIden
 
 	private final ObjectIdentityRetrievalStrategy objectRetrievalStrategy;
 
+	/**
+	 * Whether the acls of a class are declared on its own instances, rather than on another entity.
+	 */
+	private final Map<Class<?>, Boolean> aclHolderClasses = new ConcurrentHashMap<>();
+
 	public DatabaseBackedObjectIdentityGeneratorStrategy(ObjectIdentityRetrievalStrategy objectRetrievalStrategy){
 		super();
 		this.objectRetrievalStrategy = objectRetrievalStrategy;
@@ -92,19 +117,79 @@ public class DatabaseBackedObjectIdentityGeneratorStrategy implements ObjectIden
 	 */
 	@Override
 	public ObjectIdentity createObjectIdentity(Serializable id, String type) {
-		try {
-			Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(type);
+		Class<?> clazz = loadClass(type);
+
+		Object instance = em.find(clazz, id);
+
+		if (instance == null) {
+			return new UnknownObjectIdentity(type);
+		}
+
+		return objectRetrievalStrategy.getObjectIdentity(instance);
+	}
+
+	/**
+	 * The identities of the entities which hold their own acls are created right away, without fetching them. The
+	 * other entities are fetched by batches, then handed to <code>objectRetrievalStrategy</code>.
+	 *
+	 * Unknown entities get an object identity which matches nothing.
+	 */
+	@Override
+	public Map<Long, ObjectIdentity> createObjectIdentities(Collection<Long> ids, String type) {
+		Class<?> clazz = loadClass(type);
+		Map<Long, ObjectIdentity> identities = new LinkedHashMap<>(ids.size());
+
+		if (isAclHolder(clazz)) {
+			ids.forEach(id -> identities.put(id, new ObjectIdentityImpl(type, id)));
+			return identities;
+		}
 
-			Object instance = em.find(clazz, id);
+		Map<Long, Object> instances = findAll(clazz, ids);
 
-			if (instance == null) {
-				return new UnknownObjectIdentity(type);
+		for (Long id : ids) {
+			Object instance = instances.get(id);
+			identities.put(id, instance == null ? new UnknownObjectIdentity(type) : objectRetrievalStrategy.getObjectIdentity(instance));
+		}
+
+		return identities;
+	}
+
+	private Map<Long, Object> findAll(Class<?> clazz, Collection<Long> ids) {
+		Map<Long, Object> instances = new HashMap<>(ids.size());
+
+		for (List<Long> batch : Lists.partition(new ArrayList<>(ids), FETCH_BATCH_SIZE)) {
+			CriteriaBuilder builder = em.getCriteriaBuilder();
+			CriteriaQuery<Object> query = builder.createQuery(Object.class);
+			Root<?> root = query.from(clazz);
+			query.select(root).where(root.get("id").in(batch));
+
+			for (Object instance : em.createQuery(query).getResultList()) {
+				instances.put(((Identified) instance).getId(), instance);
 			}
+		}
+
+		return instances;
+	}
 
-			return objectRetrievalStrategy.getObjectIdentity(instance);
+	private boolean isAclHolder(Class<?> clazz) {
+		return aclHolderClasses.computeIfAbsent(clazz, key ->
+			AnnotationUtils.findAnnotation(key, InheritsAcls.class) == null && !hasAclConstrainedObject(key));
+	}
+
+	private static boolean hasAclConstrainedObject(Class<?> clazz) {
+		for (Method method : clazz.getMethods()) {
+			if (AnnotationUtils.findAnnotation(method, AclConstrainedObject.class) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Class<?> loadClass(String type) {
+		try {
+			return Thread.currentThread().getContextClassLoader().loadClass(type);
 		} catch (ClassNotFoundException e) {
 			throw new RuntimeException(e);
 		}
-
 	}
 }
@@ -23,8 +23,10 @@ package org.squashtest.tm.service.security.acls.jdbc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.security.acls.domain.PrincipalSid;
 import org.springframework.security.acls.jdbc.JdbcAclService;
 import org.springframework.security.acls.jdbc.LookupStrategy;
@@ -43,6 +45,7 @@ import org.squashtest.tm.core.foundation.collection.Filtering;
 import org.squashtest.tm.core.foundation.collection.Sorting;
 import org.squashtest.tm.security.acls.CustomPermission;
 import org.squashtest.tm.security.acls.PermissionGroup;
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache;
 import org.squashtest.tm.service.security.acls.model.ObjectAclService;
 
 import javax.inject.Inject;
@@ -55,7 +58,10 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Specialization of {@link JdbcAclService} with management methods. Rem : as we tweaked Spring's ACL database model,
@@ -94,6 +100,8 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 
 	private final DerivedPermissionsManager derivedManager;
 
+	private final PermissionDecisionCache decisionCache;
+
 
 	private final RowMapper<PermissionGroup> permissionGroupMapper = new RowMapper<PermissionGroup>() {
 		@Override
@@ -209,13 +217,36 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 
 	private static final String DELETE_ALL_RESPONSABILITY_ENTRIES_FOR_PARTY = "delete from ACL_RESPONSIBILITY_SCOPE_ENTRY "
 			+ "where PARTY_ID = ?";
+
+	// the where clause is completed with one "(ocl.CLASSNAME = ? and oid.IDENTITY in (...))" per class of object
+	private static final String FIND_PERMISSION_MASKS_FOR_USER = "select oid.IDENTITY, ocl.CLASSNAME, gp.PERMISSION_MASK "
+			+ "from ACL_OBJECT_IDENTITY oid "
+			+ "inner join ACL_CLASS ocl on ocl.ID = oid.CLASS_ID "
+			+ "inner join ACL_RESPONSIBILITY_SCOPE_ENTRY rse on rse.OBJECT_IDENTITY_ID = oid.ID "
+			+ "inner join ACL_GROUP_PERMISSION gp on gp.ACL_GROUP_ID = rse.ACL_GROUP_ID and gp.CLASS_ID = ocl.ID "
+			+ "inner join CORE_PARTY party on party.PARTY_ID = rse.PARTY_ID "
+			+ "left join CORE_TEAM team on team.PARTY_ID = party.PARTY_ID "
+			+ "left join CORE_TEAM_MEMBER tmemb on tmemb.TEAM_ID = team.PARTY_ID, "
+			+ "CORE_USER u "
+			+ "where ((u.PARTY_ID = tmemb.USER_ID) or (u.PARTY_ID = party.PARTY_ID)) and u.ACTIVE = true "
+			+ "and gp.GRANTING = true and u.LOGIN = ? and ( ";
+
+	private static final String FIND_PERMISSION_MASKS_FOR_PARTIES = "select oid.IDENTITY, ocl.CLASSNAME, gp.PERMISSION_MASK "
+			+ "from ACL_OBJECT_IDENTITY oid "
+			+ "inner join ACL_CLASS ocl on ocl.ID = oid.CLASS_ID "
+			+ "inner join ACL_RESPONSIBILITY_SCOPE_ENTRY rse on rse.OBJECT_IDENTITY_ID = oid.ID "
+			+ "inner join ACL_GROUP_PERMISSION gp on gp.ACL_GROUP_ID = rse.ACL_GROUP_ID and gp.CLASS_ID = ocl.ID "
+			+ "where gp.GRANTING = true and rse.PARTY_ID in (:partyIds) and ( ";
+
+	private static final int PERMISSION_MASKS_BATCH_SIZE = 1000;
 	//IGNOREVIOLATIONS:START
 
     @Inject
-	public JdbcManageableAclService(DataSource dataSource, LookupStrategy lookupStrategy, AclCache aclCache, DerivedPermissionsManager derivedManager) {
+	public JdbcManageableAclService(DataSource dataSource, LookupStrategy lookupStrategy, AclCache aclCache, DerivedPermissionsManager derivedManager, PermissionDecisionCache decisionCache) {
 		super(dataSource, lookupStrategy);
         this.aclCache = aclCache;
         this.derivedManager = derivedManager;
+        this.decisionCache = decisionCache;
         setFindChildrenQuery("select null as obj_id, null as class from ACL_OBJECT_IDENTITY where 0 = 1");
 	}
 
@@ -280,6 +311,7 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 
 		derivedManager.updateDerivedPermissions(partyId);
 
+		decisionCache.evictAll();
 	}
 
 	/**
@@ -303,6 +335,7 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 	public void updateDerivedPermissions(long partyId){
 		derivedManager.updateDerivedPermissions(partyId);
 		aclCache.clearCache();
+		decisionCache.evictAll();
 	}
 
 
@@ -548,10 +581,15 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 		return findUsersWithPermissions(entityRefs, permissions);
 	}
 
+	/*
+	 * Permission decisions are evicted as a whole : the decisions on an object depend on the
+	 * acls of the object it inherits them from, so we cannot tell which ones are affected.
+	 */
 	protected void evictFromCache(ObjectIdentity oIdentity) {
 		if (aclCache != null) {
 			aclCache.evictFromCache(oIdentity);
 		}
+		decisionCache.evictAll();
 	}
 
 	/* (non-Javadoc)
@@ -647,6 +685,93 @@ public class JdbcManageableAclService extends JdbcAclService implements Manageab
 	@Override
 	public void refreshAcls() {
 		aclCache.clearCache();
+		decisionCache.evictAll();
+	}
+
+	/**
+	 * @see ObjectAclService#findPermissionMasks(String, Collection)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<ObjectIdentity, Integer> findPermissionMasks(@NotNull String login, @NotNull Collection<ObjectIdentity> entityRefs) {
+		return findPermissionMasks(FIND_PERMISSION_MASKS_FOR_USER, Collections.singletonList(login), entityRefs);
+	}
+
+	/**
+	 * @see ObjectAclService#findPermissionMasksForParties(Collection, Collection)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<ObjectIdentity, Integer> findPermissionMasksForParties(@NotNull Collection<Long> partyIds, @NotNull Collection<ObjectIdentity> entityRefs) {
+		if (partyIds.isEmpty()) {
+			Map<ObjectIdentity, Integer> masks = new HashMap<>(entityRefs.size());
+			entityRefs.forEach(entityRef -> masks.put(normalizeIdentity(entityRef), 0));
+			return masks;
+		}
+
+		String query = FIND_PERMISSION_MASKS_FOR_PARTIES.replace(":partyIds", String.join(", ", Collections.nCopies(partyIds.size(), "?")));
+		return findPermissionMasks(query, new ArrayList<>(partyIds), entityRefs);
+	}
+
+	private Map<ObjectIdentity, Integer> findPermissionMasks(String queryPrefix, List<?> prefixArguments, Collection<ObjectIdentity> entityRefs) {
+		Map<ObjectIdentity, Integer> masks = new HashMap<>(entityRefs.size());
+
+		List<ObjectIdentity> normalizedRefs = new ArrayList<>(entityRefs.size());
+		for (ObjectIdentity entityRef : entityRefs) {
+			ObjectIdentity normalized = normalizeIdentity(entityRef);
+			normalizedRefs.add(normalized);
+			masks.put(normalized, 0);
+		}
+
+		for (int start = 0; start < normalizedRefs.size(); start += PERMISSION_MASKS_BATCH_SIZE) {
+			List<ObjectIdentity> batch = normalizedRefs.subList(start, Math.min(start + PERMISSION_MASKS_BATCH_SIZE, normalizedRefs.size()));
+			fetchPermissionMasks(queryPrefix, prefixArguments, batch, masks);
+		}
+
+		return masks;
+	}
+
+	private void fetchPermissionMasks(String queryPrefix, List<?> prefixArguments, List<ObjectIdentity> entityRefs, Map<ObjectIdentity, Integer> masks) {
+		Map<String, List<Serializable>> identifiersByType = new LinkedHashMap<>();
+		for (ObjectIdentity entityRef : entityRefs) {
+			identifiersByType.computeIfAbsent(entityRef.getType(), type -> new ArrayList<>()).add(entityRef.getIdentifier());
+		}
+
+		StringBuilder query = new StringBuilder(queryPrefix);
+		List<Object> arguments = new ArrayList<>(prefixArguments.size() + entityRefs.size() + identifiersByType.size());
+		arguments.addAll(prefixArguments);
+
+		String separator = "";
+		for (Map.Entry<String, List<Serializable>> entry : identifiersByType.entrySet()) {
+			query.append(separator).append("(ocl.CLASSNAME = ? and oid.IDENTITY in (")
+				.append(String.join(", ", Collections.nCopies(entry.getValue().size(), "?")))
+				.append("))");
+			arguments.add(entry.getKey());
+			arguments.addAll(entry.getValue());
+			separator = " or ";
+		}
+		query.append(")");
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(WILL_ATTEMPT_TO_PERFORM + query + WITH_ARGS + arguments + ']');
+		}
+
+		jdbcTemplate.query(query.toString(), arguments.toArray(), (RowCallbackHandler) rs -> {
+			ObjectIdentity entityRef = new ObjectIdentityImpl(rs.getString(2), rs.getLong(1));
+			masks.merge(entityRef, rs.getInt(3), (granted, mask) -> granted | mask);
+		});
+	}
+
+	/*
+	 * Identifiers may be Integer or Long depending on where the identity comes from, we need them to be Long so that
+	 * identities can be compared with those read from the database.
+	 */
+	private ObjectIdentity normalizeIdentity(ObjectIdentity entityRef) {
+		Serializable identifier = entityRef.getIdentifier();
+		if (identifier instanceof Number) {
+			identifier = ((Number) identifier).longValue();
+		}
+		return new ObjectIdentityImpl(entityRef.getType(), identifier);
 	}
 
 	private List<String> adaptQualifiedClassNameList(List<String> qualifiedClassNameList){
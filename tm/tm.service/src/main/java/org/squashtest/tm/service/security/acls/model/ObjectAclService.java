@@ -25,7 +25,9 @@ import org.squashtest.tm.core.foundation.collection.Filtering;
 import org.squashtest.tm.core.foundation.collection.Sorting;
 import org.squashtest.tm.security.acls.PermissionGroup;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ObjectAclService {
 	
@@ -108,4 +110,26 @@ public interface ObjectAclService {
 	void refreshAcls();
 
 	List<Object[]> retrieveUsersFromIdentityAndClass(long entityId);
+
+	/**
+	 * Resolves, in as few queries as possible (typically one), the permissions the given user was granted on each of
+	 * the given object identities, either directly or through a team. Roles are not taken into account.
+	 *
+	 * @param login the login of the user
+	 * @param entityRefs the object identities, which should be those the acls are declared on (libraries, projects...)
+	 * @return the bitmask of the granted permissions mapped by object identity, 0 when none is granted. Identifiers of
+	 * the returned identities are Long.
+	 */
+	Map<ObjectIdentity, Integer> findPermissionMasks(String login, Collection<ObjectIdentity> entityRefs);
+
+	/**
+	 * Same as {@link #findPermissionMasks(String, Collection)}, for callers which already know the parties (the user
+	 * and its teams) the permissions should be granted to.
+	 *
+	 * @param partyIds the ids of the parties
+	 * @param entityRefs the object identities, which should be those the acls are declared on (libraries, projects...)
+	 * @return the bitmask of the permissions granted to any of the parties mapped by object identity, 0 when none is
+	 * granted. Identifiers of the returned identities are Long.
+	 */
+	Map<ObjectIdentity, Integer> findPermissionMasksForParties(Collection<Long> partyIds, Collection<ObjectIdentity> entityRefs);
 }
@@ -23,6 +23,7 @@ package org.squashtest.tm.service.testautomation;
 import org.squashtest.tm.api.testautomation.execution.dto.TestExecutionStatus;
 
 import javax.validation.constraints.NotNull;
+import java.util.Map;
 
 /**
  * @author Gregory Fouquet
@@ -39,4 +40,13 @@ public interface AutomatedExecutionManagerService {
 	 */
 	void changeExecutionState(long id, @NotNull TestExecutionStatus stateChange);
 
+	/**
+	 * Changes the states of many executions at once. The statuses of their test plan items and suites are computed
+	 * once for the whole batch. Unknown ids are logged and ignored.
+	 *
+	 * @param stateChanges
+	 *            new states, mapped by the id of the automated exec extender
+	 */
+	void changeExecutionStates(@NotNull Map<Long, TestExecutionStatus> stateChanges);
+
 }
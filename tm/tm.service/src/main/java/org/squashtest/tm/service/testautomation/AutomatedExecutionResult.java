@@ -0,0 +1,63 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.testautomation;
+
+import org.squashtest.tm.domain.execution.ExecutionStatus;
+
+import java.net.URL;
+
+/**
+ * Result reported by a test automation server for a set of automated executions. The <code>null</code> properties
+ * leave the matching values of the executions unchanged.
+ */
+public class AutomatedExecutionResult {
+
+	private final AutomatedExecutionSetIdentifier identifier;
+	private final ExecutionStatus status;
+	private final URL resultURL;
+	private final String resultSummary;
+
+	public AutomatedExecutionResult(AutomatedExecutionSetIdentifier identifier, ExecutionStatus status, URL resultURL,
+									String resultSummary) {
+		super();
+		this.identifier = identifier;
+		this.status = status;
+		this.resultURL = resultURL;
+		this.resultSummary = resultSummary;
+	}
+
+	public AutomatedExecutionSetIdentifier getIdentifier() {
+		return identifier;
+	}
+
+	public ExecutionStatus getStatus() {
+		return status;
+	}
+
+	public URL getResultURL() {
+		return resultURL;
+	}
+
+	public String getResultSummary() {
+		return resultSummary;
+	}
+
+}
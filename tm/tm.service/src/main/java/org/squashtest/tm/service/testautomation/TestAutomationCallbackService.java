@@ -23,6 +23,7 @@ package org.squashtest.tm.service.testautomation;
 import org.squashtest.tm.domain.execution.ExecutionStatus;
 
 import java.net.URL;
+import java.util.Collection;
 
 public interface TestAutomationCallbackService {
 
@@ -34,5 +35,14 @@ public interface TestAutomationCallbackService {
 	
 	
 	void updateResultSummary(AutomatedExecutionSetIdentifier execIdentifier, String newSummary);
-	
+
+
+	/**
+	 * Applies many results at once : the executions are fetched with a single query and the statuses of their test
+	 * plan items and suites are computed once for the whole batch.
+	 *
+	 * @param results the results reported by the test automation server
+	 */
+	void updateExecutionResults(Collection<AutomatedExecutionResult> results);
+
 }
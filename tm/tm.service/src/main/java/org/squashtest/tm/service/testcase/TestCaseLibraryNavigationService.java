@@ -215,6 +215,12 @@ LibraryNavigationService<TestCaseLibrary, TestCaseFolder, TestCaseLibraryNode>,
 	 */
 	File exportTestCaseAsExcel(List<Long> libraryIds, List<Long> nodeIds, boolean includeCalledTests, boolean keepRteFormat, MessageSource messageSource);
 
+	/**
+	 * Same as {@link #exportTestCaseAsExcel(List, List, boolean, boolean, MessageSource)}, except that the spreadsheet is
+	 * an Excel 2007 (.xlsx) one. It is written as a stream, which suits large selections.
+	 */
+	File exportTestCaseAsXlsx(List<Long> libraryIds, List<Long> nodeIds, boolean includeCalledTests, boolean keepRteFormat, MessageSource messageSource);
+
 	File exportGherkinTestCaseAsFeatureFiles(List<Long> libraryIds, List<Long> nodeIds, MessageSource messageSource);
 
 	File exportKeywordTestCaseAsScriptFiles(List<Long> libraryIds, List<Long> nodeIds, MessageSource messageSource);
@@ -0,0 +1,76 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.domain.jpql
+
+import org.hibernate.type.BooleanType
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+import static org.squashtest.tm.domain.jpql.HibernateDialectExtensions.FN_NAME_FULLTEXT
+
+class HibernateDialectExtensionsTest extends Specification {
+
+	Connection connection = DriverManager.getConnection("jdbc:h2:mem:")
+
+	def cleanup() {
+		connection.close()
+	}
+
+	@Unroll
+	def "h2 full text search of '#tokens' in '#text' should be #matches"() {
+		given:
+		def function = HibernateDialectExtensions.getH2DialectExtensions().get(FN_NAME_FULLTEXT)
+		def condition = function.render(BooleanType.INSTANCE, ["?", "?"], null)
+
+		when:
+		def statement = connection.prepareStatement("select case when " + condition + " then 1 else 0 end")
+		statement.setString(1, text)
+		statement.setString(2, tokens)
+		def result = statement.executeQuery()
+		result.next()
+
+		then:
+		(result.getInt(1) == 1) == matches
+
+		where:
+		text                | tokens          | matches
+		"Some Foo text"     | "foo | bar"     | true
+		"some bar text"     | "foo | bar"     | true
+		"some text"         | "foo | bar"     | false
+		"learning c++"      | "c++"           | true
+		"learning c"        | "c++"           | false
+		"f(x)"              | "("             | true
+		"f[x] {y}"          | "[x] | {y}"     | true
+		"abc"               | "a.c"           | false
+		"a.c"               | "a.c"           | true
+		"abc"               | "a*"            | false
+		"why?"              | "why?"          | true
+		"wh"                | "why?"          | false
+		"1\$ ^2"            | "\$ | ^"        | true
+		"back\\slash"       | "\\"            | true
+		"fish &amp; chips"  | "\\&amp;"       | true
+		"a|b"               | "|"             | true
+	}
+
+}
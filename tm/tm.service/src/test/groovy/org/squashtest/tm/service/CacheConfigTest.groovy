@@ -0,0 +1,49 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service
+
+import org.ehcache.xml.XmlConfiguration
+import org.squashtest.tm.service.internal.bugtracker.RemoteIssueCache
+import org.squashtest.tm.service.internal.cache.BindingCache
+import org.squashtest.tm.service.internal.library.LibraryNodePathCache
+import org.squashtest.tm.service.internal.milestone.MilestoneVisibilityCache
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache
+import spock.lang.Specification
+
+class CacheConfigTest extends Specification {
+
+	def "should load the cache configuration"() {
+		when:
+		def config = new XmlConfiguration(getClass().getResource("/ehcache.xml"))
+
+		then:
+		config.cacheConfigurations.keySet().containsAll([
+			"aclCache",
+			PermissionDecisionCache.CACHE_NAME,
+			BindingCache.BINDING_CACHE_NAME,
+			BindingCache.INFO_LIST_ITEM_CACHE_NAME,
+			RemoteIssueCache.CACHE_NAME,
+			LibraryNodePathCache.CACHE_NAME,
+			MilestoneVisibilityCache.CACHE_NAME
+		])
+	}
+
+}
@@ -22,7 +22,9 @@ package org.squashtest.tm.service.customField
 
 import org.springframework.context.ApplicationEventPublisher
 import org.squashtest.tm.domain.customfield.CustomField
+import org.squashtest.tm.domain.customfield.CustomFieldBinding
 import org.squashtest.tm.exception.customfield.CodeAlreadyExistsException
+import org.squashtest.tm.service.cache.SecondLevelCacheService
 import org.squashtest.tm.service.internal.customfield.CustomCustomFieldManagerServiceImpl
 import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao
 import org.squashtest.tm.service.internal.repository.CustomFieldDao
@@ -34,11 +36,13 @@ class CustomCustomFieldManagerServiceImplTest extends Specification {
 	CustomFieldDao customFieldDao = Mock()
 	CustomFieldBindingDao customFieldBindingDao = Mock();
 	ApplicationEventPublisher eventPublisher = Mock()
+	SecondLevelCacheService secondLevelCacheService = Mock()
 
 	def setup() {
 		service.customFieldDao = customFieldDao
 		service.customFieldBindingDao = customFieldBindingDao
 		service.eventPublisher = eventPublisher
+		service.secondLevelCacheService = secondLevelCacheService
 	}
 
 	def "should delete custom field"(){
@@ -53,6 +57,7 @@ class CustomCustomFieldManagerServiceImplTest extends Specification {
 
 		then:
 		1* customFieldDao.delete(cuf)
+		1 * secondLevelCacheService.evict(CustomField, CustomFieldBinding)
 	}
 
 
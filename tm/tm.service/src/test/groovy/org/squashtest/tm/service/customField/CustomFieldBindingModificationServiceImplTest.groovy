@@ -28,6 +28,7 @@ import org.squashtest.tm.domain.project.GenericProject
 import org.squashtest.tm.domain.project.Project
 import org.squashtest.tm.domain.project.ProjectTemplate
 import org.squashtest.tm.exception.project.LockedParameterException
+import org.squashtest.tm.service.internal.cache.BindingCache
 import org.squashtest.tm.service.internal.customfield.CustomFieldBindingModificationServiceImpl
 import org.squashtest.tm.service.internal.customfield.PrivateCustomFieldValueService
 import org.squashtest.tm.service.internal.dto.BindableEntityModel
@@ -50,6 +51,7 @@ class CustomFieldBindingModificationServiceImplTest extends Specification {
 
 	PrivateCustomFieldValueService customValueService = Mock()
 	ApplicationEventPublisher eventPublisher = Mock()
+	BindingCache bindingCache = Mock()
 
 	def setup() {
 		service.customFieldDao = customFieldDao
@@ -60,6 +62,7 @@ class CustomFieldBindingModificationServiceImplTest extends Specification {
 		service.customValueService = customValueService
 
 		service.eventPublisher = eventPublisher
+		service.bindingCache = bindingCache
 	}
 
 
@@ -380,6 +383,7 @@ class CustomFieldBindingModificationServiceImplTest extends Specification {
 
 		1 * customValueService.cascadeCustomFieldValuesDeletion(_)
 		1 * customFieldBindingDao.removeCustomFieldBindings(_)
+		1 * bindingCache.evictCustomFieldBindings()
 		1 * eventPublisher.publishEvent(_)
 	}
 
@@ -18,18 +18,26 @@
  *     You should have received a copy of the GNU Lesser General Public License
  *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.squashtest.tm.service.annotation;
+package org.squashtest.tm.service.internal.advancedsearch
 
-import java.lang.annotation.ElementType;
-import java.lang.annotation.Retention;
-import java.lang.annotation.RetentionPolicy;
-import java.lang.annotation.Target;
+import spock.lang.Specification
+import spock.lang.Unroll
 
+class AdvancedSearchQueryModelToConfiguredQueryConverterTest extends Specification {
 
-// NOTE : This cannot be replaced with Spring Cache / JCache because the cache is bound to a cflow (see @CacheScope)
-@Target({ElementType.METHOD})
-@Retention(RetentionPolicy.RUNTIME)
-public @interface CacheResult {
-	CachableType type();
+	@Unroll
+	def "should join the words of '#value' as '#tokens'"() {
+		expect:
+		AdvancedSearchQueryModelToConfiguredQueryConverter.toFullTextTokens(value) == tokens
+
+		where:
+		value             | tokens
+		"foo"             | "foo"
+		"foo bar"         | "foo | bar"
+		"  foo bar"       | "foo | bar"
+		"foo bar  "       | "foo | bar"
+		"foo  \t \n bar"  | "foo | bar"
+		"   "             | ""
+	}
 
 }
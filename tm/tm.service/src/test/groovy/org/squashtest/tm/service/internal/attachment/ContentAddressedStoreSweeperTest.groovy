@@ -0,0 +1,98 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.attachment
+
+import org.apache.commons.io.FileUtils
+import org.squashtest.tm.service.internal.repository.AttachmentContentDao
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+class ContentAddressedStoreSweeperTest extends Specification {
+
+	ContentAddressedStoreSweeper sweeper = new ContentAddressedStoreSweeper()
+	AttachmentContentDao attachmentContentDao = Mock()
+	AttachmentStorageModeConfigurer storageConfigurer = Mock()
+
+	Path repo = Files.createTempDirectory("repo")
+	long twoDaysAgo = System.currentTimeMillis() - 2 * 86400 * 1000
+
+	def setup() {
+		sweeper.attachmentContentDao = attachmentContentDao
+		sweeper.storageConfigurer = storageConfigurer
+		sweeper.gracePeriod = 86400
+		storageConfigurer.getRepoPath() >> repo.toString()
+	}
+
+	def cleanup() {
+		FileUtils.deleteDirectory(repo.toFile())
+	}
+
+	def "should delete the old contents which are not referenced anymore"() {
+		given:
+		Path referenced = storeContent("aa11", twoDaysAgo)
+		Path unreferenced = storeContent("bb22", twoDaysAgo)
+		Path recent = storeContent("cc33", System.currentTimeMillis())
+
+		and:
+		attachmentContentDao.findReferencedContentHashes({ it as Set == ["aa11", "bb22"] as Set }) >> (["aa11"] as Set)
+
+		when:
+		def deleted = sweeper.sweep()
+
+		then:
+		deleted == 1
+		Files.exists(referenced)
+		!Files.exists(unreferenced)
+		Files.exists(recent)
+	}
+
+	def "should delete the leftovers of failed uploads"() {
+		given:
+		Path tmp = ContentAddressedAttachmentRepository.getStorePath(repo.toString()).resolve("tmp").resolve("upload.tmp")
+		Files.createDirectories(tmp.parent)
+		Files.write(tmp, [1, 2, 3] as byte[])
+		Files.setLastModifiedTime(tmp, FileTime.fromMillis(twoDaysAgo))
+
+		when:
+		def deleted = sweeper.sweep()
+
+		then:
+		deleted == 1
+		!Files.exists(tmp)
+		0 * attachmentContentDao.findReferencedContentHashes(_)
+	}
+
+	def "should do nothing when no content was stored yet"() {
+		expect:
+		sweeper.sweep() == 0
+	}
+
+	def storeContent(String hash, long lastModified) {
+		Path file = ContentAddressedAttachmentRepository.getContentPath(repo.toString(), hash)
+		Files.createDirectories(file.parent)
+		Files.write(file, hash.bytes)
+		Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified))
+		file
+	}
+}
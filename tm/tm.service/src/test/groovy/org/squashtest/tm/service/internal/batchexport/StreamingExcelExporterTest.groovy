@@ -0,0 +1,203 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchexport
+
+import org.apache.poi.ss.usermodel.Row
+import org.apache.poi.ss.usermodel.Sheet
+import org.apache.poi.xssf.streaming.SXSSFWorkbook
+import org.apache.poi.xssf.usermodel.XSSFWorkbook
+import org.springframework.context.MessageSource
+import org.squashtest.tm.domain.customfield.BindableEntity
+import org.squashtest.tm.domain.customfield.InputType
+import org.squashtest.tm.domain.infolist.ListItemReference
+import org.squashtest.tm.domain.project.Project
+import org.squashtest.tm.domain.testcase.TestCase
+import org.squashtest.tm.domain.testcase.TestCaseAutomatable
+import org.squashtest.tm.domain.testcase.TestCaseImportance
+import org.squashtest.tm.domain.testcase.TestCaseKind
+import org.squashtest.tm.domain.testcase.TestCaseStatus
+import org.squashtest.tm.service.feature.FeatureManager
+import org.squashtest.tm.service.internal.batchexport.ExportModel.CustomField
+import org.squashtest.tm.service.internal.batchexport.ExportModel.TestCaseModel
+import org.squashtest.tm.service.internal.batchexport.ExportModel.TestStepModel
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.TemplateWorksheet
+import org.squashtest.tm.service.project.ProjectFinder
+import org.squashtest.tm.service.testcase.TestCaseFinder
+import org.squashtest.tm.tools.unittest.reflection.ReflectionCategory
+import spock.lang.Specification
+
+class StreamingExcelExporterTest extends Specification {
+
+	ProjectFinder projectFinder = Mock()
+	TestCaseFinder testCaseFinder = Mock()
+
+	StreamingExcelExporter exporter
+
+	def setup() {
+		exporter = new StreamingExcelExporter(Mock(FeatureManager), Mock(MessageSource))
+		use(ReflectionCategory) {
+			ExcelExporter.set field: "projectFinder", of: exporter, to: projectFinder
+			ExcelExporter.set field: "testCaseFinder", of: exporter, to: testCaseFinder
+		}
+	}
+
+	def "should stream more rows than the window and still register custom fields met late"() {
+		given:
+		projectFinder.countProjectsAllowAutomationWorkflow() >> 0
+		exporter.init()
+
+		and:
+		def count = StreamingExcelExporter.ROW_ACCESS_WINDOW_SIZE * 3
+		def model = new ExportModel()
+		(1..count).each { id ->
+			def tc = testCase(id)
+			if (id == count) {
+				tc.addCuf(new CustomField(id, BindableEntity.TEST_CASE, "LATE", "late value", null, InputType.PLAIN_TEXT, null))
+			}
+			model.addTestCaseModel(tc)
+
+			def step = new TestStepModel(id, id, 0, 0, "action $id", "result $id", 0L, 0L, "", 0)
+			step.tcOwnerPath = tc.path
+			model.addTestStepModel(step)
+		}
+
+		when:
+		exporter.appendToWorkbook(model, true)
+		File file = exporter.print()
+
+		then:
+		file.name.endsWith("xlsx")
+
+		def workbook = new XSSFWorkbook(file.newInputStream())
+		def tcSheet = workbook.getSheet(ExcelExporter.TC_SHEET)
+		tcSheet.lastRowNum == count
+
+		def cufIdx = headerIndex(tcSheet, "TC_CUF_LATE")
+		cufIdx > 0
+		tcSheet.getRow(count).getCell(cufIdx).stringCellValue == "late value"
+		tcSheet.getRow(1).getCell(cufIdx) == null
+		tcSheet.getRow(count).getCell(headerIndex(tcSheet, "TC_PATH")).stringCellValue == "/project/test case $count"
+
+		def stSheet = workbook.getSheet("STEPS")
+		stSheet.lastRowNum == count
+		stSheet.getRow(1).getCell(headerIndex(stSheet, "TC_STEP_ACTION")).stringCellValue == "action 1"
+
+		cleanup:
+		workbook?.close()
+		file?.delete()
+	}
+
+	def "should append the test cases one at a time before the rest of their model"() {
+		given:
+		projectFinder.countProjectsAllowAutomationWorkflow() >> 0
+		exporter.init()
+
+		and:
+		def count = StreamingExcelExporter.ROW_ACCESS_WINDOW_SIZE * 2
+		def content = new ExportModel()
+		def step = new TestStepModel(1L, 1L, 0, 0, "action 1", "result 1", 0L, 0L, "", 0)
+		step.tcOwnerPath = "/project/test case 1"
+		content.addTestStepModel(step)
+
+		when:
+		(1..count).each {
+			def tc = testCase(it)
+			tc.description = "<p>description $it</p>"
+			exporter.appendTestCase(tc, false)
+		}
+		exporter.appendToWorkbook(content, false)
+		File file = exporter.print()
+
+		then:
+		def workbook = new XSSFWorkbook(file.newInputStream())
+		def tcSheet = workbook.getSheet(ExcelExporter.TC_SHEET)
+		tcSheet.lastRowNum == count
+		(1..count).every { tcSheet.getRow(it).getCell(headerIndex(tcSheet, "TC_ID")).numericCellValue == it }
+		tcSheet.getRow(count).getCell(headerIndex(tcSheet, "TC_DESCRIPTION")).stringCellValue == "description $count"
+
+		def stSheet = workbook.getSheet("STEPS")
+		stSheet.lastRowNum == 1
+
+		cleanup:
+		workbook?.close()
+		file?.delete()
+	}
+
+	def "should stream the requirement rows after the headers as well"() {
+		when:
+		def requirementExporter = new StreamingRequirementExcelExporter(Mock(FeatureManager), Mock(MessageSource))
+
+		then:
+		requirementExporter.workbook instanceof SXSSFWorkbook
+		requirementExporter.getHeaderRow(TemplateWorksheet.REQUIREMENT_SHEET.sheetName).physicalNumberOfCells > 0
+
+		cleanup:
+		requirementExporter?.workbook?.dispose()
+	}
+
+	def "should resolve the automation workflow once per project"() {
+		given:
+		projectFinder.countProjectsAllowAutomationWorkflow() >> 1
+		exporter.init()
+
+		and:
+		Project project = Mock() {
+			isAllowAutomationWorkflow() >> true
+		}
+		TestCase entity = Mock() {
+			getProject() >> project
+		}
+
+		and:
+		def model = new ExportModel()
+		(1..5).each { model.addTestCaseModel(testCase(it)) }
+
+		when:
+		exporter.appendToWorkbook(model, true)
+		File file = exporter.print()
+
+		then:
+		1 * testCaseFinder.findById(_) >> entity
+
+		def workbook = new XSSFWorkbook(file.newInputStream())
+		def tcSheet = workbook.getSheet(ExcelExporter.TC_SHEET)
+		tcSheet.getRow(5).getCell(headerIndex(tcSheet, "TC_AUTOMATABLE")).stringCellValue == "Y"
+
+		cleanup:
+		workbook?.close()
+		file?.delete()
+	}
+
+	def testCase(long id) {
+		def tc = new TestCaseModel(1L, "project", (int) id, id, "uuid-$id", "", "test case $id", "", false,
+			TestCaseImportance.LOW, new ListItemReference("NAT_UNDEFINED"), new ListItemReference("TYP_UNDEFINED"),
+			TestCaseStatus.WORK_IN_PROGRESS, TestCaseAutomatable.Y, "", "", 0L, 0L, 0L, 0L, new Date(), "admin", null, null,
+			TestCaseKind.STANDARD, null)
+		tc.path = "/project/test case $id"
+		tc
+	}
+
+	int headerIndex(Sheet sheet, String header) {
+		Row headers = sheet.getRow(0)
+		headers.findIndexOf { it.stringCellValue == header }
+	}
+
+}
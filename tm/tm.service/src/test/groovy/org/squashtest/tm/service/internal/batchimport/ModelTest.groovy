@@ -23,16 +23,18 @@ package org.squashtest.tm.service.internal.batchimport
 import org.squashtest.tm.domain.NamedReference
 import org.squashtest.tm.domain.customfield.BindableEntity
 import org.squashtest.tm.domain.customfield.CustomField
+import org.squashtest.tm.domain.customfield.CustomFieldBinding
 import org.squashtest.tm.domain.library.structures.LibraryGraph
 import org.squashtest.tm.domain.library.structures.LibraryGraph.SimpleNode
 import org.squashtest.tm.domain.project.Project
 import org.squashtest.tm.domain.requirement.RequirementLibrary
+import org.squashtest.tm.domain.testcase.Parameter
 import org.squashtest.tm.domain.testcase.ParameterAssignationMode
+import org.squashtest.tm.domain.testcase.TestCase
 import org.squashtest.tm.domain.testcase.TestCaseLibrary
 import org.squashtest.tm.service.internal.batchimport.Model.InternalStepModel
-import org.squashtest.tm.service.internal.repository.CustomFieldDao
+import org.squashtest.tm.service.internal.cache.BindingCache
 import org.squashtest.tm.service.internal.testcase.TestCaseCallTreeFinder
-import org.squashtest.tm.service.milestone.MilestoneMembershipFinder
 import org.squashtest.tm.service.testcase.TestCaseLibraryFinderService
 import spock.lang.Specification
 
@@ -47,28 +49,25 @@ import static org.squashtest.tm.service.internal.batchimport.Existence.TO_BE_DEL
 public class ModelTest extends Specification{
 
 	EntityManager em
-	CustomFieldDao cufDao
+	BindingCache bindingCache
 	TestCaseLibraryFinderService finderService
 	TestCaseCallTreeFinder calltreeFinder
-	MilestoneMembershipFinder milestoneMemberFinder
 
 	Model model
 
 	def setup(){
 
 		em = Mock(EntityManager)
-		cufDao = Mock(CustomFieldDao)
+		bindingCache = Mock(BindingCache)
 		finderService = Mock(TestCaseLibraryFinderService)
 		calltreeFinder = Mock(TestCaseCallTreeFinder)
-		milestoneMemberFinder = Mock(MilestoneMembershipFinder)
 
 		model = new Model()
 		model.em = em
-		model.cufDao = cufDao
+		model.bindingCache = bindingCache
 		model.finderService = finderService
 		model.calltreeFinder = calltreeFinder
 		model.callGraph = new TestCaseCallGraph()
-		model.milestoneMemberFinder = milestoneMemberFinder
 
 	}
 
@@ -115,7 +114,7 @@ public class ModelTest extends Specification{
 
 		and :
 		finderService.findNodeIdsByPath(_) >> [10l, null, 20l]
-		milestoneMemberFinder.isTestCaseMilestoneDeletable(_) >> false
+		mockSessionQuery([20l])
 
 		when :
 		model.initTestCases(targets)
@@ -133,6 +132,10 @@ public class ModelTest extends Specification{
 		status2.id == null
 		status3.id == 20l
 
+		model.isTargetMilestoneLocked[targets[0]] == false
+		model.isTargetMilestoneLocked[targets[1]] == false
+		model.isTargetMilestoneLocked[targets[2]] == true
+
 
 	}
 
@@ -148,11 +151,11 @@ public class ModelTest extends Specification{
 		model.testCaseStatusByTarget[targets[2]] = new TargetStatus(TO_BE_DELETED, 20l)
 		and :
 		mockSessionQuery([
-			["ACTION", null, true] as Object[],
-			["CALL", 17l, true] as Object[],
-			["ACTION", null, true] as Object[]
+			[10l, "ACTION", null, true] as Object[],
+			[10l, "CALL", 17l, true] as Object[],
+			[10l, "ACTION", null, true] as Object[]
 		])
-		finderService.getPathAsString(17l) >> "/project/bob"
+		finderService.getPathsAsString([17l]) >> ["/project/bob"]
 
 		when :
 		model.initTestSteps(targets)
@@ -192,10 +195,11 @@ public class ModelTest extends Specification{
 		mockSessionQuery([p])
 
 		and :
-		def tccufs = [Mock(CustomField), Mock(CustomField), Mock(CustomField)]
-		def stcufs = [Mock(CustomField)]
-		cufDao.findAllBoundCustomFields(10l, BindableEntity.TEST_CASE) >> tccufs
-		cufDao.findAllBoundCustomFields(10l, BindableEntity.TEST_STEP) >> stcufs
+		def tccufs = ["alpha", "bravo", "charlie"].collect { new CustomField(name: it) }
+		def stcufs = [new CustomField(name: "delta")]
+		bindingCache.findCustomFieldBindings(10l, BindableEntity.TEST_CASE) >> tccufs.reverse().collect { new CustomFieldBinding(customField: it) }
+		bindingCache.findCustomFieldBindings(10l, BindableEntity.TEST_STEP) >> stcufs.collect { new CustomFieldBinding(customField: it) }
+		bindingCache.findCustomFieldBindings(10l, BindableEntity.REQUIREMENT_VERSION) >> []
 
 		when :
 		model.initProjects(targets)
@@ -215,6 +219,49 @@ public class ModelTest extends Specification{
 	}
 
 
+	def "should preload the targets of a batch of instructions at once"(){
+
+		given :
+		def tcA = new TestCaseTarget("/project/a")
+		def tcB = new TestCaseTarget("/project/b")
+		def tcC = new TestCaseTarget("/project/c")
+
+		def instructions = [
+			new TestCaseInstruction(tcA, new TestCase()),
+			new ParameterInstruction(new ParameterTarget(tcB, "param"), new Parameter()),
+			new DatasetInstruction(new DatasetTarget(tcC, "dataset")),
+			new ParameterInstruction(new ParameterTarget(tcA, "param"), new Parameter())
+		]
+
+		and :
+		mockSessionQueries([
+			"testCase.findTestCasesWithMilestonesHavingStatuses" : [10l],
+			"testStep.findBasicInfosByTcIds" : [[20l, "ACTION", null, false] as Object[]],
+			"Project.findAllByName" : [],
+			"Parameter.findOwnParameterNamesByTestCases" : [[20l, "param"] as Object[]],
+			"Dataset.findOwnDatasetNamesByTestCases" : [[30l, "dataset"] as Object[]]
+		])
+
+		when :
+		model.preloadTargets(instructions)
+
+		then :
+		1 * finderService.findNodeIdsByPath(["/project/a", "/project/b", "/project/c"]) >> [10l, 20l, 30l]
+
+		model.testCaseStatusByTarget[tcB].id == 20l
+		model.isTargetMilestoneLocked[tcA] == true
+		model.isTargetMilestoneLocked[tcB] == false
+		model.testCaseStepsByTarget[tcB].collect { it.type } == [StepType.ACTION]
+		model.testCaseStepsByTarget[tcC] == []
+
+		model.parametersByTestCase[tcB] == [new ParameterTarget(tcB, "param")] as Set
+		model.datasetsByTestCase[tcC] == [new DatasetTarget(tcC, "dataset")] as Set
+
+		// parameters of a test case which is the target of a test case instruction are loaded later on
+		!model.parametersByTestCase.containsKey(tcA)
+	}
+
+
 	// ************************** accessors ****************************
 
 	// cannot test the case where the entry doesn't exist yet in the map
@@ -674,6 +721,16 @@ public class ModelTest extends Specification{
 		q.getResultList() >> queryResults
 	}
 
+	def mockSessionQueries(Map<String, List> resultsByName){
+		Map<String, Query> queries = [:]
+		resultsByName.each { name, results ->
+			Query q = Mock(Query)
+			q.getResultList() >> results
+			queries[name] = q
+		}
+		em.createNamedQuery(_) >> { String name -> queries[name] }
+	}
+
 	def targets(String... paths){
 		return paths.collect{ new TestCaseTarget(it) }
 	}
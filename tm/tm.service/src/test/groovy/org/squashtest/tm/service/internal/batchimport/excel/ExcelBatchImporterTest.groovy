@@ -0,0 +1,111 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.excel
+
+import org.springframework.core.io.ClassPathResource
+import org.springframework.transaction.PlatformTransactionManager
+import org.squashtest.tm.service.internal.batchimport.FacilityImpl
+import org.squashtest.tm.service.internal.batchimport.LogTrain
+import org.squashtest.tm.service.internal.batchimport.TestCaseExcelBatchImporter
+import org.squashtest.tm.service.internal.batchimport.testcase.excel.ExcelWorkbookParser
+import org.squashtest.tm.tools.unittest.reflection.ReflectionCategory
+import spock.lang.Specification
+
+import javax.inject.Provider
+import javax.persistence.EntityManager
+
+class ExcelBatchImporterTest extends Specification {
+
+	ExcelBatchImporter importer = new TestCaseExcelBatchImporter()
+	PlatformTransactionManager transactionManager = Mock()
+	EntityManager em = Mock()
+	FacilityImpl facility = Mock()
+
+	File xlsx = new ClassPathResource("batchimport/testcase/import-2269.xlsx").file
+
+	def setup() {
+		Provider<FacilityImpl> facilityProvider = { facility } as Provider
+
+		use(ReflectionCategory) {
+			ExcelBatchImporter.set field: "facilityImplProvider", of: importer, to: facilityProvider
+			ExcelBatchImporter.set field: "transactionManager", of: importer, to: transactionManager
+			ExcelBatchImporter.set field: "em", of: importer, to: em
+			ExcelBatchImporter.set field: "chunkSize", of: importer, to: 2
+		}
+	}
+
+	def "should commit the instructions by chunks and clear the session in between"() {
+		given:
+		def checkpoint = new ImportCheckpoint()
+		int count = instructionCount()
+		int chunks = (count + 1).intdiv(2)
+		facility./(create|update|delete|add|failsafe).*/(*_) >> { new LogTrain() }
+
+		when:
+		importer.performChunkedImport(xlsx, checkpoint)
+
+		then:
+		count > 2
+		checkpoint.committedCount == count
+		checkpoint.errorCount == 0
+		!checkpoint.importLog.isEmpty()
+
+		and: "one transaction per chunk, plus the post processing"
+		(chunks + 1) * transactionManager.commit(_)
+		chunks * em.clear()
+	}
+
+	def "should resume a failed import from the last committed chunk"() {
+		given:
+		def checkpoint = new ImportCheckpoint()
+		int executed = 0
+		facility./(create|update|delete|add|failsafe).*/(*_) >> {
+			if (++executed == 4) {
+				throw new RuntimeException("boom")
+			}
+			new LogTrain()
+		}
+
+		when:
+		importer.performChunkedImport(xlsx, checkpoint)
+
+		then:
+		thrown RuntimeException
+		checkpoint.committedCount == 2
+		1 * transactionManager.rollback(_)
+
+		when:
+		importer.performChunkedImport(xlsx, checkpoint)
+
+		then:
+		// the rolled back instructions are executed again
+		checkpoint.committedCount == instructionCount()
+	}
+
+	def instructionCount() {
+		def parser = ExcelWorkbookParser.createParser(xlsx)
+		int count = 0
+		importer.entityType.each { parser.parseWorksheet(importer.findWorksheetByEntity(it), { count++ }) }
+		parser.releaseResources()
+		count
+	}
+
+}
@@ -0,0 +1,88 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.batchimport.testcase.excel
+
+import org.apache.poi.ss.usermodel.Cell
+import org.apache.poi.ss.usermodel.Row
+import org.apache.poi.ss.usermodel.WorkbookFactory
+import org.springframework.core.io.ClassPathResource
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingWorkbookRowReaderTest extends Specification {
+
+	@Unroll
+	def "should read the same rows as a loaded workbook in #file"() {
+		given:
+		File xlsx = new ClassPathResource("batchimport/testcase/" + file).file
+
+		and:
+		def dom = new DomWorkbookRowReader(WorkbookFactory.create(xlsx))
+		def streaming = new StreamingWorkbookRowReader(xlsx)
+
+		expect:
+		streaming.sheetNames == dom.sheetNames
+
+		and:
+		streaming.sheetNames.each { sheetName ->
+			assert contentOf(streaming.readHeaderRow(sheetName)) == contentOf(dom.readHeaderRow(sheetName))
+			assert rowsOf(streaming, sheetName) == rowsOf(dom, sheetName)
+		}
+
+		cleanup:
+		streaming?.close()
+
+		where:
+		file << ["import-2269.xlsx", "phantom-cells.xlsx", "call-steps.xlsx"]
+	}
+
+	def "should not read rows once closed"() {
+		given:
+		def streaming = new StreamingWorkbookRowReader(new ClassPathResource("batchimport/testcase/import-2269.xlsx").file)
+		def sheetName = streaming.sheetNames[0]
+
+		when:
+		streaming.close()
+		streaming.readRows(sheetName, {})
+
+		then:
+		thrown IllegalStateException
+	}
+
+	def rowsOf(WorkbookRowReader reader, String sheetName) {
+		def rows = []
+		reader.readRows(sheetName, { Row row -> rows << contentOf(row) })
+		rows
+	}
+
+	def contentOf(Row row) {
+		row == null ? null : [row.rowNum, row.collect { Cell cell -> [cell.columnIndex, cell.cellType, valueOf(cell)] }]
+	}
+
+	// cell styles are not read in streaming mode, hence the raw values
+	def valueOf(Cell cell) {
+		switch (cell.cellType) {
+			case Cell.CELL_TYPE_NUMERIC: return cell.numericCellValue
+			case Cell.CELL_TYPE_FORMULA: return cell.cellFormula
+			default: return cell.toString()
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.bugtracker
+
+import org.springframework.cache.concurrent.ConcurrentMapCache
+import org.springframework.scheduling.annotation.AsyncResult
+import org.squashtest.csp.core.bugtracker.core.BugTrackerRemoteException
+import org.squashtest.csp.core.bugtracker.domain.BugTracker
+import org.squashtest.tm.bugtracker.definition.RemoteIssue
+import org.squashtest.tm.domain.servers.AuthenticationPolicy
+import org.squashtest.tm.service.bugtracker.BugTrackersService
+import org.squashtest.tm.service.servers.CredentialsProvider
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.Future
+
+class RemoteIssueCacheTest extends Specification {
+
+	RemoteIssueCache cache = new RemoteIssueCache(new ConcurrentMapCache("test"), { it.run() } as Executor)
+
+	BugTrackersService remoteService = Mock()
+	CredentialsProvider credentialsProvider = Mock()
+
+	BugTracker bugTracker = new BugTracker(authenticationPolicy: AuthenticationPolicy.USER)
+
+	def setup() {
+		cache.remoteBugTrackersService = remoteService
+		cache.credentialsProvider = credentialsProvider
+		cache.timeout = 15
+		cache.staleAfter = 60
+
+		credentialsProvider.currentUser() >> "chris"
+	}
+
+	def "should fetch the missing issues only"() {
+		given:
+		remoteService.getIssues(["1"], bugTracker, _, _, _) >> issuesOf("1")
+		cache.findIssues(["1"], bugTracker)
+
+		when:
+		def issues = cache.findIssues(["1", "2"], bugTracker)
+
+		then:
+		1 * remoteService.getIssues(["2"], bugTracker, _, _, _) >> issuesOf("2")
+		issues*.id as Set == ["1", "2"] as Set
+		cache.hitCount == 1
+		cache.missCount == 2
+	}
+
+	def "should serve stale issues and refresh them"() {
+		given:
+		remoteService.getIssues(["1"], bugTracker, _, _, _) >> issuesOf("1")
+		cache.findIssues(["1"], bugTracker)
+		cache.staleAfter = -1
+
+		when:
+		def issues = cache.findIssues(["1"], bugTracker)
+
+		then:
+		issues*.id == ["1"]
+		cache.staleHitCount == 1
+		cache.remoteCallCount == 2
+	}
+
+	def "should not share issues between users"() {
+		given:
+		def users = ["chris", "jessie"].iterator()
+		def provider = Mock(CredentialsProvider) {
+			currentUser() >> { users.next() }
+		}
+		cache.credentialsProvider = provider
+
+		when:
+		cache.findIssues(["1"], bugTracker)
+		cache.findIssues(["1"], bugTracker)
+
+		then:
+		2 * remoteService.getIssues(["1"], bugTracker, _, _, _) >> issuesOf("1")
+	}
+
+	def "should share issues between users when the bugtracker uses application level credentials"() {
+		given:
+		def users = ["chris", "jessie"].iterator()
+		def provider = Mock(CredentialsProvider) {
+			currentUser() >> { users.next() }
+		}
+		cache.credentialsProvider = provider
+		bugTracker.authenticationPolicy = AuthenticationPolicy.APP_LEVEL
+
+		when:
+		cache.findIssues(["1"], bugTracker)
+		cache.findIssues(["1"], bugTracker)
+
+		then:
+		1 * remoteService.getIssues(["1"], bugTracker, _, _, _) >> issuesOf("1")
+	}
+
+	def "should prefetch the issues which are not cached"() {
+		given:
+		remoteService.getIssues(["1"], bugTracker, _, _, _) >> issuesOf("1")
+		cache.findIssues(["1"], bugTracker)
+
+		when:
+		cache.prefetch(["1", "2", "3"], bugTracker)
+
+		then:
+		1 * remoteService.getIssues(["2", "3"], bugTracker, _, _, _) >> issuesOf("2", "3")
+
+		when:
+		cache.findIssues(["1", "2", "3"], bugTracker)
+
+		then:
+		0 * remoteService.getIssues(*_)
+		cache.hitCount == 3
+	}
+
+	def "should report bugtracker failures"() {
+		given:
+		Future<List<RemoteIssue>> failure = Mock() {
+			get(_, _) >> { throw new ExecutionException(new IOException("boom")) }
+		}
+		remoteService.getIssues(*_) >> failure
+
+		when:
+		cache.findIssues(["1"], bugTracker)
+
+		then:
+		thrown BugTrackerRemoteException
+	}
+
+	def "should not fail when a background load fails"() {
+		given:
+		remoteService.getIssues(*_) >> { throw new BugTrackerRemoteException("boom", null) }
+
+		when:
+		cache.prefetch(["1"], bugTracker)
+
+		then:
+		notThrown Exception
+	}
+
+	def issuesOf(String... ids) {
+		new AsyncResult<List<RemoteIssue>>(ids.collect { id -> [getId: { id }] as RemoteIssue })
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.cache
+
+import org.springframework.cache.concurrent.ConcurrentMapCache
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.squashtest.tm.domain.customfield.BindableEntity
+import org.squashtest.tm.domain.customfield.CustomFieldBinding
+import org.squashtest.tm.service.internal.repository.CustomFieldBindingDao
+import org.squashtest.tm.service.internal.repository.InfoListItemDao
+import spock.lang.Specification
+
+import javax.persistence.EntityManager
+
+import static org.squashtest.tm.domain.infolist.SystemInfoListCode.REQUIREMENT_CATEGORY
+import static org.squashtest.tm.domain.infolist.SystemInfoListCode.TEST_CASE_TYPE
+
+class BindingCacheTest extends Specification {
+
+	ConcurrentMapCache bindingIds = new ConcurrentMapCache("bindings")
+	ConcurrentMapCache itemConsistency = new ConcurrentMapCache("items")
+	BindingCache cache = new BindingCache(bindingIds, itemConsistency)
+
+	EntityManager em = Mock()
+	CustomFieldBindingDao customFieldBindingDao = Mock()
+	InfoListItemDao infoListItemDao = Mock()
+
+	def setup() {
+		cache.em = em
+		cache.customFieldBindingDao = customFieldBindingDao
+		cache.infoListItemDao = infoListItemDao
+	}
+
+	def cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization()
+		}
+	}
+
+	def "should query the bindings once then resolve them from their ids"() {
+		given:
+		def first = new CustomFieldBinding(id: 10L)
+		def second = new CustomFieldBinding(id: 20L)
+
+		when:
+		def res = cache.findCustomFieldBindings(1L, BindableEntity.TEST_CASE)
+		def cached = cache.findCustomFieldBindings(1L, BindableEntity.TEST_CASE)
+
+		then:
+		1 * customFieldBindingDao.findAllForProjectAndEntity(1L, BindableEntity.TEST_CASE) >> [first, second]
+		em.find(CustomFieldBinding, 10L) >> first
+		em.find(CustomFieldBinding, 20L) >> second
+
+		res == [first, second]
+		cached == [first, second]
+		!cached.is(res)
+	}
+
+	def "should reload bindings when one of them vanished"() {
+		given:
+		def first = new CustomFieldBinding(id: 10L)
+		def second = new CustomFieldBinding(id: 20L)
+		bindingIds.put("TEST_STEP:1", [10L, 20L])
+
+		when:
+		def res = cache.findCustomFieldBindings(1L, BindableEntity.TEST_STEP)
+
+		then:
+		em.find(CustomFieldBinding, 10L) >> first
+		em.find(CustomFieldBinding, 20L) >> null
+		1 * customFieldBindingDao.findAllForProjectAndEntity(1L, BindableEntity.TEST_STEP) >> [first]
+
+		res == [first]
+		bindingIds.get("TEST_STEP:1").get() == [10L]
+	}
+
+	def "should cache the bindings per project and entity"() {
+		when:
+		cache.findCustomFieldBindings(1L, BindableEntity.TEST_CASE)
+		cache.findCustomFieldBindings(2L, BindableEntity.TEST_CASE)
+		cache.findCustomFieldBindings(1L, BindableEntity.CAMPAIGN)
+
+		then:
+		3 * customFieldBindingDao.findAllForProjectAndEntity(_, _) >> []
+	}
+
+	def "should cache info list item consistency"() {
+		when:
+		def res = cache.isInfoListItemConsistent(REQUIREMENT_CATEGORY, 1L, "CAT_FOO")
+		def cached = cache.isInfoListItemConsistent(REQUIREMENT_CATEGORY, 1L, "CAT_FOO")
+		def other = cache.isInfoListItemConsistent(TEST_CASE_TYPE, 1L, "CAT_FOO")
+
+		then:
+		1 * infoListItemDao.isCategoryConsistent(1L, "CAT_FOO") >> true
+		1 * infoListItemDao.isTypeConsistent(1L, "CAT_FOO") >> false
+
+		res
+		cached
+		!other
+	}
+
+	def "should evict right away and at the end of the transaction"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		bindingIds.put("TEST_CASE:1", [10L])
+
+		when:
+		cache.evictCustomFieldBindings()
+
+		then:
+		bindingIds.get("TEST_CASE:1") == null
+
+		when:
+		bindingIds.put("TEST_CASE:1", [10L])
+		TransactionSynchronizationManager.getSynchronizations().each { it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED) }
+
+		then:
+		bindingIds.get("TEST_CASE:1") == null
+	}
+
+	def "should not cache bindings read before an eviction"() {
+		when:
+		cache.findCustomFieldBindings(1L, BindableEntity.TEST_CASE)
+
+		then:
+		1 * customFieldBindingDao.findAllForProjectAndEntity(1L, BindableEntity.TEST_CASE) >> {
+			cache.evictCustomFieldBindings()
+			[new CustomFieldBinding(id: 10L)]
+		}
+
+		bindingIds.get("TEST_CASE:1") == null
+	}
+
+}
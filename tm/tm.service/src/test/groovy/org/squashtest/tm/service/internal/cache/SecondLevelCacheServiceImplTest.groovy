@@ -0,0 +1,125 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.cache
+
+import org.hibernate.engine.spi.CacheImplementor
+import org.hibernate.engine.spi.SessionFactoryImplementor
+import org.hibernate.metamodel.spi.MetamodelImplementor
+import org.hibernate.stat.SecondLevelCacheStatistics
+import org.hibernate.stat.spi.StatisticsImplementor
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.squashtest.tm.domain.infolist.InfoList
+import org.squashtest.tm.domain.milestone.Milestone
+import spock.lang.Specification
+
+import javax.persistence.EntityManagerFactory
+
+class SecondLevelCacheServiceImplTest extends Specification {
+
+	SecondLevelCacheServiceImpl service = new SecondLevelCacheServiceImpl()
+	EntityManagerFactory entityManagerFactory = Mock()
+	SessionFactoryImplementor sessionFactory = Mock()
+	CacheImplementor cache = Mock()
+	MetamodelImplementor metamodel = Mock()
+
+	def setup() {
+		service.entityManagerFactory = entityManagerFactory
+		entityManagerFactory.unwrap(_) >> sessionFactory
+		sessionFactory.getCache() >> cache
+		sessionFactory.getMetamodel() >> metamodel
+		metamodel.getAllCollectionRoles() >> ["org.squashtest.tm.domain.infolist.InfoList.items", "org.squashtest.tm.domain.infolist.InfoListItem.foo"]
+	}
+
+	def cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization()
+		}
+	}
+
+	def "should evict entities, their collections and the query results"() {
+		when:
+		service.evict(InfoList, Milestone)
+
+		then:
+		1 * cache.evictEntityRegion(InfoList)
+		1 * cache.evictCollectionRegion("org.squashtest.tm.domain.infolist.InfoList.items")
+		1 * cache.evictEntityRegion(Milestone)
+		1 * cache.evictQueryRegions()
+		0 * cache.evictCollectionRegion(_)
+	}
+
+	def "should defer eviction until the end of the transaction"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+
+		when:
+		service.evict(Milestone)
+
+		then:
+		0 * cache._
+
+		when:
+		TransactionSynchronizationManager.getSynchronizations().each { it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED) }
+
+		then:
+		1 * cache.evictEntityRegion(Milestone)
+		1 * cache.evictQueryRegions()
+	}
+
+	def "should collect the statistics of each region"() {
+		given:
+		StatisticsImplementor statistics = Mock()
+		sessionFactory.getStatistics() >> statistics
+		statistics.isStatisticsEnabled() >> true
+		statistics.getSecondLevelCacheRegionNames() >> (["zorg", "bar"] as String[])
+
+		and:
+		SecondLevelCacheStatistics bar = Mock()
+		bar.hitCount >> 3
+		bar.missCount >> 1
+		bar.putCount >> 1
+		bar.elementCountInMemory >> 1
+		statistics.getSecondLevelCacheStatistics("bar") >> bar
+
+		SecondLevelCacheStatistics zorg = Mock()
+		statistics.getSecondLevelCacheStatistics("zorg") >> zorg
+
+		when:
+		def res = service.findRegionStatistics()
+
+		then:
+		res*.region == ["bar", "zorg"]
+		res[0].hitRatio == 0.75d
+		res[1].hitRatio == 0d
+	}
+
+	def "should not collect statistics when they are disabled"() {
+		given:
+		StatisticsImplementor statistics = Mock()
+		sessionFactory.getStatistics() >> statistics
+		statistics.isStatisticsEnabled() >> false
+
+		expect:
+		service.findRegionStatistics() == []
+	}
+
+}
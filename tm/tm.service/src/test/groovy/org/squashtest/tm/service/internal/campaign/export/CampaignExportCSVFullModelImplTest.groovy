@@ -0,0 +1,178 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.campaign.export
+
+import org.jooq.DSLContext
+import org.jooq.Result
+import org.jooq.SQLDialect
+import org.jooq.impl.DSL
+import org.jooq.tools.jdbc.MockConnection
+import org.jooq.tools.jdbc.MockDataProvider
+import org.jooq.tools.jdbc.MockExecuteContext
+import org.jooq.tools.jdbc.MockResult
+import org.squashtest.tm.service.internal.dto.CampaignDto
+import org.squashtest.tm.service.internal.dto.ExecutionDto
+import org.squashtest.tm.service.internal.dto.ITPIDto
+import org.squashtest.tm.service.internal.dto.IterationDto
+import org.squashtest.tm.service.internal.dto.TestCaseDto
+import org.squashtest.tm.service.internal.dto.TestStepDto
+import org.squashtest.tm.tools.unittest.reflection.ReflectionCategory
+import spock.lang.Specification
+
+import static org.squashtest.tm.service.internal.campaign.export.AbstractCampaignExportCSVModel.CTS_CALLED_TS
+import static org.squashtest.tm.service.internal.campaign.export.AbstractCampaignExportCSVModel.TC_ID
+import static org.squashtest.tm.service.internal.campaign.export.AbstractCampaignExportCSVModel.TS_ID
+import static org.squashtest.tm.service.internal.campaign.export.AbstractCampaignExportCSVModel.TS_ORDER
+import static org.squashtest.tm.service.internal.campaign.export.AbstractCampaignExportCSVModel.TS_REQUIREMENT_VERIFIED
+
+class CampaignExportCSVFullModelImplTest extends Specification {
+
+	CampaignExportCSVFullModelImpl model = new CampaignExportCSVFullModelImpl()
+
+	DSLContext create = DSL.using(SQLDialect.H2)
+
+	// rows of the called test cases query : test case id, step order, step id, called test case id, verified requirement
+	List<List<Long>> rows = []
+
+	// the ids requested by each query
+	List<List<Long>> queries = []
+
+	def setup() {
+		MockDataProvider provider = { MockExecuteContext ctx ->
+			def ids = ctx.bindings() as List
+			queries << ids
+
+			Result result = create.newResult(TC_ID, TS_ORDER, TS_ID, CTS_CALLED_TS, TS_REQUIREMENT_VERIFIED)
+			rows.findAll { it[0] in ids }.each { row ->
+				def record = create.newRecord(TC_ID, TS_ORDER, TS_ID, CTS_CALLED_TS, TS_REQUIREMENT_VERIFIED)
+				record.values(row[0], row[1] as Integer, row[2], row[3], row[4])
+				result.add(record)
+			}
+			[new MockResult(result.size(), result)] as MockResult[]
+		} as MockDataProvider
+
+		model.DSL = DSL.using(new MockConnection(provider), SQLDialect.H2)
+	}
+
+	def "should expand nested and repeated calls, and give an empty step to a called test case without steps"() {
+		given:
+		def tc1 = testCase(1L, [action(11L, 0), call(101L, 1, 2L), call(102L, 2, 2L), call(103L, 3, 4L), action(12L, 4)])
+		def tc4 = testCase(4L, [])
+		campaign(item(tc1), item(tc4))
+
+		and:
+		rows = [
+			[2L, 0L, 21L, null, 200L],
+			[2L, 0L, 21L, null, 201L],
+			[2L, 1L, 104L, 3L, null],
+			[3L, 0L, 31L, null, null],
+			[4L, null, null, null, null]
+		]
+
+		when:
+		model.populateCalledTestCases()
+		def steps = model.getActionTestStepList(tc1)
+
+		then: "one query per level of calls"
+		queries.size() == 2
+		queries[0] as Set == [2L, 4L] as Set
+		queries[1] == [3L]
+
+		and:
+		steps*.id == [11L, 21L, 31L, 21L, 31L, null, 12L]
+		steps[1].requirementSet == [200L, 201L] as Set
+
+		and: "a test plan item test case without steps keeps no step"
+		model.getActionTestStepList(tc4).isEmpty()
+
+		and: "the lists are computed once"
+		model.getActionTestStepList(tc1).is(steps)
+	}
+
+	def "should ignore a call which closes a cycle"() {
+		given:
+		def tc5 = testCase(5L, [call(105L, 0, 6L)])
+		campaign(item(tc5))
+
+		and:
+		rows = [
+			[6L, 0L, 61L, null, null],
+			[6L, 1L, 106L, 5L, null],
+			[5L, 0L, 105L, 6L, null]
+		]
+
+		when:
+		model.populateCalledTestCases()
+		def steps = model.getActionTestStepList(tc5)
+
+		then:
+		queries.size() == 2
+		steps*.id == [61L]
+	}
+
+	def "should not load the called test cases of executed items"() {
+		given:
+		def tc7 = testCase(7L, [call(107L, 0, 8L)])
+		def executed = item(tc7)
+		executed.addExecution(new ExecutionDto(id: 1L))
+		campaign(executed)
+
+		when:
+		model.populateCalledTestCases()
+
+		then:
+		queries.isEmpty()
+	}
+
+	def campaign(ITPIDto... items) {
+		def iteration = new IterationDto(id: 1L)
+		items.eachWithIndex { it, idx ->
+			it.id = idx + 1L
+			iteration.addTestPlan(it)
+		}
+		def campaign = new CampaignDto(id: 1L)
+		campaign.addIteration(iteration)
+		use(ReflectionCategory) {
+			AbstractCampaignExportCSVModel.set field: "campaignDto", of: model, to: campaign
+		}
+	}
+
+	def item(TestCaseDto testCase) {
+		new ITPIDto(testCase: testCase)
+	}
+
+	def testCase(Long id, List<TestStepDto> steps) {
+		def testCase = new TestCaseDto(id: id)
+		steps.each { testCase.addStep(it) }
+		testCase
+	}
+
+	def action(Long id, int order) {
+		new TestStepDto(id, order)
+	}
+
+	def call(Long id, int order, Long calledTestCaseId) {
+		def step = new TestStepDto(id, order)
+		step.calledTestCaseId = calledTestCaseId
+		step
+	}
+
+}
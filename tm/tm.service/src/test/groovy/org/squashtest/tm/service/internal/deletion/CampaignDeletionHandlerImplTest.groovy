@@ -22,13 +22,19 @@ package org.squashtest.tm.service.internal.deletion
 
 import org.squashtest.tm.domain.campaign.IterationTestPlanItem
 import org.squashtest.tm.domain.campaign.TestSuite
+import org.squashtest.tm.domain.execution.Execution
 import org.squashtest.tm.service.attachment.AttachmentManagerService
+import org.squashtest.tm.service.campaign.CustomTestSuiteModificationService
 import org.squashtest.tm.service.campaign.IterationTestPlanManagerService
+import org.squashtest.tm.service.deletion.ExecutionPurgeService
 import org.squashtest.tm.service.internal.customfield.PrivateCustomFieldValueService
 import org.squashtest.tm.service.internal.repository.CampaignDeletionDao
+import org.squashtest.tm.service.internal.repository.ExecutionDao
 import org.squashtest.tm.service.internal.repository.TestSuiteDao
 import spock.lang.Specification
 
+import javax.persistence.EntityManager
+
 class CampaignDeletionHandlerImplTest  extends Specification{
 
 
@@ -38,6 +44,11 @@ class CampaignDeletionHandlerImplTest  extends Specification{
 	CampaignDeletionDao deletionDao = Mock()
 	IterationTestPlanManagerService iterationTestPlanManagerService = Mock()
 	AttachmentManagerService attachmentManagerService = Mock()
+	ExecutionDao executionDao = Mock()
+	CustomTestSuiteModificationService customTestSuiteModificationService = Mock()
+	ExecutionPurgeQueue purgeQueue = Mock()
+	ExecutionPurgeService purgeService = Mock()
+	EntityManager entityManager = Mock()
 
 	def setup(){
 		handler.suiteDao = suiteDao
@@ -45,6 +56,11 @@ class CampaignDeletionHandlerImplTest  extends Specification{
 		handler.deletionDao = deletionDao
 		handler.iterationTestPlanManagerService = iterationTestPlanManagerService
 		handler.attachmentManager = attachmentManagerService
+		handler.executionDao = executionDao
+		handler.customTestSuiteModificationService = customTestSuiteModificationService
+		handler.purgeQueue = purgeQueue
+		handler.purgeService = purgeService
+		handler.entityManager = entityManager
 	}
 
 	def "should simulate test suite deletion with no error"(){
@@ -137,6 +153,38 @@ class CampaignDeletionHandlerImplTest  extends Specification{
 
 
 
+	def "should tombstone executions and update each test plan item once"(){
+
+		given :
+		IterationTestPlanItem itpi = Mock()
+		def executions = (1..3).collect { id ->
+			Execution exec = Mock()
+			exec.getId() >> id
+			exec.getTestPlan() >> itpi
+			exec
+		}
+		def remaining = Mock(Execution)
+		remaining.getId() >> 4L
+		def itpiExecutions = executions + [remaining]
+		itpi.getExecutions() >> itpiExecutions
+
+		TestSuite suite = Mock()
+		suiteDao.findAllIdsByExecutionIds(_) >> [10L]
+		suiteDao.findAllByIds(_) >> [suite]
+		executionDao.findAllWithTestPlanWithExecutionsItemByIds([1L, 2L, 3L]) >> executions
+
+		when :
+		handler.bulkDeleteExecutions([1L, 2L, 3L])
+
+		then :
+		itpiExecutions == [remaining]
+		1 * itpi.updateExecutionStatus()
+		1 * purgeQueue.enqueue([1L, 2L, 3L])
+		1 * customTestSuiteModificationService.updateExecutionStatus(suite)
+		1 * purgeService.startPurge()
+		0 * deletionDao.removeEntity(_)
+	}
+
 	def createTestSuite = {id -> TestSuite ts = Mock(TestSuite)
 		ts.getId() >> id
 		ts.getAttachmentList() >> []
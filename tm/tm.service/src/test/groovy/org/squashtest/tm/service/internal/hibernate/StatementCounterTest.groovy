@@ -0,0 +1,74 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.hibernate
+
+import spock.lang.Specification
+
+class StatementCounterTest extends Specification {
+
+	StatementCounter counter = new StatementCounter()
+
+	def "should leave the statement untouched"() {
+		expect:
+		counter.inspect("select 1") == "select 1"
+	}
+
+	def "should count the statements of the current request"() {
+		given:
+		counter.inspect("select 1")
+		counter.openRequestScope()
+
+		when:
+		counter.inspect("select 2")
+		counter.inspect("select 3")
+		def current = counter.requestCount
+		def closed = counter.closeRequestScope()
+
+		then:
+		current == 2
+		closed == 2
+		counter.totalCount == 3
+	}
+
+	def "should not count the statements outside of a request"() {
+		when:
+		counter.inspect("select 1")
+
+		then:
+		counter.requestCount == 0
+		counter.closeRequestScope() == 0
+		counter.totalCount == 1
+	}
+
+	def "should not count the statements of other threads"() {
+		given:
+		counter.openRequestScope()
+
+		when:
+		def thread = Thread.start { counter.inspect("select 1") }
+		thread.join()
+
+		then:
+		counter.closeRequestScope() == 0
+		counter.totalCount == 1
+	}
+
+}
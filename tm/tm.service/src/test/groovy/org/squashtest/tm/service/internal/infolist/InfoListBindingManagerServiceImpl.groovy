@@ -25,6 +25,7 @@ import org.squashtest.tm.domain.infolist.InfoListItem
 import org.squashtest.tm.domain.project.Project
 import org.squashtest.tm.domain.project.ProjectTemplate
 import org.squashtest.tm.exception.project.LockedParameterException
+import org.squashtest.tm.service.internal.cache.BindingCache
 import org.squashtest.tm.service.internal.repository.GenericProjectDao
 import org.squashtest.tm.service.internal.repository.InfoListDao
 import org.squashtest.tm.service.internal.repository.ProjectDao
@@ -37,11 +38,13 @@ public class InfoListBindingManagerServiceImplTest extends Specification {
 	GenericProjectDao genericProjectDao = Mock()
 	ProjectDao projectDao = Mock()
 	InfoListDao infoListDao = Mock()
+	BindingCache bindingCache = Mock()
 
 	def setup() {
 		manager.genericProjectDao = genericProjectDao
 		manager.projectDao = projectDao
 		manager.infoListDao = infoListDao
+		manager.bindingCache = bindingCache
 	}
 
 	def "#bindListToProjectReqCategory - Should bind ReqCategory InfoList to a Project"() {
@@ -67,6 +70,7 @@ public class InfoListBindingManagerServiceImplTest extends Specification {
 
 		project.getRequirementCategories() == infoList
 		1 * infoListDao.setDefaultCategoryForProject(404L, defaultItem)
+		1 * bindingCache.evictInfoListItems()
 	}
 
 	def "#bindListToProjectReqCategory - Should not bind ReqCategory InfoList beacause the Project is bound to a Template"() {
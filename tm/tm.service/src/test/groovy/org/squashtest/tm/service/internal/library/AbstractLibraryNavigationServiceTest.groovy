@@ -25,6 +25,8 @@ import org.squashtest.tm.domain.testcase.TestCaseLibrary
 import org.squashtest.tm.domain.testcase.TestCaseLibraryNode
 import org.squashtest.tm.service.internal.library.AbstractLibraryNavigationService
 import org.squashtest.tm.service.internal.library.PasteStrategy
+import org.squashtest.tm.service.internal.repository.TestCaseFolderDao
+import org.squashtest.tm.service.internal.testcase.SetBasedTestCaseCopier
 import org.squashtest.tm.service.internal.testcase.TestCaseLibraryNavigationServiceImpl
 import spock.lang.Specification
 
@@ -34,11 +36,15 @@ class AbstractLibraryNavigationServiceTest extends Specification {
 
 	private AbstractLibraryNavigationService<TestCaseLibrary, TestCaseFolder, TestCaseLibraryNode>	service = new TestCaseLibraryNavigationServiceImpl()
 	private PasteStrategy<TestCaseFolder, TestCaseLibraryNode> pasteToFolderStrategy = Mock()
+	private TestCaseFolderDao testCaseFolderDao = Mock()
+	private SetBasedTestCaseCopier setBasedCopier = Mock()
 
 	def setup(){
 		def provider = Mock(Provider)
 		provider.get() >> pasteToFolderStrategy
 		service.pasteToTestCaseFolderStrategyProvider = provider
+		service.testCaseFolderDao = testCaseFolderDao
+		service.setBasedCopier = setBasedCopier
 	}
 
 
@@ -51,8 +57,26 @@ class AbstractLibraryNavigationServiceTest extends Specification {
 		def result = service.copyNodesToFolder(2l, sourceNodeIds)
 
 		then :
+		1*setBasedCopier.copyNodes(_, Arrays.asList(sourceNodeIds)) >> Optional.empty()
 		1*pasteToFolderStrategy.pasteNodes(destinationId, Arrays.asList(sourceNodeIds))
 
 	}
 
+	def "should copy with set based statements when possible"(){
+		given :
+			TestCaseFolder destination = Mock()
+			TestCaseLibraryNode copy = Mock()
+			testCaseFolderDao.findById(2L) >> destination
+			Long[] sourceNodeIds = [1L]
+
+		when :
+		def result = service.copyNodesToFolder(2L, sourceNodeIds)
+
+		then :
+		1*setBasedCopier.copyNodes(destination, [1L]) >> Optional.of([copy])
+		0*pasteToFolderStrategy.pasteNodes(_, _)
+		result == [copy]
+
+	}
+
 }
@@ -0,0 +1,168 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.library
+
+import org.springframework.cache.concurrent.ConcurrentMapCache
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import java.util.function.Function
+
+import static org.squashtest.tm.service.internal.library.LibraryNodePathCache.Library.REQUIREMENT
+import static org.squashtest.tm.service.internal.library.LibraryNodePathCache.Library.TEST_CASE
+
+class LibraryNodePathCacheTest extends Specification {
+
+	LibraryNodePathCache cache = new LibraryNodePathCache(new ConcurrentMapCache("test"))
+
+	Function<List<Long>, Map<Long, String>> pathComputation = Mock()
+
+	Function<List<String>, Map<String, Long>> idComputation = Mock()
+
+	def cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization()
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache)
+	}
+
+	def "should compute a path only once"() {
+		when:
+		def first = cache.findPaths(TEST_CASE, [10L], pathComputation)
+		def second = cache.findPaths(TEST_CASE, [10L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([10L]) >> [10L: "/project/folder/test"]
+		first == ["/project/folder/test"]
+		second == ["/project/folder/test"]
+		cache.missCount == 1
+		cache.hitCount == 1
+	}
+
+	def "should only compute the missing paths, each once, and keep the order of the ids"() {
+		given:
+		cache.findPaths(TEST_CASE, [20L], { [20L: "/project/b"] } as Function)
+
+		when:
+		def paths = cache.findPaths(TEST_CASE, [30L, 20L, 10L, 30L, 40L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([30L, 10L, 40L]) >> [30L: "/project/c", 10L: "/project/a"]
+		paths == ["/project/c", "/project/b", "/project/a", "/project/c", null]
+	}
+
+	def "should not share paths between libraries"() {
+		given:
+		cache.findPaths(TEST_CASE, [10L], { [10L: "/project/test"] } as Function)
+
+		when:
+		def paths = cache.findPaths(REQUIREMENT, [10L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([10L]) >> [10L: "/project/requirement"]
+		paths == ["/project/requirement"]
+	}
+
+	def "should compute the paths again once nodes changed"() {
+		given:
+		cache.findPaths(TEST_CASE, [10L], { [10L: "/project/test"] } as Function)
+
+		when:
+		cache.nodesChanged()
+		def paths = cache.findPaths(TEST_CASE, [10L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([10L]) >> [10L: "/project/renamed"]
+		paths == ["/project/renamed"]
+	}
+
+	def "should not index a path computed before an eviction"() {
+		given:
+		def computation = { ids ->
+			cache.evictAll()
+			[10L: "/project/stale"]
+		} as Function
+
+		when:
+		cache.findPaths(TEST_CASE, [10L], computation)
+		cache.findPaths(TEST_CASE, [10L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([10L]) >> [10L: "/project/fresh"]
+	}
+
+	def "should bypass the index within a transaction which changed some nodes"() {
+		given:
+		cache.findPaths(TEST_CASE, [10L], { [10L: "/project/test"] } as Function)
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.nodesChanged()
+
+		when:
+		cache.findPaths(TEST_CASE, [10L], pathComputation)
+		cache.findPaths(TEST_CASE, [10L], pathComputation)
+
+		then:
+		2 * pathComputation.apply([10L]) >> [10L: "/project/renamed"]
+	}
+
+	def "should drop the index again when a transaction which changed some nodes ends"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.nodesChanged()
+		cache.findPaths(TEST_CASE, [10L], { [10L: "/project/renamed"] } as Function)
+
+		when:
+		TransactionSynchronizationManager.synchronizations*.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK)
+		TransactionSynchronizationManager.clearSynchronization()
+		def paths = cache.findPaths(TEST_CASE, [10L], pathComputation)
+
+		then:
+		1 * pathComputation.apply([10L]) >> [10L: "/project/test"]
+		paths == ["/project/test"]
+	}
+
+	def "should not index the ids found within a transaction which created nodes"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.nodesCreated()
+
+		when:
+		cache.findIds(TEST_CASE, ["/project/new"], idComputation)
+		cache.findIds(TEST_CASE, ["/project/new"], idComputation)
+
+		then:
+		2 * idComputation.apply(["/project/new"]) >> ["/project/new": 10L]
+	}
+
+	def "should index the ids found outside of a transaction"() {
+		when:
+		def first = cache.findIds(TEST_CASE, ["/project/test"], idComputation)
+		def second = cache.findIds(TEST_CASE, ["/project/test"], idComputation)
+
+		then:
+		1 * idComputation.apply(["/project/test"]) >> ["/project/test": 10L]
+		first == [10L]
+		second == [10L]
+	}
+}
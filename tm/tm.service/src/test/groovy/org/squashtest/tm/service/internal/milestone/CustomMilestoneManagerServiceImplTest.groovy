@@ -21,6 +21,8 @@
 package org.squashtest.tm.service.internal.milestone
 
 import org.squashtest.tm.domain.milestone.Milestone
+import org.squashtest.tm.domain.project.GenericProject
+import org.squashtest.tm.service.cache.SecondLevelCacheService
 import org.squashtest.tm.service.internal.repository.MilestoneDao
 import spock.lang.Specification
 
@@ -28,9 +30,11 @@ class CustomMilestoneManagerServiceImplTest extends Specification {
 
 	CustomMilestoneManagerServiceImpl manager = new CustomMilestoneManagerServiceImpl()
 	MilestoneDao milestoneDao= Mock()
+	SecondLevelCacheService secondLevelCacheService = Mock()
 
 	def setup(){
 		manager.milestoneDao = milestoneDao
+		manager.secondLevelCacheService = secondLevelCacheService
 	}
 
 	def "should delete milestones"(){
@@ -43,6 +47,7 @@ class CustomMilestoneManagerServiceImplTest extends Specification {
 		manager.removeMilestones(ids)
 		then :
 		milestones.each{1 * milestoneDao.delete(it)}
+		1 * secondLevelCacheService.evict(Milestone, GenericProject)
 
 	}
 }
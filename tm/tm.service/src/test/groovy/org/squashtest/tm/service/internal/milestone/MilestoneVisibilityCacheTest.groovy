@@ -0,0 +1,137 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.milestone
+
+import org.springframework.cache.concurrent.ConcurrentMapCache
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class MilestoneVisibilityCacheTest extends Specification {
+
+	PermissionDecisionCache permissionCache = new PermissionDecisionCache(new ConcurrentMapCache("permissions"))
+
+	MilestoneVisibilityCache cache = new MilestoneVisibilityCache(new ConcurrentMapCache("test"), permissionCache)
+
+	Supplier<List<Long>> lookup = Mock()
+
+	def cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization()
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache)
+	}
+
+	def "should look up the milestones of the same parties only once"() {
+		when:
+		def first = cache.findVisibleMilestoneIds(false, [1L, 5L], lookup)
+		def second = cache.findVisibleMilestoneIds(false, [5L, 1L], lookup)
+
+		then:
+		1 * lookup.get() >> [10L, 20L]
+		first == [10L, 20L]
+		second == [10L, 20L]
+		cache.missCount == 1
+		cache.hitCount == 1
+	}
+
+	def "should not share milestones between different parties"() {
+		when:
+		cache.findVisibleMilestoneIds(false, [1L], lookup)
+		cache.findVisibleMilestoneIds(false, [1L, 5L], lookup)
+
+		then:
+		2 * lookup.get() >> [10L]
+	}
+
+	def "should share milestones between administrators"() {
+		when:
+		cache.findVisibleMilestoneIds(true, [1L], lookup)
+		cache.findVisibleMilestoneIds(true, [2L, 5L], lookup)
+
+		then:
+		1 * lookup.get() >> [10L, 20L, 30L]
+	}
+
+	def "should look up again once the acls changed"() {
+		when:
+		cache.findVisibleMilestoneIds(false, [1L], lookup)
+		permissionCache.evictAll()
+		cache.findVisibleMilestoneIds(false, [1L], lookup)
+
+		then:
+		2 * lookup.get() >> [10L]
+	}
+
+	def "should not serve milestones looked up while an acl change was not committed yet"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		permissionCache.evictAll()
+
+		and: "another thread still sees the former acls"
+		cache.findVisibleMilestoneIds(false, [1L], { [10L, 20L] } as Supplier)
+
+		when:
+		TransactionSynchronizationManager.synchronizations.each { it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED) }
+		def ids = cache.findVisibleMilestoneIds(false, [1L], lookup)
+
+		then:
+		1 * lookup.get() >> [10L]
+		ids == [10L]
+	}
+
+	def "should not let callers modify the cached ids"() {
+		given:
+		lookup.get() >> [10L]
+		cache.findVisibleMilestoneIds(false, [1L], lookup).add(20L)
+
+		expect:
+		cache.findVisibleMilestoneIds(false, [1L], lookup) == [10L]
+	}
+
+	def "should bypass the cache in a transaction which changed milestones, and evict it when that transaction ends"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.findVisibleMilestoneIds(false, [1L], { [10L] } as Supplier)
+
+		when:
+		cache.milestonesChanged()
+		def inTransaction = cache.findVisibleMilestoneIds(false, [1L], { [10L, 20L] } as Supplier)
+
+		then:
+		inTransaction == [10L, 20L]
+
+		when:
+		def synchronizations = TransactionSynchronizationManager.synchronizations
+		TransactionSynchronizationManager.clearSynchronization()
+		synchronizations*.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+		def afterCommit = cache.findVisibleMilestoneIds(false, [1L], lookup)
+
+		then:
+		1 * lookup.get() >> [10L, 20L]
+		afterCommit == [10L, 20L]
+		!TransactionSynchronizationManager.hasResource(cache)
+	}
+
+}
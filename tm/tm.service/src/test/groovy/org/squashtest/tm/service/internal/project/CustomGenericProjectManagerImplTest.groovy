@@ -46,6 +46,7 @@ import org.squashtest.tm.exception.NameAlreadyInUseException
 import org.squashtest.tm.exception.project.LockedParameterException
 import org.squashtest.tm.service.customfield.CustomFieldBindingModificationService
 import org.squashtest.tm.service.infolist.InfoListFinderService
+import org.squashtest.tm.service.internal.cache.BindingCache
 import org.squashtest.tm.service.internal.repository.ActionWordLibraryNodeDao
 import org.squashtest.tm.service.internal.repository.CustomReportLibraryNodeDao
 import org.squashtest.tm.service.internal.repository.GenericProjectDao
@@ -88,6 +89,7 @@ class CustomGenericProjectManagerImplTest extends Specification {
 	PermissionEvaluationService permissionEvaluationService = Mock()
 	TestAutomationProjectManagerService taProjectService = Mock()
 	CustomTestCaseModificationService customTestCaseModificationService = Mock()
+	BindingCache bindingCache = Mock()
 
 	def setup() {
 		manager.em = em
@@ -107,6 +109,7 @@ class CustomGenericProjectManagerImplTest extends Specification {
 		manager.permissionEvaluationService = permissionEvaluationService
 		manager.taProjectService = taProjectService
 		manager.customTestCaseModificationService = customTestCaseModificationService
+		manager.bindingCache = bindingCache
 	}
 
 	def "should not persist project with name in use"() {
@@ -20,11 +20,16 @@
  */
 package org.squashtest.tm.service.internal.security
 
+import org.springframework.cache.concurrent.ConcurrentMapCache
 import org.springframework.security.acls.domain.BasePermission
+import org.springframework.security.acls.domain.ObjectIdentityImpl
 import org.springframework.security.core.Authentication
+import org.squashtest.tm.domain.Identified
 import org.squashtest.tm.security.acls.CustomPermission
 import org.squashtest.tm.security.acls.CustomPermissionFactory
 import org.squashtest.tm.service.security.UserContextService
+import org.squashtest.tm.service.security.acls.model.BatchObjectIdentityGenerator
+import org.squashtest.tm.service.security.acls.model.ObjectAclService
 import spock.lang.Issue
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -37,10 +42,17 @@ class AclPermissionEvaluationServiceTest extends Specification {
 	AffirmativeBasedCompositePermissionEvaluator permissionEvaluator = Mock()
 	Authentication currentUser = Mock()
 
+	ObjectAclService aclService = Mock()
+	BatchObjectIdentityGenerator objectIdentityGenerator = Mock()
+
 	def setup() {
 		service.userContextService = userContextService
 		userContextService.getAuthentication() >> currentUser
 		service.permissionEvaluator = permissionEvaluator
+		service.permissionFactory = new CustomPermissionFactory()
+		service.decisionCache = new PermissionDecisionCache(new ConcurrentMapCache("test"))
+		service.aclService = aclService
+		service.objectIdentityGenerator = objectIdentityGenerator
 	}
 
 	def "user should have permission based on his role"() {
@@ -80,19 +92,139 @@ class AclPermissionEvaluationServiceTest extends Specification {
 	@Issue("5991")
 	def "User's rights list should be #rights"() {
 		given:
-		permissionEvaluator.hasPermission((Authentication) _, 10L, "Foo", { perms.contains(it) }) >> true
+		userContextService.getUsername() >> "bob"
+		objectIdentityGenerator.createObjectIdentities([10L], _) >> [(10L): new ObjectIdentityImpl("FooLibrary", 1L)]
+		aclService.findPermissionMasks("bob", _) >> [(new ObjectIdentityImpl("FooLibrary", 1L)): mask]
+
+		expect:
+		service.permissionsOn("Foo", 10L) == rights
+
+		where:
+		rights               | mask
+		["READ"]             | BasePermission.READ.mask
+		["WRITE", "EXECUTE"] | BasePermission.WRITE.mask + CustomPermission.EXECUTE.mask
+		[]                   | 0
+
+	}
+
+	def "should resolve the rights on many entities with a single mask query"() {
+		given:
+		userContextService.getUsername() >> "bob"
+
+		when:
+		def rights = service.permissionsOn("Foo", [10L, 20L])
+
+		then:
+		1 * objectIdentityGenerator.createObjectIdentities([10L, 20L], "Foo") >> [
+			(10L): new ObjectIdentityImpl("FooLibrary", 1L),
+			(20L): new ObjectIdentityImpl("FooLibrary", 2L)
+		]
+		0 * objectIdentityGenerator.createObjectIdentity(*_)
+		1 * aclService.findPermissionMasks("bob", _) >> [
+			(new ObjectIdentityImpl("FooLibrary", 1L)): BasePermission.READ.mask | BasePermission.WRITE.mask,
+			(new ObjectIdentityImpl("FooLibrary", 2L)): 0
+		]
+
+		rights == [10L: ["READ", "WRITE"], 20L: []]
+	}
+
+	def "should fall back on evaluating each right when there are extra evaluators"() {
+		given:
+		permissionEvaluator.hasExtraEvaluators() >> true
+		permissionEvaluator.hasPermission(currentUser, 10L, "Foo", { it == CustomPermission.EXPORT }) >> true
+
+		when:
+		def rights = service.permissionsOn("Foo", 10L)
+
+		then:
+		rights == ["EXPORT"]
+		0 * aclService.findPermissionMasks(*_)
+	}
+
+	@Unroll
+	def "should tell if user has more than read from the permission mask #mask"() {
+		given:
+		userContextService.getUsername() >> "bob"
+		objectIdentityGenerator.createObjectIdentities([10L], _) >> [(10L): new ObjectIdentityImpl("FooLibrary", 1L)]
+		aclService.findPermissionMasks("bob", _) >> [(new ObjectIdentityImpl("FooLibrary", 1L)): mask]
 
 		and:
-		service.permissionFactory = new CustomPermissionFactory()
+		Identified entity = Mock()
+		entity.getId() >> 10L
 
 		expect:
-		service.permissionsOn("Foo", 10L) == rights
+		service.hasMoreThanRead(entity) == hasMore
 
 		where:
-		rights               | perms
-		["READ"]             | [BasePermission.READ]
-		["WRITE", "EXECUTE"] | [BasePermission.WRITE, CustomPermission.EXECUTE]
-		[]                   | []
+		mask                                                  | hasMore
+		0                                                     | false
+		BasePermission.READ.mask                              | false
+		BasePermission.READ.mask + CustomPermission.LINK.mask   | true
+		CustomPermission.WRITE_AS_AUTOMATION.mask             | true
+	}
+
+	def "should tell if user has more than read from the cached decisions"() {
+		given:
+		currentUser.getName() >> "bob"
+		Identified entity = Mock()
+		entity.getId() >> 10L
+
+		and:
+		service.decisionCache.openRequestScope()
+		service.decisionCache.memoize("bob", entity.getClass().name, 10L, BasePermission.WRITE.mask, true)
+
+		when:
+		def hasMore = service.hasMoreThanRead(entity)
+
+		then:
+		hasMore
+		0 * aclService.findPermissionMasks(*_)
+
+		cleanup:
+		service.decisionCache.closeRequestScope()
+	}
+
+	def "should fetch the permission mask once to tell if user has more than read"() {
+		given:
+		currentUser.getName() >> "bob"
+		userContextService.getUsername() >> "bob"
+		objectIdentityGenerator.createObjectIdentities([10L], _) >> [(10L): new ObjectIdentityImpl("FooLibrary", 1L)]
+
+		and:
+		Identified entity = Mock()
+		entity.getId() >> 10L
+
+		when:
+		def hasMore = service.hasMoreThanRead(entity)
+		def hasMoreAgain = service.hasMoreThanRead(entity)
+
+		then:
+		1 * aclService.findPermissionMasks("bob", _) >> [(new ObjectIdentityImpl("FooLibrary", 1L)): BasePermission.READ.mask]
+		!hasMore
+		!hasMoreAgain
+	}
+
+	def "bulk resolved rights should be served to the following evaluations of the request"() {
+		given:
+		currentUser.getName() >> "bob"
+		userContextService.getUsername() >> "bob"
+		objectIdentityGenerator.createObjectIdentities([10L], _) >> [(10L): new ObjectIdentityImpl("FooLibrary", 1L)]
+		aclService.findPermissionMasks("bob", _) >> [(new ObjectIdentityImpl("FooLibrary", 1L)): BasePermission.WRITE.mask]
+
+		and:
+		service.decisionCache.openRequestScope()
+
+		when:
+		service.permissionsOn("Foo", [10L])
+		def canWrite = service.hasPermissionOnObject("WRITE", 10L, "Foo")
+		def canDelete = service.hasPermissionOnObject("DELETE", 10L, "Foo")
+
+		then:
+		canWrite
+		!canDelete
+		0 * permissionEvaluator.hasPermission(*_)
 
+		cleanup:
+		service.decisionCache.closeRequestScope()
 	}
 }
@@ -0,0 +1,152 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.security
+
+import org.springframework.cache.concurrent.ConcurrentMapCache
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import java.util.function.BooleanSupplier
+
+class PermissionDecisionCacheTest extends Specification {
+
+	PermissionDecisionCache cache = new PermissionDecisionCache(new ConcurrentMapCache("test"))
+
+	BooleanSupplier evaluation = Mock()
+
+	def "should evaluate a decision only once"() {
+		when:
+		def first = cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+		def second = cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+
+		then:
+		1 * evaluation.getAsBoolean() >> true
+		first
+		second
+		cache.missCount == 1
+		cache.sharedHitCount == 1
+	}
+
+	def "should consider Integer and Long identifiers alike"() {
+		when:
+		cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+		cache.getDecision("chris", "Foo", 10, 1, evaluation)
+
+		then:
+		1 * evaluation.getAsBoolean() >> true
+	}
+
+	def "should not share decisions between users, objects or permissions"() {
+		when:
+		cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+		cache.getDecision("jessie", "Foo", 10L, 1, evaluation)
+		cache.getDecision("chris", "Bar", 10L, 1, evaluation)
+		cache.getDecision("chris", "Foo", 20L, 1, evaluation)
+		cache.getDecision("chris", "Foo", 10L, 2, evaluation)
+
+		then:
+		5 * evaluation.getAsBoolean() >> true
+	}
+
+	def "should not cache decisions of anonymous users"() {
+		when:
+		cache.getDecision(null, "Foo", 10L, 1, evaluation)
+		cache.getDecision(null, "Foo", 10L, 1, evaluation)
+
+		then:
+		2 * evaluation.getAsBoolean() >> false
+	}
+
+	def "should evaluate decisions again after eviction"() {
+		given:
+		cache.getDecision("chris", "Foo", 10L, 1, { true } as BooleanSupplier)
+
+		when:
+		cache.evictAll()
+		def decision = cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+
+		then:
+		1 * evaluation.getAsBoolean() >> false
+		!decision
+	}
+
+	def "should evict decisions again once the transaction which changed the acls completes"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.evictAll()
+
+		and: "a decision based on the acls not yet committed"
+		cache.getDecision("chris", "Foo", 10L, 1, { true } as BooleanSupplier)
+		def generation = cache.generation
+
+		when:
+		TransactionSynchronizationManager.synchronizations.each { it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED) }
+		def decision = cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+
+		then:
+		1 * evaluation.getAsBoolean() >> false
+		!decision
+		cache.generation != generation
+
+		cleanup:
+		TransactionSynchronizationManager.clearSynchronization()
+	}
+
+	def "should only evict decisions once the transaction completes when asked to"() {
+		given:
+		TransactionSynchronizationManager.initSynchronization()
+		cache.getDecision("chris", "Foo", 10L, 1, { true } as BooleanSupplier)
+
+		when:
+		cache.evictAllOnCompletion()
+
+		then:
+		cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+		0 * evaluation.getAsBoolean()
+
+		when:
+		TransactionSynchronizationManager.synchronizations.each { it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED) }
+		cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+
+		then:
+		1 * evaluation.getAsBoolean() >> true
+
+		cleanup:
+		TransactionSynchronizationManager.clearSynchronization()
+	}
+
+	def "should serve decisions from the request memo while the request scope is open"() {
+		given:
+		cache.openRequestScope()
+
+		when:
+		cache.getDecision("chris", "Foo", 10L, 1, { true } as BooleanSupplier)
+		cache.getDecision("chris", "Foo", 10L, 1, evaluation)
+
+		then:
+		0 * evaluation.getAsBoolean()
+		cache.requestHitCount == 1
+
+		cleanup:
+		cache.closeRequestScope()
+	}
+}
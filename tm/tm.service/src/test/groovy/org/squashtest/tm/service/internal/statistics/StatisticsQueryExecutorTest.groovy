@@ -0,0 +1,141 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.statistics
+
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionStatus
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class StatisticsQueryExecutorTest extends Specification {
+
+	StatisticsQueryExecutor executor = new StatisticsQueryExecutor()
+
+	PlatformTransactionManager transactionManager = Mock()
+
+	def setup() {
+		executor.transactionManager = transactionManager
+		executor.parallelism = 2
+		executor.concurrentBundles = 1
+		executor.initialize()
+	}
+
+	def cleanup() {
+		executor.shutdown()
+		TransactionSynchronizationManager.actualTransactionActive = false
+		TransactionSynchronizationManager.currentTransactionReadOnly = false
+	}
+
+	def "should run the query in the calling thread outside of a read-only transaction"() {
+		given:
+		TransactionSynchronizationManager.actualTransactionActive = active
+
+		when:
+		def result = executor.fork({ Thread.currentThread() } as Supplier)
+
+		then:
+		result.get() == Thread.currentThread()
+		0 * transactionManager._
+
+		where:
+		active << [false, true]
+	}
+
+	def "should run the query in a read-only transaction of its own within a read-only transaction"() {
+		given:
+		readOnlyTransaction()
+
+		when:
+		def threadName = executor.fanOut({ executor.fork({ Thread.currentThread().name } as Supplier).get() } as Supplier)
+
+		then:
+		threadName.startsWith("statistics-")
+		1 * transactionManager.getTransaction({ it.readOnly }) >> Mock(TransactionStatus)
+		1 * transactionManager.commit(_)
+	}
+
+	def "should run the query in the calling thread outside of a fan out"() {
+		given:
+		readOnlyTransaction()
+
+		when:
+		def result = executor.fork({ Thread.currentThread() } as Supplier)
+
+		then:
+		result.get() == Thread.currentThread()
+		0 * transactionManager._
+	}
+
+	def "should run the queries in the calling thread when every fan out permit is taken"() {
+		given:
+		transactionManager.getTransaction(_) >> Mock(TransactionStatus)
+
+		and:
+		def queryThread = null
+		def other = new Thread({
+			readOnlyTransaction()
+			queryThread = executor.fanOut({ executor.fork({ Thread.currentThread() } as Supplier).get() } as Supplier)
+		})
+
+		when:
+		executor.fanOut({
+			other.start()
+			other.join()
+		} as Supplier)
+
+		then:
+		queryThread == other
+	}
+
+	def "should release the fan out permit once the bundle is gathered"() {
+		given:
+		readOnlyTransaction()
+		transactionManager.getTransaction(_) >> Mock(TransactionStatus)
+
+		when:
+		executor.fanOut({ null } as Supplier)
+		def threadName = executor.fanOut({ executor.fork({ Thread.currentThread().name } as Supplier).get() } as Supplier)
+
+		then:
+		threadName.startsWith("statistics-")
+	}
+
+	def "should throw again the exception of the query"() {
+		given:
+		readOnlyTransaction()
+		transactionManager.getTransaction(_) >> Mock(TransactionStatus)
+
+		when:
+		executor.fanOut({ executor.fork({ throw new IllegalArgumentException("boom") } as Supplier).get() } as Supplier)
+
+		then:
+		def ex = thrown(IllegalArgumentException)
+		ex.message == "boom"
+	}
+
+	def readOnlyTransaction() {
+		TransactionSynchronizationManager.actualTransactionActive = true
+		TransactionSynchronizationManager.currentTransactionReadOnly = true
+	}
+
+}
@@ -0,0 +1,148 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase
+
+import spock.lang.Specification
+
+class CallGraphAdjacencyTest extends Specification {
+
+	CallGraphAdjacency graph = new CallGraphAdjacency()
+
+	def setup() {
+		// 1 -> 2 -> 3 -> 4, 1 -> 5, 6 -> 3
+		graph.addEdge(1L, 2L)
+		graph.addEdge(2L, 3L)
+		graph.addEdge(3L, 4L)
+		graph.addEdge(1L, 5L)
+		graph.addEdge(6L, 3L)
+	}
+
+	def "should find the callees of test cases"() {
+		expect:
+		graph.findCallees([1L]) == [2L, 3L, 4L, 5L] as Set
+		graph.findCallees([2L, 6L]) == [3L, 4L] as Set
+		graph.findCallees([1L, 2L]) == [2L, 3L, 4L, 5L] as Set
+		graph.findCallees([4L]).isEmpty()
+		graph.findCallees([100L]).isEmpty()
+	}
+
+	def "should find the callers of test cases"() {
+		expect:
+		graph.findCallers([4L]) == [1L, 2L, 3L, 6L] as Set
+		graph.findCallers([5L]) == [1L] as Set
+		graph.findCallers([1L]).isEmpty()
+	}
+
+	def "should find the test cases connected to test cases"() {
+		expect:
+		graph.findConnected([5L]) == [1L, 2L, 3L, 4L, 5L, 6L] as Set
+		graph.findConnected([100L]) == [100L] as Set
+	}
+
+	def "should tell whether a test case calls another one"() {
+		expect:
+		graph.calls(1L, 4L)
+		graph.calls(6L, 4L)
+		!graph.calls(4L, 1L)
+		!graph.calls(6L, 5L)
+		!graph.calls(1L, 1L)
+	}
+
+	def "should terminate on cyclic calls"() {
+		given:
+		graph.addEdge(4L, 1L)
+
+		expect:
+		graph.findCallees([2L]) == [1L, 2L, 3L, 4L, 5L] as Set
+		graph.findCallers([1L]) == [1L, 2L, 3L, 4L, 6L] as Set
+		graph.calls(1L, 1L)
+		graph.calls(4L, 2L)
+	}
+
+	def "should keep a call while another call step remains"() {
+		given:
+		graph.addEdge(1L, 2L)
+
+		when:
+		def removed = graph.removeEdge(1L, 2L)
+
+		then:
+		removed
+		graph.findCallees([1L]).contains(3L)
+		graph.edgeCount == 5
+
+		when:
+		graph.removeEdge(1L, 2L)
+
+		then:
+		graph.findCallees([1L]) == [5L] as Set
+		graph.findCallers([2L]).isEmpty()
+		graph.edgeCount == 4
+	}
+
+	def "should not remove an unknown call"() {
+		expect:
+		!graph.removeEdge(2L, 1L)
+		!graph.removeEdge(1L, 100L)
+		graph.edgeCount == 5
+	}
+
+	def "should answer like a plain traversal on a large graph"() {
+		given: "a graph of 100,000 test cases, each of which calls up to 3 test cases of higher id"
+		def random = new Random(42)
+		def large = new CallGraphAdjacency()
+		Map<Long, List<Long>> reference = [:].withDefault { [] }
+
+		int size = 100000
+		for (long caller = 1; caller <= size; caller++) {
+			int calls = random.nextInt(4)
+			for (int i = 0; i < calls; i++) {
+				long called = caller + 1 + random.nextInt(50)
+				if (called <= size) {
+					large.addEdge(caller, called)
+					reference[caller] << called
+				}
+			}
+		}
+
+		and: "a cycle"
+		large.addEdge(size, 1L)
+		reference[(long) size] << 1L
+
+		expect:
+		[1L, 500L, 99990L].every { root -> large.findCallees([root]) == traverse(reference, root) }
+		large.calls(99990L, 500L) == traverse(reference, 99990L).contains(500L)
+	}
+
+	private static Set<Long> traverse(Map<Long, List<Long>> reference, long root) {
+		Set<Long> visited = new HashSet<>()
+		Deque<Long> queue = new ArrayDeque<>([root])
+		while (!queue.isEmpty()) {
+			reference.get(queue.poll())?.each {
+				if (visited.add(it)) {
+					queue << it
+				}
+			}
+		}
+		return visited
+	}
+
+}
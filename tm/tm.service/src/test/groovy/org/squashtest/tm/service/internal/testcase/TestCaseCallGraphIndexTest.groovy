@@ -0,0 +1,167 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.service.internal.testcase
+
+import org.springframework.core.task.TaskExecutor
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import java.util.function.Function
+import java.util.function.Supplier
+
+class TestCaseCallGraphIndexTest extends Specification {
+
+	TestCaseCallGraphIndex index = new TestCaseCallGraphIndex()
+
+	TaskExecutor taskExecutor = Mock()
+
+	Supplier<Set<Long>> fallback = Mock()
+
+	Function<CallGraphAdjacency, Set<Long>> callees = { it.findCallees([1L]) } as Function
+
+	def setup() {
+		index.taskExecutor = taskExecutor
+	}
+
+	def cleanup() {
+		if (TransactionSynchronizationManager.synchronizationActive) {
+			TransactionSynchronizationManager.clearSynchronization()
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(index)
+	}
+
+	def "should fall back to the database and load the index when it is not loaded"() {
+		when:
+		def result = index.query(callees, fallback)
+
+		then:
+		1 * fallback.get() >> ([2L] as Set)
+		1 * taskExecutor.execute(_)
+		result == [2L] as Set
+	}
+
+	def "should answer from the index once loaded"() {
+		given:
+		loaded([1L: 2L])
+
+		when:
+		def result = index.query(callees, fallback)
+
+		then:
+		0 * fallback.get()
+		result == [2L] as Set
+	}
+
+	def "should follow the committed calls"() {
+		given:
+		loaded([1L: 2L])
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		index.callAdded(2L, 3L)
+		index.callRemoved(1L, 2L)
+		index.callAdded(1L, 4L)
+
+		when:
+		complete(TransactionSynchronization.STATUS_COMMITTED)
+
+		then:
+		index.query(callees, fallback) == [4L] as Set
+		index.query({ it.findCallers([3L]) } as Function, fallback) == [2L] as Set
+	}
+
+	def "should ignore the calls of a transaction rolled back"() {
+		given:
+		loaded([1L: 2L])
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		index.callAdded(2L, 3L)
+
+		when:
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK)
+
+		then:
+		index.query(callees, fallback) == [2L] as Set
+	}
+
+	def "should fall back to the database within a transaction which changed some calls"() {
+		given:
+		loaded([1L: 2L])
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		index.callAdded(2L, 3L)
+
+		when:
+		def result = index.query(callees, fallback)
+
+		then:
+		1 * fallback.get() >> ([2L, 3L] as Set)
+		result == [2L, 3L] as Set
+	}
+
+	def "should drop the index when calls were changed in bulk"() {
+		given:
+		loaded([1L: 2L])
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		index.callsChanged()
+		complete(TransactionSynchronization.STATUS_COMMITTED)
+
+		when:
+		index.query(callees, fallback)
+
+		then:
+		1 * fallback.get() >> ([2L] as Set)
+		1 * taskExecutor.execute(_)
+	}
+
+	def "should drop the index when removing an unknown call"() {
+		given:
+		loaded([1L: 2L])
+
+		and:
+		TransactionSynchronizationManager.initSynchronization()
+		index.callRemoved(5L, 6L)
+		complete(TransactionSynchronization.STATUS_COMMITTED)
+
+		when:
+		index.query(callees, fallback)
+
+		then:
+		1 * fallback.get() >> ([2L] as Set)
+	}
+
+	private void loaded(Map<Long, Long> calls) {
+		def adjacency = new CallGraphAdjacency()
+		calls.each { caller, called -> adjacency.addEdge(caller, called) }
+		index.adjacency = adjacency
+	}
+
+	private static void complete(int status) {
+		TransactionSynchronizationManager.synchronizations*.afterCompletion(status)
+		TransactionSynchronizationManager.clearSynchronization()
+	}
+
+}
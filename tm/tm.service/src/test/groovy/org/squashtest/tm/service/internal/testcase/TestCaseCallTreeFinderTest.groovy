@@ -32,8 +32,15 @@ class TestCaseCallTreeFinderTest extends Specification {
 	TestCaseDao testCaseDao = Mock()
 
 
+	TestCaseCallGraphIndex callGraphIndex = Mock()
+
+
 	def setup(){
 		service.testCaseDao = testCaseDao;
+		service.callGraphIndex = callGraphIndex
+
+		// the index is not loaded
+		callGraphIndex.query(_, _) >> { query, fallback -> fallback.get() }
 	}
 
 	def "should return the test case call tree of a test case"(){
@@ -21,11 +21,20 @@
 package org.squashtest.tm.service.security.acls.domain
 
 import org.hibernate.Session
+import org.springframework.security.acls.domain.ObjectIdentityImpl
 import org.springframework.security.acls.model.ObjectIdentity
 import org.springframework.security.acls.model.ObjectIdentityRetrievalStrategy
+import org.squashtest.tm.domain.Identified
+import org.squashtest.tm.security.annotation.InheritsAcls
 import spock.lang.Specification
 
 import javax.persistence.EntityManager
+import javax.persistence.TypedQuery
+import javax.persistence.criteria.CriteriaBuilder
+import javax.persistence.criteria.CriteriaQuery
+import javax.persistence.criteria.Path
+import javax.persistence.criteria.Predicate
+import javax.persistence.criteria.Root
 
 /**
  * @author Gregory Fouquet
@@ -71,4 +80,64 @@ class DatabaseBackedObjectIdentityGeneratorStrategyTest  extends Specification {
 		0 * objectIdentityRetrievalStrategy.getObjectIdentity(entity)
 		oid.type == "java.lang.Object:Unknown"
 	}
+
+	def "should create the object identities of acl holders without fetching them"() {
+		when:
+		def oids = objectIdentityGenerator.createObjectIdentities([10L, 20L], AclHolderEntity.name)
+
+		then:
+		0 * em._
+		0 * objectIdentityRetrievalStrategy._
+		oids == [
+			(10L): new ObjectIdentityImpl(AclHolderEntity.name, 10L),
+			(20L): new ObjectIdentityImpl(AclHolderEntity.name, 20L)
+		]
+	}
+
+	def "should fetch the acl heirs in one query and delegate object identity generation"() {
+		given:
+		def heir = new AclHeirEntity(id: 10L)
+		TypedQuery query = mockCriteriaQuery(AclHeirEntity)
+
+		and:
+		ObjectIdentity expectedOid = Mock()
+
+		when:
+		def oids = objectIdentityGenerator.createObjectIdentities([10L, 20L], AclHeirEntity.name)
+
+		then:
+		1 * query.getResultList() >> [heir]
+		0 * em.find(*_)
+		1 * objectIdentityRetrievalStrategy.getObjectIdentity(heir) >> expectedOid
+		oids[10L] == expectedOid
+		oids[20L].type == "${AclHeirEntity.name}:Unknown"
+	}
+
+	def mockCriteriaQuery(Class<?> clazz) {
+		CriteriaBuilder builder = Mock()
+		CriteriaQuery criteria = Mock()
+		Root root = Mock()
+		Path path = Mock()
+		Predicate predicate = Mock()
+		TypedQuery query = Mock()
+
+		em.getCriteriaBuilder() >> builder
+		builder.createQuery(Object) >> criteria
+		criteria.from(clazz) >> root
+		root.get("id") >> path
+		path.in(_) >> predicate
+		criteria.select(root) >> criteria
+		criteria.where(predicate) >> criteria
+		em.createQuery(criteria) >> query
+
+		return query
+	}
+}
+
+class AclHolderEntity {
+}
+
+@InheritsAcls(constrainedClass = AclHolderEntity, propertyName = "heir")
+class AclHeirEntity implements Identified {
+	Long id
 }
@@ -21,6 +21,9 @@
 package org.squashtest.tm.service.statistics.campaign
 
 import org.squashtest.tm.service.internal.campaign.CampaignStatisticsServiceImpl
+import org.squashtest.tm.service.internal.repository.CampaignDao
+import org.squashtest.tm.service.internal.statistics.StatisticsQueryExecutor
+import org.squashtest.tm.service.milestone.ActiveMilestoneHolder
 import spock.lang.Specification
 
 import javax.persistence.EntityManager
@@ -29,15 +32,25 @@ import javax.persistence.Query
 import static org.squashtest.tm.domain.execution.ExecutionStatus.BLOCKED
 import static org.squashtest.tm.domain.execution.ExecutionStatus.FAILURE
 import static org.squashtest.tm.domain.execution.ExecutionStatus.READY
+import static org.squashtest.tm.domain.execution.ExecutionStatus.RUNNING
+import static org.squashtest.tm.domain.execution.ExecutionStatus.SETTLED
 import static org.squashtest.tm.domain.execution.ExecutionStatus.SUCCESS
+import static org.squashtest.tm.domain.testcase.TestCaseImportance.HIGH
+import static org.squashtest.tm.domain.testcase.TestCaseImportance.LOW
+import static org.squashtest.tm.domain.testcase.TestCaseImportance.VERY_HIGH
 
 class CampaignStatisticsServiceImplTest extends Specification {
 
 	CampaignStatisticsServiceImpl service = new CampaignStatisticsServiceImpl()
 	EntityManager em = Mock()
+	CampaignDao campaignDao = Mock()
+	ActiveMilestoneHolder activeMilestoneHolder = Mock()
 
 	def setup(){
 		service.em = em
+		service.campaignDao = campaignDao
+		service.activeMilestoneHolder = activeMilestoneHolder
+		service.statisticsExecutor = new StatisticsQueryExecutor()
 	}
 
 
@@ -74,6 +87,53 @@ class CampaignStatisticsServiceImplTest extends Specification {
 	}
 
 
+	def "should derive the common statistics of a bundle from the test cases grouped by weight and status"(){
+
+		given :
+		campaignDao.findAllCampaignIdsByNodeIds([10l]) >> [1l, 2l]
+		activeMilestoneHolder.getActiveMilestone() >> Optional.empty()
+
+		and :
+		Query successRate = Mock()
+		em.createNamedQuery("CampaignStatistics.successRate") >> successRate
+		successRate.getResultList() >> [
+			[HIGH, READY, 3l] as Object[],
+			[HIGH, RUNNING, 1l] as Object[],
+			[HIGH, SUCCESS, 4l] as Object[],
+			[LOW, READY, 2l] as Object[],
+			[LOW, FAILURE, 5l] as Object[],
+			[VERY_HIGH, SETTLED, 6l] as Object[]
+		]
+
+		and :
+		Query inventory = Mock()
+		em.createNamedQuery("CampaignFolderStatistics.testinventory") >> inventory
+		inventory.getResultList() >> []
+
+		when :
+		ManyCampaignStatisticsBundle res = service.gatherFolderStatisticsBundle(10l)
+
+		then :
+		res.selectedIds == [1l, 2l]
+
+		res.campaignTestCaseStatusStatistics.nbReady == 5
+		res.campaignTestCaseStatusStatistics.nbRunning == 1
+		res.campaignTestCaseStatusStatistics.nbSuccess == 4
+		res.campaignTestCaseStatusStatistics.nbFailure == 5
+		res.campaignTestCaseStatusStatistics.nbSettled == 6
+
+		res.campaignNonExecutedTestCaseImportanceStatistics.percentageHigh == 4
+		res.campaignNonExecutedTestCaseImportanceStatistics.percentageLow == 2
+		res.campaignNonExecutedTestCaseImportanceStatistics.percentageMedium == 0
+		res.campaignNonExecutedTestCaseImportanceStatistics.percentageVeryHigh == 0
+
+		res.campaignTestCaseSuccessRateStatistics.nbHighSuccess == 4
+		res.campaignTestCaseSuccessRateStatistics.nbLowFailure == 5
+		res.campaignTestCaseSuccessRateStatistics.nbVeryHighSuccess == 6
+
+	}
+
+
 	def addMockQuery(result){
 		Query q = Mock()
 		em.createNamedQuery(_) >> q
@@ -20,8 +20,23 @@
  */
 package org.squashtest.tm.service.testautomation
 
+import org.squashtest.tm.api.testautomation.execution.dto.TestExecutionStatus
+import org.squashtest.tm.domain.campaign.IterationTestPlanItem
+import org.squashtest.tm.domain.campaign.TestSuite
+import org.squashtest.tm.domain.execution.Execution
 import org.squashtest.tm.domain.execution.ExecutionStatus
+import org.squashtest.tm.domain.project.Project
+import org.squashtest.tm.domain.testautomation.AutomatedExecutionExtender
+import org.squashtest.tm.domain.testautomation.AutomatedSuite
+import org.squashtest.tm.domain.testautomation.AutomatedTest
+import org.squashtest.tm.domain.testautomation.TestAutomationProject
+import org.squashtest.tm.service.campaign.AutomatedSuiteModificationService
+import org.squashtest.tm.service.campaign.CustomTestSuiteModificationService
+import org.squashtest.tm.service.campaign.IterationTestPlanManagerService
+import org.squashtest.tm.service.internal.repository.AutomatedExecutionExtenderDao
 import org.squashtest.tm.service.internal.testautomation.AutomatedExecutionManagerServiceImpl
+import org.squashtest.tm.service.security.PermissionEvaluationService
+import org.squashtest.tm.service.security.UserContextService
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -31,6 +46,101 @@ import spock.lang.Unroll
  */
 class AutomatedExecutionManagerServiceImplTest extends Specification {
 	AutomatedExecutionManagerServiceImpl service = new AutomatedExecutionManagerServiceImpl()
+	AutomatedExecutionExtenderDao automatedExecutionDao = Mock()
+	PermissionEvaluationService permissionService = Mock()
+	IterationTestPlanManagerService testPlanService = Mock()
+	AutomatedSuiteModificationService automatedSuiteModificationService = Mock()
+	CustomTestSuiteModificationService customTestSuiteModificationService = Mock()
+	UserContextService userContextService = Mock()
+
+	IterationTestPlanItem item = Mock()
+	TestSuite testSuite = Mock()
+	AutomatedSuite automatedSuite = Mock()
+	Project project = Mock()
+
+	def setup() {
+		service.automatedExecutionDao = automatedExecutionDao
+		service.permissionService = permissionService
+		service.testPlanService = testPlanService
+		service.automatedSuiteModificationService = automatedSuiteModificationService
+		service.customTestSuiteModificationService = customTestSuiteModificationService
+		service.userContextService = userContextService
+
+		userContextService.getUsername() >> "jenkins"
+		item.getTestSuites() >> [testSuite]
+		automatedSuite.getId() >> "suite"
+	}
+
+	def "should change many states and update each test plan item and suite once"() {
+		given:
+		def execs = (1L..3L).collect { createExtender(it, "test-$it", "job") }
+		automatedExecutionDao.findAllWithExecutionByIds({ it as Set == [1L, 2L, 3L] as Set }) >> execs
+
+		def stateChanges = (1L..3L).collectEntries {
+			[(it): new TestExecutionStatus(status: org.squashtest.tm.api.testautomation.execution.dto.ExecutionStatus.SUCCESS, statusMessage: "ok")]
+		}
+
+		when:
+		service.changeExecutionStates(stateChanges)
+
+		then:
+		execs.each {
+			1 * it.setExecutionStatus(ExecutionStatus.SUCCESS)
+			1 * it.getExecution().setLastExecutedBy("jenkins")
+		}
+		1 * testPlanService.updateMetadata(item)
+		1 * automatedSuiteModificationService.updateExecutionStatus(automatedSuite)
+		1 * customTestSuiteModificationService.updateExecutionStatus([testSuite])
+	}
+
+	def "should resolve the extenders of many results with one query"() {
+		given:
+		def matching = createExtender(1L, "test-1", "job")
+		def otherProject = createExtender(2L, "test-1", "other-job")
+		def unreported = createExtender(3L, "test-3", "job")
+
+		def results = ["test-1", "test-2"].collect {
+			new AutomatedExecutionResult(createIdentifier("suite", it, "job"), ExecutionStatus.FAILURE, null, "<ko>")
+		}
+
+		permissionService.hasRoleOrPermissionOnObject(_, _, _) >> true
+
+		when:
+		service.updateExecutionResults(results)
+
+		then:
+		1 * automatedExecutionDao.findAllBySuiteIdsAndTestNames({ it == ["suite"] as Set }, { it == ["test-1", "test-2"] as Set }) >> [matching, otherProject, unreported]
+		1 * matching.setExecutionStatus(ExecutionStatus.FAILURE)
+		1 * matching.setResultSummary("&lt;ko&gt;")
+		0 * otherProject.setExecutionStatus(_)
+		0 * unreported.setExecutionStatus(_)
+		1 * testPlanService.updateMetadata(item)
+	}
+
+	def createExtender(long id, String testName, String jobName) {
+		AutomatedExecutionExtender exec = Mock()
+		Execution execution = Mock()
+		AutomatedTest test = Mock()
+		TestAutomationProject taProject = Mock()
+
+		exec.getId() >> id
+		exec.getExecution() >> execution
+		exec.getAutomatedSuite() >> automatedSuite
+		exec.getAutomatedTest() >> test
+		execution.getTestPlan() >> item
+		execution.getProject() >> project
+		test.getName() >> testName
+		test.getProject() >> taProject
+		taProject.getJobName() >> jobName
+
+		return exec
+	}
+
+	def createIdentifier(String suiteId, String testName, String jobName) {
+		return [getAutomatedSuiteId       : { suiteId },
+				getAutomatedTestName      : { testName },
+				getTestAutomationProjectName: { jobName }] as AutomatedExecutionSetIdentifier
+	}
 
 	@Unroll("should coerce dto #dto into domain #status")
 	def "should coerce shoot dto ExecutionStatus into domain ExecutionStatus"() {
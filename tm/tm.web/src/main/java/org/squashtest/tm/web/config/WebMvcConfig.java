@@ -33,6 +33,8 @@ import org.springframework.web.servlet.resource.GzipResourceResolver;
 import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.squashtest.tm.web.internal.interceptor.ActiveMilestoneInterceptor;
 import org.squashtest.tm.web.internal.interceptor.LoggingInterceptor;
+import org.squashtest.tm.web.internal.interceptor.PermissionDecisionCacheInterceptor;
+import org.squashtest.tm.web.internal.interceptor.RequestMetricsInterceptor;
 import org.squashtest.tm.web.internal.interceptor.SecurityExpressionResolverExposerInterceptor;
 import org.squashtest.tm.web.internal.interceptor.openedentity.CampaignViewInterceptor;
 import org.squashtest.tm.web.internal.interceptor.openedentity.ExecutionViewInterceptor;
@@ -85,17 +87,29 @@ public class WebMvcConfig implements WebMvcConfigurer {
 	@Inject
 	private ActiveMilestoneInterceptor milestoneInterceptor;
 
+	@Inject
+	private PermissionDecisionCacheInterceptor permissionDecisionCacheInterceptor;
+
+	@Inject
+	private RequestMetricsInterceptor requestMetricsInterceptor;
+
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
 		// Log4j output enhancement
 		LoggingInterceptor loggingInterceptor = new LoggingInterceptor();
 		registry.addWebRequestInterceptor(loggingInterceptor);
 
+		// statement count and slow request log, registered before OSIV so that it also covers the view rendering
+		registry.addWebRequestInterceptor(requestMetricsInterceptor);
+
 		// OSIV
 		OpenEntityManagerInViewInterceptor osiv = new OpenEntityManagerInViewInterceptor();
 		osiv.setEntityManagerFactory(emf);
 		registry.addWebRequestInterceptor(osiv);
 
+		// per request memo of the permission decisions
+		registry.addWebRequestInterceptor(permissionDecisionCacheInterceptor);
+
 		registry.addInterceptor(milestoneInterceptor);
 
 		// #sec in thymeleaf
@@ -241,6 +241,9 @@ public class WebSecurityConfig {
 						"/platform/**"
 					).access(HAS_ROLE_ADMIN)
 
+					// Actuator endpoints (metrics), they expose the internals of the application
+					.antMatchers("/actuator/**").access(HAS_ROLE_ADMIN)
+
 					.antMatchers("/accessDenied").permitAll()
 
 					// Namespace reserved for other use
@@ -20,17 +20,23 @@
  */
 package org.squashtest.tm.web.internal.api.testautomation;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 import org.squashtest.tm.api.testautomation.execution.dto.TestExecutionStatus;
 import org.squashtest.tm.service.testautomation.AutomatedExecutionManagerService;
 
 import javax.inject.Inject;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This controller receives callbacks from Squash TA which modify automated executions statuses.
@@ -44,6 +50,9 @@ public class AutomatedExecutionManagerController {
 	@Inject
 	private AutomatedExecutionManagerService automatedExecutionManager;
 
+	@Inject
+	private Validator validator;
+
 	/**
 	 * Changes the status of the automated execution
 	 *
@@ -57,4 +66,33 @@ public class AutomatedExecutionManagerController {
 	void changeExecutionState(@PathVariable long id, @RequestBody @Valid TestExecutionStatus stateChange) {
 		automatedExecutionManager.changeExecutionState(id, stateChange);
 	}
+
+	/**
+	 * Changes the statuses of many automated executions at once. The whole batch is rejected with a 400 when any of
+	 * the new states is invalid.
+	 *
+	 * @param stateChanges
+	 *            the new states, mapped by automated exec extender id.
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/test-status", method = RequestMethod.POST)
+	public
+	void changeExecutionStates(@RequestBody Map<Long, TestExecutionStatus> stateChanges) {
+		stateChanges.forEach(this::checkStateChange);
+		automatedExecutionManager.changeExecutionStates(stateChanges);
+	}
+
+	private void checkStateChange(Long id, TestExecutionStatus stateChange) {
+		if (stateChange == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No state given for automated execution " + id);
+		}
+
+		Set<ConstraintViolation<TestExecutionStatus>> violations = validator.validate(stateChange);
+
+		if (!violations.isEmpty()) {
+			ConstraintViolation<TestExecutionStatus> violation = violations.iterator().next();
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+				"Invalid state for automated execution " + id + " : " + violation.getPropertyPath() + " " + violation.getMessage());
+		}
+	}
 }
@@ -25,6 +25,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
+import org.squashtest.tm.service.deletion.ExecutionPurgeProgress;
+import org.squashtest.tm.service.deletion.ExecutionPurgeService;
 import org.squashtest.tm.service.testautomation.AutomatedSuiteManagerService;
 import org.squashtest.tm.service.testautomation.AutomationDeletionCount;
 
@@ -37,6 +39,9 @@ public class CleaningController {
 	@Inject
 	private AutomatedSuiteManagerService automatedSuiteManagerService;
 
+	@Inject
+	private ExecutionPurgeService executionPurgeService;
+
 	@RequestMapping(method = RequestMethod.GET)
 	public ModelAndView showCleaningPage() {
 		ModelAndView mav = new ModelAndView("page/administration/cleaning");
@@ -55,4 +60,16 @@ public class CleaningController {
 		automatedSuiteManagerService.cleanOldSuites();
 	}
 
+	@ResponseBody
+	@RequestMapping(value = "/execution-purge", method = RequestMethod.GET)
+	public ExecutionPurgeProgress getExecutionPurgeProgress() {
+		return executionPurgeService.getProgress();
+	}
+
+	@ResponseBody
+	@RequestMapping(value = "/execution-purge", method = RequestMethod.POST)
+	public void startExecutionPurge() {
+		executionPurgeService.startPurge();
+	}
+
 }
@@ -23,6 +23,8 @@ package org.squashtest.tm.web.internal.controller.attachment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.ServletRequestDataBinder;
@@ -32,6 +34,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.util.HtmlUtils;
 import org.squashtest.tm.domain.attachment.Attachment;
@@ -41,14 +44,15 @@ import org.squashtest.tm.web.internal.fileupload.UploadSummary;
 
 import javax.inject.Inject;
 import javax.servlet.ServletException;
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 
 // XSS OK
@@ -59,6 +63,12 @@ public class AttachmentController {
 	private static final String UPLOAD_URL = "/upload";
 	private static final Logger LOGGER = LoggerFactory.getLogger(AttachmentController.class);
 
+	// request attributes of the sendfile support of Tomcat
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
 	@Inject
 	private AttachmentManagerService attachmentManagerService;
 
@@ -157,18 +167,55 @@ public class AttachmentController {
 
 	/* ***************************** download ************************************* */
 
+	/*
+	 * The content of an attachment never changes once uploaded, so its id and its content id make a strong entity tag.
+	 * A single byte range may be requested, e.g. to resume a download. The content is handed over to the container
+	 * (sendfile) when it is stored on the file system and the container supports it.
+	 */
 	@ResponseBody
 	@RequestMapping(value = "/download/{attachemendId}", method = RequestMethod.GET)
-	public void downloadAttachment(@PathVariable("attachemendId") long attachmentId, HttpServletResponse response) {
+	public void downloadAttachment(@PathVariable("attachemendId") long attachmentId, HttpServletRequest request, HttpServletResponse response) {
 
 		try {
 			Attachment attachment = attachmentManagerService.findAttachment(attachmentId);
+
+			String etag = "\"" + attachment.getId() + "-" + attachment.getContent().getId() + "\"";
+			if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+				return;
+			}
+
 			response.setContentType("application/octet-stream");
 			response.setHeader("Content-Disposition", "attachment; filename=" + attachment.getName().replace(" ", "_"));
+			response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+			long size = attachmentManagerService.getContentSize(attachmentId);
+			long start = 0;
+			long length = size;
+
+			HttpRange range = findRequestedRange(request, etag);
+			if (range != null) {
+				if (!isSatisfiable(range, size)) {
+					response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+					response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+					return;
+				}
+				start = range.getRangeStart(size);
+				length = range.getRangeEnd(size) - start + 1;
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+			}
 
-			ServletOutputStream outStream = response.getOutputStream();
+			response.setContentLengthLong(length);
+
+			Optional<File> file = attachmentManagerService.findContentFile(attachmentId);
+			if (file.isPresent() && length > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+				request.setAttribute(SENDFILE_FILENAME, file.get().getCanonicalPath());
+				request.setAttribute(SENDFILE_START, start);
+				request.setAttribute(SENDFILE_END, start + length);
+			} else {
+				attachmentManagerService.writeContent(attachmentId, start, length, response.getOutputStream());
+			}
 
-			attachmentManagerService.writeContent(attachmentId, outStream);
 		} catch (IOException e) {
 			LOGGER.warn("Error happened during attachment download : " + e.getMessage(), e);
 			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -176,6 +223,35 @@ public class AttachmentController {
 		}
 	}
 
+	/*
+	 * Returns the single range requested, if any. Malformed or multiple ranges are ignored (the whole content is sent),
+	 * as are ranges made conditional on a former version of the content.
+	 */
+	private HttpRange findRequestedRange(HttpServletRequest request, String etag) {
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+		if (rangeHeader == null || (ifRange != null && !ifRange.equals(etag))) {
+			return null;
+		}
+
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+			return ranges.size() == 1 ? ranges.get(0) : null;
+		} catch (IllegalArgumentException e) {
+			LOGGER.debug("Ignoring malformed range header {}", rangeHeader, e);
+			return null;
+		}
+	}
+
+	private boolean isSatisfiable(HttpRange range, long size) {
+		try {
+			return range.getRangeStart(size) < size;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
 	private String getUploadSummary(String key, Locale locale) {
 		return messageSource.getMessage(key, null, locale);
 	}
@@ -22,7 +22,6 @@ package org.squashtest.tm.web.internal.controller.campaign;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -36,6 +35,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
+import org.squashtest.tm.domain.Identified;
 import org.squashtest.tm.domain.Workspace;
 import org.squashtest.tm.domain.campaign.Campaign;
 import org.squashtest.tm.domain.campaign.CampaignFolder;
@@ -81,9 +81,11 @@ import javax.inject.Named;
 import javax.inject.Provider;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -192,6 +194,16 @@ public class CampaignLibraryNavigationController extends
 			return permissionEvaluator.permissionsOn(className, id);
 		}
 
+		@Override
+		public Map<Long, Collection<String>> permissionsOn(@NotNull String className, @NotNull Collection<Long> ids) {
+			return permissionEvaluator.permissionsOn(className, ids);
+		}
+
+		@Override
+		public void preloadPermissionsOn(@NotNull Collection<? extends Identified> entities) {
+			permissionEvaluator.preloadPermissionsOn(entities);
+		}
+
 	}
 
 	@Inject
@@ -509,9 +521,8 @@ public class CampaignLibraryNavigationController extends
 
 	}
 
-	@ResponseBody
 	@RequestMapping(value = "/export-campaign/{campaignId}", method = RequestMethod.GET, params = "export=csv")
-	public FileSystemResource exportCampaign(@PathVariable(RequestParams.CAMPAIGN_ID) long campaignId,
+	public void exportCampaign(@PathVariable(RequestParams.CAMPAIGN_ID) long campaignId,
 											 @RequestParam(value = "exportType", defaultValue = "S") String exportType, HttpServletResponse response) {
 
 		Campaign campaign = campaignFinder.findById(campaignId);
@@ -524,14 +535,12 @@ public class CampaignLibraryNavigationController extends
 		response.setHeader("Content-Disposition", "attachment; filename=" + "EXPORT_CPG_" + exportType + "_"
 			+ campaign.getName().replace(" ", "_") + "_" + sdf.format(new Date()) + ".csv");
 
-		File exported = exportToFile(model);
-		return new FileSystemResource(exported);
+		exportToResponse(model, response);
 	}
 
 	// Export Campaign from Execution
-	@ResponseBody
 	@RequestMapping(value = "/export-campaign-by-execution/{executionId}", method = RequestMethod.GET, params = "export=csv")
-	public FileSystemResource exportCampaignByExecution(@PathVariable(RequestParams.EXECUTION_ID) long executionId,
+	public void exportCampaignByExecution(@PathVariable(RequestParams.EXECUTION_ID) long executionId,
 														@RequestParam(value = "exportType", defaultValue = "S") String exportType, HttpServletResponse response) {
 
 		Execution execution = executionFinder.findById(executionId);
@@ -546,8 +555,7 @@ public class CampaignLibraryNavigationController extends
 		response.setHeader("Content-Disposition", "attachment; filename=" + "EXPORT_CPG_" + exportType + "_"
 			+ campaign.getName().replace(" ", "_") + "_" + sdf.format(new Date()) + ".csv");
 
-		File exported = exportToFile(model);
-		return new FileSystemResource(exported);
+		exportToResponse(model, response);
 	}
 
 	// Milestone dashboard
@@ -604,15 +612,14 @@ public class CampaignLibraryNavigationController extends
 		return mav;
 	}
 
-	private File exportToFile(CampaignExportCSVModel model) {
+	/*
+	 * The rows are written to the response as they are iterated over, so that the export is neither held in memory
+	 * nor copied to a temporary file first.
+	 */
+	private void exportToResponse(CampaignExportCSVModel model, HttpServletResponse response) {
 
-		File file;
-		PrintWriter writer = null;
 		try {
-			file = File.createTempFile("export-requirement", "tmp");
-			file.deleteOnExit();
-
-			writer = new PrintWriter(file);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), Charset.defaultCharset()));
 
 			// print header
 			Row header = model.getHeader();
@@ -627,16 +634,11 @@ public class CampaignLibraryNavigationController extends
 				writer.write(cleanRowValue + "\n");
 			}
 
-			writer.close();
+			writer.flush();
 
-			return file;
 		} catch (IOException e) {
-			LOGGER.error("campaign export : I/O failure while creating the temporary file : " + e.getMessage());
+			LOGGER.error("campaign export : I/O failure while writing the response : " + e.getMessage());
 			throw new RuntimeException(e);
-		} finally {
-			if (writer != null) {
-				writer.close();
-			}
 		}
 
 	}
@@ -45,6 +45,7 @@ import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.execution.ExecutionStatus;
 import org.squashtest.tm.domain.project.Project;
 import org.squashtest.tm.domain.users.User;
+import org.squashtest.tm.service.bugtracker.BugTrackersLocalService;
 import org.squashtest.tm.service.campaign.IterationModificationService;
 import org.squashtest.tm.service.campaign.IterationTestPlanFinder;
 import org.squashtest.tm.service.campaign.IterationTestPlanManagerService;
@@ -141,6 +142,9 @@ public class IterationModificationController {
 	@Inject
 	private PartyPreferenceService partyPreferenceService;
 
+	@Inject
+	private BugTrackersLocalService bugTrackersLocalService;
+
 	@RequestMapping(method = RequestMethod.GET)
 	public String showIteration(Model model, @PathVariable long iterationId) {
 
@@ -161,6 +165,8 @@ public class IterationModificationController {
 	private void populateIterationModel(Model model, long iterationId) {
 
 		Iteration iteration = iterationModService.findById(iterationId);
+		// the issue tab is likely to be opened next
+		bugTrackersLocalService.prefetchIssuesOfIteration(iterationId);
 		boolean hasCUF = cufValueService.hasCustomFields(iteration);
 		DataTableModel attachmentsModel = attachmentHelper.findPagedAttachments(iteration);
 		Map<String, String> assignableUsers = getAssignableUsers(iterationId);
@@ -0,0 +1,151 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.controller.generic;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.squashtest.tm.service.batchimport.BatchImportJobService;
+import org.squashtest.tm.service.batchimport.BatchImportProgress;
+import org.squashtest.tm.service.importer.ImportLog;
+import org.squashtest.tm.web.exception.ResourceNotFoundException;
+import org.squashtest.tm.web.importer.ImportHelper;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Endpoints of the background xls imports, which are committed by chunks of rows and whose progress is polled by
+ * the client.
+ */
+public abstract class BatchImportJobController {
+
+	@Inject
+	private ImportHelper importHelper;
+
+	@Inject
+	private BatchImportJobService importJobService;
+
+	/**
+	 * @param xls the xls file to import
+	 * @return the id of the started import job
+	 */
+	protected abstract String startImport(BatchImportJobService importJobService, File xls);
+
+	/**
+	 * @return the prefix of the temporary files the uploaded xls files are copied into
+	 */
+	protected abstract String getImportFilePrefix();
+
+	/**
+	 * Generates a downloadable xls import log file and stores it where it should.
+	 *
+	 * @param request
+	 *            : the {@link WebRequest} that lead here
+	 * @param summary
+	 *            : the {@link ImportLog} summary of the xls import/simulation
+	 */
+	protected abstract void generateImportLog(WebRequest request, ImportLog summary);
+
+	protected File multipartToImportFile(MultipartFile uploadedFile) throws IOException {
+		return importHelper.multipartToImportFile(uploadedFile, getImportFilePrefix(), ".xls");
+	}
+
+	/**
+	 * Starts a background import of the given xls file, committed by chunks of rows. Its progress is then polled
+	 * using the returned job id.
+	 *
+	 * @param uploadedFile
+	 *            : the xls file to import in a {@link MultipartFile} form
+	 * @return the id of the import job
+	 */
+	@RequestMapping(value = "/xls/jobs", method = RequestMethod.POST)
+	@ResponseBody
+	public Map<String, Object> startImportJob(@RequestParam("archive") MultipartFile uploadedFile) throws IOException {
+		File xls = multipartToImportFile(uploadedFile);
+
+		Map<String, Object> response = new HashMap<>();
+		response.put("jobId", startImport(importJobService, xls));
+		return response;
+	}
+
+	/**
+	 * @param jobId
+	 *            : the id of the import job
+	 * @param request
+	 *            : the {@link WebRequest}
+	 * @return the progress of the import job. Once it is completed, the link to the complete log is included.
+	 */
+	@RequestMapping(value = "/jobs/{jobId}", method = RequestMethod.GET)
+	@ResponseBody
+	public Map<String, Object> getImportJobProgress(@PathVariable String jobId, WebRequest request) {
+		BatchImportProgress progress = findProgress(jobId);
+
+		Map<String, Object> response = new HashMap<>();
+		response.put("jobId", progress.getJobId());
+		response.put("status", progress.getStatus());
+		response.put("processedCount", progress.getProcessedCount());
+		response.put("errorCount", progress.getErrorCount());
+		response.put("failureMessage", progress.getFailureMessage());
+
+		ImportLog summary = progress.getImportLog();
+		if (summary != null) {
+			synchronized (summary) {
+				if (summary.getReportUrl() == null) {
+					summary.recompute();
+					generateImportLog(request, summary);
+				}
+			}
+			response.put("reportUrl", summary.getReportUrl());
+		}
+
+		return response;
+	}
+
+	/**
+	 * Resumes a failed import job from its last committed chunk of rows.
+	 *
+	 * @param jobId
+	 *            : the id of the import job
+	 */
+	@RequestMapping(value = "/jobs/{jobId}/resume", method = RequestMethod.POST)
+	@ResponseBody
+	public void resumeImportJob(@PathVariable String jobId) {
+		findProgress(jobId);
+		importJobService.resume(jobId);
+	}
+
+	private BatchImportProgress findProgress(String jobId) {
+		try {
+			return importJobService.getProgress(jobId);
+		} catch (IllegalArgumentException ex) {
+			throw new ResourceNotFoundException(ex);
+		}
+	}
+
+}
@@ -33,11 +33,10 @@ import org.squashtest.tm.domain.campaign.TestSuite;
 import org.squashtest.tm.domain.execution.Execution;
 import org.squashtest.tm.domain.requirement.Requirement;
 import org.squashtest.tm.domain.testcase.TestCase;
-import org.squashtest.tm.web.internal.interceptor.openedentity.OpenedEntities;
+import org.squashtest.tm.web.internal.interceptor.openedentity.OpenedEntityRegistry;
 
-import javax.servlet.ServletContext;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpSession;
 import java.security.Principal;
 
 @Controller
@@ -45,6 +44,9 @@ public class ObjectAccessController {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ObjectAccessController.class);
 
+	@Inject
+	private OpenedEntityRegistry openedEntities;
+
 	@RequestMapping(value = "/test-cases/{id}/opened-entity", method = RequestMethod.DELETE)
 	@ResponseBody
 	public void leaveTestCase(@PathVariable("id") Long id, HttpServletRequest request) {
@@ -89,18 +91,10 @@ public class ObjectAccessController {
 
 	private void removeViewForObject(Long id, HttpServletRequest request, String contextKey) {
 		Principal user = request.getUserPrincipal();
-		HttpSession session = request.getSession();
-		if (session != null) {
-			ServletContext context = request.getSession().getServletContext();
-			if (context != null && user != null) {
-				LOGGER.debug("context = " + context);
-				LOGGER.debug("leave " + contextKey + " #" + id);
-				LOGGER.debug(user.getName());
-				OpenedEntities openedEnities = (OpenedEntities) context.getAttribute(contextKey);
-				if (openedEnities != null) {
-					openedEnities.removeView(user.getName(), id);
-				}
-			}
+		if (user != null) {
+			LOGGER.debug("leave {} #{}", contextKey, id);
+			LOGGER.debug(user.getName());
+			openedEntities.removeView(contextKey, id, user.getName());
 		}
 	}
 
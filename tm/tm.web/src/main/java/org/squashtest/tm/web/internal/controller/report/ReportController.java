@@ -57,12 +57,16 @@ import org.squashtest.tm.service.project.ProjectFilterModificationService;
 import org.squashtest.tm.service.project.ProjectFinder;
 import org.squashtest.tm.service.report.ReportModificationService;
 import org.squashtest.tm.service.user.UserAccountService;
+import org.squashtest.tm.web.exception.ResourceNotFoundException;
 import org.squashtest.tm.web.internal.helper.JsonHelper;
 import org.squashtest.tm.web.internal.helper.ReportHelper;
 import org.squashtest.tm.web.internal.http.ContentTypes;
 import org.squashtest.tm.web.internal.report.ReportsRegistry;
 import org.squashtest.tm.web.internal.report.criteria.ConciseFormToCriteriaConverter;
 import org.squashtest.tm.web.internal.report.criteria.FormToCriteriaConverter;
+import org.squashtest.tm.web.internal.report.job.RenderedReport;
+import org.squashtest.tm.web.internal.report.job.ReportJobProgress;
+import org.squashtest.tm.web.internal.report.job.ReportJobService;
 import org.squashtest.tm.web.internal.util.HTMLCleanupUtils;
 
 import javax.inject.Inject;
@@ -76,6 +80,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -121,6 +126,9 @@ public class ReportController {
 	@Inject
 	private ProjectFilterModificationService projectFilterService;
 
+	@Inject
+	private ReportJobService reportJobService;
+
 	@ResponseBody
 	@RequestMapping(value = "/panel/content/new-report/{parentId}", method = RequestMethod.POST, consumes = "application/json")
 	public String saveReport(@PathVariable String namespace, @RequestBody ReportDefinition reportDefinition,
@@ -271,6 +279,82 @@ public class ReportController {
 	}
 
 
+	/**
+	 * Starts generating a report view in the background. Its progress is then polled using the returned job id, and
+	 * the report is downloaded once the job is completed.
+	 *
+	 * @see ReportJobService#start(String, int, String, Map, String, Locale)
+	 * @return the id of the report job
+	 */
+	@RequestMapping(value = "/views/{viewIndex}/formats/{format}/jobs", method = RequestMethod.POST, params = {"json"})
+	@ResponseBody
+	public Map<String, Object> startReportJob(@PathVariable String namespace, @PathVariable int viewIndex,
+											  @PathVariable String format, @RequestParam("json") String parameters, Locale locale)
+		throws IOException {
+		Report report = reportsRegistry.findReport(namespace);
+		if (report == null) {
+			throw new ResourceNotFoundException();
+		}
+
+		Map<String, Object> form = JsonHelper.deserialize(parameters);
+		List<Project> projects = projectFinder.findAllOrderedByName();
+		Map<String, Criteria> crit = new ConciseFormToCriteriaConverter(report, projects).convert(form);
+
+		Map<String, Object> response = new HashMap<>();
+		response.put("jobId", reportJobService.start(namespace, viewIndex, format, crit, parameters, locale));
+		return response;
+	}
+
+	/**
+	 * @param jobId
+	 *            : the id of the report job
+	 * @return the status of the report job
+	 */
+	@RequestMapping(value = "/jobs/{jobId}", method = RequestMethod.GET)
+	@ResponseBody
+	public Map<String, Object> getReportJobProgress(@PathVariable String jobId) {
+		ReportJobProgress progress;
+		try {
+			progress = reportJobService.getProgress(jobId);
+		} catch (IllegalArgumentException ex) {
+			throw new ResourceNotFoundException(ex);
+		}
+
+		Map<String, Object> response = new HashMap<>();
+		response.put("jobId", progress.getJobId());
+		response.put("status", progress.getStatus());
+		response.put("failureMessage", progress.getFailureMessage());
+		return response;
+	}
+
+	/**
+	 * Sends the report generated by a completed job.
+	 *
+	 * @param jobId
+	 *            : the id of the report job
+	 */
+	@RequestMapping(value = "/jobs/{jobId}/result", method = RequestMethod.GET)
+	public void getReportJobResult(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+		RenderedReport report;
+		try {
+			report = reportJobService.getResult(jobId);
+		} catch (IllegalArgumentException | IllegalStateException ex) {
+			// there is no result until the job is completed
+			throw new ResourceNotFoundException(ex);
+		}
+
+		if (report.getContentType() != null) {
+			response.setContentType(report.getContentType());
+		}
+		if (report.getContentDisposition() != null) {
+			response.setHeader("Content-Disposition", report.getContentDisposition());
+		}
+		response.setContentLength(report.getContent().length);
+		response.getOutputStream().write(report.getContent());
+		response.flushBuffer();
+	}
+
+
 	@RequestMapping(value = "/views/{viewIndex}/docxtemplate", method = RequestMethod.GET)
 	public void getTemplate(@PathVariable String namespace, @PathVariable int viewIndex, HttpServletRequest request, HttpServletResponse response) throws Exception {
 
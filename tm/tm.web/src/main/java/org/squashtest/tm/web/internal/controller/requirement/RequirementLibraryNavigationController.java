@@ -267,6 +267,20 @@ public class RequirementLibraryNavigationController extends
 		return new FileSystemResource(export);
 	}
 
+	@ResponseBody
+	@RequestMapping(value = "/exports/xlsx", method = RequestMethod.GET)
+	public FileSystemResource exportRequirementXlsx(@RequestParam(FILENAME) String filename,
+													@RequestParam(LIBRARIES) List<Long> libraryIds, @RequestParam(NODES) List<Long> nodeIds,
+													@RequestParam(RequestParams.RTEFORMAT) Boolean keepRteFormat, @RequestParam(RequestParams.IS_CURRENT_VERSION) Boolean isCurrentVersion, HttpServletResponse response) {
+
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition", "attachment; filename=" + filename + ".xlsx");
+
+		File export = requirementLibraryNavigationService.exportRequirementAsXlsx(libraryIds, nodeIds, keepRteFormat, getMessageSource(), isCurrentVersion);
+
+		return new FileSystemResource(export);
+	}
+
 	@ResponseBody
 	@RequestMapping(value = "/searchExports", method = RequestMethod.GET)
 	public FileSystemResource searchExportRequirementExcel(@RequestParam(FILENAME) String filename,
@@ -29,10 +29,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.ModelAndView;
+import org.squashtest.tm.service.batchimport.BatchImportJobService;
 import org.squashtest.tm.service.batchimport.excel.TemplateMismatchException;
 import org.squashtest.tm.service.importer.ImportLog;
 import org.squashtest.tm.service.requirement.RequirementLibraryNavigationService;
-import org.squashtest.tm.web.importer.ImportHelper;
+import org.squashtest.tm.web.internal.controller.generic.BatchImportJobController;
 import org.squashtest.tm.web.internal.controller.testcase.importer.ImportFormatFailure;
 import org.squashtest.tm.web.internal.controller.testcase.importer.RequirementImportLogHelper;
 
@@ -43,7 +44,7 @@ import java.io.IOException;
 // XSS OK
 @Controller
 @RequestMapping("/requirements/importer")
-public class RequirementImportController {
+public class RequirementImportController extends BatchImportJobController {
 
 	private interface Command<T, U> {
 		U execute(T arg);
@@ -52,9 +53,6 @@ public class RequirementImportController {
 	@Inject
 	private RequirementLibraryNavigationService requirementLibraryNavigationService;
 
-	@Inject
-	private ImportHelper importHelper;
-
 	@Inject
 	private RequirementImportLogHelper logHelper;
 
@@ -93,7 +91,7 @@ public class RequirementImportController {
 		File xls = null;
 
 		try {
-			xls = importHelper.multipartToImportFile(uploadedFile, "requirement-import-", ".xls");
+			xls = multipartToImportFile(uploadedFile);
 			ImportLog summary = callback.execute(xls); // TODO parser may throw ex we should handle
 			summary.recompute(); // why is it here ? shouldnt it be in service ?
 			generateImportLog(request, summary);
@@ -123,7 +121,8 @@ public class RequirementImportController {
 	 * @param summary
 	 *            : the {@link ImportLog} summary of the xls import/simulation
 	 */
-	private void generateImportLog(WebRequest request, ImportLog summary) {
+	@Override
+	protected void generateImportLog(WebRequest request, ImportLog summary) {
 		File xlsSummary = null;
 
 		try {
@@ -142,6 +141,16 @@ public class RequirementImportController {
 		}
 	}
 
+	@Override
+	protected String startImport(BatchImportJobService importJobService, File xls) {
+		return importJobService.startRequirementImport(xls);
+	}
+
+	@Override
+	protected String getImportFilePrefix() {
+		return "requirement-import-";
+	}
+
 	private File importLogToLogFile(ImportLog summary) throws IOException {
 		return logHelper.storeLogFile(summary);
 	}
@@ -32,6 +32,7 @@ import org.squashtest.tm.web.internal.i18n.InternationalizationHelper;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelBuilder;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelConstants;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -54,6 +55,12 @@ public class CampaignSearchResultDataTableModelBuilder extends DataTableModelBui
 		return permissionService.hasRoleOrPermissionOnObject("ROLE_ADMIN", "WRITE", item);
 	}
 
+	@Override
+	protected void prepare(Collection<IterationTestPlanItem> pagedItems) {
+		// the 'editable' column checks each row
+		permissionService.preloadPermissionsOn(pagedItems);
+	}
+
 	@Override
 	public Map<String, Object> buildItemData(IterationTestPlanItem item) {
 
@@ -31,6 +31,7 @@ import org.squashtest.tm.web.internal.i18n.InternationalizationHelper;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelBuilder;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelConstants;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -71,6 +72,12 @@ public class RequirementSearchResultDataTableModelBuilder extends DataTableModel
 		this.associatedRequirementIds = associatedTestCaseIds;
 	}
 
+	@Override
+	protected void prepare(Collection<RequirementVersion> pagedItems) {
+		// the 'editable' column checks each row
+		permissionService.preloadPermissionsOn(pagedItems);
+	}
+
 	@Override
 	protected Map<String, Object> buildItemData(RequirementVersion item) {
 
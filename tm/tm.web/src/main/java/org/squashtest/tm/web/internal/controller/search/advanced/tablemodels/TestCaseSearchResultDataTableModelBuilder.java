@@ -34,6 +34,7 @@ import org.squashtest.tm.web.internal.i18n.InternationalizationHelper;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelBuilder;
 import org.squashtest.tm.web.internal.model.datatable.DataTableModelConstants;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -83,6 +84,12 @@ public class TestCaseSearchResultDataTableModelBuilder extends DataTableModelBui
 		return this.isInAssociationContext;
 	}
 
+	@Override
+	protected void prepare(Collection<TestCase> pagedItems) {
+		// the 'editable' column checks each row
+		permissionService.preloadPermissionsOn(pagedItems);
+	}
+
 	@Override
 	public Map<String, Object> buildItemData(TestCase item) {
 		final AuditableMixin auditable = (AuditableMixin) item;
@@ -283,6 +283,23 @@ public class TestCaseLibraryNavigationController extends
 
 	}
 
+	@RequestMapping(value = "/content/xlsx", produces = APPLICATION_SLASH_OCTET_STREAM, method = RequestMethod.GET, params = {
+		FILENAME, LIBRARIES, NODES, CALLS, RequestParams.RTEFORMAT})
+	@ResponseBody
+	public FileSystemResource exportAsXlsx(@RequestParam(FILENAME) String filename,
+										   @RequestParam(LIBRARIES) List<Long> libraryIds, @RequestParam(NODES) List<Long> nodeIds,
+										   @RequestParam(CALLS) Boolean includeCalledTests, @RequestParam(RequestParams.RTEFORMAT) Boolean keepRteFormat,
+										   HttpServletResponse response) {
+
+		response.setContentType(APPLICATION_SLASH_OCTET_STREAM);
+		response.setHeader(CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + ".xlsx");
+
+		File export = testCaseLibraryNavigationService.exportTestCaseAsXlsx(libraryIds, nodeIds, includeCalledTests,
+			keepRteFormat, getMessageSource());
+		return new FileSystemResource(export);
+
+	}
+
 	@RequestMapping(value = "/content/features", produces = APPLICATION_SLASH_OCTET_STREAM, method = RequestMethod.GET, params = {
 		FILENAME, LIBRARIES, NODES})
 	@ResponseBody
@@ -29,12 +29,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.ModelAndView;
+import org.squashtest.tm.service.batchimport.BatchImportJobService;
 import org.squashtest.tm.service.batchimport.excel.TemplateMismatchException;
 import org.squashtest.tm.service.importer.ImportLog;
 import org.squashtest.tm.service.importer.ImportSummary;
 import org.squashtest.tm.service.testcase.TestCaseLibraryNavigationService;
-import org.squashtest.tm.web.importer.ImportHelper;
 import org.squashtest.tm.web.internal.controller.RequestParams;
+import org.squashtest.tm.web.internal.controller.generic.BatchImportJobController;
 
 import javax.inject.Inject;
 import java.io.File;
@@ -48,7 +49,7 @@ import java.io.InputStream;
 // XSS OK
 @Controller
 @RequestMapping("/test-cases/importer")
-public class TestCaseImportController {
+public class TestCaseImportController extends BatchImportJobController {
 
 	private interface Command<T, U> {
 		U execute(T arg);
@@ -63,9 +64,6 @@ public class TestCaseImportController {
 	@Inject
 	private TestCaseImportLogHelper logHelper;
 
-	@Inject
-	private ImportHelper importHelper;
-
 	/**
 	 * Will import test cases given in the form of zipped archive. The zip must contain a folder hierarchy, with
 	 * test-cases represented by xls files. One test-case is represented by one xls file where only the first tab of the
@@ -127,7 +125,7 @@ public class TestCaseImportController {
 		File xls = null;
 
 		try {
-			xls = importHelper.multipartToImportFile(uploadedFile, "test-case-import-", ".xls");
+			xls = multipartToImportFile(uploadedFile);
 			ImportLog summary = callback.execute(xls); // TODO parser may throw ex we should handle
 			summary.recompute(); // TODO why is it here ? shouldnt it be in service ?
 			generateImportLog(request, summary);
@@ -157,7 +155,8 @@ public class TestCaseImportController {
 	 * @param summary
 	 *            : the {@link ImportLog} summary of the xls import/simulation
 	 */
-	private void generateImportLog(WebRequest request, ImportLog summary) {
+	@Override
+	protected void generateImportLog(WebRequest request, ImportLog summary) {
 		File xlsSummary = null;
 
 		try {
@@ -177,6 +176,16 @@ public class TestCaseImportController {
 		}
 	}
 
+	@Override
+	protected String startImport(BatchImportJobService importJobService, File xls) {
+		return importJobService.startTestCaseImport(xls);
+	}
+
+	@Override
+	protected String getImportFilePrefix() {
+		return "test-case-import-";
+	}
+
 	private File importLogToLogFile(ImportLog summary) throws IOException {
 		return logHelper.storeLogFile(summary);
 	}
@@ -0,0 +1,55 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.interceptor;
+
+import org.springframework.ui.ModelMap;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.WebRequestInterceptor;
+import org.squashtest.tm.annotation.WebComponent;
+import org.squashtest.tm.service.internal.security.PermissionDecisionCache;
+
+import javax.inject.Inject;
+
+/**
+ * Binds the request tier of the {@link PermissionDecisionCache} to each request, so that the same permission is not
+ * evaluated twice while processing a request.
+ */
+@WebComponent
+public class PermissionDecisionCacheInterceptor implements WebRequestInterceptor {
+
+	@Inject
+	private PermissionDecisionCache permissionDecisionCache;
+
+	@Override
+	public void preHandle(WebRequest webRequest) throws Exception {
+		permissionDecisionCache.openRequestScope();
+	}
+
+	@Override
+	public void postHandle(WebRequest webRequest, ModelMap modelMap) throws Exception {
+		//Nothing to do here
+	}
+
+	@Override
+	public void afterCompletion(WebRequest webRequest, Exception e) throws Exception {
+		permissionDecisionCache.closeRequestScope();
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.interceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.ui.ModelMap;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.WebRequestInterceptor;
+import org.squashtest.tm.annotation.WebComponent;
+import org.squashtest.tm.service.internal.hibernate.StatementCounter;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements issued by each request, and logs the requests which take longer than
+ * <code>squashtm.metrics.slow-request.threshold</code> milliseconds. The durations of the requests themselves are
+ * recorded by the actuator (<code>http.server.requests</code>).
+ */
+@WebComponent
+public class RequestMetricsInterceptor implements WebRequestInterceptor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+
+	private static final String START_TIME_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".startTime";
+
+	private final StatementCounter statementCounter;
+
+	private final DistributionSummary statementsPerRequest;
+
+	private final long slowRequestThreshold;
+
+	@Inject
+	public RequestMetricsInterceptor(StatementCounter statementCounter, MeterRegistry registry,
+		@Value("${squashtm.metrics.slow-request.threshold:2000}") long slowRequestThreshold) {
+		super();
+		this.statementCounter = statementCounter;
+		this.statementsPerRequest = DistributionSummary.builder("squash.request.statements")
+			.description("The number of SQL statements prepared by Hibernate for each request")
+			.register(registry);
+		this.slowRequestThreshold = TimeUnit.MILLISECONDS.toNanos(slowRequestThreshold);
+	}
+
+	@Override
+	public void preHandle(WebRequest webRequest) throws Exception {
+		webRequest.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime(), WebRequest.SCOPE_REQUEST);
+		statementCounter.openRequestScope();
+	}
+
+	@Override
+	public void postHandle(WebRequest webRequest, ModelMap modelMap) throws Exception {
+		//Nothing to do here
+	}
+
+	@Override
+	public void afterCompletion(WebRequest webRequest, Exception e) throws Exception {
+		long statements = statementCounter.closeRequestScope();
+		statementsPerRequest.record(statements);
+
+		Long startTime = (Long) webRequest.getAttribute(START_TIME_ATTRIBUTE, WebRequest.SCOPE_REQUEST);
+		if (startTime == null) {
+			return;
+		}
+
+		long duration = System.nanoTime() - startTime;
+		if (duration >= slowRequestThreshold) {
+			LOGGER.warn("Slow request {} : {} ms, {} SQL statements", describe(webRequest),
+				TimeUnit.NANOSECONDS.toMillis(duration), statements);
+		}
+	}
+
+	private static String describe(WebRequest webRequest) {
+		HttpServletRequest request = webRequest instanceof NativeWebRequest
+			? ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class)
+			: null;
+
+		return request == null
+			? webRequest.getDescription(false)
+			: request.getMethod() + " " + request.getRequestURI();
+	}
+
+}
@@ -28,10 +28,9 @@ import org.squashtest.tm.domain.Identified;
 import org.squashtest.tm.service.security.PermissionEvaluationService;
 
 import javax.inject.Inject;
-import javax.servlet.ServletContext;
 
 /**
- * Groups mutual code to store the information of an access to the view of an entity in the OpenedEntities stored in the ServeletContext.
+ * Groups mutual code to store the information of an access to the view of an entity in the {@linkplain OpenedEntityRegistry}.
  * see {@linkplain OpenedEntities}
  *
  * TODO we could probably replace the n subclasses with a sensible regexp(-like)-based configuration
@@ -42,22 +41,18 @@ public abstract class ObjectViewsInterceptor implements WebRequestInterceptor {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ObjectViewsInterceptor.class);
 
 	@Inject @Lazy
-	protected ServletContext context;
+	private OpenedEntityRegistry openedEntities;
 
 	@Inject @Lazy
 	private PermissionEvaluationService permissionService;
 
-	protected final boolean addViewerToEntity(String contextAttributeName, Identified object, String userLogin) {
-		LOGGER.debug("New view added for {} = {}  Viewer = {}", new Object[]{contextAttributeName, object.getId(), userLogin});
+	protected final boolean addViewerToEntity(String entityType, Identified object, String userLogin) {
+		LOGGER.debug("New view added for {} = {}  Viewer = {}", new Object[]{entityType, object.getId(), userLogin});
 		boolean otherViewers = false;
 		if (permissionService.hasMoreThanRead(object)) {
 			LOGGER.debug("User has more than readonly in object = true");
 
-			OpenedEntities openedEntities = (OpenedEntities) context.getAttribute(contextAttributeName);
-			if (openedEntities != null) {
-				otherViewers = openedEntities.addViewerToEntity(object, userLogin);
-
-			}
+			otherViewers = openedEntities.addViewerToEntity(entityType, object.getId(), userLogin);
 		} else {
 			LOGGER.debug("User has more than readonly in object = false");
 		}
@@ -22,98 +22,203 @@ package org.squashtest.tm.web.internal.interceptor.openedentity;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.squashtest.tm.domain.Identified;
-import org.squashtest.tm.domain.campaign.Campaign;
-import org.squashtest.tm.domain.campaign.Iteration;
-import org.squashtest.tm.domain.campaign.TestSuite;
-import org.squashtest.tm.domain.execution.Execution;
-import org.squashtest.tm.domain.requirement.Requirement;
-import org.squashtest.tm.domain.testcase.TestCase;
-
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationUnit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Opened Entities represent a list of object of one type among the "MANAGED_ENTITIES_LIST". It is used to notify a user
- * if he is not the only one with to view the element. <br>
+ * Opened Entities keeps track of the views opened on the test cases, requirements, campaigns, iterations, test suites
+ * and executions. It is used to notify a user if he is not the only one with to view the element. <br>
  * <br>
- * For example an OpenedEntities for TestCases will store , for each test-case is viewed, an entry in the
- * "entitiesViewers" map with it's id as the key. The OpenedEntity value will store the informations of how many users
- * are viewing the test-case and how many views he has opened. <br>
+ * For example, for each test-case is viewed, an entry is stored in the "entities" map with its type and id as the key.
+ * The OpenedEntity value will store the informations of how many users are viewing the test-case and how many views he
+ * has opened. A reverse index lists the entities viewed by each user, so that their views are removed without scanning
+ * every entry when their session ends. The views which were not renewed for a time-to-live are removed periodically, and
+ * so are the entries left without views. <br>
  * <br>
  * <b>How to add an object as a managed entity ? </b>
  * <ol>
  * <li>create an <span style="color:darkgreen">interceptor</span> in the same model as that extends the
- * ObjectViewsInterceptor. declare it in the <span style="color:darkgreen">servlet.xml</span> and map it to the rightful
+ * ObjectViewsInterceptor. declare it in the <span style="color:darkgreen">WebMvcConfig</span> and map it to the rightful
  * url, make sure the url will return a mav with the object of interest in it. handle the opening of a new view and add
  * the boolean "otherViewers" to the mav.</li>
  * <li>add the <span style="color:darkgreen">component "opened-object"</span> in the view to notify the user if he is
  * not alone viewing this object and to send a quit request if the user leaves the view</li>
  * <li>add the leaveObject method in the <span style="color:darkgreen">ObjectAccessController</span></li>
- * <li>add the object class.simpleName to the <span style="color:darkgreen">MANAGED_ENTITIES_LIST</span> below</li>.
- * This will allow the OpenedEntitiesLifecycleListener to create the needed OpenedEntities at the start of squash and to
- * close the view of a user the end of his session
  * </ol>
  * <br>
  * <b>How to add a view to a managed entity</b>
  * <ol>
- * <li>add the view's access url to the rightful interceptor in the <span style="color:darkgreen">serlvet.xml</span></li>
+ * <li>add the view's access url to the rightful interceptor in the <span style="color:darkgreen">WebMvcConfig</span></li>
  * <li>make sure <span style="color:darkgreen">the object is returned in the mav</span> with the same name as in the
  * other hanldled views</li>
  * <li>add the <span style="color:darkgreen">component "opened-object"</span> in the view</li>
  * </ol>
- * 
+ *
  * @author mpagnon
- * 
+ *
  */
-public class OpenedEntities {
+@Component
+public class OpenedEntities implements OpenedEntityRegistry {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OpenedEntities.class);
 
-	private Map<Long, OpenedEntity> entitiesViewers;
+	private static final int EXPIRY_CHECKS_PER_TIME_TO_LIVE = 4;
+
+	/*
+	 * The entries are only read and modified through the atomic compute* methods of the map, which lock the entry
+	 * rather than the whole map.
+	 */
+	private final ConcurrentMap<EntityKey, OpenedEntity> entities = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Set<EntityKey>> entitiesByViewer = new ConcurrentHashMap<>();
+
+	@Inject
+	@Named("squashtest.tm.service.ThreadPoolTaskScheduler")
+	private TaskScheduler taskScheduler;
+
+	/**
+	 * how long a view is considered opened without being renewed, in seconds unless a unit is given (e.g. 30m).
+	 * Defaults to the session timeout.
+	 */
+	@Value("${squashtm.opened-entities.time-to-live:${server.servlet.session.timeout:3600}}")
+	@DurationUnit(ChronoUnit.SECONDS)
+	private Duration timeToLive = Duration.ofHours(1);
 
-	public static final List<String> MANAGED_ENTITIES_LIST = Arrays.asList(TestCase.class.getSimpleName(),
-			Requirement.class.getSimpleName(), Campaign.class.getSimpleName(), Iteration.class.getSimpleName(),
-			TestSuite.class.getSimpleName(), Execution.class.getSimpleName());
+	@Value("${squashtm.opened-entities.max-entries:100000}")
+	private int maxEntries = 100000;
 
-	public OpenedEntities() {
-		entitiesViewers = new HashMap<>();
+	@PostConstruct
+	public void scheduleExpiry() {
+		long period = timeToLive.toMillis() / EXPIRY_CHECKS_PER_TIME_TO_LIVE;
+		taskScheduler.scheduleWithFixedDelay(this::removeExpiredViews, new Date(System.currentTimeMillis() + period), period);
 	}
 
-	public synchronized boolean addViewerToEntity(Identified object, String userLogin) {
-		// get the entity || create one if none
-		OpenedEntity openedEntity = findOpenedEntity(object);
+	@Override
+	public boolean addViewerToEntity(String entityType, Long entityId, String viewerLogin) {
+		EntityKey key = new EntityKey(entityType, entityId);
 
-		// add viewer to entity and return true if viewer is not the only one
-		return openedEntity.addViewForViewer(userLogin);
+		if (entities.size() >= maxEntries && !entities.containsKey(key)) {
+			LOGGER.warn("Too many opened entities ({}), the views on {} #{} will not be tracked", maxEntries, entityType, entityId);
+			return false;
+		}
+
+		// index first : should the viewer log out meanwhile, their view will expire instead of leaving a dangling index entry
+		entitiesByViewer.compute(viewerLogin, (login, keys) -> {
+			Set<EntityKey> viewed = keys == null ? new HashSet<>() : keys;
+			viewed.add(key);
+			return viewed;
+		});
+
+		long now = System.currentTimeMillis();
+		AtomicBoolean otherViewers = new AtomicBoolean();
+
+		// get the entity || create one if none, then add viewer to entity
+		entities.compute(key, (k, entity) -> {
+			OpenedEntity openedEntity = entity == null ? new OpenedEntity() : entity;
+			otherViewers.set(openedEntity.addViewForViewer(viewerLogin, now));
+			return openedEntity;
+		});
+
+		return otherViewers.get();
 	}
 
-	private synchronized OpenedEntity findOpenedEntity(Identified object) {
-		OpenedEntity openedEntity = this.entitiesViewers.get(object.getId());
-		if (openedEntity == null) {
-			LOGGER.trace("Entity was not listed => new Entity");
-			openedEntity = new OpenedEntity();
-			this.entitiesViewers.put(object.getId(), openedEntity);
-		} else {
-			LOGGER.trace("Entity was already listed");
+	@Override
+	public void removeView(String entityType, Long entityId, String viewerLogin) {
+		EntityKey key = new EntityKey(entityType, entityId);
+		AtomicBoolean viewerLeft = new AtomicBoolean();
+
+		entities.computeIfPresent(key, (k, entity) -> {
+			viewerLeft.set(entity.removeViewForViewer(viewerLogin));
+			return entity.isEmpty() ? null : entity;
+		});
+
+		if (viewerLeft.get()) {
+			unindex(viewerLogin, key);
 		}
-		return openedEntity;
 	}
 
-	public synchronized void removeViewer(String viewerLogin) {
-		for (Entry<Long, OpenedEntity> entityViewers : entitiesViewers.entrySet()) {
-			OpenedEntity openedEntity = entityViewers.getValue();
-			openedEntity.removeAllViewsForViewer(viewerLogin);
+	@Override
+	public void removeViewer(String viewerLogin) {
+		Set<EntityKey> keys = entitiesByViewer.remove(viewerLogin);
+
+		if (keys != null) {
+			for (EntityKey key : keys) {
+				entities.computeIfPresent(key, (k, entity) -> {
+					entity.removeAllViewsForViewer(viewerLogin);
+					return entity.isEmpty() ? null : entity;
+				});
+			}
 		}
 	}
 
-	public synchronized void removeView(String name, Long id) {
-		OpenedEntity openedEntity = this.entitiesViewers.get(id);
-		if (openedEntity != null) {
-			openedEntity.removeViewForViewer(name);
+	/**
+	 * Removes the views which were not renewed within the time-to-live, most likely because the viewer closed their browser
+	 * without leaving the page.
+	 */
+	public void removeExpiredViews() {
+		long limit = System.currentTimeMillis() - timeToLive.toMillis();
+
+		for (EntityKey key : entities.keySet()) {
+			Collection<String> expired = new ArrayList<>();
+
+			entities.computeIfPresent(key, (k, entity) -> {
+				expired.addAll(entity.removeViewersSeenBefore(limit));
+				return entity.isEmpty() ? null : entity;
+			});
+
+			for (String viewerLogin : expired) {
+				unindex(viewerLogin, key);
+			}
 		}
+	}
+
+	private void unindex(String viewerLogin, EntityKey key) {
+		entitiesByViewer.computeIfPresent(viewerLogin, (login, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
 
+	static final class EntityKey {
+		private final String entityType;
+		private final Long entityId;
+
+		EntityKey(String entityType, Long entityId) {
+			this.entityType = entityType;
+			this.entityId = entityId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			EntityKey other = (EntityKey) o;
+			return entityType.equals(other.entityType) && entityId.equals(other.entityId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entityType, entityId);
+		}
 	}
 }
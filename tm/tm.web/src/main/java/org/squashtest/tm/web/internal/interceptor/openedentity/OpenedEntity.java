@@ -23,53 +23,66 @@ package org.squashtest.tm.web.internal.interceptor.openedentity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Map.Entry;
+
 /**
- * Represents a list of users viewing the same object at the same time and how many views have each user opened.
- * see it's use at {@linkplain OpenedEntities}
+ * Represents a list of users viewing the same object at the same time, how many views have each user opened and when
+ * each user last opened one. see it's use at {@linkplain OpenedEntities}.<br>
+ * <br>
+ * This class is not thread safe : {@linkplain OpenedEntities} only reads and modifies it while holding the lock of its
+ * entry.
+ *
  * @author mpagnon
  *
  */
 public class OpenedEntity {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OpenedEntity.class);
 
-	private Map<String, Integer> viewers;
+	private Map<String, Viewer> viewers;
 
 	public OpenedEntity() {
 		viewers = new HashMap<>();
 	}
 
-	public boolean addViewForViewer(String viewerLogin) {
-		boolean otherViewers = false;
-		// try to find viewer in list
-		Integer numberOfViews = viewers.get(viewerLogin);
-		// if already here increment number of his view for this entity
-		if (numberOfViews != null) {
-			numberOfViews++;
-			viewers.put(viewerLogin, numberOfViews);
-		} else {// else create input for this user
-			viewers.put(viewerLogin, 1);
+	/**
+	 * @return true if other users are viewing this entity
+	 */
+	public boolean addViewForViewer(String viewerLogin, long now) {
+		// try to find viewer in list or create input for this user
+		Viewer viewer = viewers.get(viewerLogin);
+		if (viewer == null) {
+			viewer = new Viewer();
+			viewers.put(viewerLogin, viewer);
 		}
+		// increment number of his view for this entity
+		viewer.views++;
+		viewer.lastSeen = now;
+
 		// if list of users is higher than 1 return true
-		if (viewers.size() > 1) {
-			otherViewers = true;
-		}
-		LOGGER.debug("Other Viewers = " + otherViewers);
+		boolean otherViewers = viewers.size() > 1;
+		LOGGER.debug("Other Viewers = {}", otherViewers);
 		return otherViewers;
 
 	}
 
-	public void removeViewForViewer(String viewerLogin) {
-		Integer views = viewers.get(viewerLogin);
-		if (views != null) {
-			views = views - 1;
-			if (views <= 0) {
+	/**
+	 * @return true if the viewer has no view left on this entity
+	 */
+	public boolean removeViewForViewer(String viewerLogin) {
+		Viewer viewer = viewers.get(viewerLogin);
+		if (viewer != null) {
+			viewer.views--;
+			if (viewer.views <= 0) {
 				viewers.remove(viewerLogin);
-			}else{
-				viewers.put(viewerLogin, views);
+				return true;
 			}
 		}
+		return false;
 
 	}
 
@@ -77,4 +90,31 @@ public class OpenedEntity {
 		viewers.remove(viewerLogin);
 
 	}
+
+	/**
+	 * Removes the viewers which did not open a view since the given time, because they probably left without telling.
+	 *
+	 * @return the logins of the removed viewers
+	 */
+	public Collection<String> removeViewersSeenBefore(long limit) {
+		Collection<String> removed = new ArrayList<>();
+		Iterator<Entry<String, Viewer>> iterator = viewers.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<String, Viewer> entry = iterator.next();
+			if (entry.getValue().lastSeen < limit) {
+				removed.add(entry.getKey());
+				iterator.remove();
+			}
+		}
+		return removed;
+	}
+
+	public boolean isEmpty() {
+		return viewers.isEmpty();
+	}
+
+	private static final class Viewer {
+		private int views;
+		private long lastSeen;
+	}
 }
@@ -0,0 +1,61 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.interceptor.openedentity;
+
+/**
+ * Keeps track of the users viewing the entities listed in {@linkplain OpenedEntities}, so that a user can be warned
+ * when someone else is viewing the same entity.<br>
+ * <br>
+ * The default implementation {@linkplain OpenedEntities} holds that state in memory. When several Squash TM nodes serve
+ * the same users, declare a <code>@Primary</code> bean implementing this interface which shares the state among the
+ * nodes.
+ *
+ * @author mpagnon
+ */
+public interface OpenedEntityRegistry {
+
+	/**
+	 * Registers a new view of an entity.
+	 *
+	 * @param entityType the simple name of the entity class
+	 * @param entityId the id of the viewed entity
+	 * @param viewerLogin the login of the viewer
+	 * @return true if other users are viewing the same entity
+	 */
+	boolean addViewerToEntity(String entityType, Long entityId, String viewerLogin);
+
+	/**
+	 * Unregisters one view of an entity, when the viewer leaves it.
+	 *
+	 * @param entityType the simple name of the entity class
+	 * @param entityId the id of the viewed entity
+	 * @param viewerLogin the login of the viewer
+	 */
+	void removeView(String entityType, Long entityId, String viewerLogin);
+
+	/**
+	 * Unregisters all the views of an user, typically when their session ends.
+	 *
+	 * @param viewerLogin the login of the viewer
+	 */
+	void removeViewer(String viewerLogin);
+
+}
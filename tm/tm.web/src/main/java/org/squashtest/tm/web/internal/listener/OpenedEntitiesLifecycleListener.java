@@ -22,11 +22,13 @@ package org.squashtest.tm.web.internal.listener;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.squashtest.tm.web.internal.interceptor.openedentity.OpenedEntities;
+import org.squashtest.tm.web.internal.interceptor.openedentity.OpenedEntityRegistry;
 
-import javax.servlet.ServletContext;
+import javax.inject.Inject;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 import javax.servlet.http.HttpSession;
@@ -34,12 +36,8 @@ import javax.servlet.http.HttpSessionEvent;
 import javax.servlet.http.HttpSessionListener;
 
 /**
- * This lisner acts when the ServletContext is created or when a user's session is ending.
- * <ul>
- * <li>When the servletContext is created : a OpenedEntities instance is created and stored in the servletContext for
- * each entry in the {@linkplain OpenedEntities#MANAGED_ENTITIES_LIST}.</li>
- * <li>When a user's session is ending, all his stored views on the existing OpenedEntities are removed</li>
- * </ul>
+ * This lisner acts when a user's session is ending : all his stored views in the {@linkplain OpenedEntityRegistry} are
+ * removed.
  * The aim of all this is to notify a user when someone else is viewing the same object than him. See
  * {@linkplain OpenedEntities}'s java doc for more details.
  * 
@@ -49,6 +47,9 @@ import javax.servlet.http.HttpSessionListener;
 public class OpenedEntitiesLifecycleListener implements HttpSessionListener, ServletContextListener {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OpenedEntitiesLifecycleListener.class);
 
+	@Inject @Lazy
+	private OpenedEntityRegistry openedEntities;
+
 	@Override
 	public void sessionCreated(HttpSessionEvent event) {
 		// NOOP
@@ -57,22 +58,19 @@ public class OpenedEntitiesLifecycleListener implements HttpSessionListener, Ser
 
 	@Override
 	public void sessionDestroyed(HttpSessionEvent event) {
-		ServletContext context = event.getSession().getServletContext();
 		HttpSession session = event.getSession();
 		SecurityContext securityContext = (SecurityContext) session.getAttribute("SPRING_SECURITY_CONTEXT");
 
 		String login = retrieveLogin(securityContext);
 		
-		unregisterLogin(context, login);
+		unregisterLogin(login);
 	}
 
-	private void unregisterLogin(ServletContext context, String login) {
+	private void unregisterLogin(String login) {
 		if (login != null) {
 			LOGGER.debug("Session Closed for user {}", login);
-			
-			for (String managedEntityKey : OpenedEntities.MANAGED_ENTITIES_LIST) {
-				removeUserFromViewers(managedEntityKey, login, context);
-			}
+
+			openedEntities.removeViewer(login);
 		}
 	}
 
@@ -88,13 +86,6 @@ public class OpenedEntitiesLifecycleListener implements HttpSessionListener, Ser
 		return login;
 	}
 
-	private void removeUserFromViewers(String managedEntityKey, String login, ServletContext context) {
-		OpenedEntities openedEntities = (OpenedEntities) context.getAttribute(managedEntityKey);
-		if (openedEntities != null) {
-			openedEntities.removeViewer(login);
-		}
-	}
-
 	@Override
 	public void contextDestroyed(ServletContextEvent event) {
 		// NOOP
@@ -103,12 +94,7 @@ public class OpenedEntitiesLifecycleListener implements HttpSessionListener, Ser
 
 	@Override
 	public void contextInitialized(ServletContextEvent event) {
-		ServletContext context = event.getServletContext();
-
-		for (String contextAttributeName : OpenedEntities.MANAGED_ENTITIES_LIST) {
-			OpenedEntities entities = new OpenedEntities();
-			context.setAttribute(contextAttributeName, entities);
-		}
+		// NOOP
 
 	}
 
@@ -69,6 +69,8 @@ public abstract class DataTableModelBuilder<X> {
 	public List<Object> buildRawModel(Collection<X> pagedItems) {
 		List<Object> model = new ArrayList<>(pagedItems.size());
 
+		prepare(pagedItems);
+
 		for (X item : pagedItems) {
 			Object itemData = buildItemData(item);
 			model.add(itemData);
@@ -91,6 +93,8 @@ public abstract class DataTableModelBuilder<X> {
 	private DataTableModel createModelFromItems(String sEcho, Collection<X> pagedItems) {
 		DataTableModel model = new DataTableModel(sEcho);
 
+		prepare(pagedItems);
+
 		for (X item : pagedItems) {
 			model.addRow(buildItemData(item));
 			currentIndex++;
@@ -117,6 +121,16 @@ public abstract class DataTableModelBuilder<X> {
 	}
 	// NOSONAR:END
 
+	/**
+	 * Invoked once before the rows are built. Subclasses may override it to fetch at once what each row needs (e.g. the
+	 * permissions on the items) instead of fetching it row by row.
+	 *
+	 * @param pagedItems the items about to be turned into rows
+	 */
+	protected void prepare(Collection<X> pagedItems) {
+		// NOOP by default
+	}
+
 	protected abstract Object buildItemData(X item);
 
 
@@ -0,0 +1,131 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Stands for the http request when a view is rendered outside of one, by a background job. It only knows its
+ * attributes, the locale of the user and the servlet context : anything else a view would ask is unsupported.
+ */
+class DetachedRenderingRequest extends HttpServletRequestWrapper {
+
+	private final Map<String, Object> attributes = new HashMap<>();
+	private final Locale locale;
+	private final ServletContext servletContext;
+
+	DetachedRenderingRequest(Locale locale, ServletContext servletContext) {
+		super(unsupported(HttpServletRequest.class));
+		this.locale = locale;
+		this.servletContext = servletContext;
+	}
+
+	static <T> T unsupported(Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			throw new UnsupportedOperationException(method.getName() + " is not available when rendering a report in the background");
+		}));
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(attributes.keySet());
+	}
+
+	@Override
+	public void setAttribute(String name, Object o) {
+		attributes.put(name, o);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(Collections.singleton(locale));
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		return null;
+	}
+
+	@Override
+	public String getParameter(String name) {
+		return null;
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return null;
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		return Collections.emptyEnumeration();
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return null;
+	}
+
+	@Override
+	public String getMethod() {
+		return "GET";
+	}
+
+	@Override
+	public boolean isSecure() {
+		return false;
+	}
+
+}
@@ -0,0 +1,244 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Stands for the http response when a view is rendered outside of a request, by a background job. The content and
+ * the headers written by the view are kept in memory.
+ */
+class DetachedRenderingResponse extends HttpServletResponseWrapper {
+
+	private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+	private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+	private String contentType;
+	private String characterEncoding = StandardCharsets.ISO_8859_1.name();
+	private Locale locale = Locale.getDefault();
+	private int status = SC_OK;
+	private ServletOutputStream outputStream;
+	private PrintWriter writer;
+
+	DetachedRenderingResponse() {
+		super(DetachedRenderingRequest.unsupported(HttpServletResponse.class));
+	}
+
+	RenderedReport toRenderedReport() {
+		if (writer != null) {
+			writer.flush();
+		}
+		return new RenderedReport(content.toByteArray(), contentType, getHeader(HttpHeaders.CONTENT_DISPOSITION));
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (outputStream == null) {
+			outputStream = new ServletOutputStream() {
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					throw new UnsupportedOperationException("setWriteListener");
+				}
+
+				@Override
+				public void write(int b) {
+					content.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					content.write(b, off, len);
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() {
+		if (writer == null) {
+			writer = new PrintWriter(new OutputStreamWriter(content, Charset.forName(characterEncoding)));
+		}
+		return writer;
+	}
+
+	@Override
+	public void setContentType(String type) {
+		this.contentType = type;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		this.characterEncoding = charset;
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return characterEncoding;
+	}
+
+	@Override
+	public void setLocale(Locale loc) {
+		this.locale = loc;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+		// the length is the one of the buffered content
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+		// the length is the one of the buffered content
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		List<String> values = new ArrayList<>();
+		values.add(value);
+		headers.put(name, values);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		setHeader(name, String.valueOf(date));
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		addHeader(name, String.valueOf(date));
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return headers.containsKey(name);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		List<String> values = headers.get(name);
+		return values == null ? Collections.emptyList() : Collections.unmodifiableList(values);
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return Collections.unmodifiableSet(headers.keySet());
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public void setBufferSize(int size) {
+		// everything is buffered
+	}
+
+	@Override
+	public int getBufferSize() {
+		return content.size();
+	}
+
+	@Override
+	public void flushBuffer() {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return false;
+	}
+
+	@Override
+	public void resetBuffer() {
+		content.reset();
+	}
+
+	@Override
+	public void reset() {
+		content.reset();
+		headers.clear();
+		contentType = null;
+		status = SC_OK;
+	}
+
+}
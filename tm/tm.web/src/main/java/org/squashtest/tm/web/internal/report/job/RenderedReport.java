@@ -0,0 +1,59 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job;
+
+/**
+ * A report rendered by a {@link ReportJobService} job, ready to be sent to the client.
+ */
+public class RenderedReport {
+
+	private final byte[] content;
+	private final String contentType;
+	private final String contentDisposition;
+	private final long renderedAt = System.currentTimeMillis();
+
+	RenderedReport(byte[] content, String contentType, String contentDisposition) {
+		super();
+		this.content = content;
+		this.contentType = contentType;
+		this.contentDisposition = contentDisposition;
+	}
+
+	public byte[] getContent() {
+		return content;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return the <code>Content-Disposition</code> header set by the view, <code>null</code> when there is none
+	 */
+	public String getContentDisposition() {
+		return contentDisposition;
+	}
+
+	long getRenderedAt() {
+		return renderedAt;
+	}
+
+}
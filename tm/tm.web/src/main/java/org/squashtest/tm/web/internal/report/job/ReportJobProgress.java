@@ -1,26 +1,61 @@
-/**
- *     This file is part of the Squashtest platform.
- *     Copyright (C) Henix, henix.fr
- *
- *     See the NOTICE file distributed with this work for additional
- *     information regarding copyright ownership.
- *
- *     This is free software: you can redistribute it and/or modify
- *     it under the terms of the GNU Lesser General Public License as published by
- *     the Free Software Foundation, either version 3 of the License, or
- *     (at your option) any later version.
- *
- *     this software is distributed in the hope that it will be useful,
- *     but WITHOUT ANY WARRANTY; without even the implied warranty of
- *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- *     GNU Lesser General Public License for more details.
- *
- *     You should have received a copy of the GNU Lesser General Public License
- *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
- */
-package org.squashtest.tm.service.annotation;
-
-
-public enum CachableType {
-CATEGORY, TYPE, NATURE, CUSTOM_FIELD;
-}
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job;
+
+/**
+ * Snapshot of the progress of a report generation job run by {@link ReportJobService}.
+ */
+public class ReportJobProgress {
+
+	public enum Status {
+		QUEUED,
+		RUNNING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final String jobId;
+	private final Status status;
+	private final String failureMessage;
+
+	public ReportJobProgress(String jobId, Status status, String failureMessage) {
+		super();
+		this.jobId = jobId;
+		this.status = status;
+		this.failureMessage = failureMessage;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the reason of the failure when {@link Status#FAILED}, <code>null</code> otherwise
+	 */
+	public String getFailureMessage() {
+		return failureMessage;
+	}
+
+}
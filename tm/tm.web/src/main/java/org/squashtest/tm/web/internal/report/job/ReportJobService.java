@@ -0,0 +1,413 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.squashtest.tm.api.report.Report;
+import org.squashtest.tm.api.report.criteria.Criteria;
+import org.squashtest.tm.security.UserContextHolder;
+import org.squashtest.tm.service.internal.hibernate.CommittedChangeCounter;
+import org.squashtest.tm.web.internal.report.ReportsRegistry;
+import org.squashtest.tm.web.internal.report.job.ReportJobProgress.Status;
+import org.squashtest.tm.web.internal.report.service.UnsupportedFormatException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Generates reports in the background, on a bounded pool of threads, so that a large report neither holds an http
+ * request for minutes nor lets many users fill reports side by side. Jobs are kept in memory and are only visible to
+ * the user who started them, finished ones are forgotten after {@link #RETENTION_MILLIS}. The expired jobs and results
+ * are pruned whenever the service is used. A job lets go of its rendered report once it was downloaded, later downloads
+ * are served from the result cache.
+ * </p>
+ * <p>
+ * Rendered reports are cached by user, report, view, format, criteria and locale, along with the
+ * {@link CommittedChangeCounter#getVersion() data version} : asking again for the same report is free as long as
+ * nothing was committed meanwhile. As changes made through bulk queries are not counted, they also expire after
+ * <code>squashtm.report.jobs.result-ttl</code> seconds.
+ * </p>
+ */
+@Component
+public class ReportJobService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReportJobService.class);
+
+	private static final long RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private static final int QUEUE_CAPACITY = 20;
+
+	// assembled by the browser from the model, not rendered by the view
+	private static final String DOCX_FORMAT = "docx";
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	private Map<ResultKey, RenderedReport> results;
+
+	private Executor executor;
+
+	@Inject
+	private ReportsRegistry reportsRegistry;
+
+	@Inject
+	private CommittedChangeCounter changeCounter;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private ServletContext servletContext;
+
+	/*
+	 * Filling a report may take a lot of memory and holds a database connection : keep it small.
+	 */
+	@Value("${squashtm.report.jobs.parallelism:2}")
+	private int parallelism = 2;
+
+	@Value("${squashtm.report.jobs.cache-size:20}")
+	private int cacheSize = 20;
+
+	@Value("${squashtm.report.jobs.result-ttl:300}")
+	private long resultTtl = 300;
+
+	public ReportJobService() {
+		super();
+	}
+
+	ReportJobService(Executor executor) {
+		super();
+		this.executor = executor;
+	}
+
+	@PostConstruct
+	public void initialize() {
+		int maxResults = cacheSize;
+		results = new LinkedHashMap<ResultKey, RenderedReport>(maxResults, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ResultKey, RenderedReport> eldest) {
+				return size() > maxResults;
+			}
+		};
+
+		if (executor == null) {
+			ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+			pool.setCorePoolSize(parallelism);
+			pool.setMaxPoolSize(parallelism);
+			pool.setQueueCapacity(QUEUE_CAPACITY);
+			pool.setThreadNamePrefix("report-job-");
+			// a rejected job fails right away, the user may try again later
+			pool.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+			pool.initialize();
+			executor = pool;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (executor instanceof ThreadPoolTaskExecutor) {
+			((ThreadPoolTaskExecutor) executor).shutdown();
+		}
+	}
+
+	/**
+	 * Queues the generation of a report. When the same report was already rendered for the current user and the data
+	 * did not change, the returned job is completed right away. When it is being generated, the pending job is
+	 * returned instead of a new one.
+	 *
+	 * @param namespace    the namespace of the report
+	 * @param viewIndex    the index of the view of the report
+	 * @param format       the format of the view
+	 * @param criteria     the criteria of the report
+	 * @param criteriaJson the form the criteria were converted from. It identifies them in the result cache.
+	 * @param locale       the locale of the user
+	 * @return the id of the job
+	 * @throws IllegalArgumentException   when there is no such report
+	 * @throws UnsupportedFormatException when the view of the report cannot be rendered in the background
+	 */
+	public String start(String namespace, int viewIndex, String format, Map<String, Criteria> criteria,
+						String criteriaJson, Locale locale) {
+		if (DOCX_FORMAT.equals(format)) {
+			throw new UnsupportedFormatException("docx reports are assembled by the browser");
+		}
+
+		Report report = reportsRegistry.findReport(namespace);
+		if (report == null) {
+			throw new IllegalArgumentException("No report " + namespace);
+		}
+
+		forgetExpired();
+
+		ResultKey key = new ResultKey(UserContextHolder.getUsername(), namespace, viewIndex, format, criteriaJson,
+			locale, changeCounter.getVersion());
+		Job job = new Job(key, report, criteria);
+
+		RenderedReport cached = findResult(key);
+		if (cached != null) {
+			job.complete(cached);
+			jobs.put(job.id, job);
+			return job.id;
+		}
+
+		Job pending = findPendingJob(key);
+		if (pending != null) {
+			return pending.id;
+		}
+
+		jobs.put(job.id, job);
+		try {
+			// the report checks the permissions of the user who asked for it
+			executor.execute(new DelegatingSecurityContextRunnable(job::run));
+		} catch (RejectedExecutionException ex) {
+			LOGGER.warn("Report job {} rejected, {} reports are already queued", job.id, QUEUE_CAPACITY, ex);
+			job.fail("Too many reports are being generated, please try again later");
+		}
+
+		return job.id;
+	}
+
+	public ReportJobProgress getProgress(String jobId) {
+		forgetExpired();
+		return findJob(jobId).getProgress();
+	}
+
+	/**
+	 * @return the report rendered by the job
+	 * @throws IllegalArgumentException when there is no such job
+	 * @throws IllegalStateException    when the job is not completed, or when its report was downloaded and then
+	 *                                  left the result cache
+	 */
+	public RenderedReport getResult(String jobId) {
+		forgetExpired();
+		Job job = findJob(jobId);
+
+		if (job.status != Status.COMPLETED) {
+			throw new IllegalStateException("Report job " + jobId + " is " + job.status);
+		}
+
+		RenderedReport result = job.result != null ? job.result : findResult(job.key);
+		// the cache holds the report as long as it is worth it, the job does not need to
+		job.result = null;
+
+		if (result == null) {
+			throw new IllegalStateException("The report of job " + jobId + " expired");
+		}
+		return result;
+	}
+
+	private Job findJob(String jobId) {
+		Job job = jobs.get(jobId);
+
+		if (job == null || !job.key.username.equals(UserContextHolder.getUsername())) {
+			throw new IllegalArgumentException("No report job " + jobId);
+		}
+		return job;
+	}
+
+	private Job findPendingJob(ResultKey key) {
+		return jobs.values().stream()
+			.filter(job -> job.key.equals(key) && (job.status == Status.QUEUED || job.status == Status.RUNNING))
+			.findFirst()
+			.orElse(null);
+	}
+
+	private void forgetExpired() {
+		long now = System.currentTimeMillis();
+
+		jobs.values().removeIf(job ->
+			(job.status == Status.COMPLETED || job.status == Status.FAILED) && now - job.lastUpdate > RETENTION_MILLIS);
+
+		synchronized (results) {
+			results.values().removeIf(result -> isExpired(result, now));
+		}
+	}
+
+	private boolean isExpired(RenderedReport result, long now) {
+		return now - result.getRenderedAt() > TimeUnit.SECONDS.toMillis(resultTtl);
+	}
+
+	private RenderedReport findResult(ResultKey key) {
+		synchronized (results) {
+			RenderedReport result = results.get(key);
+
+			if (result != null && isExpired(result, System.currentTimeMillis())) {
+				results.remove(key);
+				return null;
+			}
+			return result;
+		}
+	}
+
+	private void storeResult(ResultKey key, RenderedReport result) {
+		synchronized (results) {
+			results.put(key, result);
+		}
+	}
+
+	private RenderedReport render(Job job) throws Exception {
+		ModelAndView mav = job.report.buildModelAndView(job.key.viewIndex, job.key.format, job.criteria);
+		View view = mav.getView();
+
+		if (view == null) {
+			throw new UnsupportedFormatException("The view " + job.key.viewIndex + " of report " + job.key.namespace
+				+ " cannot be rendered in the background");
+		}
+
+		DetachedRenderingRequest request = new DetachedRenderingRequest(job.key.locale, servletContext);
+		DetachedRenderingResponse response = new DetachedRenderingResponse();
+		view.render(mav.getModel(), request, response);
+
+		return response.toRenderedReport();
+	}
+
+	private final class Job {
+		private final String id = UUID.randomUUID().toString();
+		private final ResultKey key;
+		private final Report report;
+		private final Map<String, Criteria> criteria;
+
+		private volatile Status status = Status.QUEUED;
+		private volatile RenderedReport result;
+		private volatile String failureMessage;
+		private volatile long lastUpdate = System.currentTimeMillis();
+
+		private Job(ResultKey key, Report report, Map<String, Criteria> criteria) {
+			super();
+			this.key = key;
+			this.report = report;
+			this.criteria = criteria;
+		}
+
+		private void run() {
+			status = Status.RUNNING;
+			LocaleContextHolder.setLocale(key.locale);
+
+			// one session for the queries and the rendering, as the open session filter would do for a request
+			TransactionTemplate template = new TransactionTemplate(transactionManager);
+			template.setReadOnly(true);
+
+			try {
+				RenderedReport rendered = template.execute(transaction -> {
+					try {
+						return render(this);
+					} catch (RuntimeException ex) {
+						throw ex;
+					} catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				});
+				storeResult(key, rendered);
+				complete(rendered);
+
+			} catch (RuntimeException ex) {
+				LOGGER.warn("Report job {} for report {} failed", id, key.namespace, ex);
+				fail(ex.getMessage());
+
+			} finally {
+				LocaleContextHolder.resetLocaleContext();
+			}
+		}
+
+		private void complete(RenderedReport rendered) {
+			result = rendered;
+			status = Status.COMPLETED;
+			lastUpdate = System.currentTimeMillis();
+		}
+
+		private void fail(String message) {
+			failureMessage = message;
+			status = Status.FAILED;
+			lastUpdate = System.currentTimeMillis();
+		}
+
+		private ReportJobProgress getProgress() {
+			return new ReportJobProgress(id, status, failureMessage);
+		}
+	}
+
+	private static final class ResultKey {
+		private final String username;
+		private final String namespace;
+		private final int viewIndex;
+		private final String format;
+		private final String criteriaJson;
+		private final Locale locale;
+		private final long dataVersion;
+
+		private ResultKey(String username, String namespace, int viewIndex, String format, String criteriaJson,
+						  Locale locale, long dataVersion) {
+			super();
+			this.username = Objects.requireNonNull(username);
+			this.namespace = namespace;
+			this.viewIndex = viewIndex;
+			this.format = format;
+			this.criteriaJson = criteriaJson;
+			this.locale = locale;
+			this.dataVersion = dataVersion;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ResultKey other = (ResultKey) o;
+			return viewIndex == other.viewIndex
+				&& dataVersion == other.dataVersion
+				&& username.equals(other.username)
+				&& Objects.equals(namespace, other.namespace)
+				&& Objects.equals(format, other.format)
+				&& Objects.equals(criteriaJson, other.criteriaJson)
+				&& Objects.equals(locale, other.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(username, namespace, viewIndex, format, criteriaJson, locale, dataVersion);
+		}
+	}
+
+}
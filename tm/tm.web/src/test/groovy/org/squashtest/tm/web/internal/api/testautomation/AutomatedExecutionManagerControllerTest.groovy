@@ -0,0 +1,96 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.api.testautomation
+
+import org.springframework.http.MediaType
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.setup.MockMvcBuilders
+import org.squashtest.tm.api.testautomation.execution.dto.ExecutionStatus
+import org.squashtest.tm.service.testautomation.AutomatedExecutionManagerService
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.validation.Validation
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+class AutomatedExecutionManagerControllerTest extends Specification {
+	AutomatedExecutionManagerController controller = new AutomatedExecutionManagerController()
+	AutomatedExecutionManagerService automatedExecutionManager = Mock()
+	MockMvc mockMvc
+
+	def setup() {
+		controller.automatedExecutionManager = automatedExecutionManager
+		controller.validator = Validation.buildDefaultValidatorFactory().validator
+
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build()
+	}
+
+	def "should change the states of a batch of executions"() {
+		when:
+		def res = mockMvc.perform(post("/automated-executions/test-status")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("""{ "10": ${state('"SUCCESS"', '"all good"')}, "20": ${state('"FAILURE"', '"broken"')} }"""))
+
+		then:
+		res.andExpect(status().isOk())
+		1 * automatedExecutionManager.changeExecutionStates({
+			it.keySet() == [10L, 20L] as Set &&
+				it[10L].status == ExecutionStatus.SUCCESS &&
+				it[20L].statusMessage == "broken"
+		})
+	}
+
+	@Unroll
+	def "should reject the whole batch when a state is #problem"() {
+		when:
+		def res = mockMvc.perform(post("/automated-executions/test-status")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("""{ "10": ${state('"SUCCESS"', '"all good"')}, "20": $invalidState }"""))
+
+		then:
+		res.andExpect(status().isBadRequest())
+		0 * automatedExecutionManager.changeExecutionStates(_)
+
+		where:
+		problem               | invalidState
+		"null"                | "null"
+		"missing its status"  | '{ "testName": "t", "testGroupName": "g", "startTime": 0 }'
+		"missing a test name" | '{ "testGroupName": "g", "startTime": 0, "status": "SUCCESS" }'
+		"given a null status" | state("null", '"broken"')
+	}
+
+	def "should default a null status message to an empty one"() {
+		when:
+		def res = mockMvc.perform(post("/automated-executions/test-status")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("""{ "10": ${state('"SUCCESS"', "null")} }"""))
+
+		then:
+		res.andExpect(status().isOk())
+		1 * automatedExecutionManager.changeExecutionStates({ it[10L].statusMessage == "" })
+	}
+
+	def state(String status, String statusMessage) {
+		"""{ "testName": "t", "testGroupName": "g", "startTime": 0, "status": $status, "statusMessage": $statusMessage }"""
+	}
+}
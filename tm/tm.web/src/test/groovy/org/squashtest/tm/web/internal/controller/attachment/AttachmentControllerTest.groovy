@@ -20,53 +20,119 @@
  */
 package org.squashtest.tm.web.internal.controller.attachment
 
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
 import org.squashtest.tm.domain.attachment.Attachment
+import org.squashtest.tm.domain.attachment.AttachmentContent
 import org.squashtest.tm.service.attachment.AttachmentManagerService
 import spock.lang.Specification
 
-import javax.servlet.ServletOutputStream
-import javax.servlet.WriteListener
-import javax.servlet.http.HttpServletResponse
-
 class AttachmentControllerTest extends Specification {
     AttachmentController attachmentController = new AttachmentController()
     AttachmentManagerService service = Mock()
 
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/attach-list/1/attachments/download/10")
+    MockHttpServletResponse response = new MockHttpServletResponse()
+
+    Optional<File> contentFile = Optional.empty()
+
     def setup() {
         attachmentController.attachmentManagerService = service
-    }
 
-    def ""() {
-        given:
+        AttachmentContent content = Mock()
+        content.getId() >> 20
+
         Attachment attachment = Mock()
+        attachment.getId() >> 10
         attachment.getName() >> "attachment"
-        service.findAttachment(_) >> attachment
+        attachment.getContent() >> content
+
+        service.findAttachment(10) >> attachment
+        service.getContentSize(10) >> 1000
+        service.findContentFile(10) >> { contentFile }
+    }
+
+    def "should write the whole content"() {
+        when:
+        attachmentController.downloadAttachment 10, request, response
+
+        then:
+        1 * service.writeContent(10, 0, 1000, response.outputStream)
+        response.status == 200
+        response.getHeader("ETag") == '"10-20"'
+        response.getHeader("Accept-Ranges") == "bytes"
+        response.contentLengthLong == 1000
+    }
+
+    def "should write the requested range of the content"() {
+        given:
+        request.addHeader("Range", "bytes=100-199")
+
+        when:
+        attachmentController.downloadAttachment 10, request, response
+
+        then:
+        1 * service.writeContent(10, 100, 100, response.outputStream)
+        response.status == 206
+        response.getHeader("Content-Range") == "bytes 100-199/1000"
+        response.contentLengthLong == 100
+    }
+
+    def "should write the whole content when the range is conditional on another version"() {
+        given:
+        request.addHeader("Range", "bytes=100-199")
+        request.addHeader("If-Range", '"10-19"')
+
+        when:
+        attachmentController.downloadAttachment 10, request, response
+
+        then:
+        1 * service.writeContent(10, 0, 1000, response.outputStream)
+        response.status == 200
+    }
+
+    def "should reject a range beyond the content"() {
+        given:
+        request.addHeader("Range", "bytes=1000-")
+
+        when:
+        attachmentController.downloadAttachment 10, request, response
+
+        then:
+        0 * service.writeContent(*_)
+        response.status == 416
+        response.getHeader("Content-Range") == "bytes */1000"
+    }
+
+    def "should not send the content again when the client has it"() {
+        given:
+        request.addHeader("If-None-Match", '"10-20"')
+
+        when:
+        attachmentController.downloadAttachment 10, request, response
+
+        then:
+        0 * service.writeContent(*_)
+        response.status == 304
+    }
+
+    def "should hand the content file over to the container"() {
+        given:
+        File file = File.createTempFile("attachment", "tmp")
+        file.deleteOnExit()
+        contentFile = Optional.of(file)
 
         and:
-        HttpServletResponse response = Mock()
-        ServletOutputStream downloadStream = new ServletOutputStream() {
-            ByteArrayOutputStream bytes = new ByteArrayOutputStream()
-
-            public void write(int b) throws IOException {
-                bytes.write(b)
-            }
-
-            @Override
-            boolean isReady() {
-                return false
-            }
-
-            @Override
-            void setWriteListener(WriteListener writeListener) {
-                // NOOP
-            }
-        }
-        response.outputStream >> downloadStream
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+        request.addHeader("Range", "bytes=-300")
 
         when:
-        attachmentController.downloadAttachment 10, response
+        attachmentController.downloadAttachment 10, request, response
 
         then:
-        1 * service.writeContent(10, downloadStream)
+        0 * service.writeContent(*_)
+        request.getAttribute("org.apache.tomcat.sendfile.filename") == file.canonicalPath
+        request.getAttribute("org.apache.tomcat.sendfile.start") == 700L
+        request.getAttribute("org.apache.tomcat.sendfile.end") == 1000L
     }
 }
@@ -0,0 +1,126 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.interceptor.openedentity
+
+import org.springframework.boot.convert.ApplicationConversionService
+import org.springframework.core.convert.TypeDescriptor
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Duration
+
+class OpenedEntitiesTest extends Specification {
+
+	OpenedEntities openedEntities = new OpenedEntities()
+
+	def "should tell when someone else views the same entity"() {
+		expect:
+		!openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+		!openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+		openedEntities.addViewerToEntity("TestCase", 10L, "mike")
+	}
+
+	def "should not mix up entities of different types sharing an id"() {
+		given:
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+
+		expect:
+		!openedEntities.addViewerToEntity("Campaign", 10L, "mike")
+	}
+
+	def "should forget an entity once its last view is closed"() {
+		given:
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+
+		when:
+		openedEntities.removeView("TestCase", 10L, "bob")
+
+		then:
+		openedEntities.entities.size() == 1
+		openedEntities.entitiesByViewer["bob"].size() == 1
+
+		when:
+		openedEntities.removeView("TestCase", 10L, "bob")
+
+		then:
+		openedEntities.entities.isEmpty()
+		openedEntities.entitiesByViewer.isEmpty()
+	}
+
+	def "should remove all the views of a viewer"() {
+		given:
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+		openedEntities.addViewerToEntity("Requirement", 10L, "bob")
+		openedEntities.addViewerToEntity("Requirement", 10L, "mike")
+
+		when:
+		openedEntities.removeViewer("bob")
+
+		then:
+		openedEntities.entities.size() == 1
+		openedEntities.entitiesByViewer.keySet() == ["mike"] as Set
+		!openedEntities.addViewerToEntity("Requirement", 10L, "mike")
+	}
+
+	def "should expire the views which were not renewed"() {
+		given:
+		openedEntities.timeToLive = Duration.ZERO
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+		sleep(5)
+
+		when:
+		openedEntities.removeExpiredViews()
+
+		then:
+		openedEntities.entities.isEmpty()
+		openedEntities.entitiesByViewer.isEmpty()
+	}
+
+	def "should stop tracking new entities past the maximum"() {
+		given:
+		openedEntities.maxEntries = 1
+		openedEntities.addViewerToEntity("TestCase", 10L, "bob")
+
+		when:
+		def otherViewers = openedEntities.addViewerToEntity("TestCase", 11L, "mike")
+
+		then:
+		!otherViewers
+		openedEntities.entities.size() == 1
+		openedEntities.addViewerToEntity("TestCase", 10L, "mike")
+	}
+
+	@Unroll
+	def "should bind the time to live #value as #expected"() {
+		given:
+		def target = new TypeDescriptor(OpenedEntities.getDeclaredField("timeToLive"))
+
+		expect:
+		ApplicationConversionService.sharedInstance.convert(value, TypeDescriptor.valueOf(String), target) == expected
+
+		where:
+		value  | expected
+		"3600" | Duration.ofHours(1)
+		"30m"  | Duration.ofMinutes(30)
+	}
+
+}
@@ -0,0 +1,254 @@
+/**
+ *     This file is part of the Squashtest platform.
+ *     Copyright (C) Henix, henix.fr
+ *
+ *     See the NOTICE file distributed with this work for additional
+ *     information regarding copyright ownership.
+ *
+ *     This is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     this software is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this software.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.squashtest.tm.web.internal.report.job
+
+import org.springframework.security.core.Authentication
+import org.springframework.security.core.context.SecurityContextHolder
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.web.servlet.ModelAndView
+import org.springframework.web.servlet.View
+import org.squashtest.tm.api.report.Report
+import org.squashtest.tm.service.internal.hibernate.CommittedChangeCounter
+import org.squashtest.tm.web.internal.report.ReportsRegistry
+import org.squashtest.tm.web.internal.report.job.ReportJobProgress.Status
+import org.squashtest.tm.web.internal.report.service.UnsupportedFormatException
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+
+class ReportJobServiceTest extends Specification {
+
+	List<Runnable> queued = []
+	Executor executor = { queued << it } as Executor
+
+	ReportJobService service = new ReportJobService(executor)
+
+	ReportsRegistry reportsRegistry = Mock()
+	CommittedChangeCounter changeCounter = Mock()
+	Report report = Mock()
+	View view = Mock()
+
+	def setup() {
+		service.reportsRegistry = reportsRegistry
+		service.changeCounter = changeCounter
+		service.transactionManager = Mock(PlatformTransactionManager)
+		service.initialize()
+
+		reportsRegistry.findReport("report.csv") >> report
+		authenticate("batman")
+	}
+
+	def cleanup() {
+		SecurityContextHolder.clearContext()
+	}
+
+	def authenticate(String username) {
+		Authentication authentication = Mock()
+		authentication.name >> username
+		SecurityContextHolder.context.authentication = authentication
+	}
+
+	def runQueuedJobs() {
+		def jobs = new ArrayList<Runnable>(queued)
+		queued.clear()
+		jobs*.run()
+	}
+
+	def "should render the report in the background"() {
+		given:
+		report.buildModelAndView(0, "csv", [:]) >> new ModelAndView(view, [data: "foo"])
+
+		when:
+		def jobId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		then:
+		service.getProgress(jobId).status == Status.QUEUED
+
+		when:
+		runQueuedJobs()
+
+		then:
+		1 * view.render([data: "foo"], _, _) >> { model, request, response ->
+			assert request.locale == Locale.FRENCH
+			response.contentType = "text/csv"
+			response.setHeader("Content-Disposition", "attachment; filename=report.csv")
+			response.outputStream.write("a;b".bytes)
+		}
+
+		and:
+		service.getProgress(jobId).status == Status.COMPLETED
+
+		def result = service.getResult(jobId)
+		new String(result.content) == "a;b"
+		result.contentType == "text/csv"
+		result.contentDisposition == "attachment; filename=report.csv"
+	}
+
+	def "should reuse the rendered report as long as the data did not change"() {
+		given:
+		changeCounter.getVersion() >>> [1L, 1L, 2L]
+
+		when:
+		def firstId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		runQueuedJobs()
+
+		def secondId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		then:
+		1 * report.buildModelAndView(0, "csv", [:]) >> new ModelAndView(view, [:])
+		queued.empty
+		secondId != firstId
+		service.getProgress(secondId).status == Status.COMPLETED
+
+		when:
+		service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		then:
+		queued.size() == 1
+	}
+
+	def "should not start the same report twice while it is pending"() {
+		when:
+		def firstId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		def secondId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		then:
+		secondId == firstId
+		queued.size() == 1
+	}
+
+	def "should fail the job when the report cannot be rendered"() {
+		given:
+		report.buildModelAndView(0, "csv", [:]) >> { throw new IllegalArgumentException("no such view") }
+
+		when:
+		def jobId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		runQueuedJobs()
+
+		then:
+		def progress = service.getProgress(jobId)
+		progress.status == Status.FAILED
+		progress.failureMessage == "no such view"
+
+		when:
+		service.getResult(jobId)
+
+		then:
+		thrown IllegalStateException
+	}
+
+	def "should fail the job when the pool is saturated"() {
+		given:
+		def saturated = new ReportJobService({ throw new RejectedExecutionException() } as Executor)
+		saturated.reportsRegistry = reportsRegistry
+		saturated.changeCounter = changeCounter
+		saturated.initialize()
+
+		when:
+		def jobId = saturated.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		then:
+		saturated.getProgress(jobId).status == Status.FAILED
+	}
+
+	def "should not show a job to another user"() {
+		given:
+		def jobId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+
+		when:
+		authenticate("joker")
+		service.getProgress(jobId)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "should let go of the rendered report once downloaded and serve it again from the cache"() {
+		given:
+		report.buildModelAndView(0, "csv", [:]) >> new ModelAndView(view, [:])
+		view.render(*_) >> { model, request, response -> response.outputStream.write("a;b".bytes) }
+
+		and:
+		def jobId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		runQueuedJobs()
+
+		when:
+		def first = service.getResult(jobId)
+
+		then:
+		service.jobs[jobId].result == null
+
+		when:
+		def second = service.getResult(jobId)
+
+		then:
+		second.is(first)
+	}
+
+	def "should tell the report expired when it left the cache after the download"() {
+		given:
+		report.buildModelAndView(0, "csv", [:]) >> new ModelAndView(view, [:])
+
+		and:
+		def jobId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		runQueuedJobs()
+		service.getResult(jobId)
+
+		when:
+		service.results.clear()
+		service.getResult(jobId)
+
+		then:
+		def ex = thrown IllegalStateException
+		ex.message.contains "expired"
+	}
+
+	def "should forget the finished jobs and the expired results whenever it is used"() {
+		given:
+		report.buildModelAndView(0, "csv", [:]) >> new ModelAndView(view, [:])
+		service.resultTtl = 0
+
+		and:
+		def oldId = service.start("report.csv", 0, "csv", [:], "{}", Locale.FRENCH)
+		runQueuedJobs()
+		def pendingId = service.start("report.csv", 1, "csv", [:], "{}", Locale.FRENCH)
+
+		when:
+		service.jobs[oldId].lastUpdate -= ReportJobService.RETENTION_MILLIS + 1
+		sleep(5)
+		service.getProgress(pendingId)
+
+		then:
+		!service.jobs.containsKey(oldId)
+		service.jobs.containsKey(pendingId)
+		service.results.isEmpty()
+	}
+
+	def "should not render docx reports, which are assembled by the browser"() {
+		when:
+		service.start("report.csv", 0, "docx", [:], "{}", Locale.FRENCH)
+
+		then:
+		thrown UnsupportedFormatException
+	}
+
+}